@@ -6,6 +6,9 @@
  *                      org.fife.rtext.RText.
  *   - textArea:        The active text area, an instance of
  *                      org.fife.rtext.RTextEditorPane.
+ *   - bulkEdit:        Makes many edits to textArea at once, as a single
+ *                      undoable edit and without intermediate repaints.
+ *                      An instance of org.fife.rtext.BulkEdit.
  *
  * You can use the entire RText and RSyntaxTextArea public API's:
  *   http://javadoc.fifesoft.com/rtext/
@@ -15,9 +18,10 @@
 final def removeDuplicates = true // Change to "false" if you want to keep duplicates
 
 // Note: You'll want to consider wrapping your scripts inside calls to
-// beginAtomicEdit() and endAtomicEdit(), so the actions they perform can
-// be undone with a single Undo action.
-textArea.beginAtomicEdit()
+// bulkEdit.begin() and bulkEdit.end(), so the actions they perform can
+// be undone with a single Undo action, and the editor is only updated
+// once.
+bulkEdit.begin()
 try {
 
 	def lines = textArea.text.split("\n")
@@ -34,5 +38,5 @@ try {
 	textArea.text = lines.join("\n")
 
 } finally {
-	textArea.endAtomicEdit()
+	bulkEdit.end()
 }
@@ -22,14 +22,13 @@ import java.beans.PropertyChangeListener;
 import java.io.*;
 import java.net.URL;
 import java.util.*;
-import java.util.Timer;
+import java.util.List;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.event.EventListenerList;
 import javax.swing.event.HyperlinkEvent;
 import javax.swing.event.HyperlinkListener;
 import javax.swing.text.BadLocationException;
-import javax.swing.text.Caret;
 
 import org.fife.io.UnicodeWriter;
 import org.fife.rsta.ui.GoToDialog;
@@ -38,6 +37,9 @@ import org.fife.rtext.SearchManager.SearchingMode;
 import org.fife.rtext.actions.AbstractSearchAction;
 import org.fife.rtext.actions.CapsLockAction;
 import org.fife.rtext.actions.ToggleTextModeAction;
+import org.fife.rtext.jfr.FileOpenEvent;
+import org.fife.rtext.jfr.FileReloadEvent;
+import org.fife.rtext.jfr.FileSaveEvent;
 import org.fife.ui.UIUtil;
 import org.fife.ui.autocomplete.Util;
 import org.fife.ui.rsyntaxtextarea.ErrorStrip;
@@ -125,6 +127,15 @@ public abstract class AbstractMainView extends JPanel
 	protected RText owner;						// The owner of this tabbed panel.
 
 	private SyntaxFilters syntaxFilters;			// Used to decide how to syntax highlight a file.
+	private ContentTypeSniffer contentTypeSniffer;	// Guesses syntax style from file content.
+	private DocumentSaver documentSaver;			// Saves documents in the background.
+	private RecoveryJournal recoveryJournal;		// Journals unsaved edits.
+	private DocumentRegistry documentRegistry;		// Open documents by file.
+	private IncrementalMarkAll incrementalMarkAll;	// "Mark all" for large documents.
+
+	// Loops over all tabs, so coalesced via the owner's UpdateScheduler.
+	private final Runnable refreshDisplayNamesUpdate = this::refreshDisplayNames;
+	private final Runnable refreshTabIconsUpdate = this::refreshTabIcons;
 
 	private boolean highlightCurrentLine;			// Whether or not the current line is highlighted.
 	private Color currentLineColor;				// The color with which to highlight the current line.
@@ -172,6 +183,9 @@ public abstract class AbstractMainView extends JPanel
 
 	private boolean doFileSizeCheck;
 	private float maxFileSize;				// In MB.
+	private int undoHistoryMaxSize;			// In MB.
+	private int undoHistoryMaxSteps;
+	private int longLineThreshold;
 	private int maxFileSizeForCodeFolding;
 
 	private boolean ignoreBackupExtensions;
@@ -195,6 +209,19 @@ public abstract class AbstractMainView extends JPanel
 
 	private SpellingSupport spellingSupport;
 
+	/**
+	 * Windows editing files too large to open in a tab.  These are closed
+	 * along with the documents in this view.
+	 */
+	private List<LargeFileEditor> largeFileEditors = new ArrayList<>();
+
+	/**
+	 * The settings all open text areas currently have.  Changes to editor
+	 * settings are batched and applied to open text areas as a single diff.
+	 */
+	private EditorSettings appliedEditorSettings;
+	private boolean editorSettingsUpdatePending;
+
 	private ToggleTextModeAction toggleTextModeAction;
 	private CapsLockAction capsLockAction;
 
@@ -204,6 +231,12 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	private static Cursor macroCursor;
 
+	/**
+	 * The largest file that can be opened when memory is nearly exhausted,
+	 * in bytes.
+	 */
+	private static final long LOW_MEMORY_MAX_FILE_SIZE = 1024 * 1024;
+
 
 	/**
 	 * Constructor.<p>
@@ -220,16 +253,11 @@ public abstract class AbstractMainView extends JPanel
 		}
 
 		checkForModification = true;
-		Timer t = new Timer();
-		t.schedule(new TimerTask() {
-				@Override
-				public void run() {
-					checkFilesForOutsideModification();
-				}
-			},
-			modificationCheckDelay,	// Initial delay.
-			modificationCheckDelay);	// Check for files modified outside
-								// of the editor every 30 seconds.
+		// Check for files modified outside of the editor periodically
+		TaskScheduler.get().scheduleRepeating(TaskScheduler.Lane.BACKGROUND,
+				"ModificationCheck", modificationCheckDelay,
+				modificationCheckDelay,
+				token -> checkFilesForOutsideModification());
 
 	}
 
@@ -248,6 +276,19 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Adds a detector used to guess the syntax style of files whose names
+	 * don't map to one.  Detectors added here are consulted before the
+	 * built-in ones.
+	 *
+	 * @param detector The detector to add.
+	 * @see #removeContentTypeDetector(ContentTypeDetector)
+	 */
+	public void addContentTypeDetector(ContentTypeDetector detector) {
+		contentTypeSniffer.addDetector(detector);
+	}
+
+
 	/**
 	 * Adds a current text area listener.
 	 *
@@ -259,6 +300,18 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Registers a window editing a file too large to open in a tab, so it
+	 * is closed along with the documents in this view.
+	 *
+	 * @param editor The window.
+	 * @see #removeLargeFileEditor(LargeFileEditor)
+	 */
+	void addLargeFileEditor(LargeFileEditor editor) {
+		largeFileEditors.add(editor);
+	}
+
+
 	/**
 	 * Adds an empty text file to this tabbed pane.  This method is
 	 * synchronized so it doesn't interfere with the thread checking for
@@ -304,6 +357,7 @@ public abstract class AbstractMainView extends JPanel
 		currentTextArea.applyComponentOrientation(getTextAreaOrientation());
 		addTextAreaImpl(currentTextArea.getFileName(), scrollPane,
 								currentTextArea.getFileFullPath());
+		documentRegistry.add(currentTextArea);
 
 		// Let anybody who cares know we've opened this file.
 		firePropertyChange(TEXT_AREA_ADDED_PROPERTY, null, currentTextArea);
@@ -344,6 +398,7 @@ public abstract class AbstractMainView extends JPanel
 
 		// REMEMBER: currentTextArea has just been updated by
 		// addTextAreaImpl() above!!
+		documentRegistry.add(textArea);
 
 		// Let anybody who cares know we've opened this file.
 		firePropertyChange(TEXT_AREA_ADDED_PROPERTY, null, currentTextArea);
@@ -392,6 +447,15 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Waits for all documents being saved in the background to finish
+	 * saving.  Any that fail to save are left dirty.
+	 */
+	public void awaitPendingSaves() {
+		documentSaver.awaitPendingSaves();
+	}
+
+
 	/**
 	 * Checks the "modified" timestamps for open files against the last known
 	 * "modified" timestamps to see if any files have been modified outside of
@@ -448,6 +512,12 @@ public abstract class AbstractMainView extends JPanel
 	 *         <code>false</code> if they weren't (i.e., the user hit cancel).
 	 */
 	public boolean closeAllDocuments() {
+		// Copy the list, since closing an editor removes it
+		for (LargeFileEditor editor : new ArrayList<>(largeFileEditors)) {
+			if (!editor.tryClose()) {
+				return false;
+			}
+		}
 		return closeAllDocumentsExcept(-1);
 	}
 
@@ -511,9 +581,12 @@ public abstract class AbstractMainView extends JPanel
 	public final boolean closeCurrentDocument() {
 
 		RTextEditorPane old = currentTextArea;
+		documentSaver.awaitPendingSave(old);
 		boolean closed = closeCurrentDocumentImpl();
 
 		if (closed) {
+			documentRegistry.remove(old);
+			recoveryJournal.untrack(old);
 			old.clearParsers();
 			firePropertyChange(TEXT_AREA_REMOVED_PROPERTY, null, old);
 		}
@@ -534,6 +607,47 @@ public abstract class AbstractMainView extends JPanel
 	protected abstract boolean closeCurrentDocumentImpl();
 
 
+	/**
+	 * Records a file being opened for Java Flight Recorder.
+	 *
+	 * @param event The event, which was begun before the file was read.
+	 * @param pane The text area the file was loaded into.
+	 */
+	private static void commitFileOpenEvent(FileOpenEvent event,
+											RTextEditorPane pane) {
+		if (event.shouldCommit()) {
+			String path = pane.getFileFullPath();
+			event.setPath(path);
+			event.setFileSize(pane.isLocal() ? new File(path).length() : -1);
+			event.setLength(pane.getDocument().getLength());
+			event.setEncoding(pane.getEncoding());
+			event.setSyntaxStyle(pane.getSyntaxEditingStyle());
+			event.commit();
+		}
+	}
+
+
+	/**
+	 * Configures the features of a text area that depend on its content:
+	 * long-line mode, the syntax style and code folding.  This is called
+	 * when the text area's file is loaded.
+	 *
+	 * @param pane The text area.
+	 * @param sample The start of the file, read before it was loaded.  If
+	 *        this is <code>null</code>, the text area's content is examined
+	 *        instead.
+	 */
+	private void configureForContent(RTextEditorPane pane, ContentSample sample) {
+		if (longLineThreshold>0 && RTextUtilities.getLongestLineLength(
+				pane.getDocument())>=longLineThreshold) {
+			pane.setLongLineMode(true);
+		}
+		setSyntaxStyle(pane, getSyntaxStyleForFile(pane.getFileName()), sample);
+		setCodeFoldingEnabledForTextArea(pane,
+				isCodeFoldingEnabledFor(pane.getSyntaxEditingStyle()));
+	}
+
+
 	/**
 	 * Converts all instances of a number of spaces equal to a tab in all open
 	 * documents into tabs.
@@ -541,8 +655,10 @@ public abstract class AbstractMainView extends JPanel
 	 * @see #convertOpenFilesTabsToSpaces
 	 */
 	public void convertOpenFilesSpacesToTabs() {
-		for (int i=0; i<getNumDocuments(); i++)
-			getRTextEditorPaneAt(i).convertSpacesToTabs();
+		for (int i=0; i<getNumDocuments(); i++) {
+			RTextEditorPane textArea = getRTextEditorPaneAt(i);
+			new BulkEdit(textArea).run(textArea::convertSpacesToTabs);
+		}
 	}
 
 
@@ -553,14 +669,21 @@ public abstract class AbstractMainView extends JPanel
 	 * @see #convertOpenFilesSpacesToTabs
 	 */
 	public void convertOpenFilesTabsToSpaces() {
-		for (int i=0; i<getNumDocuments(); i++)
-			getRTextEditorPaneAt(i).convertTabsToSpaces();
+		for (int i=0; i<getNumDocuments(); i++) {
+			RTextEditorPane textArea = getRTextEditorPaneAt(i);
+			new BulkEdit(textArea).run(textArea::convertTabsToSpaces);
+		}
 	}
 
 
 	public void copyData(AbstractMainView fromPanel) {
 
+		// Ensure all text areas we're taking over are up-to-date.
+		fromPanel.flushEditorSettings();
+		appliedEditorSettings = fromPanel.appliedEditorSettings;
+
 		currentTextArea = fromPanel.currentTextArea;
+		largeFileEditors = fromPanel.largeFileEditors;
 
 		searchManager		= fromPanel.searchManager;
 		searchContext		= fromPanel.searchContext;
@@ -595,6 +718,11 @@ public abstract class AbstractMainView extends JPanel
 
 		owner			= fromPanel.owner;
 		syntaxFilters		= fromPanel.syntaxFilters;
+		contentTypeSniffer	= fromPanel.contentTypeSniffer;
+		documentSaver		= fromPanel.documentSaver;
+		recoveryJournal		= fromPanel.recoveryJournal;
+		documentRegistry	= fromPanel.documentRegistry;
+		incrementalMarkAll	= fromPanel.incrementalMarkAll;
 
 		highlightCurrentLine = fromPanel.highlightCurrentLine;
 		currentLineColor = fromPanel.currentLineColor;
@@ -643,6 +771,9 @@ public abstract class AbstractMainView extends JPanel
 
 		doFileSizeCheck = fromPanel.doFileSizeCheck;
 		maxFileSize = fromPanel.maxFileSize;
+		undoHistoryMaxSize = fromPanel.undoHistoryMaxSize;
+		undoHistoryMaxSteps = fromPanel.undoHistoryMaxSteps;
+		longLineThreshold = fromPanel.longLineThreshold;
 		maxFileSizeForCodeFolding = fromPanel.maxFileSizeForCodeFolding;
 
 		ignoreBackupExtensions = fromPanel.ignoreBackupExtensions;
@@ -733,60 +864,60 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	private RTextEditorPane createRTextEditorPane(FileLocation loc,
 				String encoding) throws IOException {
+		return createRTextEditorPane(loc, encoding, false);
+	}
 
-		String style = getSyntaxStyleForFile(loc.getFileName());
-		RTextEditorPane pane = new RTextEditorPane(owner, lineWrapEnabled,
-												textMode, loc, encoding);
 
-		// Set some properties.
-		pane.setFont(getTextAreaFont());
-		//pane.setUnderline(textAreaUnderline);
-		pane.setForeground(getTextAreaForeground());
+	/**
+	 * Returns an editor pane to add to this main view.
+	 *
+	 * @param loc The location of the file to add.
+	 * @param encoding The encoding of the file.
+	 * @param deferLoad Whether to put off reading the file until the editor
+	 *        is shown.
+	 * @return An editor pane.
+	 * @throws IOException If an IO error occurs reading the file to load.
+	 * @see #loadDeferredTextArea(RTextEditorPane)
+	 */
+	private RTextEditorPane createRTextEditorPane(FileLocation loc,
+				String encoding, boolean deferLoad) throws IOException {
+
+		FileOpenEvent event = new FileOpenEvent();
+		event.begin();
+
+		// Sniff the start of the file before loading it, so binary content
+		// is recognized from its bytes.  Deferred files are sniffed from
+		// their text once loaded, so restoring them doesn't read them.
+		ContentSample sample = null;
+		if (!deferLoad) {
+			try {
+				sample = ContentSample.read(loc, encoding);
+			} catch (IOException ioe) {
+				// Reported when the editor tries to load the file
+			}
+		}
+
+		RTextEditorPane pane;
+		try {
+			pane = new RTextEditorPane(owner, lineWrapEnabled, textMode,
+										loc, encoding, deferLoad);
+		} catch (IOException | RuntimeException e) {
+			event.setPath(loc.getFileFullPath());
+			event.setFailed(e);
+			event.commit();
+			throw e;
+		}
+
+		// Set some properties.  The pane isn't displayed yet, so all shared
+		// settings are applied in one pass without any relayouts.
+		pane.setEditorSettings(getEditorSettings());
 		pane.setBackgroundObject(getBackgroundObject());
-		pane.setTabSize(getTabSize());
-		pane.setHighlightCurrentLine(highlightCurrentLine);
-		pane.setCurrentLineHighlightColor(getCurrentLineHighlightColor());
-		pane.setMarginLineEnabled(marginLineEnabled);
-		pane.setMarginLinePosition(getMarginLinePosition());
-		pane.setMarginLineColor(getMarginLineColor());
-		pane.setHighlightSecondaryLanguages(getHighlightSecondaryLanguages());
-		for (int i=0; i<secondaryLanguageColors.length; i++) {
-			pane.setSecondaryLanguageBackground(i+1, getSecondaryLanguageColor(i));
-		}
-		pane.setMarkAllHighlightColor(getMarkAllHighlightColor());
-		pane.setMarkOccurrences(getMarkOccurrences());
-		pane.setMarkOccurrencesColor(getMarkOccurrencesColor());
-		setSyntaxStyle(pane, style);
-		pane.setBracketMatchingEnabled(isBracketMatchingEnabled());
-		pane.setPaintMatchedBracketPair(getMatchBothBrackets());
-		pane.setMatchedBracketBGColor(getMatchedBracketBGColor());
-		pane.setMatchedBracketBorderColor(getMatchedBracketBorderColor());
-		if (defaultLineTerminator!=null &&
+		configureForContent(pane, sample);
+		if (defaultLineTerminator!=null && !deferLoad &&
 				pane.getDocument().getLength()==0) {
 			// Empty (or new) file => use default line terminator.
 			pane.setLineSeparator(defaultLineTerminator, false);
 		}
-		pane.setWhitespaceVisible(isWhitespaceVisible());
-		pane.setPaintTabLines(getShowTabLines());
-		pane.setTabLineColor(getTabLinesColor());
-		pane.setEOLMarkersVisible(getShowEOLMarkers());
-		pane.setClearWhitespaceLinesEnabled(!rememberWhitespaceLines);
-		pane.setCloseCurlyBraces(autoInsertClosingCurlys);
-		pane.setCaretColor(getCaretColor());
-		pane.setSelectionColor(getSelectionColor());
-		pane.setSelectedTextColor(getSelectedTextColor());
-		pane.setUseSelectedTextColor(getUseSelectedTextColor());
-		pane.setSyntaxScheme(owner.getSyntaxScheme());
-		pane.setHyperlinksEnabled(getHyperlinksEnabled());
-		pane.setHyperlinkForeground(getHyperlinkColor());
-		pane.setLinkScanningMask(getHyperlinkModifierKey());
-		pane.setRoundedSelectionEdges(getRoundedSelectionEdges());
-		pane.setCaretStyle(RTextEditorPane.INSERT_MODE,
-							carets[RTextEditorPane.INSERT_MODE]);
-		pane.setCaretStyle(RTextEditorPane.OVERWRITE_MODE,
-							carets[RTextEditorPane.OVERWRITE_MODE]);
-		pane.getCaret().setBlinkRate(getCaretBlinkRate());
-		//pane.setFadeCurrentLineHighlight(fadeCurrentLineHighlight);
 
 		// If we're in the middle of recording a macro, make the cursor
 		// appropriate on this guy.
@@ -794,21 +925,18 @@ public abstract class AbstractMainView extends JPanel
 			pane.setCursor(getMacroCursor());
 		}
 
-		// Other properties.
-		pane.setTabsEmulated(emulateTabsWithWhitespace);
-		pane.setAntiAliasingEnabled(aaEnabled);
-		pane.setFractionalFontMetricsEnabled(isFractionalFontMetricsEnabled());
 		// orientation is done later to override scroll pane's
 		// applyComponentOrientation(...).
 		//pane.applyComponentOrientation(getTextAreaOrientation());
 
-		setCodeFoldingEnabledForTextArea(pane, isCodeFoldingEnabledFor(style));
-
-		// Listeners.
+		// Listeners.  Deferred files are journaled once they're loaded.
 		pane.addPropertyChangeListener(owner);
 		pane.addPropertyChangeListener((StatusBar)owner.getStatusBar());
 		pane.addPropertyChangeListener(this);
 		pane.addHyperlinkListener(this);
+		if (!deferLoad) {
+			recoveryJournal.track(pane);
+		}
 
 		// Add any parsers.
 		if (spellingSupport.isSpellCheckingEnabled()) {
@@ -823,6 +951,9 @@ public abstract class AbstractMainView extends JPanel
 		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_CAPS_LOCK, 0), "OnCapsLock");
 		am.put("OnCapsLock", capsLockAction);
 
+		if (!deferLoad) {
+			commitFileOpenEvent(event, pane);
+		}
 		return pane;
 
 	}
@@ -867,6 +998,26 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Called whenever a setting captured by {@link EditorSettings} changes.
+	 * Rather than updating every open text area immediately, a single update
+	 * is queued on the EDT, so changing many settings at once (e.g. clicking
+	 * "Apply" in the Options dialog) results in one pass over all documents.
+	 *
+	 * @see #flushEditorSettings()
+	 */
+	private void editorSettingsChanged() {
+		if (!editorSettingsUpdatePending) {
+			editorSettingsUpdatePending = true;
+			SwingUtilities.invokeLater(() -> {
+				if (editorSettingsUpdatePending) {
+					flushEditorSettings();
+				}
+			});
+		}
+	}
+
+
 	/**
 	 * Ensures at least 1 file is open.
 	 */
@@ -940,15 +1091,49 @@ public abstract class AbstractMainView extends JPanel
 		// those that are interested in this event.
 		for (int i = listeners.length-2; i>=0; i-=2) {
 			if (listeners[i]==CurrentTextAreaListener.class) {
-				((CurrentTextAreaListener)listeners[i+1]).
-					currentTextAreaPropertyChanged(
+				CurrentTextAreaListener l = (CurrentTextAreaListener)listeners[i+1];
+				if (l instanceof DeferredCurrentTextAreaListener) {
+					fireDeferredCurrentTextAreaEvent(l, type, oldValue, newValue);
+				}
+				else {
+					l.currentTextAreaPropertyChanged(
 						new CurrentTextAreaEvent(this, type,
 											oldValue, newValue));
+				}
 			}
 		}
 	}
 
 
+	/**
+	 * Schedules delivery of an event to a listener that opted into deferred
+	 * delivery.  If an event of the same type is already pending for that
+	 * listener, the two are merged.
+	 *
+	 * @param l The listener.
+	 * @param type The type of event to fire.
+	 * @param oldValue The old value.
+	 * @param newValue The new value.
+	 */
+	private void fireDeferredCurrentTextAreaEvent(CurrentTextAreaListener l,
+			int type, Object oldValue, Object newValue) {
+
+		UpdateScheduler scheduler = owner.getUpdateScheduler();
+		List<Object> target = Arrays.asList(l, type);
+
+		// Keep the old value from the first event being merged.
+		Runnable pending = scheduler.getPending(target);
+		if (pending instanceof DeferredEvent) {
+			oldValue = ((DeferredEvent)pending).event.getOldValue();
+		}
+
+		CurrentTextAreaEvent e = new CurrentTextAreaEvent(this, type,
+				oldValue, newValue);
+		scheduler.schedule(target, new DeferredEvent(l, e));
+
+	}
+
+
 	/**
 	 * Returns the color to use for the "active line range" of editors.  The
 	 * user currently cannot set this, but we try to be smart and pick a good
@@ -977,6 +1162,18 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns whether files are saved by writing a temporary file that then
+	 * replaces the original.
+	 *
+	 * @return Whether saves are atomic.
+	 * @see #setAtomicSaves(boolean)
+	 */
+	public boolean getAtomicSaves() {
+		return documentSaver.getAtomicSaves();
+	}
+
+
 	/**
 	 * Returns whether closing curly braces are auto-inserted in languages
 	 * where it is appropriate.
@@ -989,6 +1186,19 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the document length above which a text area's folds are
+	 * parsed in the background.
+	 *
+	 * @param size The maximum file size for parsing folds on the EDT, in MB.
+	 * @return The threshold, in characters.
+	 * @see RTextEditorPane#setBackgroundFoldThreshold(int)
+	 */
+	private static int getBackgroundFoldThreshold(int size) {
+		return (int)Math.min(Integer.MAX_VALUE, size * 1024L * 1024);
+	}
+
+
 	/**
 	 * Returns the alpha value used to make the background image translucent.
 	 * This value does NOT change the background if no image is used (i.e., if
@@ -1170,6 +1380,17 @@ public abstract class AbstractMainView extends JPanel
 	public abstract String getDocumentDisplayNameAt(int index);
 
 
+	/**
+	 * Returns the index of open documents by file.  This can be used to look
+	 * up documents from any thread.
+	 *
+	 * @return The document registry.
+	 */
+	public DocumentRegistry getDocumentRegistry() {
+		return documentRegistry;
+	}
+
+
 	/**
 	 * Returns the location of the document selection area of this component.
 	 *
@@ -1178,6 +1399,44 @@ public abstract class AbstractMainView extends JPanel
 	public abstract int getDocumentSelectionPlacement();
 
 
+	/**
+	 * Immediately applies any pending editor setting changes to all open
+	 * text areas.  Normally such changes are applied automatically, in a
+	 * single batch, after the current EDT event completes.  Only the
+	 * settings that actually changed are touched, and text areas that
+	 * aren't showing are only updated when they are next shown.
+	 */
+	public void flushEditorSettings() {
+
+		editorSettingsUpdatePending = false;
+		EditorSettings old = appliedEditorSettings;
+		EditorSettings current = new EditorSettings(this);
+		appliedEditorSettings = current;
+
+		if (old!=null) {
+			int count = getNumDocuments();
+			for (int i=0; i<count; i++) {
+				getRTextEditorPaneAt(i).setEditorSettings(current);
+			}
+		}
+
+	}
+
+
+	/**
+	 * Returns the editor settings to apply to a new text area.  Any pending
+	 * changes are applied to open text areas first.
+	 *
+	 * @return The editor settings.
+	 */
+	EditorSettings getEditorSettings() {
+		if (editorSettingsUpdatePending || appliedEditorSettings==null) {
+			flushEditorSettings();
+		}
+		return appliedEditorSettings;
+	}
+
+
 	/**
 	 * Returns the index of the specified document.
 	 *
@@ -1186,11 +1445,19 @@ public abstract class AbstractMainView extends JPanel
 	 *         is not being edited.
 	 */
 	public int getFileIndex(String fileFullPath) {
+
+		List<RTextEditorPane> textAreas = documentRegistry.getTextAreas(fileFullPath);
+		if (textAreas.isEmpty()) {
+			return -1;
+		}
+
+		// Only identity checks from here on
 		for (int i=0; i<getNumDocuments(); i++) {
-			if (getRTextEditorPaneAt(i).getFileFullPath().equals(fileFullPath))
+			if (textAreas.contains(getRTextEditorPaneAt(i)))
 				return i;
 		}
 		return -1;
+
 	}
 
 
@@ -1227,6 +1494,32 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns whether a file is too large to open because memory is
+	 * nearly exhausted.  If it is, the user is told so.
+	 *
+	 * @param fileName The file to check.
+	 * @return Whether the file shouldn't be opened.
+	 * @see MemoryPressureMonitor
+	 */
+	private boolean getFileNeedsTooMuchMemory(String fileName) {
+		if (MemoryPressureMonitor.get().isAtLeast(MemoryPressureMonitor.Level.CRITICAL)) {
+			File file = new File(fileName);
+			if (file.length()>LOW_MEMORY_MAX_FILE_SIZE) {
+				String desc = owner.getString("LowMemoryCantOpenFile",
+										file.getAbsolutePath());
+				JOptionPane.showMessageDialog(this, desc,
+					owner.getString("ErrorDialogTitle"),
+					JOptionPane.ERROR_MESSAGE);
+				// Keep at least 1 document open.
+				ensureFilesAreOpened();
+				return true;
+			}
+		}
+		return false;
+	}
+
+
 	/**
 	 * Returns the Find in Files dialog, lazily creating it if necessary.
 	 *
@@ -1427,6 +1720,19 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the line length at which files are opened in long-line mode.
+	 *
+	 * @return The line length, in characters.  <code>0</code> means
+	 *         long-line mode is never used.
+	 * @see #setLongLineThreshold(int)
+	 * @see RTextEditorPane#isLongLineMode()
+	 */
+	public int getLongLineThreshold() {
+		return longLineThreshold;
+	}
+
+
 	/**
 	 * Returns the cursor to use when a macro is being recorded.
 	 *
@@ -1582,9 +1888,8 @@ public abstract class AbstractMainView extends JPanel
 
 
 	/**
-	 * Returns the maximum size a file can be before code folding
-	 * is never performed for it, even if code folding is enabled
-	 * for its file type.
+	 * Returns the maximum size a file can be before its code folds are
+	 * parsed on a background thread instead of the EDT.
 	 *
 	 * @return The maximum file size, in MB.
 	 * @see #setMaxFileSizeForCodeFolding(int)
@@ -1651,6 +1956,16 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the journal of unsaved edits used for crash recovery.
+	 *
+	 * @return The recovery journal.
+	 */
+	public RecoveryJournal getRecoveryJournal() {
+		return recoveryJournal;
+	}
+
+
 	/**
 	 * Returns whether whitespace lines are remembered (as opposed to cleared
 	 * on Enter presses).
@@ -1810,6 +2125,18 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns whether saved files are forced to the storage device before
+	 * the save is considered complete.
+	 *
+	 * @return Whether saves are synced.
+	 * @see #setSyncOnSave(boolean)
+	 */
+	public boolean getSyncOnSave() {
+		return documentSaver.getSyncOnSave();
+	}
+
+
 	/**
 	 * Returns the syntax filters being used to open documents (i.e., to decide
 	 * what syntax highlighting color scheme, if any, to use when opening
@@ -1916,6 +2243,31 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the most memory each text area's undo history may use.
+	 *
+	 * @return The maximum size, in MB.  <code>0</code> means there is no
+	 *         limit.
+	 * @see #setUndoHistoryMaxSize(int)
+	 * @see #getUndoHistoryMaxSteps()
+	 */
+	public int getUndoHistoryMaxSize() {
+		return undoHistoryMaxSize;
+	}
+
+
+	/**
+	 * Returns the most steps that can be undone in each text area.
+	 *
+	 * @return The maximum number of undoable steps.
+	 * @see #setUndoHistoryMaxSteps(int)
+	 * @see #getUndoHistoryMaxSize()
+	 */
+	public int getUndoHistoryMaxSteps() {
+		return undoHistoryMaxSteps;
+	}
+
+
 	/**
 	 * Returns whether text areas are honoring their "selected text color", as
 	 * opposed to just rendering token styles even for selected tokens.
@@ -1945,67 +2297,23 @@ public abstract class AbstractMainView extends JPanel
 	 * it contains "<code>#!</code>" at the top).
 	 *
 	 * @param pane The pane to examine.
+	 * @see ContentTypeSniffer
 	 */
-	private static void guessContentType(RTextEditorPane pane) {
-
-		String style = SyntaxConstants.SYNTAX_STYLE_NONE;
+	private void guessContentType(RTextEditorPane pane) {
 
-		String firstLine;
+		int docLen = pane.getDocument().getLength();
+		int len = Math.min(docLen, ContentSample.SAMPLE_SIZE);
+		String text;
 		try {
-			int endOffs = pane.getLineEndOffset(0);
-			if (pane.getLineCount()>1) {
-				endOffs--;
-			}
-			firstLine = pane.getText(0, endOffs);
+			text = pane.getText(0, len);
 		} catch (BadLocationException ble) { // Never happens
 			ble.printStackTrace();
 			return;
 		}
 
-		if (firstLine.startsWith("#!")) {
-
-			// Determine the program name.  Take special care for
-			// the case of "#!/usr/bin/env progname".
-			int space = firstLine.indexOf(' ', 2);
-			if (space>-1) {
-				if (firstLine.startsWith("#!/usr/bin/env")) {
-					int space2 = firstLine.indexOf(' ', space+1);
-					if (space2==-1) { // Never happens in "correct" #!'s
-						space2 = firstLine.length();
-					}
-					firstLine = firstLine.substring(space+1, space2);
-				}
-				else {
-					firstLine = firstLine.substring(2, space);
-				}
-			}
-
-			if (firstLine.endsWith("sh")) { // ksh, bash, sh, ...
-				style = SyntaxConstants.SYNTAX_STYLE_UNIX_SHELL;
-			}
-			else if (firstLine.endsWith("perl")) {
-				style = SyntaxConstants.SYNTAX_STYLE_PERL;
-			}
-			else if (firstLine.endsWith("php")) {
-				style = SyntaxConstants.SYNTAX_STYLE_PHP;
-			}
-			else if (firstLine.endsWith("python")) {
-				style = SyntaxConstants.SYNTAX_STYLE_PYTHON;
-			}
-			else if (firstLine.endsWith("lua")) {
-				style = SyntaxConstants.SYNTAX_STYLE_LUA;
-			}
-			else if (firstLine.endsWith("ruby")) {
-				style = SyntaxConstants.SYNTAX_STYLE_RUBY;
-			}
-
-		}
-
-		else if (firstLine.startsWith("<?xml") && firstLine.endsWith("?>")) {
-			style = SyntaxConstants.SYNTAX_STYLE_XML;
-		}
-
-		pane.setSyntaxEditingStyle(style);
+		ContentSample sample = ContentSample.fromText(pane.getFileName(),
+				text, len==docLen);
+		pane.setSyntaxEditingStyle(contentTypeSniffer.getSyntaxStyle(sample));
 
 	}
 
@@ -2114,7 +2422,18 @@ public abstract class AbstractMainView extends JPanel
 					if (f.isFile()) { // Should always be true.
 						int line = currentTextArea.getLineOfOffset(
 								currentTextArea.getCaretPosition());
-						currentTextArea.reload();
+						FileReloadEvent event = new FileReloadEvent();
+						event.begin();
+						try {
+							currentTextArea.reload();
+						} catch (IOException | RuntimeException e) {
+							event.setFailed(e);
+							throw e;
+						} finally {
+							event.setPath(currentTextArea.getFileFullPath());
+							event.setLength(currentTextArea.getDocument().getLength());
+							event.commit();
+						}
 						int lineCount = currentTextArea.getLineCount();
 						line = Math.min(line, lineCount-1);
 						int offs = currentTextArea.getLineStartOffset(line);
@@ -2151,6 +2470,23 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Frees the memory used by open documents that aren't being edited.
+	 * The undo history of each unmodified document other than the current
+	 * one is discarded.  This is called when memory is low.
+	 *
+	 * @see MemoryPressureMonitor
+	 */
+	public void hibernateIdleTextAreas() {
+		for (int i=0; i<getNumDocuments(); i++) {
+			RTextEditorPane textArea = getRTextEditorPaneAt(i);
+			if (textArea!=currentTextArea && !textArea.isDirty()) {
+				textArea.hibernate();
+			}
+		}
+	}
+
+
 	/**
 	 * Returns whether this panel is highlighting modified documents' display
 	 * names with a different color.
@@ -2256,6 +2592,13 @@ public abstract class AbstractMainView extends JPanel
 		setWriteBOMInUtf8Files(prefs.bomInUtf8);
 
 		syntaxFilters = new SyntaxFilters(prefs.syntaxFiltersString);
+		contentTypeSniffer = new ContentTypeSniffer();
+		documentSaver = new DocumentSaver(owner);
+		recoveryJournal = new RecoveryJournal(owner);
+		documentRegistry = new DocumentRegistry();
+		incrementalMarkAll = new IncrementalMarkAll(owner);
+		setAtomicSaves(prefs.atomicSaves);
+		setSyncOnSave(prefs.syncOnSave);
 
 		searchContext = new FindInFilesSearchContext();
 
@@ -2277,6 +2620,9 @@ public abstract class AbstractMainView extends JPanel
 		setCaretStyle(RTextArea.INSERT_MODE, CaretStyle.values()[prefs.carets[0]]);
 		setCaretStyle(RTextArea.OVERWRITE_MODE, CaretStyle.values()[prefs.carets[1]]);
 		setCaretBlinkRate(prefs.caretBlinkRate);
+		setUndoHistoryMaxSize(prefs.undoHistoryMaxSize);
+		setUndoHistoryMaxSteps(prefs.undoHistoryMaxSteps);
+		setLongLineThreshold(prefs.longLineThreshold);
 		setLineTerminator(prefs.defaultLineTerminator);
 		setDefaultEncoding(prefs.defaultEncoding);
 		setGuessFileContentType(prefs.guessFileContentType);
@@ -2294,8 +2640,13 @@ public abstract class AbstractMainView extends JPanel
 		setLineNumberFont(prefs.lineNumberFont);
 		setLineNumberColor(prefs.lineNumberColor);
 		setGutterBorderColor(prefs.gutterBorderColor);
-		spellingSupport = new SpellingSupport(owner);
-		spellingSupport.configure(prefs); // Do this BEFORE opening any files!
+		StartupTracer.Span span = StartupTracer.get().begin(StartupTracer.INIT, "SpellingSupport.configure");
+		try {
+			spellingSupport = new SpellingSupport(owner);
+			spellingSupport.configure(prefs); // Do this BEFORE opening any files!
+		} finally {
+			span.end();
+		}
 
 		toggleTextModeAction = new ToggleTextModeAction(owner);
 		capsLockAction = new CapsLockAction(owner);
@@ -2413,6 +2764,31 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Reads the file of a text area whose loading was deferred.  This is
+	 * called when the text area is first shown.  If the file can't be read,
+	 * the error is reported and the tab stays empty.
+	 *
+	 * @param textArea The text area.
+	 * @see #openFileDeferred(FileLocation, String)
+	 */
+	void loadDeferredTextArea(RTextEditorPane textArea) {
+		FileOpenEvent event = new FileOpenEvent();
+		event.begin();
+		try {
+			textArea.loadDeferred();
+		} catch (IOException ioe) {
+			event.setPath(textArea.getFileFullPath());
+			event.setFailed(ioe);
+			event.commit();
+			handleAddTextFileIOException(
+					FileLocation.create(textArea.getFileFullPath()), ioe, true);
+			return;
+		}
+		commitFileOpenEvent(event, textArea);
+	}
+
+
 	/**
 	 * Loads a macro.  This macro will be loaded into all currently-open
 	 * <code>RTextEditorPane</code>s, as well as all editor panes opened
@@ -2438,6 +2814,34 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Adds a tab for a file without reading the file.  The file is loaded
+	 * the first time its tab is shown, so many files can be reopened at
+	 * once, e.g. when restoring a session, without reading them all.
+	 *
+	 * @param loc The location of the file to add.  This should be a local
+	 *        file that exists, or a remote file.
+	 * @param charSet The encoding to use when reading/writing this file,
+	 *        or <code>null</code> to detect it when the file is read.
+	 * @return The text area, which is empty until the file is loaded.
+	 * @see RTextEditorPane#isLoadDeferred()
+	 */
+	RTextEditorPane openFileDeferred(FileLocation loc, String charSet) {
+
+		removeEmptyUntitledDocument();
+
+		RTextEditorPane textArea;
+		try {
+			textArea = createRTextEditorPane(loc, charSet, true);
+		} catch (IOException ioe) { // Never happens, nothing is read
+			throw new IllegalStateException(ioe);
+		}
+		addTextArea(textArea);
+		return textArea;
+
+	}
+
+
 	/**
 	 * Adds a file to this tabbed pane.  This method is synchronized so it
 	 * doesn't interfere with the thread checking for files being modified
@@ -2456,26 +2860,15 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public boolean openFile(FileLocation loc, String charSet, boolean reuse) {
 
-		// If the only document open is untitled and empty, remove
-		// (and thus replace) replace it.
-		if (getNumDocuments()==1 &&
-			currentTextArea.getFileName().equals(owner.getNewFileName()) &&
-			currentTextArea.getDocument().getLength()==0 &&
-				!currentTextArea.isDirty()) {
-				removeComponentAt(0);
-		}
+		removeEmptyUntitledDocument();
 
 		// If desired, reuse a text area already opened to this file if
 		// there is one.
 		if (reuse) {
-			String fileNameAndPath = loc.getFileFullPath();
-			int count = getNumDocuments(); // May have changed from above.
-			for (int i=0; i<count; i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				if (textArea.getFileFullPath().equals(fileNameAndPath)) {
-					setSelectedIndex(i);
-					return true;
-				}
+			int index = getFileIndex(loc.getFileFullPath());
+			if (index>-1) {
+				setSelectedIndex(index);
+				return true;
 			}
 		}
 
@@ -2484,9 +2877,20 @@ public abstract class AbstractMainView extends JPanel
 		// If opening a local file that exists, or a remote file...
 		if (loc.isLocalAndExists() || loc.isRemote()) {
 
+			// Files too large for a tab get their own window
+			if (loc.isLocal() && LargeFileEditor.isLargeFile(new File(fileFullPath))) {
+				LargeFileEditor.open(owner, new File(fileFullPath), charSet,
+						ioe -> handleAddTextFileIOException(loc, ioe, true));
+				ensureFilesAreOpened();
+				return true;
+			}
+
 			if (loc.isLocal() && getFileIsTooLarge(fileFullPath)) {
 				return false;
 			}
+			if (loc.isLocal() && getFileNeedsTooMuchMemory(fileFullPath)) {
+				return false;
+			}
 
 			try {
 				RTextEditorPane tempTextArea = createRTextEditorPane(
@@ -2645,6 +3049,13 @@ public abstract class AbstractMainView extends JPanel
 					e.getOldValue(), e.getNewValue());
 				break;
 
+			// A tab restored without reading its file was shown
+			case RTextEditorPane.DEFERRED_LOAD_PROPERTY:
+				RTextEditorPane loaded = (RTextEditorPane)e.getSource();
+				configureForContent(loaded, null);
+				recoveryJournal.track(loaded);
+				break;
+
 			// If the highlighting style of the current file changed...
 			case RTextEditorPane.SYNTAX_STYLE_PROPERTY:
 				fireCurrentTextAreaEvent(
@@ -2653,7 +3064,7 @@ public abstract class AbstractMainView extends JPanel
 				break;
 
 			case RText.ICON_STYLE_PROPERTY:
-				refreshTabIcons();
+				owner.getUpdateScheduler().schedule(refreshTabIconsUpdate);
 				break;
 		}
 
@@ -2693,44 +3104,21 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public void renumberDisplayNames() {
 
-		// Go through and renumber any tab headings, if necessary.
-		int numDocuments = getNumDocuments();
-		if (numDocuments>0) {
-
-			boolean[] doneYet = new boolean[numDocuments];
+		// Number copies of each file in the order they appear.
+		Map<Object, Integer> copiesSeen = new HashMap<>();
 
-			for (int i=0; i<numDocuments; i++) {
-				if (doneYet[i])
-					continue;
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				String fileFullPath = textArea.getFileFullPath();
-				int count = 1;
-				for (int j=i+1; j<numDocuments; j++) {
-					RTextEditorPane pane = getRTextEditorPaneAt(j);
-					if (!doneYet[j] && pane.getFileFullPath().equals(fileFullPath)) {
-						String title = pane.getFileName() + " (" + (++count) + ")";
-						if (pane.isDirty())
-							title = title + "*";
-						setDocumentDisplayNameAt(j, title);
-						doneYet[j] = true;
-					}
-				}
-				if (count>1) {
-					String title = textArea.getFileName() + " (1)";
-					if (textArea.isDirty())
-						title = title + "*";
-					setDocumentDisplayNameAt(i, title);
-				}
-				else {
-					String title = textArea.getFileName();
-					if (textArea.isDirty())
-						title = title + "*";
-					setDocumentDisplayNameAt(i, title);
-				}
-				doneYet[i] = true;
-			} // End of for (int i=0; i<numDocuments; i++).
-
-		} // End of if (numDocuments>0).
+		for (int i=0; i<getNumDocuments(); i++) {
+			RTextEditorPane textArea = getRTextEditorPaneAt(i);
+			String title = textArea.getFileName();
+			if (documentRegistry.getCopyCount(textArea)>1) {
+				int copy = copiesSeen.merge(documentRegistry.getKey(textArea),
+						1, Integer::sum);
+				title = title + " (" + copy + ")";
+			}
+			if (textArea.isDirty())
+				title = title + "*";
+			setDocumentDisplayNameAt(i, title);
+		}
 
 	}
 
@@ -2758,6 +3146,17 @@ public abstract class AbstractMainView extends JPanel
 	protected abstract void removeComponentAt(int index);
 
 
+	/**
+	 * Removes a content type detector.
+	 *
+	 * @param detector The detector to remove.
+	 * @see #addContentTypeDetector(ContentTypeDetector)
+	 */
+	public void removeContentTypeDetector(ContentTypeDetector detector) {
+		contentTypeSniffer.removeDetector(detector);
+	}
+
+
 	/**
 	 * Removes a current text area listener.
 	 *
@@ -2766,17 +3165,53 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public void removeCurrentTextAreaListener(CurrentTextAreaListener l) {
 		listenerList.remove(CurrentTextAreaListener.class, l);
+		if (l instanceof DeferredCurrentTextAreaListener) {
+			UpdateScheduler scheduler = owner.getUpdateScheduler();
+			for (int type=CurrentTextAreaEvent.TEXT_AREA_CHANGED;
+					type<=CurrentTextAreaEvent.SYNTAX_STYLE_CNANGED; type++) {
+				scheduler.cancel(Arrays.asList(l, type));
+			}
+		}
 	}
 
 
 	/**
-	 * Attempts to save all currently-opened files.  If any files have unsaved
-	 * changes, the user is prompted whether to save them.
+	 * Deregisters a window editing a file too large to open in a tab.
 	 *
-	 * @return Whether all files were successfully saved.  This will be
-	 *         <code>false</code> if an IO error occurs, or if a file has
-	 *         unsaved changes and the user selects "Cancel" when prompted
-	 *         to save them.
+	 * @param editor The window, which has been closed.
+	 * @see #addLargeFileEditor(LargeFileEditor)
+	 */
+	void removeLargeFileEditor(LargeFileEditor editor) {
+		largeFileEditors.remove(editor);
+	}
+
+
+	/**
+	 * If the only document open is untitled and empty, removes it so a file
+	 * being opened can replace it.
+	 */
+	private void removeEmptyUntitledDocument() {
+		if (getNumDocuments()==1 &&
+			currentTextArea.getFileName().equals(owner.getNewFileName()) &&
+			currentTextArea.getDocument().getLength()==0 &&
+				!currentTextArea.isDirty()) {
+				RTextEditorPane untitled = currentTextArea;
+				removeComponentAt(0);
+				documentRegistry.remove(untitled);
+		}
+	}
+
+
+	/**
+	 * Attempts to save all currently-opened files.  Local files are written
+	 * in parallel on background threads without changing the active
+	 * document; any errors are reported once those saves complete.  The user
+	 * is prompted for a name for any untitled documents.
+	 *
+	 * @return Whether all files were successfully saved or queued to be
+	 *         saved.  This will be <code>false</code> if an IO error occurs
+	 *         saving a remote file, or if the user cancels naming an untitled
+	 *         document.
 	 * @see #saveCurrentFile()
 	 * @see #saveCurrentFileAs()
 	 * @see #saveCurrentFileAs(FileLocation)
@@ -2787,18 +3222,37 @@ public abstract class AbstractMainView extends JPanel
 
 		// Remember the number for the tab they are currently working on.
 		int currentTab = getSelectedIndex();
+		boolean tabChanged = false;
 
 		// Cycle through each document, one by one.
 		for (int i=0; i<getNumDocuments(); i++) {
-			// Save this document, if it is not read-only
-			if (!getRTextEditorPaneAt(i).isReadOnly()) {
+
+			RTextEditorPane textArea = getRTextEditorPaneAt(i);
+			if (textArea.isReadOnly()) {
+				continue;
+			}
+
+			// Untitled files need a name, so show them while prompting.
+			if (textArea.getFileName().equals(owner.getNewFileName())) {
 				setSelectedIndex(i);
-				allSaved |= saveCurrentFile();
+				tabChanged = true;
+				allSaved &= saveCurrentFileAs();
 			}
+			else if (textArea.isDirty()) {
+				if (textArea.isLocal()) {
+					documentSaver.save(textArea);
+				}
+				else {
+					allSaved &= saveTextArea(textArea);
+				}
+			}
+
 		}
 
 		// Set the active document to the one originally being working on.
-		setSelectedIndex(currentTab);
+		if (tabChanged) {
+			setSelectedIndex(currentTab);
+		}
 		return allSaved;
 
 	}
@@ -2824,18 +3278,53 @@ public abstract class AbstractMainView extends JPanel
 			return saveCurrentFileAs();
 		}
 
+		return saveTextArea(currentTextArea);
+
+	}
+
+
+	/**
+	 * Saves a document to its current location on the calling thread.
+	 * Local files are written as configured by {@link #setAtomicSaves(boolean)}
+	 * and {@link #setSyncOnSave(boolean)}.  If an IO error occurs, the user
+	 * is notified.
+	 *
+	 * @param textArea The document to save.
+	 * @return Whether the save was successful.
+	 */
+	private boolean saveTextArea(RTextEditorPane textArea) {
+
+		// Don't race a background save of the same file.
+		documentSaver.awaitPendingSave(textArea);
+
 		// Try and write output to the current filename.
+		Exception error = null;
+		FileSaveEvent event = new FileSaveEvent();
+		event.begin();
 		try {
-			currentTextArea.save();
-			return true;
+			if (textArea.isLocal()) {
+				documentSaver.saveNow(textArea);
+			}
+			else {
+				textArea.save();
+			}
 		} catch (Exception e) {
+			error = e;
+			event.setFailed(e);
+		}
+		event.setPath(textArea.getFileFullPath());
+		event.setLength(textArea.getDocument().getLength());
+		event.commit();
+
+		if (error!=null) {
 			String temp = owner.getString("ErrorWritingFile",
-					currentTextArea.getFileFullPath(), e.getMessage());
+					textArea.getFileFullPath(), error.getMessage());
 			JOptionPane.showMessageDialog(this, temp,
 				owner.getString("ErrorDialogTitle"), JOptionPane.ERROR_MESSAGE);
 			owner.setMessages(null, "ERROR:  Could not save file!");
 			return false;
 		}
+		return true;
 
 	}
 
@@ -2941,9 +3430,17 @@ public abstract class AbstractMainView extends JPanel
 	public synchronized boolean saveCurrentFileAs(FileLocation loc) {
 
 		// Try and write output to the current filename.
+		FileSaveEvent event = new FileSaveEvent();
+		event.begin();
 		try {
 			currentTextArea.saveAs(loc);
+			event.setPath(loc.getFileFullPath());
+			event.setLength(currentTextArea.getDocument().getLength());
+			event.commit();
 		} catch (IOException ioe) {
+			event.setPath(loc.getFileFullPath());
+			event.setFailed(ioe);
+			event.commit();
 			handleAddTextFileIOException(loc, ioe, false);
 			ensureFilesAreOpened();
 			return false;
@@ -2985,7 +3482,7 @@ public abstract class AbstractMainView extends JPanel
 		switch (e.getType()) {
 			case MARK_ALL:
 				RTextEditorPane textArea = getCurrentTextArea();
-				SearchEngine.markAll(textArea, context);
+				incrementalMarkAll.markAll(textArea, context);
 				break;
 			case FIND:
 				((AbstractSearchAction)owner.getAction(RText.FIND_NEXT_ACTION)).
@@ -3013,9 +3510,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setAntiAliasEnabled(boolean enabled) {
 		if (enabled!=aaEnabled) {
 			aaEnabled = enabled;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setAntiAliasingEnabled(aaEnabled);
-			}
+			editorSettingsChanged();
 			firePropertyChange(SMOOTH_TEXT_PROPERTY, !aaEnabled, aaEnabled);
 		}
 	}
@@ -3040,6 +3535,20 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Sets whether files are saved by writing a temporary file that then
+	 * replaces the original, so a crash while saving never leaves a
+	 * truncated file behind.  This applies to local files saved by "Save"
+	 * and "Save All", but not "Save As".
+	 *
+	 * @param atomic Whether saves are atomic.
+	 * @see #getAtomicSaves()
+	 */
+	public void setAtomicSaves(boolean atomic) {
+		documentSaver.setAtomicSaves(atomic);
+	}
+
+
 	/**
 	 * Toggles whether closing curly braces are auto-inserted for languages
 	 * where it makes sense.  This method fires a property change event of type
@@ -3051,10 +3560,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setAutoInsertClosingCurlys(boolean autoInsert) {
 		if (autoInsert!=autoInsertClosingCurlys) {
 			autoInsertClosingCurlys = autoInsert;
-			for (int i=0; i<getNumDocuments(); i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				textArea.setCloseCurlyBraces(autoInsert);
-			}
+			editorSettingsChanged();
 			firePropertyChange(AUTO_INSERT_CLOSING_CURLYS,
 					!autoInsert, autoInsert);
 		}
@@ -3169,10 +3675,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setBracketMatchingEnabled(boolean enabled) {
 		if (enabled!=bracketMatchingEnabled) {
 			bracketMatchingEnabled = enabled;
-			int num = getNumDocuments();
-			for (int i=0; i<num; i++)
-				getRTextEditorPaneAt(i).setBracketMatchingEnabled(
-											bracketMatchingEnabled);
+			editorSettingsChanged();
 		}
 	}
 
@@ -3187,12 +3690,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setCaretBlinkRate(int blinkRate) {
 		if (blinkRate>=0 && blinkRate!=caretBlinkRate) {
 			caretBlinkRate = blinkRate;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++) {
-				Caret c = getRTextEditorPaneAt(i).getCaret();
-				if (c!=null)
-					c.setBlinkRate(caretBlinkRate);
-			}
+			editorSettingsChanged();
 		}
 	}
 
@@ -3206,8 +3704,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setCaretColor(final Color color) {
 		if (color!=null && color!=caretColor) {
 			caretColor = color;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setCaretColor(color);
+			editorSettingsChanged();
 		}
 	}
 
@@ -3227,8 +3724,7 @@ public abstract class AbstractMainView extends JPanel
 			return;
 		if (carets[mode]!=style) {
 			carets[mode] = style;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setCaretStyle(mode, style);
+			editorSettingsChanged();
 		}
 	}
 
@@ -3259,20 +3755,17 @@ public abstract class AbstractMainView extends JPanel
 
 
 	/**
-	 * Sets whether code folding is enabled for a text area, but ensures its
-	 * file size is below our threshold first.
+	 * Sets whether code folding is enabled for a text area.  Folds for files
+	 * above our size threshold are parsed in the background.
 	 *
 	 * @param textArea The text area to toggle.
 	 * @param enabled Whether code folding should be enabled.  Note this will
-	 *        be ignored if the file is too large for code folding.
+	 *        be ignored if the text area is in long-line mode.
 	 */
 	private void setCodeFoldingEnabledForTextArea(RTextEditorPane textArea, boolean enabled) {
-
-		int charCountThreshold = getMaxFileSizeForCodeFolding() * 1024 * 1024;
-
-		if (textArea.getDocument().getLength() <= charCountThreshold) {
-			textArea.setCodeFoldingEnabled(enabled);
-		}
+		textArea.setBackgroundFoldThreshold(
+				getBackgroundFoldThreshold(getMaxFileSizeForCodeFolding()));
+		textArea.setCodeFoldingEnabled(enabled && !textArea.isLongLineMode());
 	}
 
 
@@ -3291,10 +3784,7 @@ public abstract class AbstractMainView extends JPanel
 		if (color==null)
 			throw new NullPointerException();
 		currentLineColor = color;
-		for (int i=0; i<getNumDocuments(); i++) {
-			RTextEditorPane textArea = getRTextEditorPaneAt(i);
-			textArea.setCurrentLineHighlightColor(currentLineColor);
-		}
+		editorSettingsChanged();
 	}
 
 
@@ -3308,10 +3798,7 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public void setCurrentLineHighlightEnabled(boolean enabled) {
 		highlightCurrentLine = enabled;
-		for (int i=0; i<getNumDocuments(); i++) {
-			RTextEditorPane textArea = getRTextEditorPaneAt(i);
-			textArea.setHighlightCurrentLine(highlightCurrentLine);
-		}
+		editorSettingsChanged();
 	}
 
 
@@ -3418,10 +3905,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setFractionalFontMetricsEnabled(boolean enabled) {
 		if (fractionalMetricsEnabled!=enabled) {
 			fractionalMetricsEnabled = enabled;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++)
-				getRTextEditorPaneAt(i).setFractionalFontMetricsEnabled(
-														enabled);
+			editorSettingsChanged();
 			firePropertyChange(FRACTIONAL_METRICS_PROPERTY,
 												!enabled, enabled);
 		}
@@ -3479,7 +3963,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setHighlightModifiedDocumentDisplayNames(boolean highlight) {
 		if (highlight!=highlightModifiedDocDisplayNames) {
 			highlightModifiedDocDisplayNames = highlight;
-			refreshDisplayNames();
+			owner.getUpdateScheduler().schedule(refreshDisplayNamesUpdate);
 		}
 	}
 
@@ -3493,9 +3977,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setHighlightSecondaryLanguages(boolean highlight) {
 		if (highlight!=highlightSecondaryLanguages) {
 			highlightSecondaryLanguages = highlight;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setHighlightSecondaryLanguages(highlight);
-			}
+			editorSettingsChanged();
 		}
 	}
 
@@ -3509,9 +3991,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setHyperlinkColor(Color c) {
 		if (c!=null && !c.equals(getHyperlinkColor())) {
 			this.hyperlinkColor = c;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setHyperlinkForeground(c);
-			}
+			editorSettingsChanged();
 		}
 	}
 
@@ -3537,10 +4017,7 @@ public abstract class AbstractMainView extends JPanel
 		}
 		if (key!=hyperlinkModifierKey) {
 			hyperlinkModifierKey = key;
-			int docCount = getNumDocuments();
-			for (int i=0; i<docCount; i++) {
-				getRTextEditorPaneAt(i).setLinkScanningMask(key);
-			}
+			editorSettingsChanged();
 		}
 	}
 
@@ -3554,9 +4031,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setHyperlinksEnabled(boolean enabled) {
 		if (enabled!=hyperlinksEnabled) {
 			hyperlinksEnabled = enabled;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setHyperlinksEnabled(enabled);
-			}
+			editorSettingsChanged();
 		}
 	}
 
@@ -3666,8 +4141,27 @@ public abstract class AbstractMainView extends JPanel
 	public void setLineWrap(boolean enabled) {
 		if (enabled!=lineWrapEnabled) {
 			lineWrapEnabled = enabled;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setLineWrap(enabled);
+			for (int i=0; i<getNumDocuments(); i++) {
+				RTextEditorPane textArea = getRTextEditorPaneAt(i);
+				// Long lines stay wrapped
+				textArea.setLineWrap(enabled || textArea.isLongLineMode());
+			}
+		}
+	}
+
+
+	/**
+	 * Sets the line length at which files are opened in long-line mode.
+	 * This only affects files opened after this call.
+	 *
+	 * @param threshold The line length, in characters.  Use <code>0</code>
+	 *        to never use long-line mode.  If this is negative, nothing
+	 *        happens.
+	 * @see #getLongLineThreshold()
+	 */
+	public void setLongLineThreshold(int threshold) {
+		if (threshold>=0) {
+			longLineThreshold = threshold;
 		}
 	}
 
@@ -3682,8 +4176,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setMarginLineColor(Color color) {
 		if (!color.equals(marginLineColor)) {
 			marginLineColor = color;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setMarginLineColor(marginLineColor);
+			editorSettingsChanged();
 		}
 	}
 
@@ -3698,8 +4191,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setMarginLineEnabled(boolean enabled) {
 		if (marginLineEnabled != enabled) {
 			marginLineEnabled = enabled;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setMarginLineEnabled(enabled);
+			editorSettingsChanged();
 		}
 	}
 
@@ -3714,8 +4206,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setMarginLinePosition(int position) {
 		if (marginLinePosition!=position) {
 			marginLinePosition = position;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setMarginLinePosition(marginLinePosition);
+			editorSettingsChanged();
 		}
 	}
 
@@ -3729,11 +4220,9 @@ public abstract class AbstractMainView extends JPanel
 	 */
 	public void setMarkAllHighlightColor(Color color) {
 		if (color!=null && !color.equals(markAllHighlightColor)) {
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++)
-				getRTextEditorPaneAt(i).setMarkAllHighlightColor(color);
 			Color oldColor = markAllHighlightColor;
 			markAllHighlightColor = color;
+			editorSettingsChanged();
 			firePropertyChange(MARK_ALL_COLOR_PROPERTY, oldColor, color);
 		}
 	}
@@ -3749,10 +4238,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setMarkOccurrences(boolean markOccurrences) {
 		if (markOccurrences!=this.markOccurrences) {
 			this.markOccurrences = markOccurrences;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++) {
-				getRTextEditorPaneAt(i).setMarkOccurrences(markOccurrences);
-			}
+			editorSettingsChanged();
 			firePropertyChange(MARK_OCCURRENCES_PROPERTY,
 							!markOccurrences, markOccurrences);
 		}
@@ -3771,10 +4257,7 @@ public abstract class AbstractMainView extends JPanel
 		if (color!=null && markOccurrencesColor!=color) {
 			Color old = markOccurrencesColor;
 			markOccurrencesColor = color;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++) {
-				getRTextEditorPaneAt(i).setMarkOccurrencesColor(color);
-			}
+			editorSettingsChanged();
 			firePropertyChange(MARK_OCCURRENCES_COLOR_PROPERTY, old, color);
 		}
 	}
@@ -3790,9 +4273,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setMatchBothBrackets(boolean matchBoth) {
 		if (matchBothBrackets!=matchBoth) {
 			matchBothBrackets = matchBoth;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setPaintMatchedBracketPair(matchBoth);
-			}
+			editorSettingsChanged();
 		}
 	}
 
@@ -3806,12 +4287,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setMatchedBracketBGColor(Color color) {
 		if (color!=matchedBracketBGColor) {
 			matchedBracketBGColor = color;
-			int num = getNumDocuments();
-			for (int i=0; i<num; i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				// Will repaint if necessary.
-				textArea.setMatchedBracketBGColor(matchedBracketBGColor);
-			}
+			editorSettingsChanged();
 		}
 	}
 
@@ -3825,12 +4301,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setMatchedBracketBorderColor(Color color) {
 		if (color!=matchedBracketBorderColor) {
 			matchedBracketBorderColor = color;
-			int num = getNumDocuments();
-			for (int i=0; i<num; i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				// Will repaint if necessary.
-				textArea.setMatchedBracketBorderColor(matchedBracketBorderColor);
-			}
+			editorSettingsChanged();
 		}
 	}
 
@@ -3856,20 +4327,22 @@ public abstract class AbstractMainView extends JPanel
 
 
 	/**
-	 * Sets the maximum size a file can be for code folding to be enabled.
-	 * If a file is larger than this size in MB, code folding will be
-	 * disabled for that file, regardless of the code folding state in
-	 * general.  This method fires a property change event of type
-	 * {@link #MAX_FILE_SIZE_FOR_CODE_FOLDING_PROPERTY}.
+	 * Sets the maximum size a file can be for its code folds to be parsed
+	 * on the EDT.  Folds for files larger than this size in MB are parsed
+	 * on a background thread.  This method fires a property change event
+	 * of type {@link #MAX_FILE_SIZE_FOR_CODE_FOLDING_PROPERTY}.
 	 *
-	 * @param size The new maximum size for a file before the user is
-	 *        prompted before opening it, in MB.
+	 * @param size The new maximum size, in MB.
 	 * @see #getMaxFileSizeForCodeFolding()
 	 */
 	public void setMaxFileSizeForCodeFolding(int size) {
 		if (maxFileSizeForCodeFolding != size) {
 			int old = maxFileSizeForCodeFolding;
 			maxFileSizeForCodeFolding = size;
+			for (int i=0; i<getNumDocuments(); i++) {
+				getRTextEditorPaneAt(i).setBackgroundFoldThreshold(
+						getBackgroundFoldThreshold(size));
+			}
 			firePropertyChange(MAX_FILE_SIZE_FOR_CODE_FOLDING_PROPERTY, old,
 				maxFileSizeForCodeFolding);
 		}
@@ -3889,7 +4362,8 @@ public abstract class AbstractMainView extends JPanel
 		if (color==null)
 			throw new NullPointerException();
 		modifiedDocumentDisplayNameColor = color;
-		refreshDisplayNames();	// So the color change takes effect.
+		// So the color change takes effect.
+		owner.getUpdateScheduler().schedule(refreshDisplayNamesUpdate);
 	}
 
 
@@ -3916,10 +4390,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setRememberWhitespaceLines(boolean remember) {
 		if (remember!=rememberWhitespaceLines) {
 			rememberWhitespaceLines = remember;
-			for (int i=0; i<getNumDocuments(); i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				textArea.setClearWhitespaceLinesEnabled(!rememberWhitespaceLines);
-			}
+			editorSettingsChanged();
 			firePropertyChange(REMEMBER_WS_LINES_PROPERTY, !remember, remember);
 		}
 	}
@@ -3936,11 +4407,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setRoundedSelectionEdges(boolean rounded) {
 		if (rounded!=roundedSelectionEdges) {
 			roundedSelectionEdges = rounded;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				textArea.setRoundedSelectionEdges(rounded);
-			}
+			editorSettingsChanged();
 			firePropertyChange(ROUNDED_SELECTION_PROPERTY, !rounded, rounded);
 		}
 	}
@@ -3956,10 +4423,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setSecondaryLanguageColor(int index, Color color) {
 		if (color!=null && !color.equals(secondaryLanguageColors[index])) {
 			secondaryLanguageColors[index] = color;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).
-						setSecondaryLanguageBackground(index+1, color);
-			}
+			editorSettingsChanged();
 		}
 	}
 
@@ -4008,8 +4472,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setSelectedTextColor(Color color) {
 		if (color!=null && color!=selectedTextColor) {
 			selectedTextColor = color;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setSelectedTextColor(color);
+			editorSettingsChanged();
 		}
 	}
 
@@ -4027,8 +4490,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setSelectionColor(Color color) {
 		if (color!=null && color!=selectionColor) {
 			selectionColor = color;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setSelectionColor(color);
+			editorSettingsChanged();
 		}
 	}
 
@@ -4043,9 +4505,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setShowEOLMarkers(boolean show) {
 		if (show!=showEOLMarkers) {
 			showEOLMarkers = show;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setEOLMarkersVisible(showEOLMarkers);
-			}
+			editorSettingsChanged();
 		}
 	}
 
@@ -4059,13 +4519,24 @@ public abstract class AbstractMainView extends JPanel
 	public void setShowTabLines(boolean show) {
 		if (show!=showTabLines) {
 			showTabLines = show;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setPaintTabLines(showTabLines);
-			}
+			editorSettingsChanged();
 		}
 	}
 
 
+	/**
+	 * Sets whether saved files are forced to the storage device before the
+	 * save is considered complete.  This is safer, but slower.  This applies
+	 * to local files saved by "Save" and "Save All", but not "Save As".
+	 *
+	 * @param sync Whether saves are synced.
+	 * @see #getSyncOnSave()
+	 */
+	public void setSyncOnSave(boolean sync) {
+		documentSaver.setSyncOnSave(sync);
+	}
+
+
 	/**
 	 * Sets the file filters used when opening documents to decide how to
 	 * syntax highlight documents.  All currently open text files have their
@@ -4096,25 +4567,20 @@ public abstract class AbstractMainView extends JPanel
 
 
 	/**
-	 * Sets the syntax highlighting color scheme being used.
+	 * Sets the syntax highlighting color scheme being used.  Like other
+	 * editor settings, open text areas are updated in a single batch.
 	 *
-	 * @param colorScheme The new color scheme to use.  If <code>null</code>,
-	 *        the default color scheme is set.
+	 * @param colorScheme The new color scheme to use, which should be the
+	 *        owner's scheme.  If this is <code>null</code>, nothing changes.
+	 * @see RText#setSyntaxScheme(SyntaxScheme)
 	 */
 	public void setSyntaxScheme(SyntaxScheme colorScheme) {
 		if (currentTextArea==null) {
 			addNewEmptyUntitledFile();
 		}
-		int numDocuments = getNumDocuments();
 		if (colorScheme!=null) {
-			for (int i=0; i<numDocuments; i++) {
-				getRTextEditorPaneAt(i).setSyntaxScheme(colorScheme);
-			}
-		}
-		else {
-			for (int i=0; i<numDocuments; i++) {
-				getRTextEditorPaneAt(i).restoreDefaultSyntaxScheme();
-			}
+			// The scheme is read from the owner with the other editor settings
+			editorSettingsChanged();
 		}
 	}
 
@@ -4127,6 +4593,27 @@ public abstract class AbstractMainView extends JPanel
 	 * @param style The style for the text area.
 	 */
 	private void setSyntaxStyle(RTextEditorPane pane, String style) {
+		setSyntaxStyle(pane, style, null);
+	}
+
+
+	/**
+	 * Sets the syntax style on a text area, guessing it based on its content
+	 * if necessary.
+	 *
+	 * @param pane The text area.
+	 * @param style The style for the text area.
+	 * @param sample The start of the file, read before it was loaded.  If
+	 *        this is <code>null</code>, the text area's content is examined
+	 *        instead.
+	 */
+	private void setSyntaxStyle(RTextEditorPane pane, String style,
+								ContentSample sample) {
+
+		// Text areas in long-line mode are never highlighted
+		if (pane.isLongLineMode()) {
+			return;
+		}
 
 		// Ignore extensions that mean "this is a backup", but don't
 		// denote the actual file type.
@@ -4141,7 +4628,12 @@ public abstract class AbstractMainView extends JPanel
 		if (getGuessFileContentType() &&
 				fileName.indexOf('.')==-1 &&
 				SyntaxConstants.SYNTAX_STYLE_NONE.equals(style)) {
-			guessContentType(pane);
+			if (sample!=null) {
+				pane.setSyntaxEditingStyle(contentTypeSniffer.getSyntaxStyle(sample));
+			}
+			else {
+				guessContentType(pane);
+			}
 		}
 
 		else {
@@ -4165,9 +4657,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setTabsEmulated(boolean areEmulated) {
 		if (areEmulated!=emulateTabsWithWhitespace) {
 			emulateTabsWithWhitespace = areEmulated;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setTabsEmulated(areEmulated);
-			}
+			editorSettingsChanged();
 		}
 	}
 
@@ -4182,9 +4672,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setTabLinesColor(Color color) {
 		if (color!=null && !color.equals(tabLinesColor)) {
 			tabLinesColor = color;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setTabLineColor(tabLinesColor);
-			}
+			editorSettingsChanged();
 		}
 	}
 
@@ -4204,9 +4692,7 @@ public abstract class AbstractMainView extends JPanel
 		// If the new tab size is different from the current one...
 		if (newSize!=tabSize) {
 			tabSize = newSize;
-			for (int i=0; i<getNumDocuments(); i++)
-				getRTextEditorPaneAt(i).setTabSize(newSize);
-
+			editorSettingsChanged();
 		}
 
 	}
@@ -4227,18 +4713,11 @@ public abstract class AbstractMainView extends JPanel
 		}
 
 		if (!font.equals(textAreaFont) || underline!=textAreaUnderline) {
-			int docCount = getNumDocuments();
-			for (int i=0; i<docCount; i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				textArea.setFont(font);
-				//textArea.setUnderline(underline);
-			}
+			textAreaFont = font;
+			textAreaUnderline = underline;
+			editorSettingsChanged();
 		}
 
-		// Always set our values so text areas created later have them.
-		textAreaFont = font;
-		textAreaUnderline = underline;
-
 	}
 
 
@@ -4251,11 +4730,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setTextAreaForeground(Color fg) {
 		if (fg!=null && !fg.equals(textAreaForeground)) {
 			textAreaForeground = fg;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++) {
-				RTextEditorPane textArea = getRTextEditorPaneAt(i);
-				textArea.setForeground(textAreaForeground);
-			}
+			editorSettingsChanged();
 		}
 	}
 
@@ -4314,9 +4789,38 @@ public abstract class AbstractMainView extends JPanel
 	public void setUseSelectedTextColor(boolean use) {
 		if (use!=useSelectedTextColor) {
 			useSelectedTextColor = use;
-			for (int i=0; i<getNumDocuments(); i++) {
-				getRTextEditorPaneAt(i).setUseSelectedTextColor(use);
-			}
+			editorSettingsChanged();
+		}
+	}
+
+
+	/**
+	 * Sets the most memory each text area's undo history may use.  Once a
+	 * history is larger than this, its oldest steps are forgotten.
+	 *
+	 * @param size The maximum size, in MB.  Use <code>0</code> for no limit.
+	 *        If this is negative, nothing happens.
+	 * @see #getUndoHistoryMaxSize()
+	 */
+	public void setUndoHistoryMaxSize(int size) {
+		if (size>=0 && size!=undoHistoryMaxSize) {
+			undoHistoryMaxSize = size;
+			editorSettingsChanged();
+		}
+	}
+
+
+	/**
+	 * Sets the most steps that can be undone in each text area.
+	 *
+	 * @param steps The maximum number of undoable steps.  If this is not
+	 *        positive, nothing happens.
+	 * @see #getUndoHistoryMaxSteps()
+	 */
+	public void setUndoHistoryMaxSteps(int steps) {
+		if (steps>0 && steps!=undoHistoryMaxSteps) {
+			undoHistoryMaxSteps = steps;
+			editorSettingsChanged();
 		}
 	}
 
@@ -4331,9 +4835,7 @@ public abstract class AbstractMainView extends JPanel
 	public void setWhitespaceVisible(boolean visible) {
 		if (whitespaceVisible != visible) {
 			whitespaceVisible = visible;
-			int count = getNumDocuments();
-			for (int i=0; i<count; i++)
-				getRTextEditorPaneAt(i).setWhitespaceVisible(visible);
+			editorSettingsChanged();
 		}
 	}
 
@@ -4394,11 +4896,31 @@ public abstract class AbstractMainView extends JPanel
 		StatusBar statusBar = (StatusBar)owner.getStatusBar();
 		if (statusBar!=null) {
 			statusBar.setReadOnlyIndicatorEnabled(currentTextArea.isReadOnly());
-			int lineNumber = currentTextArea.getCaretLineNumber();
-			int lineStartOffset = currentTextArea.getLineStartOffsetOfCurrentLine();
-			statusBar.setRowAndColumn(lineNumber+1,
-					currentTextArea.getCaretPosition()-lineStartOffset+1);
+			owner.caretUpdate(null); // Coalesced with other caret updates
+		}
+	}
+
+
+	/**
+	 * A <code>CurrentTextAreaEvent</code> waiting to be delivered to a
+	 * {@link DeferredCurrentTextAreaListener}.
+	 */
+	private static final class DeferredEvent implements Runnable {
+
+		private final CurrentTextAreaListener listener;
+		private final CurrentTextAreaEvent event;
+
+		DeferredEvent(CurrentTextAreaListener listener,
+					CurrentTextAreaEvent event) {
+			this.listener = listener;
+			this.event = event;
 		}
+
+		@Override
+		public void run() {
+			listener.currentTextAreaPropertyChanged(event);
+		}
+
 	}
 
 
@@ -18,6 +18,7 @@ import java.awt.event.MouseEvent;
 import java.io.File;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Predicate;
 
 import javax.swing.BorderFactory;
 import javax.swing.Icon;
@@ -205,11 +206,55 @@ public abstract class AbstractParserNoticeWindow extends DockableWindow {
 			super.addRow(data);
 		}
 
+		private TextAreaWrapper getWrapperAt(int row) {
+			return (TextAreaWrapper)getValueAt(row, 1);
+		}
+
 		@Override
 		public boolean isCellEditable(int row, int col) {
 			return false;
 		}
 
+		/**
+		 * Removes all rows for files that aren't open in text areas.
+		 */
+		public void removeAllFileRows() {
+			removeRows(wrapper -> wrapper.fileFullPath!=null);
+		}
+
+		/**
+		 * Removes all rows for a file that isn't open in a text area.
+		 *
+		 * @param fileFullPath The full path of the file.
+		 */
+		public void removeFileRows(String fileFullPath) {
+			removeRows(wrapper -> fileFullPath.equals(wrapper.fileFullPath));
+		}
+
+		/**
+		 * Removes all rows matching a condition.
+		 *
+		 * @param matches The condition.
+		 */
+		private void removeRows(Predicate<TextAreaWrapper> matches) {
+			// Remove runs of rows at once, from the end, rather than one
+			// row at a time, since each removal shifts all later rows.
+			int end = getRowCount();
+			while (end>0) {
+				if (!matches.test(getWrapperAt(end-1))) {
+					end--;
+					continue;
+				}
+				int start = end - 1;
+				while (start>0 && matches.test(getWrapperAt(start-1))) {
+					start--;
+				}
+				dataVector.subList(start, end).clear();
+				fireTableRowsDeleted(start, end-1);
+				end = start;
+			}
+		}
+
 		/**
 		 * Replaces notices in this window with new ones.
 		 *
@@ -224,14 +269,7 @@ public abstract class AbstractParserNoticeWindow extends DockableWindow {
 				setRowCount(0);
 			}
 			else {
-				for (int i=0; i<getRowCount(); i++) {
-					TextAreaWrapper wrapper = (TextAreaWrapper)getValueAt(i, 1);
-					RTextEditorPane textArea2 = wrapper.textArea;
-					if (textArea2==textArea) {
-						removeRow(i);
-						i--;
-					}
-				}
+				removeRows(wrapper -> wrapper.textArea==textArea);
 			}
 
 			if (notices!=null) {
@@ -0,0 +1,360 @@
+/*
+ * 10/19/2026
+ *
+ * BackgroundFoldParser.java - Computes folds for large documents off the EDT.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.fife.ui.rsyntaxtextarea.folding.Fold;
+import org.fife.ui.rsyntaxtextarea.folding.FoldParser;
+import org.fife.ui.rsyntaxtextarea.folding.FoldParserManager;
+
+
+/**
+ * A fold parser that, for large documents, runs the real fold parser on a
+ * background thread.<p>
+ *
+ * A fold parser is normally run on the EDT each time a text area's fold
+ * manager reparses, which for a document of many megabytes blocks typing.
+ * This parser wraps the one registered for a language.  For text areas
+ * whose document is smaller than their
+ * {@link RTextEditorPane#getBackgroundFoldThreshold() threshold}, it simply
+ * delegates.  For larger ones, it returns the folds from the last
+ * background parse, and once edits stop for a moment, parses a
+ * {@link DocumentSnapshot} of the document on a worker thread.  When that
+ * finishes, the new folds are handed to the fold manager, unless the
+ * document changed in the meantime, in which case it is parsed again.<p>
+ *
+ * Folds from an older parse are anchored to document positions, so they
+ * follow the text around them until the next parse replaces them.<p>
+ *
+ * Fold parsers need a text area, so each parse builds a new, hidden one on
+ * the worker thread.  Its document is filled from the snapshot before the
+ * text area is created, so no UI listeners see the text being inserted.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class BackgroundFoldParser implements FoldParser {
+
+	private final FoldParser delegate;
+
+	/**
+	 * The scheduler key of parse tasks.  Folds are parsed for all text
+	 * areas one document at a time.
+	 */
+	private static final String TASK_KEY = "BackgroundFoldParser";
+
+	/**
+	 * How long to wait after an edit before parsing again, in milliseconds.
+	 */
+	private static final int DELAY = 750;
+
+	/**
+	 * The client property a text area's parse state is stored in.
+	 */
+	private static final String STATE_PROPERTY = "RText.BackgroundFoldParser.state";
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param delegate The fold parser to run.
+	 */
+	private BackgroundFoldParser(FoldParser delegate) {
+		this.delegate = delegate;
+	}
+
+
+	/**
+	 * Parses folds from a snapshot of a document.  This is called on a
+	 * worker thread.
+	 *
+	 * @param style The syntax style of the document.
+	 * @param text The document's text.
+	 * @return The folds found.
+	 */
+	private List<FoldInfo> computeFolds(String style, DocumentSnapshot text) {
+
+		RSyntaxDocument doc = new RSyntaxDocument(style);
+		try {
+			doc.insertString(0, text.toString(), null);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			return Collections.emptyList();
+		}
+
+		// Created only once the document is filled, and never shown
+		RSyntaxTextArea snapshotArea = new RSyntaxTextArea(doc);
+		snapshotArea.setSyntaxEditingStyle(style);
+		List<Fold> folds = delegate.getFolds(snapshotArea);
+		return FoldInfo.fromFolds(folds);
+
+	}
+
+
+	@Override
+	public List<Fold> getFolds(RSyntaxTextArea textArea) {
+
+		if (textArea instanceof RTextEditorPane) {
+			RTextEditorPane pane = (RTextEditorPane)textArea;
+			if (isParsedInBackground(pane)) {
+				ParseState state = (ParseState)pane.getClientProperty(STATE_PROPERTY);
+				if (state==null || state.doc!=pane.getDocument()) {
+					if (state!=null) {
+						state.uninstall();
+					}
+					state = new ParseState(pane);
+					pane.putClientProperty(STATE_PROPERTY, state);
+				}
+				return state.getFolds();
+			}
+		}
+
+		return delegate.getFolds(textArea);
+
+	}
+
+
+	/**
+	 * Ensures the fold parser for a language, if any, runs in the background
+	 * for large documents.  This should be called before a text area is
+	 * switched to that language.
+	 *
+	 * @param style The syntax style.
+	 */
+	static void install(String style) {
+		FoldParserManager manager = FoldParserManager.get();
+		FoldParser parser = manager.getFoldParser(style);
+		if (parser!=null && !(parser instanceof BackgroundFoldParser)) {
+			manager.addFoldParserMapping(style, new BackgroundFoldParser(parser));
+		}
+	}
+
+
+	/**
+	 * Returns whether a text area's folds should be parsed in the background.
+	 *
+	 * @param pane The text area.
+	 * @return Whether to parse in the background.
+	 */
+	private static boolean isParsedInBackground(RTextEditorPane pane) {
+		int threshold = pane.getBackgroundFoldThreshold();
+		return threshold>0 && pane.getDocument().getLength()>threshold;
+	}
+
+
+	/**
+	 * A fold found in a snapshot.  <code>Fold</code>s are tied to the text
+	 * area they are parsed from, so the snapshot's folds are copied into
+	 * these to be recreated in the real text area.
+	 */
+	private static final class FoldInfo {
+
+		private final int type;
+		private final int startOffs;
+		private final int endOffs;
+		private final List<FoldInfo> children;
+
+		private FoldInfo(Fold fold) {
+			type = fold.getFoldType();
+			startOffs = fold.getStartOffset();
+			endOffs = fold.getEndOffset();
+			children = new ArrayList<>(fold.getChildCount());
+			for (int i=0; i<fold.getChildCount(); i++) {
+				children.add(new FoldInfo(fold.getChild(i)));
+			}
+		}
+
+		private void addChildren(Fold fold) throws BadLocationException {
+			for (FoldInfo child : children) {
+				child.setEnd(fold.createChild(child.type, child.startOffs));
+			}
+		}
+
+		static List<FoldInfo> fromFolds(List<Fold> folds) {
+			List<FoldInfo> infos = new ArrayList<>();
+			if (folds!=null) {
+				for (Fold fold : folds) {
+					infos.add(new FoldInfo(fold));
+				}
+			}
+			return infos;
+		}
+
+		private void setEnd(Fold fold) throws BadLocationException {
+			if (endOffs!=Integer.MAX_VALUE) { // Unclosed folds have no end
+				fold.setEndOffset(endOffs);
+			}
+			addChildren(fold);
+		}
+
+		static List<Fold> toFolds(List<FoldInfo> infos, RSyntaxTextArea textArea) {
+			List<Fold> folds = new ArrayList<>(infos.size());
+			try {
+				for (FoldInfo info : infos) {
+					Fold fold = new Fold(info.type, textArea, info.startOffs);
+					info.setEnd(fold);
+					folds.add(fold);
+				}
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+			return folds;
+		}
+
+	}
+
+
+	/**
+	 * The background parse state of a single text area.  All methods are
+	 * called on the EDT.
+	 */
+	private final class ParseState implements DocumentListener, ActionListener {
+
+		private final RTextEditorPane pane;
+		private final Document doc;
+		private final Timer timer;
+		private List<Fold> folds;
+		private int version;
+		private int parsedVersion;
+		private boolean parsing;
+
+		/**
+		 * Whether this state made the text area mirror its document for
+		 * snapshots, and so should stop it when done.
+		 */
+		private boolean trackerInstalled;
+
+		ParseState(RTextEditorPane pane) {
+			this.pane = pane;
+			doc = pane.getDocument();
+			folds = Collections.emptyList();
+			parsedVersion = -1;
+			timer = new Timer(DELAY, this);
+			timer.setRepeats(false);
+			doc.addDocumentListener(this);
+		}
+
+		/**
+		 * Called when the timer fires.  Starts a parse of a snapshot of the
+		 * document.
+		 */
+		@Override
+		public void actionPerformed(ActionEvent e) {
+
+			// If a parse is running, it'll restart the timer when it's done
+			if (parsing || parsedVersion==version || pane.getDocument()!=doc) {
+				return;
+			}
+			if (!pane.isCodeFoldingEnabled() || !isParsedInBackground(pane)) {
+				releaseTracker();
+				return;
+			}
+
+			// Only the first snapshot copies the document; later ones just
+			// share the parts that weren't edited
+			if (!pane.hasSnapshotTracker()) {
+				trackerInstalled = true;
+			}
+			DocumentSnapshot text = pane.createSnapshot();
+			String style = pane.getSyntaxEditingStyle();
+			int snapshotVersion = version;
+			parsing = true;
+
+			TaskScheduler.get().submit(TaskScheduler.Lane.VISIBLE_DOCUMENT, TASK_KEY, token -> {
+				List<FoldInfo> infos;
+				try {
+					infos = computeFolds(style, text);
+				} catch (RuntimeException re) {
+					re.printStackTrace();
+					infos = Collections.emptyList();
+				}
+				List<FoldInfo> result = infos;
+				SwingUtilities.invokeLater(() -> parseCompleted(snapshotVersion, result));
+			});
+
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		List<Fold> getFolds() {
+			if (parsedVersion!=version && !parsing && !timer.isRunning()) {
+				timer.restart();
+			}
+			return new ArrayList<>(folds);
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			version++;
+			timer.restart();
+		}
+
+		private void parseCompleted(int snapshotVersion, List<FoldInfo> infos) {
+
+			parsing = false;
+			if (snapshotVersion!=version) {
+				timer.restart(); // The snapshot is stale, parse again
+				return;
+			}
+
+			if (pane.getDocument()==doc && pane.isCodeFoldingEnabled()) {
+				folds = FoldInfo.toFolds(infos, pane);
+				parsedVersion = snapshotVersion;
+				pane.getFoldManager().reparse();
+			}
+
+		}
+
+		/**
+		 * Stops the text area mirroring its document for snapshots, if this
+		 * state started it.
+		 */
+		private void releaseTracker() {
+			if (trackerInstalled) {
+				trackerInstalled = false;
+				pane.releaseSnapshotTracker();
+			}
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			version++;
+			timer.restart();
+		}
+
+		/**
+		 * Stops listening to the document.  This is called once the text
+		 * area has a new document, at which point it has already stopped
+		 * mirroring the old one.
+		 */
+		void uninstall() {
+			timer.stop();
+			doc.removeDocumentListener(this);
+		}
+
+	}
+
+
+}
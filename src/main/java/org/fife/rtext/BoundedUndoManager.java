@@ -0,0 +1,223 @@
+/*
+ * 10/19/2026
+ *
+ * BoundedUndoManager.java - An undo manager with a memory budget.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.UndoableEditEvent;
+import javax.swing.undo.UndoableEdit;
+
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.RUndoManager;
+
+
+/**
+ * An undo manager that limits both the number of undoable steps and the
+ * memory they use.<p>
+ *
+ * Swing's document edits keep a copy of any text they remove (and of the
+ * text they insert, once undone), so a few large pastes or whole-buffer
+ * replacements can pin many megabytes for the life of a tab.  This class
+ * estimates the size of each edit as it happens, and drops the oldest steps
+ * once the total exceeds a budget.  The most recent step is always kept,
+ * so even an edit larger than the budget can be undone.<p>
+ *
+ * Consecutive typing on a line is already coalesced into a single step by
+ * <code>RUndoManager</code>.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see TextDiff
+ */
+public class BoundedUndoManager extends RUndoManager {
+
+	private final Deque<SizedEdit> sizedEdits;
+	private long size;
+	private long maxSize;
+	private int eventCount;
+
+	/**
+	 * The estimated overhead of a single edit, in bytes.
+	 */
+	private static final int EDIT_OVERHEAD = 96;
+
+	/**
+	 * How often dead edits are purged from the middle of the history, in
+	 * edits.  Dead edits at the start of the history are purged on every
+	 * edit.
+	 */
+	private static final int PURGE_INTERVAL = 256;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param textArea The text area.
+	 */
+	public BoundedUndoManager(RTextArea textArea) {
+		super(textArea);
+		sizedEdits = new ArrayDeque<>();
+	}
+
+
+	@Override
+	public synchronized void discardAllEdits() {
+		super.discardAllEdits();
+		sizedEdits.clear();
+		size = 0;
+	}
+
+
+	/**
+	 * Returns the estimated memory used by the undo history.
+	 *
+	 * @return The memory used, in bytes.
+	 * @see #getMaxSize()
+	 */
+	public synchronized long getSize() {
+		purgeDeadEdits();
+		return size;
+	}
+
+
+	/**
+	 * Returns the maximum memory the undo history may use.
+	 *
+	 * @return The maximum size, in bytes.  A value of <code>0</code> means
+	 *         there is no limit.
+	 * @see #setMaxSize(long)
+	 * @see #getSize()
+	 */
+	public synchronized long getMaxSize() {
+		return maxSize;
+	}
+
+
+	/**
+	 * Returns whether an edit is still in the undo history.  Edits die when
+	 * they are trimmed from the history, or when they are undone and then a
+	 * new edit replaces them.
+	 *
+	 * @param edit The edit.
+	 * @return Whether the edit is alive.
+	 */
+	private static boolean isAlive(UndoableEdit edit) {
+		return edit.canUndo() || edit.canRedo();
+	}
+
+
+	/**
+	 * Removes dead edits from the size accounting.
+	 */
+	private void purgeDeadEdits() {
+		sizedEdits.removeIf(sizedEdit -> {
+			if (!isAlive(sizedEdit.edit)) {
+				size -= sizedEdit.size;
+				return true;
+			}
+			return false;
+		});
+	}
+
+
+	/**
+	 * Sets the maximum memory the undo history may use.  If the history is
+	 * already larger than this, the oldest steps are dropped.
+	 *
+	 * @param maxSize The maximum size, in bytes.  Use <code>0</code> for no
+	 *        limit.
+	 * @see #getMaxSize()
+	 */
+	public synchronized void setMaxSize(long maxSize) {
+		this.maxSize = Math.max(0, maxSize);
+		trimToSize();
+	}
+
+
+	/**
+	 * Returns the estimated memory held by an edit.
+	 *
+	 * @param edit The edit.
+	 * @return The estimated size, in bytes.
+	 */
+	private static long sizeOf(UndoableEdit edit) {
+		long size = EDIT_OVERHEAD;
+		if (edit instanceof DocumentEvent) {
+			DocumentEvent e = (DocumentEvent)edit;
+			if (e.getType()!=DocumentEvent.EventType.CHANGE) {
+				size += 2L * e.getLength();
+			}
+		}
+		return size;
+	}
+
+
+	/**
+	 * Drops the oldest steps until the history fits in its budget.
+	 */
+	private void trimToSize() {
+
+		if (maxSize==0 || size<=maxSize) {
+			return;
+		}
+
+		purgeDeadEdits();
+		while (size>maxSize && edits.size()>1) {
+			trimEdits(0, 0);
+			// The dropped step's edits are at the start of the queue
+			while (!sizedEdits.isEmpty() && !isAlive(sizedEdits.peekFirst().edit)) {
+				size -= sizedEdits.removeFirst().size;
+			}
+		}
+		purgeDeadEdits();
+
+	}
+
+
+	@Override
+	public synchronized void undoableEditHappened(UndoableEditEvent e) {
+
+		super.undoableEditHappened(e);
+
+		UndoableEdit edit = e.getEdit();
+		long editSize = sizeOf(edit);
+		sizedEdits.addLast(new SizedEdit(edit, editSize));
+		size += editSize;
+
+		while (!sizedEdits.isEmpty() && !isAlive(sizedEdits.peekFirst().edit)) {
+			size -= sizedEdits.removeFirst().size;
+		}
+		if (++eventCount%PURGE_INTERVAL==0) {
+			purgeDeadEdits();
+		}
+
+		trimToSize();
+
+	}
+
+
+	/**
+	 * An edit and its estimated size.
+	 */
+	private static final class SizedEdit {
+
+		private final UndoableEdit edit;
+		private final long size;
+
+		SizedEdit(UndoableEdit edit, long size) {
+			this.edit = edit;
+			this.size = size;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,120 @@
+/*
+ * 10/19/2026
+ *
+ * BulkEdit.java - A scope for making many edits to a text area at once.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+
+/**
+ * A scope in which many edits can be made to a text area cheaply.  While
+ * the scope is open, the text area collects all edits into a single
+ * undoable edit, and defers repaints, layout, caret notifications and
+ * mark occurrences until the scope closes.  See
+ * {@link RTextEditorPane#beginBulkEdit()} for details.<p>
+ *
+ * Typical usage from Java is:
+ * <pre>
+ * try (BulkEdit edit = new BulkEdit(textArea)) {
+ *    edit.begin();
+ *    // Modify the text area...
+ * }
+ * </pre>
+ * Macros are given an instance of this class for the active text area, as
+ * the <code>bulkEdit</code> variable:
+ * <pre>
+ * bulkEdit.run(function() {
+ *    // Modify the text area...
+ * });
+ * </pre>
+ *
+ * Scopes may be nested; only the outermost one has any effect.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class BulkEdit implements AutoCloseable {
+
+	private final RTextEditorPane textArea;
+	private int depth;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param textArea The text area to edit.
+	 */
+	public BulkEdit(RTextEditorPane textArea) {
+		this.textArea = textArea;
+	}
+
+
+	/**
+	 * Opens the scope.  Each call should be paired with a call to
+	 * {@link #end()}.
+	 *
+	 * @see #run(Runnable)
+	 */
+	public void begin() {
+		depth++;
+		textArea.beginBulkEdit();
+	}
+
+
+	/**
+	 * Closes any scopes opened through this object that haven't been
+	 * closed yet.
+	 */
+	@Override
+	public void close() {
+		while (depth>0) {
+			end();
+		}
+	}
+
+
+	/**
+	 * Closes the scope.
+	 *
+	 * @throws IllegalStateException If the scope isn't open.
+	 * @see #begin()
+	 */
+	public void end() {
+		if (depth==0) {
+			throw new IllegalStateException("Bulk edit not in progress");
+		}
+		depth--;
+		textArea.endBulkEdit();
+	}
+
+
+	/**
+	 * Returns the text area being edited.
+	 *
+	 * @return The text area.
+	 */
+	public RTextEditorPane getTextArea() {
+		return textArea;
+	}
+
+
+	/**
+	 * Runs a task inside the scope.
+	 *
+	 * @param task The task that edits the text area.
+	 */
+	public void run(Runnable task) {
+		begin();
+		try {
+			task.run();
+		} finally {
+			end();
+		}
+	}
+
+
+}
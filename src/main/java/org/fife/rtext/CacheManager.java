@@ -0,0 +1,159 @@
+/*
+ * 10/19/2026
+ *
+ * CacheManager.java - Keeps track of RText's caches.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.swing.Icon;
+import jdk.jfr.FlightRecorder;
+
+import org.fife.rtext.jfr.CacheStatsEvent;
+
+
+/**
+ * The registry of RText's caches.  Anything RText or a plugin keeps around
+ * only to avoid recomputing it should be kept in a {@link ManagedCache}
+ * created here, so that:
+ * <ul>
+ *    <li>Each cache has a budget, and evicts entries that are rarely used
+ *        when it is full.</li>
+ *    <li>Hit, miss and eviction statistics for all caches are available
+ *        from {@link #getStats()}, and are recorded periodically as
+ *        {@link CacheStatsEvent}s when a flight recording is running.</li>
+ *    <li>When memory is low, all caches are trimmed by the
+ *        {@link MemoryPressureMonitor}.</li>
+ * </ul>
+ *
+ * A plugin typically creates its caches when it is installed:
+ * <pre>
+ * iconCache = CacheManager.get().createCache("My Plugin Icons",
+ *       64 * 1024, (name, icon) -&gt; CacheManager.getWeight(icon));
+ * </pre>
+ *
+ * All methods in this class may be called from any thread.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class CacheManager {
+
+	private static final CacheManager INSTANCE = new CacheManager();
+
+	private final List<ManagedCache<?, ?>> caches;
+
+	/**
+	 * The fraction of its current weight each cache is trimmed to when
+	 * memory is low.
+	 */
+	static final double MEMORY_PRESSURE_TRIM = 0.25;
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private CacheManager() {
+		caches = new CopyOnWriteArrayList<>();
+		FlightRecorder.addPeriodicEvent(CacheStatsEvent.class, this::recordStats);
+	}
+
+
+	/**
+	 * Creates and registers a cache.
+	 *
+	 * @param name The name of the cache, for display purposes.
+	 * @param maxWeight The cache's budget, in the units returned by
+	 *        <code>weigher</code>.
+	 * @param weigher Computes the weight of each entry.
+	 * @return The cache.
+	 * @see #removeCache(ManagedCache)
+	 */
+	public <K, V> ManagedCache<K, V> createCache(String name, long maxWeight,
+			ManagedCache.Weigher<? super K, ? super V> weigher) {
+		ManagedCache<K, V> cache = new ManagedCache<>(name, maxWeight, weigher);
+		caches.add(cache);
+		return cache;
+	}
+
+
+	/**
+	 * Returns the cache manager.
+	 *
+	 * @return The cache manager.
+	 */
+	public static CacheManager get() {
+		return INSTANCE;
+	}
+
+
+	/**
+	 * Returns statistics for all registered caches.
+	 *
+	 * @return The statistics, as of now.
+	 */
+	public List<ManagedCache.Stats> getStats() {
+		List<ManagedCache.Stats> stats = new ArrayList<>();
+		for (ManagedCache<?, ?> cache : caches) {
+			stats.add(cache.getStats());
+		}
+		return stats;
+	}
+
+
+	/**
+	 * Returns the approximate weight of an icon, in bytes.  This is a
+	 * convenient weigher for icon caches.
+	 *
+	 * @param icon The icon.
+	 * @return The icon's weight.
+	 */
+	public static long getWeight(Icon icon) {
+		return icon==null ? 0 : 4L * icon.getIconWidth() * icon.getIconHeight();
+	}
+
+
+	/**
+	 * Records each cache's statistics.  Called by Java Flight Recorder.
+	 */
+	private void recordStats() {
+		for (ManagedCache.Stats stats : getStats()) {
+			new CacheStatsEvent(stats).commit();
+		}
+	}
+
+
+	/**
+	 * Unregisters a cache and removes its entries.  This should be called
+	 * when a plugin no longer needs a cache.
+	 *
+	 * @param cache The cache.
+	 * @see #createCache(String, long, ManagedCache.Weigher)
+	 */
+	public void removeCache(ManagedCache<?, ?> cache) {
+		caches.remove(cache);
+		cache.clear();
+	}
+
+
+	/**
+	 * Trims all caches to a fraction of their current weight.  Entries
+	 * that are used least are evicted first.
+	 *
+	 * @param fraction The fraction, between <code>0</code> and
+	 *        <code>1</code>.
+	 */
+	public void trimAll(double fraction) {
+		for (ManagedCache<?, ?> cache : caches) {
+			cache.trim(fraction);
+		}
+	}
+
+
+}
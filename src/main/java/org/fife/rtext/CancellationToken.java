@@ -0,0 +1,62 @@
+/*
+ * 10/19/2026
+ *
+ * CancellationToken.java - Lets a background task know it should stop.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.concurrent.CancellationException;
+
+
+/**
+ * Tells a background task that its result is no longer wanted.  Tasks
+ * should check {@link #isCancelled()} (or call
+ * {@link #throwIfCancelled()}) periodically, and stop early if it returns
+ * <code>true</code>.  Unlike thread interruption, checking a token never
+ * affects blocking IO, and a token can be checked from any code the task
+ * calls.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see TaskScheduler
+ */
+public final class CancellationToken {
+
+	private volatile boolean cancelled;
+
+
+	/**
+	 * Requests that the task stop.  This may be called from any thread.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+
+	/**
+	 * Returns whether the task has been asked to stop.
+	 *
+	 * @return Whether the task was cancelled.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+
+	/**
+	 * Throws an exception if the task has been asked to stop.
+	 *
+	 * @throws CancellationException If the task was cancelled.
+	 */
+	public void throwIfCancelled() {
+		if (cancelled) {
+			throw new CancellationException();
+		}
+	}
+
+
+}
@@ -0,0 +1,236 @@
+/*
+ * 10/19/2026
+ *
+ * ContentSample.java - The first few KB of a file, for content sniffing.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+import org.fife.io.UnicodeReader;
+import org.fife.ui.rsyntaxtextarea.FileLocation;
+
+
+/**
+ * The start of a file's text, examined to guess its syntax style.  Files
+ * are normally sampled before they're loaded into an editor (see
+ * {@link #read(FileLocation, String)}), so binary content is recognized
+ * from its bytes.  Remote files, and files whose loading was deferred, are
+ * sampled from their loaded text.  Instances are immutable.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see ContentTypeSniffer
+ */
+public final class ContentSample {
+
+	private final String fileName;
+	private final String text;
+	private final boolean complete;
+	private final boolean binary;
+
+	/**
+	 * The maximum number of bytes or characters sampled from a file.
+	 */
+	public static final int SAMPLE_SIZE = 8 * 1024;
+
+
+	private ContentSample(String fileName, String text, boolean complete,
+			boolean binary) {
+		this.fileName = fileName;
+		this.text = text;
+		this.complete = complete;
+		this.binary = binary;
+	}
+
+
+	/**
+	 * Creates a sample from text already in memory.
+	 *
+	 * @param fileName The name of the file.
+	 * @param text The start of the file's content.
+	 * @param complete Whether <code>text</code> is the file's entire content.
+	 * @return The sample.
+	 */
+	public static ContentSample fromText(String fileName, String text,
+										boolean complete) {
+		return new ContentSample(fileName, text, complete, looksBinary(text));
+	}
+
+
+	/**
+	 * Returns the name of the file, without any path.
+	 *
+	 * @return The file name.
+	 */
+	public String getFileName() {
+		return fileName;
+	}
+
+
+	/**
+	 * Returns the first line of the sample, without its line terminator.
+	 *
+	 * @return The first line.
+	 */
+	public String getFirstLine() {
+		int newline = text.indexOf('\n');
+		String line = newline==-1 ? text : text.substring(0, newline);
+		return line.endsWith("\r") ? line.substring(0, line.length()-1) : line;
+	}
+
+
+	/**
+	 * Returns the sampled text.  Any byte order mark is removed.
+	 *
+	 * @return The text.
+	 */
+	public String getText() {
+		return text;
+	}
+
+
+	/**
+	 * Returns whether the file appears to be binary rather than text.
+	 *
+	 * @return Whether the file appears to be binary.
+	 */
+	public boolean isBinary() {
+		return binary;
+	}
+
+
+	/**
+	 * Returns whether this sample contains the entire file.
+	 *
+	 * @return Whether this sample contains the entire file.
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+
+	/**
+	 * Returns whether the bytes read look like binary content.  Text in
+	 * UTF-16 or UTF-32 contains <code>NUL</code> bytes, so files with such
+	 * a byte order mark, or opened with such an encoding, are never
+	 * considered binary.
+	 *
+	 * @param bytes The bytes read.
+	 * @param count The number of valid bytes.
+	 * @param encoding The encoding the file will be opened with, or
+	 *        <code>null</code> for the default.
+	 * @return Whether the content looks binary.
+	 */
+	private static boolean looksBinary(byte[] bytes, int count, String encoding) {
+
+		String enc = encoding==null ? "" : encoding.toUpperCase();
+		if (enc.startsWith("UTF-16") || enc.startsWith("UTF-32")) {
+			return false;
+		}
+		if (count>=2 && ((bytes[0]==(byte)0xfe && bytes[1]==(byte)0xff) ||
+				(bytes[0]==(byte)0xff && bytes[1]==(byte)0xfe))) {
+			return false;
+		}
+
+		int controlChars = 0;
+		for (int i=0; i<count; i++) {
+			int b = bytes[i] & 0xff;
+			if (b==0) {
+				return true;
+			}
+			if (b<0x20 && b!='\t' && b!='\n' && b!='\r' && b!='\f' && b!=0x1b) {
+				controlChars++;
+			}
+		}
+		return controlChars*10>count;
+
+	}
+
+
+	/**
+	 * Returns whether text looks like it was decoded from binary content,
+	 * i.e. whether it contains <code>NUL</code>s or many other control
+	 * characters.
+	 *
+	 * @param text The text.
+	 * @return Whether the content looks binary.
+	 */
+	private static boolean looksBinary(String text) {
+
+		int controlChars = 0;
+		for (int i=0; i<text.length(); i++) {
+			char ch = text.charAt(i);
+			if (ch==0) {
+				return true;
+			}
+			if (ch<0x20 && ch!='\t' && ch!='\n' && ch!='\r' && ch!='\f' && ch!=0x1b) {
+				controlChars++;
+			}
+		}
+		return controlChars*10>text.length();
+
+	}
+
+
+	/**
+	 * Reads the start of a local file.  This is done before the file is
+	 * loaded into an editor.
+	 *
+	 * @param loc The location of the file.
+	 * @param encoding The encoding the file will be opened with, or
+	 *        <code>null</code> to auto-detect it the same way editors do.
+	 * @return The sample, or <code>null</code> if the file is remote or
+	 *         does not exist.  Remote files aren't sampled, since that would
+	 *         mean fetching them twice.
+	 * @throws IOException If an IO error occurs.
+	 */
+	public static ContentSample read(FileLocation loc, String encoding)
+			throws IOException {
+
+		if (!loc.isLocalAndExists()) {
+			return null;
+		}
+
+		File file = new File(loc.getFileFullPath());
+		byte[] bytes = new byte[SAMPLE_SIZE];
+		int count = 0;
+		try (InputStream in = new FileInputStream(file)) {
+			int n;
+			while (count<bytes.length &&
+					(n = in.read(bytes, count, bytes.length-count))!=-1) {
+				count += n;
+			}
+		}
+
+		boolean complete = file.length()<=count;
+		boolean binary = looksBinary(bytes, count, encoding);
+
+		StringBuilder sb = new StringBuilder(count);
+		if (!binary) {
+			try (Reader r = new UnicodeReader(
+					new ByteArrayInputStream(bytes, 0, count), encoding)) {
+				char[] buf = new char[2048];
+				int n;
+				while ((n = r.read(buf))!=-1) {
+					sb.append(buf, 0, n);
+				}
+			}
+		}
+
+		return new ContentSample(loc.getFileName(), sb.toString(), complete,
+								binary);
+
+	}
+
+
+}
@@ -0,0 +1,41 @@
+/*
+ * 10/19/2026
+ *
+ * ContentTypeDetector.java - Guesses a file's syntax style from its content.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+
+/**
+ * Guesses the syntax style of a file from the first few kilobytes of its
+ * content.  Detectors are consulted when a file is opened whose name doesn't
+ * map to a syntax style.  Files are normally sampled before they are loaded
+ * into their editor; remote files, and files restored into tabs that
+ * haven't been shown yet, are sampled once they're loaded.  Plugins can add
+ * their own detectors via
+ * {@link AbstractMainView#addContentTypeDetector(ContentTypeDetector)}.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see ContentTypeSniffer
+ */
+public interface ContentTypeDetector {
+
+
+	/**
+	 * Returns the syntax style for a file, based on its content.
+	 *
+	 * @param sample The start of the file.
+	 * @return The syntax style, such as
+	 *         <code>SyntaxConstants.SYNTAX_STYLE_JAVA</code>, or
+	 *         <code>null</code> if this detector does not recognize the
+	 *         content.
+	 */
+	String getSyntaxStyle(ContentSample sample);
+
+
+}
@@ -0,0 +1,385 @@
+/*
+ * 10/19/2026
+ *
+ * ContentTypeSniffer.java - Picks a syntax style based on file content.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+
+
+/**
+ * Picks a syntax style for a file based on its content.  Detectors added by
+ * plugins are consulted first, followed by the built-in detectors, which
+ * recognize:
+ *
+ * <ul>
+ *    <li>Emacs and Vim modelines</li>
+ *    <li>Shebang lines (<code>#!/usr/bin/env python</code>)</li>
+ *    <li>XML and HTML signatures</li>
+ *    <li>JSON</li>
+ *    <li>YAML document markers</li>
+ * </ul>
+ *
+ * This class is thread-safe.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see ContentSample
+ */
+public class ContentTypeSniffer {
+
+	private final List<ContentTypeDetector> detectors;
+
+	private static final Pattern EMACS_MODELINE = Pattern.compile(
+			"-\\*-\\s*(?:.*?mode\\s*:\\s*)?([\\w+#-]+)\\s*(?:;.*?)?-\\*-",
+			Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern VIM_MODELINE = Pattern.compile(
+			"\\b(?:vi|vim|ex):.*?\\b(?:ft|filetype|syntax|syn)\\s*=\\s*([\\w+#-]+)");
+
+	/**
+	 * Modeline and interpreter names mapped to syntax styles.
+	 */
+	private static final Map<String, String> LANGUAGES = createLanguageMap();
+
+	/**
+	 * The number of lines at the start of a file searched for a modeline.
+	 */
+	private static final int MODELINE_LINE_COUNT = 5;
+
+
+	/**
+	 * Constructor.
+	 */
+	public ContentTypeSniffer() {
+		detectors = new CopyOnWriteArrayList<>();
+	}
+
+
+	/**
+	 * Adds a detector.  Detectors are consulted in the order they are
+	 * added, and before all built-in detectors.
+	 *
+	 * @param detector The detector to add.
+	 * @see #removeDetector(ContentTypeDetector)
+	 */
+	public void addDetector(ContentTypeDetector detector) {
+		detectors.add(detector);
+	}
+
+
+	private static Map<String, String> createLanguageMap() {
+
+		Map<String, String> map = new HashMap<>();
+
+		map.put("actionscript", SyntaxConstants.SYNTAX_STYLE_ACTIONSCRIPT);
+		map.put("asm", SyntaxConstants.SYNTAX_STYLE_ASSEMBLER_X86);
+		map.put("bash", SyntaxConstants.SYNTAX_STYLE_UNIX_SHELL);
+		map.put("bat", SyntaxConstants.SYNTAX_STYLE_WINDOWS_BATCH);
+		map.put("c", SyntaxConstants.SYNTAX_STYLE_C);
+		map.put("c++", SyntaxConstants.SYNTAX_STYLE_CPLUSPLUS);
+		map.put("clojure", SyntaxConstants.SYNTAX_STYLE_CLOJURE);
+		map.put("cpp", SyntaxConstants.SYNTAX_STYLE_CPLUSPLUS);
+		map.put("cs", SyntaxConstants.SYNTAX_STYLE_CSHARP);
+		map.put("csharp", SyntaxConstants.SYNTAX_STYLE_CSHARP);
+		map.put("css", SyntaxConstants.SYNTAX_STYLE_CSS);
+		map.put("d", SyntaxConstants.SYNTAX_STYLE_D);
+		map.put("dart", SyntaxConstants.SYNTAX_STYLE_DART);
+		map.put("delphi", SyntaxConstants.SYNTAX_STYLE_DELPHI);
+		map.put("dosbatch", SyntaxConstants.SYNTAX_STYLE_WINDOWS_BATCH);
+		map.put("dtd", SyntaxConstants.SYNTAX_STYLE_DTD);
+		map.put("emacs-lisp", SyntaxConstants.SYNTAX_STYLE_LISP);
+		map.put("fortran", SyntaxConstants.SYNTAX_STYLE_FORTRAN);
+		map.put("go", SyntaxConstants.SYNTAX_STYLE_GO);
+		map.put("groovy", SyntaxConstants.SYNTAX_STYLE_GROOVY);
+		map.put("html", SyntaxConstants.SYNTAX_STYLE_HTML);
+		map.put("ini", SyntaxConstants.SYNTAX_STYLE_INI);
+		map.put("java", SyntaxConstants.SYNTAX_STYLE_JAVA);
+		map.put("javascript", SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT);
+		map.put("js", SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT);
+		map.put("json", SyntaxConstants.SYNTAX_STYLE_JSON);
+		map.put("jsp", SyntaxConstants.SYNTAX_STYLE_JSP);
+		map.put("ksh", SyntaxConstants.SYNTAX_STYLE_UNIX_SHELL);
+		map.put("latex", SyntaxConstants.SYNTAX_STYLE_LATEX);
+		map.put("less", SyntaxConstants.SYNTAX_STYLE_LESS);
+		map.put("lisp", SyntaxConstants.SYNTAX_STYLE_LISP);
+		map.put("lua", SyntaxConstants.SYNTAX_STYLE_LUA);
+		map.put("make", SyntaxConstants.SYNTAX_STYLE_MAKEFILE);
+		map.put("makefile", SyntaxConstants.SYNTAX_STYLE_MAKEFILE);
+		map.put("node", SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT);
+		map.put("nodejs", SyntaxConstants.SYNTAX_STYLE_JAVASCRIPT);
+		map.put("nsis", SyntaxConstants.SYNTAX_STYLE_NSIS);
+		map.put("pascal", SyntaxConstants.SYNTAX_STYLE_DELPHI);
+		map.put("perl", SyntaxConstants.SYNTAX_STYLE_PERL);
+		map.put("php", SyntaxConstants.SYNTAX_STYLE_PHP);
+		map.put("properties", SyntaxConstants.SYNTAX_STYLE_PROPERTIES_FILE);
+		map.put("python", SyntaxConstants.SYNTAX_STYLE_PYTHON);
+		map.put("ruby", SyntaxConstants.SYNTAX_STYLE_RUBY);
+		map.put("sas", SyntaxConstants.SYNTAX_STYLE_SAS);
+		map.put("scala", SyntaxConstants.SYNTAX_STYLE_SCALA);
+		map.put("sh", SyntaxConstants.SYNTAX_STYLE_UNIX_SHELL);
+		map.put("shell-script", SyntaxConstants.SYNTAX_STYLE_UNIX_SHELL);
+		map.put("sql", SyntaxConstants.SYNTAX_STYLE_SQL);
+		map.put("tcl", SyntaxConstants.SYNTAX_STYLE_TCL);
+		map.put("tclsh", SyntaxConstants.SYNTAX_STYLE_TCL);
+		map.put("tex", SyntaxConstants.SYNTAX_STYLE_LATEX);
+		map.put("typescript", SyntaxConstants.SYNTAX_STYLE_TYPESCRIPT);
+		map.put("vb", SyntaxConstants.SYNTAX_STYLE_VISUAL_BASIC);
+		map.put("wish", SyntaxConstants.SYNTAX_STYLE_TCL);
+		map.put("xml", SyntaxConstants.SYNTAX_STYLE_XML);
+		map.put("yaml", SyntaxConstants.SYNTAX_STYLE_YAML);
+		map.put("zsh", SyntaxConstants.SYNTAX_STYLE_UNIX_SHELL);
+
+		return map;
+
+	}
+
+
+	/**
+	 * Returns the syntax style for a language or interpreter name, such
+	 * as <code>python3</code> or <code>bash</code>.
+	 *
+	 * @param name The name.
+	 * @return The syntax style, or <code>null</code> if it isn't known.
+	 */
+	private static String getStyleForLanguage(String name) {
+
+		name = name.toLowerCase();
+		String style = LANGUAGES.get(name);
+
+		// Strip version numbers, e.g. "python3.9" or "perl5"
+		if (style==null) {
+			int end = name.length();
+			while (end>0 && (Character.isDigit(name.charAt(end-1)) ||
+					name.charAt(end-1)=='.')) {
+				end--;
+			}
+			if (end<name.length()) {
+				style = LANGUAGES.get(name.substring(0, end));
+			}
+		}
+
+		// Any other shell, e.g. "dash" or "csh"
+		if (style==null && name.endsWith("sh")) {
+			style = SyntaxConstants.SYNTAX_STYLE_UNIX_SHELL;
+		}
+
+		return style;
+
+	}
+
+
+	/**
+	 * Returns the syntax style for a file.
+	 *
+	 * @param sample The start of the file.
+	 * @return The syntax style.  This will be
+	 *         <code>SyntaxConstants.SYNTAX_STYLE_NONE</code> if the content
+	 *         isn't recognized or looks binary.
+	 */
+	public String getSyntaxStyle(ContentSample sample) {
+
+		if (sample.isBinary()) {
+			return SyntaxConstants.SYNTAX_STYLE_NONE;
+		}
+
+		for (ContentTypeDetector detector : detectors) {
+			String style = detector.getSyntaxStyle(sample);
+			if (style!=null) {
+				return style;
+			}
+		}
+
+		String text = sample.getText();
+		String style = sniffModeline(text);
+		if (style==null) {
+			style = sniffShebang(sample.getFirstLine());
+		}
+		if (style==null) {
+			style = sniffSignature(text);
+		}
+
+		return style!=null ? style : SyntaxConstants.SYNTAX_STYLE_NONE;
+
+	}
+
+
+	/**
+	 * Returns the index of the first non-whitespace character at or after
+	 * an offset.
+	 *
+	 * @param text The text.
+	 * @param offs The offset to start at.
+	 * @return The index, or <code>text.length()</code> if there are only
+	 *         whitespace characters.
+	 */
+	private static int nextNonWhitespace(String text, int offs) {
+		while (offs<text.length() && Character.isWhitespace(text.charAt(offs))) {
+			offs++;
+		}
+		return offs;
+	}
+
+
+	/**
+	 * Removes a detector.
+	 *
+	 * @param detector The detector to remove.
+	 * @see #addDetector(ContentTypeDetector)
+	 */
+	public void removeDetector(ContentTypeDetector detector) {
+		detectors.remove(detector);
+	}
+
+
+	/**
+	 * Checks the first few lines of text for an Emacs or Vim modeline.
+	 *
+	 * @param text The text.
+	 * @return The syntax style, or <code>null</code> if there is no modeline
+	 *         naming a known language.
+	 */
+	private static String sniffModeline(String text) {
+
+		int start = 0;
+		for (int i=0; i<MODELINE_LINE_COUNT && start<text.length(); i++) {
+
+			int end = text.indexOf('\n', start);
+			if (end==-1) {
+				end = text.length();
+			}
+			String line = text.substring(start, end);
+			start = end + 1;
+
+			// Cheap check before running regexes
+			if (line.indexOf("-*-")==-1 && line.indexOf(':')==-1) {
+				continue;
+			}
+
+			Matcher m = EMACS_MODELINE.matcher(line);
+			if (m.find()) {
+				String style = getStyleForLanguage(m.group(1));
+				if (style!=null) {
+					return style;
+				}
+			}
+			m = VIM_MODELINE.matcher(line);
+			if (m.find()) {
+				String style = getStyleForLanguage(m.group(1));
+				if (style!=null) {
+					return style;
+				}
+			}
+
+		}
+
+		return null;
+
+	}
+
+
+	/**
+	 * Checks for a "<code>#!</code>" line naming a known interpreter.
+	 *
+	 * @param firstLine The first line of the file.
+	 * @return The syntax style, or <code>null</code> if there is no shebang
+	 *         line, or it names an unknown interpreter.
+	 */
+	private static String sniffShebang(String firstLine) {
+
+		if (!firstLine.startsWith("#!")) {
+			return null;
+		}
+
+		// Determine the program name.  Take special care for
+		// the case of "#!/usr/bin/env progname".
+		String[] tokens = firstLine.substring(2).trim().split("\\s+");
+		if (tokens.length==0 || tokens[0].isEmpty()) {
+			return null;
+		}
+		String program = tokens[0];
+		if (program.endsWith("/env")) {
+			program = null;
+			for (int i=1; i<tokens.length; i++) {
+				if (!tokens[i].startsWith("-")) { // e.g. "env -S"
+					program = tokens[i];
+					break;
+				}
+			}
+			if (program==null) {
+				return null;
+			}
+		}
+		program = program.substring(program.lastIndexOf('/') + 1);
+
+		return getStyleForLanguage(program);
+
+	}
+
+
+	/**
+	 * Checks the start of text for signatures of markup and data formats.
+	 *
+	 * @param text The text.
+	 * @return The syntax style, or <code>null</code> if no known signature
+	 *         was found.
+	 */
+	private static String sniffSignature(String text) {
+
+		int start = nextNonWhitespace(text, 0);
+		if (start==text.length()) {
+			return null;
+		}
+		String rest = text.substring(start, Math.min(text.length(), start + 256));
+		String lower = rest.toLowerCase();
+
+		if (lower.startsWith("<?xml")) {
+			return SyntaxConstants.SYNTAX_STYLE_XML;
+		}
+		if (lower.startsWith("<!doctype html") || lower.startsWith("<html")) {
+			return SyntaxConstants.SYNTAX_STYLE_HTML;
+		}
+		if (lower.startsWith("<!doctype") || lower.startsWith("<svg")) {
+			return SyntaxConstants.SYNTAX_STYLE_XML;
+		}
+
+		if (rest.startsWith("---") || rest.startsWith("%YAML")) {
+			String firstLine = rest.split("\\r?\\n", 2)[0].trim();
+			if (firstLine.equals("---") || firstLine.startsWith("%YAML")) {
+				return SyntaxConstants.SYNTAX_STYLE_YAML;
+			}
+		}
+
+		char ch = rest.charAt(0);
+		if (ch=='{' || ch=='[') {
+			int next = nextNonWhitespace(text, start + 1);
+			if (next<text.length()) {
+				char ch2 = text.charAt(next);
+				boolean json = ch=='{' ? (ch2=='"' || ch2=='}') :
+						(ch2=='{' || ch2=='"' || ch2==']' || ch2=='-' ||
+						Character.isDigit(ch2) || text.startsWith("true", next) ||
+						text.startsWith("false", next) || text.startsWith("null", next));
+				if (json) {
+					return SyntaxConstants.SYNTAX_STYLE_JSON;
+				}
+			}
+		}
+
+		return null;
+
+	}
+
+
+}
@@ -0,0 +1,28 @@
+/*
+ * 10/19/2026
+ *
+ * DeferredCurrentTextAreaListener.java - A current text area listener that
+ * receives coalesced events.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+
+/**
+ * A <code>CurrentTextAreaListener</code> that opts into deferred delivery.
+ * Rather than being notified of every event as it happens, such a listener
+ * receives at most one event of each type per frame.  The event carries the
+ * old value of the first event coalesced and the new value of the last.
+ * This is a good fit for listeners that do expensive work when the current
+ * text area changes, such as re-parsing it, since they are only notified
+ * about the tab the user lands on when cycling quickly through tabs.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see UpdateScheduler
+ */
+public interface DeferredCurrentTextAreaListener extends CurrentTextAreaListener {
+}
@@ -0,0 +1,409 @@
+/*
+ * 10/19/2026
+ *
+ * DocumentRegistry.java - Indexes open documents by file.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.swing.event.EventListenerList;
+
+import org.fife.ui.rsyntaxtextarea.FileLocation;
+import org.fife.ui.rsyntaxtextarea.TextEditorPane;
+
+
+/**
+ * Indexes the documents open in a main view by the file they are editing, so
+ * finding whether a file is open doesn't require comparing its path against
+ * every open document.<p>
+ *
+ * Local files are keyed by their canonical path, so different spellings of
+ * the same file (relative segments, symbolic links, and letter case on
+ * case-insensitive file systems) find the same document.  Remote files are
+ * keyed by their URI.  The same file may be open in more than one document.
+ * <p>
+ *
+ * A document's key is resolved once, when it is added, and again only when
+ * it is saved to a new location, or first saved if its file didn't exist
+ * yet.  Lookups by the path a document was opened with are resolved without
+ * touching the file system.
+ * <p>
+ *
+ * The registry is only modified on the EDT, but can be queried from any
+ * thread without locking.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see AbstractMainView#getDocumentRegistry()
+ */
+public class DocumentRegistry {
+
+	private final Map<Object, List<RTextEditorPane>> textAreasByKey;
+	private final Map<RTextEditorPane, Key> keysByTextArea;
+	private final Map<Object, Object> keysByPath;
+	private final EventListenerList listenerList;
+	private final PropertyChangeListener renameListener;
+	private final PropertyChangeListener saveListener;
+
+
+	/**
+	 * Constructor.
+	 */
+	DocumentRegistry() {
+		textAreasByKey = new ConcurrentHashMap<>();
+		keysByTextArea = new ConcurrentHashMap<>();
+		keysByPath = new ConcurrentHashMap<>();
+		listenerList = new EventListenerList();
+		renameListener = this::textAreaRenamed;
+		saveListener = this::textAreaSaved;
+	}
+
+
+	/**
+	 * Registers a document.  This should only be called on the EDT.
+	 *
+	 * @param textArea The document.
+	 * @see #remove(RTextEditorPane)
+	 */
+	void add(RTextEditorPane textArea) {
+
+		if (keysByTextArea.containsKey(textArea)) {
+			return;
+		}
+		index(textArea, new Key(textArea.getFileFullPath()));
+		textArea.addPropertyChangeListener(TextEditorPane.FULL_PATH_PROPERTY,
+				renameListener);
+		textArea.addPropertyChangeListener(TextEditorPane.DIRTY_PROPERTY,
+				saveListener);
+
+		DocumentRegistryListener[] listeners = listenerList.getListeners(
+				DocumentRegistryListener.class);
+		for (DocumentRegistryListener l : listeners) {
+			l.documentAdded(textArea);
+		}
+
+	}
+
+
+	/**
+	 * Adds a listener notified when documents are opened, closed or renamed.
+	 *
+	 * @param l The listener to add.
+	 * @see #removeDocumentRegistryListener(DocumentRegistryListener)
+	 */
+	public void addDocumentRegistryListener(DocumentRegistryListener l) {
+		listenerList.add(DocumentRegistryListener.class, l);
+	}
+
+
+	/**
+	 * Returns the key a file is indexed by.  If the file's path is one an
+	 * open document was opened with, the key is found without touching the
+	 * file system.
+	 *
+	 * @param fileFullPath The full path to the file.
+	 * @return The key.
+	 */
+	private Object getKey(String fileFullPath) {
+		Object path = normalize(fileFullPath);
+		Object key = keysByPath.get(path);
+		return key!=null ? key : resolve(path);
+	}
+
+
+	/**
+	 * Returns the number of documents editing the same file as a document,
+	 * including that document.
+	 *
+	 * @param textArea The document.
+	 * @return The number of documents, or <code>0</code> if the document
+	 *         isn't registered.
+	 */
+	int getCopyCount(RTextEditorPane textArea) {
+		Object key = keysByTextArea.get(textArea);
+		List<RTextEditorPane> textAreas = key!=null ? textAreasByKey.get(key) : null;
+		return textAreas!=null ? textAreas.size() : 0;
+	}
+
+
+	/**
+	 * Returns the key a document is indexed by.
+	 *
+	 * @param textArea The document.
+	 * @return The key, or <code>null</code> if the document isn't registered.
+	 */
+	Object getKey(RTextEditorPane textArea) {
+		Key key = keysByTextArea.get(textArea);
+		return key!=null ? key.resolved : null;
+	}
+
+
+	/**
+	 * Returns the first document opened for a file.  This method may be
+	 * called from any thread.
+	 *
+	 * @param fileFullPath The full path to the file.
+	 * @return The document, or <code>null</code> if the file isn't open.
+	 * @see #getTextAreas(String)
+	 */
+	public RTextEditorPane getTextArea(String fileFullPath) {
+		List<RTextEditorPane> textAreas = getTextAreas(fileFullPath);
+		return textAreas.isEmpty() ? null : textAreas.get(0);
+	}
+
+
+	/**
+	 * Returns all documents editing a file, in the order they were opened.
+	 * This method may be called from any thread.
+	 *
+	 * @param fileFullPath The full path to the file.
+	 * @return The documents.  This will be an empty list if the file isn't
+	 *         open.  The list returned is immutable.
+	 * @see #getTextArea(String)
+	 */
+	public List<RTextEditorPane> getTextAreas(String fileFullPath) {
+		List<RTextEditorPane> textAreas = textAreasByKey.get(getKey(fileFullPath));
+		return textAreas!=null ? textAreas : Collections.emptyList();
+	}
+
+
+	/**
+	 * Adds a document to the index.
+	 *
+	 * @param textArea The document.
+	 * @param key The key to index it by.
+	 * @see #unindex(RTextEditorPane)
+	 */
+	private void index(RTextEditorPane textArea, Key key) {
+		keysByTextArea.put(textArea, key);
+		keysByPath.put(key.path, key.resolved);
+		textAreasByKey.compute(key.resolved, (k, old) -> {
+			List<RTextEditorPane> textAreas = old!=null ?
+					new ArrayList<>(old) : new ArrayList<>(1);
+			textAreas.add(textArea);
+			return Collections.unmodifiableList(textAreas);
+		});
+	}
+
+
+	/**
+	 * Returns whether a file is open.  This method may be called from any
+	 * thread.
+	 *
+	 * @param fileFullPath The full path to the file.
+	 * @return Whether the file is open.
+	 */
+	public boolean isOpen(String fileFullPath) {
+		return textAreasByKey.containsKey(getKey(fileFullPath));
+	}
+
+
+	/**
+	 * Returns the normalized, absolute form of a file's path.  This doesn't
+	 * touch the file system.
+	 *
+	 * @param fileFullPath The full path to the file.
+	 * @return The normalized path.
+	 * @see #resolve(Object)
+	 */
+	private static Object normalize(String fileFullPath) {
+
+		FileLocation loc = FileLocation.create(fileFullPath);
+		if (loc.isRemote()) {
+			try {
+				return new URI(fileFullPath).normalize();
+			} catch (URISyntaxException use) {
+				return fileFullPath;
+			}
+		}
+
+		try {
+			return Paths.get(fileFullPath).toAbsolutePath().normalize();
+		} catch (InvalidPathException ipe) {
+			return fileFullPath;
+		}
+
+	}
+
+
+	/**
+	 * Unregisters a document.  This should only be called on the EDT.
+	 *
+	 * @param textArea The document.
+	 * @see #add(RTextEditorPane)
+	 */
+	void remove(RTextEditorPane textArea) {
+
+		if (!unindex(textArea)) {
+			return;
+		}
+		textArea.removePropertyChangeListener(
+				TextEditorPane.FULL_PATH_PROPERTY, renameListener);
+		textArea.removePropertyChangeListener(
+				TextEditorPane.DIRTY_PROPERTY, saveListener);
+
+		DocumentRegistryListener[] listeners = listenerList.getListeners(
+				DocumentRegistryListener.class);
+		for (DocumentRegistryListener l : listeners) {
+			l.documentRemoved(textArea);
+		}
+
+	}
+
+
+	/**
+	 * Removes a listener.
+	 *
+	 * @param l The listener to remove.
+	 * @see #addDocumentRegistryListener(DocumentRegistryListener)
+	 */
+	public void removeDocumentRegistryListener(DocumentRegistryListener l) {
+		listenerList.remove(DocumentRegistryListener.class, l);
+	}
+
+
+	/**
+	 * Returns the canonical form of a normalized path.  For local files,
+	 * this resolves symbolic links and letter case, so it touches the file
+	 * system.
+	 *
+	 * @param path The normalized path.
+	 * @return The canonical path, or <code>path</code> itself if it's
+	 *         remote or the file doesn't exist.
+	 * @see #normalize(String)
+	 */
+	private static Object resolve(Object path) {
+		if (path instanceof Path) {
+			try {
+				return ((Path)path).toRealPath();
+			} catch (IOException ioe) {
+				// File doesn't exist (yet); the normalized path will do
+			}
+		}
+		return path;
+	}
+
+
+	/**
+	 * Called when a registered document is saved to a new location.
+	 *
+	 * @param e The event.
+	 */
+	private void textAreaRenamed(PropertyChangeEvent e) {
+
+		RTextEditorPane textArea = (RTextEditorPane)e.getSource();
+		Key key = new Key(textArea.getFileFullPath());
+		if (key.equals(keysByTextArea.get(textArea))) {
+			return; // e.g. reloaded
+		}
+		unindex(textArea);
+		index(textArea, key);
+
+		String oldFileFullPath = (String)e.getOldValue();
+		DocumentRegistryListener[] listeners = listenerList.getListeners(
+				DocumentRegistryListener.class);
+		for (DocumentRegistryListener l : listeners) {
+			l.documentRenamed(textArea, oldFileFullPath);
+		}
+
+	}
+
+
+	/**
+	 * Called when a registered document is saved or reloaded.  If its file
+	 * didn't exist when it was indexed, it is re-indexed by the file's
+	 * canonical path.
+	 *
+	 * @param e The event.
+	 */
+	private void textAreaSaved(PropertyChangeEvent e) {
+		RTextEditorPane textArea = (RTextEditorPane)e.getSource();
+		Key old = keysByTextArea.get(textArea);
+		if (!textArea.isDirty() && old!=null && old.path.equals(old.resolved)) {
+			Key key = new Key(textArea.getFileFullPath());
+			if (!key.equals(old)) {
+				unindex(textArea);
+				index(textArea, key);
+			}
+		}
+	}
+
+
+	/**
+	 * Removes a document from the index.
+	 *
+	 * @param textArea The document.
+	 * @return Whether the document was indexed.
+	 * @see #index(RTextEditorPane, Key)
+	 */
+	private boolean unindex(RTextEditorPane textArea) {
+
+		Key key = keysByTextArea.remove(textArea);
+		if (key==null) {
+			return false;
+		}
+
+		// Forget the path unless another document was opened with it
+		if (!keysByTextArea.containsValue(key)) {
+			keysByPath.remove(key.path, key.resolved);
+		}
+
+		textAreasByKey.computeIfPresent(key.resolved, (k, old) -> {
+			List<RTextEditorPane> textAreas = new ArrayList<>(old);
+			textAreas.remove(textArea);
+			return textAreas.isEmpty() ? null :
+					Collections.unmodifiableList(textAreas);
+		});
+		return true;
+
+	}
+
+
+	/**
+	 * The path a document was opened with, and the canonical path it is
+	 * indexed by.
+	 */
+	private static final class Key {
+
+		private final Object path;
+		private final Object resolved;
+
+		Key(String fileFullPath) {
+			path = normalize(fileFullPath);
+			resolved = resolve(path);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key)o;
+			return path.equals(other.path) && resolved.equals(other.resolved);
+		}
+
+		@Override
+		public int hashCode() {
+			return path.hashCode() * 31 + resolved.hashCode();
+		}
+
+	}
+
+
+}
@@ -0,0 +1,52 @@
+/*
+ * 10/19/2026
+ *
+ * DocumentRegistryListener.java - Listens for documents being opened, closed
+ * or renamed in RText.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.EventListener;
+
+
+/**
+ * A listener interested in knowing when documents are opened, closed or
+ * renamed.  All methods are called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see DocumentRegistry
+ */
+public interface DocumentRegistryListener extends EventListener {
+
+
+	/**
+	 * Called when a document is opened.
+	 *
+	 * @param textArea The document.
+	 */
+	void documentAdded(RTextEditorPane textArea);
+
+
+	/**
+	 * Called when a document is closed.
+	 *
+	 * @param textArea The document.
+	 */
+	void documentRemoved(RTextEditorPane textArea);
+
+
+	/**
+	 * Called when a document is saved to a new location.
+	 *
+	 * @param textArea The document.
+	 * @param oldFileFullPath The document's previous location.
+	 */
+	void documentRenamed(RTextEditorPane textArea, String oldFileFullPath);
+
+
+}
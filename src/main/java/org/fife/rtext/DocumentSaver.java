@@ -0,0 +1,459 @@
+/*
+ * 10/19/2026
+ *
+ * DocumentSaver.java - Writes documents to disk on background threads.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.AbstractDocument;
+
+import org.fife.io.UnicodeWriter;
+import org.fife.rtext.jfr.FileSaveEvent;
+
+
+/**
+ * Saves local documents, either on background threads, so "Save All"
+ * neither blocks the EDT nor has to make each document the active one to
+ * save it, or on the calling thread for an ordinary "Save".<p>
+ *
+ * A {@link DocumentSnapshot} of a document's text is taken, and written
+ * without holding the document's lock, so edits never wait on disk IO, and
+ * the text is never copied into one large string.  If a
+ * document is modified after it was queued, it stays dirty once the save
+ * completes.  If the write fails, the document stays dirty too, so closing
+ * it still prompts to save.<p>
+ *
+ * Files can optionally be written to a temporary file that then replaces
+ * the original, so a crash mid-save never leaves a truncated file behind,
+ * and can optionally be forced to the storage device before the save is
+ * considered complete.  Both are off by default.  A replaced file keeps its
+ * owner, permissions and other attributes; a file whose attributes can't
+ * all be copied, or that has several hard links, is written in place
+ * instead.  "Save As" doesn't go through this class, so these options
+ * don't apply to it.<p>
+ *
+ * All methods in this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class DocumentSaver {
+
+	private final RText owner;
+	private final Map<RTextEditorPane, SaveTask> pending;
+	private boolean atomicSaves;
+	private boolean syncOnSave;
+
+	/**
+	 * The number of characters copied out of a snapshot at a time when
+	 * writing it.
+	 */
+	private static final int WRITE_CHUNK_SIZE = 8192;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent application.
+	 */
+	public DocumentSaver(RText owner) {
+		this.owner = owner;
+		pending = new HashMap<>();
+	}
+
+
+	/**
+	 * Waits for any queued saves to complete.  This should be called before
+	 * RText exits, or before a document is saved or closed by other means.
+	 *
+	 * @see #awaitPendingSave(RTextEditorPane)
+	 */
+	public void awaitPendingSaves() {
+		List<SaveTask> tasks = new ArrayList<>(pending.values());
+		for (SaveTask task : tasks) {
+			task.await();
+		}
+	}
+
+
+	/**
+	 * Waits for a queued save of a document to complete, if there is one.
+	 *
+	 * @param textArea The document.
+	 * @see #awaitPendingSaves()
+	 */
+	public void awaitPendingSave(RTextEditorPane textArea) {
+		SaveTask task = pending.get(textArea);
+		if (task!=null) {
+			task.await();
+		}
+	}
+
+
+	/**
+	 * Returns whether files are written to a temporary file that then
+	 * replaces the original.
+	 *
+	 * @return Whether saves are atomic.
+	 * @see #setAtomicSaves(boolean)
+	 */
+	public boolean getAtomicSaves() {
+		return atomicSaves;
+	}
+
+
+	/**
+	 * Returns whether saved files are forced to the storage device before
+	 * the save is considered complete.
+	 *
+	 * @return Whether saves are synced.
+	 * @see #setSyncOnSave(boolean)
+	 */
+	public boolean getSyncOnSave() {
+		return syncOnSave;
+	}
+
+
+	/**
+	 * Returns whether a save of a document is queued or running.
+	 *
+	 * @param textArea The document.
+	 * @return Whether a save is pending.
+	 */
+	public boolean isSavePending(RTextEditorPane textArea) {
+		return pending.containsKey(textArea);
+	}
+
+
+	/**
+	 * Queues a local document to be saved.  If the document is already
+	 * being saved, that save is waited for first.
+	 *
+	 * @param textArea The document to save.  This should be a local file.
+	 */
+	public void save(RTextEditorPane textArea) {
+		awaitPendingSave(textArea);
+		SaveTask task = new SaveTask(textArea, Paths.get(textArea.getFileFullPath()),
+				atomicSaves, syncOnSave);
+		textArea.getDocument().addDocumentListener(task);
+		pending.put(textArea, task);
+		// The interactive lane limits how many files are written at once
+		task.future = TaskScheduler.get().submit(TaskScheduler.Lane.INTERACTIVE,
+				null, token -> task.write());
+	}
+
+
+	/**
+	 * Saves a local document on the calling thread.  If the document is
+	 * already being saved in the background, that save is waited for first.
+	 *
+	 * @param textArea The document to save.  This should be a local file.
+	 * @throws IOException If an IO error occurs.  In this case the document
+	 *         is left dirty.
+	 * @see #save(RTextEditorPane)
+	 */
+	public void saveNow(RTextEditorPane textArea) throws IOException {
+		awaitPendingSave(textArea);
+		SaveTask task = new SaveTask(textArea, Paths.get(textArea.getFileFullPath()),
+				atomicSaves, syncOnSave);
+		task.writeFile();
+		textArea.setDirty(false);
+		textArea.syncLastSaveOrLoadTimeToActualFile();
+	}
+
+
+	/**
+	 * Sets whether files are written to a temporary file that then replaces
+	 * the original.  This ensures a crash while saving never leaves a
+	 * partially-written file behind.
+	 *
+	 * @param atomic Whether saves are atomic.
+	 * @see #getAtomicSaves()
+	 */
+	public void setAtomicSaves(boolean atomic) {
+		this.atomicSaves = atomic;
+	}
+
+
+	/**
+	 * Sets whether saved files are forced to the storage device before the
+	 * save is considered complete.  This is safer, but slower.
+	 *
+	 * @param sync Whether saves are synced.
+	 * @see #getSyncOnSave()
+	 */
+	public void setSyncOnSave(boolean sync) {
+		this.syncOnSave = sync;
+	}
+
+
+	/**
+	 * Writes text, converting newlines to a line separator.  The text is
+	 * copied out of the snapshot a chunk at a time.
+	 *
+	 * @param text The text.
+	 * @param lineSeparator The line separator to write.
+	 * @param w The writer to write to.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private static void writeContent(DocumentSnapshot text,
+			String lineSeparator, Writer w) throws IOException {
+		char[] buf = new char[WRITE_CHUNK_SIZE];
+		int offs = 0;
+		int len = text.length();
+		while (offs<len) {
+			int count = Math.min(len - offs, buf.length);
+			text.getChars(offs, offs + count, buf, 0);
+			int start = 0;
+			for (int i=0; i<count; i++) {
+				if (buf[i]=='\n') {
+					w.write(buf, start, i-start);
+					w.write(lineSeparator);
+					start = i + 1;
+				}
+			}
+			w.write(buf, start, count-start);
+			offs += count;
+		}
+	}
+
+
+	/**
+	 * A single queued save.
+	 */
+	private final class SaveTask implements DocumentListener {
+
+		private final RTextEditorPane textArea;
+		private final AbstractDocument doc;
+		private final Path file;
+		private final String encoding;
+		private final String lineSeparator;
+		private final boolean atomic;
+		private final boolean sync;
+		private Future<?> future;
+		private volatile Exception error;
+		private boolean modified;
+		private boolean finished;
+
+		SaveTask(RTextEditorPane textArea, Path file, boolean atomic,
+				boolean sync) {
+			this.textArea = textArea;
+			this.doc = (AbstractDocument)textArea.getDocument();
+			this.file = file;
+			this.encoding = textArea.getEncoding();
+			Object sep = textArea.getLineSeparator();
+			this.lineSeparator = sep instanceof String ? (String)sep :
+					System.lineSeparator();
+			this.atomic = atomic;
+			this.sync = sync;
+		}
+
+		/**
+		 * Waits for this save to complete, then updates the document on
+		 * this thread rather than waiting for the EDT to get to it.  If
+		 * the save failed or didn't complete, the document stays dirty.
+		 */
+		void await() {
+			try {
+				future.get();
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				error = new InterruptedIOException("Interrupted waiting for save");
+			} catch (ExecutionException ee) {
+				Throwable cause = ee.getCause();
+				error = cause instanceof Exception ? (Exception)cause :
+						new IOException(cause);
+			} catch (CancellationException ce) {
+				error = new IOException("Save was cancelled");
+			}
+			finish();
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		/**
+		 * Called on the EDT when the file has been written, or writing it
+		 * failed.
+		 */
+		private void finish() {
+
+			if (finished) {
+				return;
+			}
+			finished = true;
+			doc.removeDocumentListener(this);
+			pending.remove(textArea);
+
+			if (error!=null) {
+				String temp = owner.getString("ErrorWritingFile",
+						textArea.getFileFullPath(), error.getMessage());
+				JOptionPane.showMessageDialog(owner, temp,
+					owner.getString("ErrorDialogTitle"), JOptionPane.ERROR_MESSAGE);
+				owner.setMessages(null, "ERROR:  Could not save file!");
+				return;
+			}
+
+			if (!modified) {
+				textArea.setDirty(false);
+			}
+			else {
+				// The journal's edits no longer apply to the file on disk
+				owner.getMainView().getRecoveryJournal().rebase(textArea);
+			}
+			textArea.syncLastSaveOrLoadTimeToActualFile();
+
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			modified = true;
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			modified = true;
+		}
+
+		/**
+		 * Returns a snapshot of the document's text.  If the document isn't
+		 * otherwise mirrored for snapshots, it stops being mirrored once
+		 * the snapshot is taken.
+		 *
+		 * @return The snapshot.
+		 */
+		private DocumentSnapshot takeSnapshot() {
+			boolean tracked = textArea.hasSnapshotTracker();
+			DocumentSnapshot snapshot = textArea.createSnapshot();
+			if (!tracked) {
+				textArea.releaseSnapshotTracker();
+			}
+			return snapshot;
+		}
+
+		/**
+		 * Called on a worker thread to write the file.
+		 */
+		private void write() {
+
+			FileSaveEvent event = new FileSaveEvent();
+			event.begin();
+			try {
+				writeFile();
+			} catch (Exception e) {
+				error = e;
+				event.setFailed(e);
+			}
+			event.setPath(file.toString());
+			event.setLength(doc.getLength());
+			event.setBackground(true);
+			event.commit();
+
+			SwingUtilities.invokeLater(this::finish);
+
+		}
+
+		/**
+		 * Writes the file, atomically if that was requested and possible.
+		 *
+		 * @throws IOException If an IO error occurs.
+		 */
+		private void writeFile() throws IOException {
+			DocumentSnapshot text = takeSnapshot();
+			if (atomic && Files.isWritable(file.toAbsolutePath().getParent())) {
+				writeAtomically(text);
+			}
+			else {
+				writeTo(file, text);
+			}
+		}
+
+		/**
+		 * Writes to a temporary file in the same directory, then renames it
+		 * over the original.  If the original has several hard links, or
+		 * its attributes can't all be copied to the temporary file, it is
+		 * written in place instead.
+		 *
+		 * @param text The text to write.
+		 * @throws IOException If an IO error occurs.
+		 */
+		private void writeAtomically(DocumentSnapshot text) throws IOException {
+
+			Path target = file;
+			boolean exists = Files.exists(target);
+			if (exists) {
+				target = target.toRealPath(); // Don't replace symlinks
+				if (!Files.isWritable(target)) {
+					throw new AccessDeniedException(target.toString());
+				}
+				if (FileReplacer.isHardLinked(target)) {
+					writeTo(target, text);
+					return;
+				}
+			}
+
+			Path temp = FileReplacer.createTempFile(target);
+			try {
+				writeTo(temp, text);
+				if (exists && !FileReplacer.copyAttributes(target, temp)) {
+					// Replacing the file would change who can access it
+					writeTo(target, text);
+				}
+				else {
+					FileReplacer.replace(temp, target);
+				}
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+
+		}
+
+		/**
+		 * Writes text to a file.
+		 *
+		 * @param path The file to write to.
+		 * @param text The text to write.
+		 * @throws IOException If an IO error occurs.
+		 */
+		private void writeTo(Path path, DocumentSnapshot text) throws IOException {
+
+			FileOutputStream out = new FileOutputStream(path.toFile());
+			try (Writer w = new BufferedWriter(new UnicodeWriter(out, encoding))) {
+				writeContent(text, lineSeparator, w);
+				w.flush();
+				if (sync) {
+					out.getFD().sync();
+				}
+			}
+
+		}
+
+	}
+
+
+}
@@ -0,0 +1,316 @@
+/*
+ * 10/19/2026
+ *
+ * DocumentSnapshot.java - An immutable view of a document's text.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.Arrays;
+
+
+/**
+ * A read-only view of a text area's text and lines as of a single moment,
+ * that can be read from any thread.<p>
+ *
+ * Snapshots are created by {@link RTextEditorPane#createSnapshot()}.  The
+ * text is kept in fixed-size pages that are never modified; an edit
+ * replaces only the pages it touches.  Creating a snapshot therefore
+ * costs a reference per page rather than a copy of the text, and
+ * consecutive snapshots share all pages that weren't edited between
+ * them.<p>
+ *
+ * Each snapshot has a version, which increases with every edit.  Work done
+ * on a background thread can check
+ * {@link RTextEditorPane#isSnapshotCurrent(DocumentSnapshot)} before
+ * applying its results, and start over if the text has changed.<p>
+ *
+ * This class implements <code>CharSequence</code>, so it can be searched
+ * with regular expressions directly.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class DocumentSnapshot implements CharSequence {
+
+	private final Object source;
+	private final long version;
+	private final Page[] pages;
+	private final int[] pageStarts;
+	private final int[] pageLines;
+	private int lastPage;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param source The tracker this snapshot was created by.
+	 * @param version The version of the text.
+	 * @param pages The pages of text.
+	 */
+	DocumentSnapshot(Object source, long version, Page[] pages) {
+		this.source = source;
+		this.version = version;
+		this.pages = pages;
+		pageStarts = new int[pages.length + 1];
+		pageLines = new int[pages.length + 1];
+		for (int i=0; i<pages.length; i++) {
+			pageStarts[i+1] = pageStarts[i] + pages[i].chars.length;
+			pageLines[i+1] = pageLines[i] + pages[i].newlines.length;
+		}
+	}
+
+
+	@Override
+	public char charAt(int index) {
+		if (index<0 || index>=length()) {
+			throw new IndexOutOfBoundsException("Invalid index: " + index);
+		}
+		int page = lastPage; // Benign race; it's validated below
+		if (index<pageStarts[page] || index>=pageStarts[page+1]) {
+			page = getPageOf(index);
+			lastPage = page;
+		}
+		return pages[page].chars[index - pageStarts[page]];
+	}
+
+
+	/**
+	 * Copies a range of the text into an array, as
+	 * <code>String.getChars()</code> does.
+	 *
+	 * @param start The start of the range.
+	 * @param end The end of the range.
+	 * @param dest The array to copy into.
+	 * @param destOffs The offset into <code>dest</code> to copy to.
+	 * @throws IndexOutOfBoundsException If the range is invalid, or
+	 *         doesn't fit in <code>dest</code>.
+	 */
+	public void getChars(int start, int end, char[] dest, int destOffs) {
+		if (start<0 || end>length() || start>end ||
+				destOffs<0 || destOffs+end-start>dest.length) {
+			throw new IndexOutOfBoundsException("Invalid range: " + start + "-" + end);
+		}
+		int page = start==end ? 0 : getPageOf(start);
+		while (start<end) {
+			int pageStart = pageStarts[page];
+			int from = start - pageStart;
+			int to = Math.min(end - pageStart, pages[page].chars.length);
+			System.arraycopy(pages[page].chars, from, dest, destOffs, to - from);
+			destOffs += to - from;
+			start = pageStart + to;
+			page++;
+		}
+	}
+
+
+	/**
+	 * Returns the page containing an offset.
+	 *
+	 * @param offs The offset.
+	 * @return The page index.
+	 */
+	private int getPageOf(int offs) {
+		int page = Arrays.binarySearch(pageStarts, 0, pages.length, offs);
+		if (page<0) {
+			page = -page - 2;
+		}
+		else {
+			// Pages are never empty, but be safe
+			while (page<pages.length-1 && pageStarts[page+1]==offs) {
+				page++;
+			}
+		}
+		return page;
+	}
+
+
+	/**
+	 * Returns the number of lines in the text.  This is always at least
+	 * <code>1</code>.
+	 *
+	 * @return The line count.
+	 */
+	public int getLineCount() {
+		return pageLines[pages.length] + 1;
+	}
+
+
+	/**
+	 * Returns the offset of the end of a line, including its newline if it
+	 * has one.
+	 *
+	 * @param line The line.
+	 * @return The end offset of the line.
+	 * @throws IndexOutOfBoundsException If the line is invalid.
+	 * @see #getLineStartOffset(int)
+	 */
+	public int getLineEndOffset(int line) {
+		if (line==getLineCount()-1) {
+			return length();
+		}
+		return getLineStartOffset(line + 1);
+	}
+
+
+	/**
+	 * Returns the line containing an offset.
+	 *
+	 * @param offs The offset.
+	 * @return The line.
+	 * @throws IndexOutOfBoundsException If the offset is invalid.
+	 */
+	public int getLineOfOffset(int offs) {
+		if (offs<0 || offs>length()) {
+			throw new IndexOutOfBoundsException("Invalid offset: " + offs);
+		}
+		if (pages.length==0) {
+			return 0;
+		}
+		int page = offs==length() ? pages.length-1 : getPageOf(offs);
+		int[] newlines = pages[page].newlines;
+		int index = Arrays.binarySearch(newlines, offs - pageStarts[page]);
+		// A newline at offs is still on this line
+		index = index<0 ? -index - 1 : index;
+		return pageLines[page] + index;
+	}
+
+
+	/**
+	 * Returns the offset of the start of a line.
+	 *
+	 * @param line The line.
+	 * @return The start offset of the line.
+	 * @throws IndexOutOfBoundsException If the line is invalid.
+	 * @see #getLineEndOffset(int)
+	 */
+	public int getLineStartOffset(int line) {
+		if (line<0 || line>=getLineCount()) {
+			throw new IndexOutOfBoundsException("Invalid line: " + line);
+		}
+		if (line==0) {
+			return 0;
+		}
+		// The page containing the newline ending the previous line
+		int newline = line - 1;
+		int page = Arrays.binarySearch(pageLines, 0, pages.length, newline);
+		page = page<0 ? -page - 2 : page;
+		while (pageLines[page+1]<=newline) {
+			page++;
+		}
+		return pageStarts[page] + pages[page].newlines[newline - pageLines[page]] + 1;
+	}
+
+
+	/**
+	 * Returns a range of the text.
+	 *
+	 * @param offs The start offset.
+	 * @param len The number of characters.
+	 * @return The text.
+	 * @throws IndexOutOfBoundsException If the range is invalid.
+	 */
+	public String getText(int offs, int len) {
+		return subSequence(offs, offs + len).toString();
+	}
+
+
+	/**
+	 * Returns the version of the text in this snapshot.  Versions only
+	 * increase, but not necessarily by one per edit.
+	 *
+	 * @return The version.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+
+	/**
+	 * Returns whether this snapshot was created by a tracker.
+	 *
+	 * @param source The tracker.
+	 * @return Whether the tracker created this snapshot.
+	 */
+	boolean isFrom(Object source) {
+		return this.source==source;
+	}
+
+
+	@Override
+	public int length() {
+		return pageStarts[pages.length];
+	}
+
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start<0 || end>length() || start>end) {
+			throw new IndexOutOfBoundsException("Invalid range: " + start + "-" + end);
+		}
+		StringBuilder sb = new StringBuilder(end - start);
+		int page = start==end ? 0 : getPageOf(start);
+		while (start<end) {
+			int pageStart = pageStarts[page];
+			int from = start - pageStart;
+			int to = Math.min(end - pageStart, pages[page].chars.length);
+			sb.append(pages[page].chars, from, to - from);
+			start = pageStart + to;
+			page++;
+		}
+		return sb.toString();
+	}
+
+
+	@Override
+	public String toString() {
+		return getText(0, length());
+	}
+
+
+	/**
+	 * An immutable page of text.
+	 */
+	static final class Page {
+
+		private final char[] chars;
+		private final int[] newlines;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param chars The text of the page.  This should not be modified
+		 *        afterward.
+		 */
+		Page(char[] chars) {
+			this.chars = chars;
+			int count = 0;
+			for (char ch : chars) {
+				if (ch=='\n') {
+					count++;
+				}
+			}
+			newlines = new int[count];
+			count = 0;
+			for (int i=0; i<chars.length; i++) {
+				if (chars[i]=='\n') {
+					newlines[count++] = i;
+				}
+			}
+		}
+
+		char[] getChars() {
+			return chars;
+		}
+
+		int length() {
+			return chars.length;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,228 @@
+/*
+ * 10/19/2026
+ *
+ * DocumentSnapshotTracker.java - Keeps a document's text in immutable pages.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Segment;
+
+
+/**
+ * Mirrors a document's text in immutable pages, from which
+ * {@link DocumentSnapshot}s are created.  Each edit replaces the pages it
+ * touches with new ones.<p>
+ *
+ * Document listeners are notified while the document's write lock is held,
+ * so the pages always match some version of the document.  Snapshots may
+ * be created on any thread.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class DocumentSnapshotTracker implements DocumentListener {
+
+	private final AbstractDocument doc;
+	private final List<DocumentSnapshot.Page> pages;
+	private int[] pageStarts;
+	private volatile long version;
+	private DocumentSnapshot snapshot;
+
+	/**
+	 * The usual number of characters in a page.  Edits may leave pages
+	 * smaller or up to twice this large.
+	 */
+	private static final int PAGE_SIZE = 16 * 1024;
+
+
+	/**
+	 * Constructor.  This reads the entire document.
+	 *
+	 * @param doc The document to track.
+	 */
+	DocumentSnapshotTracker(AbstractDocument doc) {
+		this.doc = doc;
+		pages = new ArrayList<>();
+		// Start listening while the lock is held so no edit is missed
+		doc.render(() -> {
+			Segment seg = new Segment();
+			seg.setPartialReturn(true);
+			int offs = 0;
+			int len = doc.getLength();
+			try {
+				while (offs<len) {
+					doc.getText(offs, Math.min(len-offs, PAGE_SIZE), seg);
+					pages.add(new DocumentSnapshot.Page(
+							Arrays.copyOfRange(seg.array, seg.offset, seg.offset+seg.count)));
+					offs += seg.count;
+				}
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+			doc.addDocumentListener(this);
+		});
+	}
+
+
+	/**
+	 * Adds pages holding a range of characters.
+	 *
+	 * @param index The index to add the pages at.
+	 * @param chars The characters.
+	 * @param offs The start of the range.
+	 * @param len The length of the range.
+	 */
+	private void addPages(int index, char[] chars, int offs, int len) {
+		while (len>0) {
+			// Don't leave a tiny page at the end
+			int count = len<=2*PAGE_SIZE ? len : PAGE_SIZE;
+			pages.add(index++, new DocumentSnapshot.Page(
+					Arrays.copyOfRange(chars, offs, offs+count)));
+			offs += count;
+			len -= count;
+		}
+	}
+
+
+	@Override
+	public void changedUpdate(DocumentEvent e) {
+	}
+
+
+	/**
+	 * Returns a snapshot of the document's current text.
+	 *
+	 * @return The snapshot.
+	 */
+	synchronized DocumentSnapshot createSnapshot() {
+		if (snapshot==null || snapshot.getVersion()!=version) {
+			snapshot = new DocumentSnapshot(this, version,
+					pages.toArray(new DocumentSnapshot.Page[0]));
+		}
+		return snapshot;
+	}
+
+
+	/**
+	 * Returns the page containing an offset.
+	 *
+	 * @param offs The offset.
+	 * @return The page index.  If <code>offs</code> is the end of the
+	 *         document, this is the last page.
+	 */
+	private int getPageOf(int offs) {
+		if (pageStarts==null) {
+			pageStarts = new int[pages.size() + 1];
+			for (int i=0; i<pages.size(); i++) {
+				pageStarts[i+1] = pageStarts[i] + pages.get(i).length();
+			}
+		}
+		int page = Arrays.binarySearch(pageStarts, 0, pages.size(), offs);
+		return page<0 ? -page - 2 : page;
+	}
+
+
+	/**
+	 * Returns the document being tracked.
+	 *
+	 * @return The document.
+	 */
+	AbstractDocument getDocument() {
+		return doc;
+	}
+
+
+	/**
+	 * Returns the current version of the document.
+	 *
+	 * @return The version.
+	 */
+	long getVersion() {
+		return version;
+	}
+
+
+	@Override
+	public synchronized void insertUpdate(DocumentEvent e) {
+
+		int offs = e.getOffset();
+		String text;
+		try {
+			text = doc.getText(offs, e.getLength());
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			return;
+		}
+
+		char[] chars;
+		int page;
+		if (pages.isEmpty()) {
+			page = 0;
+			chars = text.toCharArray();
+		}
+		else {
+			page = Math.max(0, getPageOf(offs));
+			char[] old = pages.remove(page).getChars();
+			int local = offs - pageStarts[page];
+			chars = new char[old.length + text.length()];
+			System.arraycopy(old, 0, chars, 0, local);
+			text.getChars(0, text.length(), chars, local);
+			System.arraycopy(old, local, chars, local + text.length(), old.length - local);
+		}
+
+		addPages(page, chars, 0, chars.length);
+		pageStarts = null;
+		version++;
+
+	}
+
+
+	@Override
+	public synchronized void removeUpdate(DocumentEvent e) {
+
+		int offs = e.getOffset();
+		int end = offs + e.getLength();
+		int first = getPageOf(offs);
+		int last = getPageOf(end);
+		if (last>first && end==pageStarts[last]) {
+			last--; // The removal ends at a page boundary
+		}
+
+		char[] firstChars = pages.get(first).getChars();
+		char[] lastChars = pages.get(last).getChars();
+		int head = offs - pageStarts[first];
+		int tailStart = end - pageStarts[last];
+		int tail = lastChars.length - tailStart;
+
+		char[] chars = new char[head + tail];
+		System.arraycopy(firstChars, 0, chars, 0, head);
+		System.arraycopy(lastChars, tailStart, chars, head, tail);
+
+		pages.subList(first, last + 1).clear();
+		addPages(first, chars, 0, chars.length);
+		pageStarts = null;
+		version++;
+
+	}
+
+
+	/**
+	 * Stops tracking the document.
+	 */
+	void uninstall() {
+		doc.removeDocumentListener(this);
+	}
+
+
+}
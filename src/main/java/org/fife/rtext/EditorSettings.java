@@ -0,0 +1,349 @@
+/*
+ * 10/19/2026
+ *
+ * EditorSettings.java - An immutable snapshot of text area settings.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.util.Arrays;
+import java.util.Objects;
+import javax.swing.text.Caret;
+
+import org.fife.ui.rsyntaxtextarea.SyntaxScheme;
+import org.fife.ui.rtextarea.CaretStyle;
+import org.fife.ui.rtextarea.RTextArea;
+
+
+/**
+ * An immutable snapshot of the appearance and behavior settings shared by
+ * all text areas in an {@link AbstractMainView}.<p>
+ *
+ * New editors get all of these settings in a single pass via
+ * {@link #applyTo(RTextEditorPane)}, before they are added to the UI, so no
+ * intermediate layouts or repaints occur.  When settings change (for example,
+ * when the user clicks "Apply" in the Options dialog), the main view takes a
+ * new snapshot and calls {@link #applyDiff(EditorSettings, RTextEditorPane)}
+ * on each open editor, so only the properties that actually changed are
+ * touched, no matter how many individual setters were called.  Editors
+ * that aren't showing, such as those in other tabs, are only updated when
+ * they are next shown.<p>
+ *
+ * Settings that scan entire lines, such as mark occurrences and bracket
+ * matching, are never turned on for editors in long-line mode.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see AbstractMainView#flushEditorSettings()
+ */
+public final class EditorSettings {
+
+	private final SyntaxScheme syntaxScheme;
+	private final Font font;
+	private final Color foreground;
+	private final int tabSize;
+	private final boolean tabsEmulated;
+	private final boolean highlightCurrentLine;
+	private final Color currentLineColor;
+	private final boolean marginLineEnabled;
+	private final int marginLinePosition;
+	private final Color marginLineColor;
+	private final boolean highlightSecondaryLanguages;
+	private final Color[] secondaryLanguageColors;
+	private final Color markAllHighlightColor;
+	private final boolean markOccurrences;
+	private final Color markOccurrencesColor;
+	private final boolean bracketMatchingEnabled;
+	private final boolean matchBothBrackets;
+	private final Color matchedBracketBGColor;
+	private final Color matchedBracketBorderColor;
+	private final boolean whitespaceVisible;
+	private final boolean showTabLines;
+	private final Color tabLinesColor;
+	private final boolean showEOLMarkers;
+	private final boolean rememberWhitespaceLines;
+	private final boolean autoInsertClosingCurlys;
+	private final Color caretColor;
+	private final Color selectionColor;
+	private final Color selectedTextColor;
+	private final boolean useSelectedTextColor;
+	private final boolean hyperlinksEnabled;
+	private final Color hyperlinkColor;
+	private final int hyperlinkModifierKey;
+	private final boolean roundedSelectionEdges;
+	private final CaretStyle insertCaret;
+	private final CaretStyle overwriteCaret;
+	private final int caretBlinkRate;
+	private final boolean antiAliasEnabled;
+	private final boolean fractionalMetricsEnabled;
+	private final int undoHistoryMaxSize;
+	private final int undoHistoryMaxSteps;
+
+
+	/**
+	 * Takes a snapshot of the current settings of a main view.
+	 *
+	 * @param view The main view.
+	 */
+	EditorSettings(AbstractMainView view) {
+
+		syntaxScheme = view.owner==null ? null : view.owner.getSyntaxScheme();
+		font = view.getTextAreaFont();
+		foreground = view.getTextAreaForeground();
+		tabSize = view.getTabSize();
+		tabsEmulated = view.areTabsEmulated();
+		highlightCurrentLine = view.isCurrentLineHighlightEnabled();
+		currentLineColor = view.getCurrentLineHighlightColor();
+		marginLineEnabled = view.isMarginLineEnabled();
+		marginLinePosition = view.getMarginLinePosition();
+		marginLineColor = view.getMarginLineColor();
+		highlightSecondaryLanguages = view.getHighlightSecondaryLanguages();
+		secondaryLanguageColors = new Color[3];
+		for (int i=0; i<secondaryLanguageColors.length; i++) {
+			secondaryLanguageColors[i] = view.getSecondaryLanguageColor(i);
+		}
+		markAllHighlightColor = view.getMarkAllHighlightColor();
+		markOccurrences = view.getMarkOccurrences();
+		markOccurrencesColor = view.getMarkOccurrencesColor();
+		bracketMatchingEnabled = view.isBracketMatchingEnabled();
+		matchBothBrackets = view.getMatchBothBrackets();
+		matchedBracketBGColor = view.getMatchedBracketBGColor();
+		matchedBracketBorderColor = view.getMatchedBracketBorderColor();
+		whitespaceVisible = view.isWhitespaceVisible();
+		showTabLines = view.getShowTabLines();
+		tabLinesColor = view.getTabLinesColor();
+		showEOLMarkers = view.getShowEOLMarkers();
+		rememberWhitespaceLines = view.getRememberWhitespaceLines();
+		autoInsertClosingCurlys = view.getAutoInsertClosingCurlys();
+		caretColor = view.getCaretColor();
+		selectionColor = view.getSelectionColor();
+		selectedTextColor = view.getSelectedTextColor();
+		useSelectedTextColor = view.getUseSelectedTextColor();
+		hyperlinksEnabled = view.getHyperlinksEnabled();
+		hyperlinkColor = view.getHyperlinkColor();
+		hyperlinkModifierKey = view.getHyperlinkModifierKey();
+		roundedSelectionEdges = view.getRoundedSelectionEdges();
+		insertCaret = view.getCaretStyle(RTextArea.INSERT_MODE);
+		overwriteCaret = view.getCaretStyle(RTextArea.OVERWRITE_MODE);
+		caretBlinkRate = view.getCaretBlinkRate();
+		antiAliasEnabled = view.isAntiAliasEnabled();
+		fractionalMetricsEnabled = view.isFractionalFontMetricsEnabled();
+		undoHistoryMaxSize = view.getUndoHistoryMaxSize();
+		undoHistoryMaxSteps = view.getUndoHistoryMaxSteps();
+
+	}
+
+
+	/**
+	 * Applies only those settings that differ between an older snapshot and
+	 * this one to a text area.  The text area is assumed to currently have
+	 * the settings in <code>old</code>.
+	 *
+	 * @param old The settings the text area currently has.
+	 * @param pane The text area to update.
+	 * @see #applyTo(RTextEditorPane)
+	 */
+	public void applyDiff(EditorSettings old, RTextEditorPane pane) {
+
+		if (syntaxScheme!=null && !syntaxScheme.equals(old.syntaxScheme)) {
+			pane.setSyntaxScheme(syntaxScheme);
+		}
+		if (!Objects.equals(font, old.font)) {
+			pane.setFont(font);
+		}
+		if (!Objects.equals(foreground, old.foreground)) {
+			pane.setForeground(foreground);
+		}
+		if (tabSize!=old.tabSize) {
+			pane.setTabSize(tabSize);
+		}
+		if (tabsEmulated!=old.tabsEmulated) {
+			pane.setTabsEmulated(tabsEmulated);
+		}
+		if (highlightCurrentLine!=old.highlightCurrentLine) {
+			pane.setHighlightCurrentLine(highlightCurrentLine);
+		}
+		if (!Objects.equals(currentLineColor, old.currentLineColor)) {
+			pane.setCurrentLineHighlightColor(currentLineColor);
+		}
+		if (marginLineEnabled!=old.marginLineEnabled) {
+			pane.setMarginLineEnabled(marginLineEnabled);
+		}
+		if (marginLinePosition!=old.marginLinePosition) {
+			pane.setMarginLinePosition(marginLinePosition);
+		}
+		if (!Objects.equals(marginLineColor, old.marginLineColor)) {
+			pane.setMarginLineColor(marginLineColor);
+		}
+		if (highlightSecondaryLanguages!=old.highlightSecondaryLanguages) {
+			pane.setHighlightSecondaryLanguages(highlightSecondaryLanguages);
+		}
+		if (!Arrays.equals(secondaryLanguageColors, old.secondaryLanguageColors)) {
+			for (int i=0; i<secondaryLanguageColors.length; i++) {
+				pane.setSecondaryLanguageBackground(i+1, secondaryLanguageColors[i]);
+			}
+		}
+		if (!Objects.equals(markAllHighlightColor, old.markAllHighlightColor)) {
+			pane.setMarkAllHighlightColor(markAllHighlightColor);
+		}
+		if (markOccurrences!=old.markOccurrences) {
+			pane.setMarkOccurrences(markOccurrences && !pane.isLongLineMode());
+		}
+		if (!Objects.equals(markOccurrencesColor, old.markOccurrencesColor)) {
+			pane.setMarkOccurrencesColor(markOccurrencesColor);
+		}
+		if (bracketMatchingEnabled!=old.bracketMatchingEnabled) {
+			pane.setBracketMatchingEnabled(bracketMatchingEnabled &&
+					!pane.isLongLineMode());
+		}
+		if (matchBothBrackets!=old.matchBothBrackets) {
+			pane.setPaintMatchedBracketPair(matchBothBrackets);
+		}
+		if (!Objects.equals(matchedBracketBGColor, old.matchedBracketBGColor)) {
+			pane.setMatchedBracketBGColor(matchedBracketBGColor);
+		}
+		if (!Objects.equals(matchedBracketBorderColor, old.matchedBracketBorderColor)) {
+			pane.setMatchedBracketBorderColor(matchedBracketBorderColor);
+		}
+		if (whitespaceVisible!=old.whitespaceVisible) {
+			pane.setWhitespaceVisible(whitespaceVisible);
+		}
+		if (showTabLines!=old.showTabLines) {
+			pane.setPaintTabLines(showTabLines);
+		}
+		if (!Objects.equals(tabLinesColor, old.tabLinesColor)) {
+			pane.setTabLineColor(tabLinesColor);
+		}
+		if (showEOLMarkers!=old.showEOLMarkers) {
+			pane.setEOLMarkersVisible(showEOLMarkers);
+		}
+		if (rememberWhitespaceLines!=old.rememberWhitespaceLines) {
+			pane.setClearWhitespaceLinesEnabled(!rememberWhitespaceLines);
+		}
+		if (autoInsertClosingCurlys!=old.autoInsertClosingCurlys) {
+			pane.setCloseCurlyBraces(autoInsertClosingCurlys);
+		}
+		if (!Objects.equals(caretColor, old.caretColor)) {
+			pane.setCaretColor(caretColor);
+		}
+		if (!Objects.equals(selectionColor, old.selectionColor)) {
+			pane.setSelectionColor(selectionColor);
+		}
+		if (!Objects.equals(selectedTextColor, old.selectedTextColor)) {
+			pane.setSelectedTextColor(selectedTextColor);
+		}
+		if (useSelectedTextColor!=old.useSelectedTextColor) {
+			pane.setUseSelectedTextColor(useSelectedTextColor);
+		}
+		if (hyperlinksEnabled!=old.hyperlinksEnabled) {
+			pane.setHyperlinksEnabled(hyperlinksEnabled);
+		}
+		if (!Objects.equals(hyperlinkColor, old.hyperlinkColor)) {
+			pane.setHyperlinkForeground(hyperlinkColor);
+		}
+		if (hyperlinkModifierKey!=old.hyperlinkModifierKey) {
+			pane.setLinkScanningMask(hyperlinkModifierKey);
+		}
+		if (roundedSelectionEdges!=old.roundedSelectionEdges) {
+			pane.setRoundedSelectionEdges(roundedSelectionEdges);
+		}
+		if (insertCaret!=old.insertCaret) {
+			pane.setCaretStyle(RTextArea.INSERT_MODE, insertCaret);
+		}
+		if (overwriteCaret!=old.overwriteCaret) {
+			pane.setCaretStyle(RTextArea.OVERWRITE_MODE, overwriteCaret);
+		}
+		if (caretBlinkRate!=old.caretBlinkRate) {
+			Caret c = pane.getCaret();
+			if (c!=null) {
+				c.setBlinkRate(caretBlinkRate);
+			}
+		}
+		if (antiAliasEnabled!=old.antiAliasEnabled) {
+			pane.setAntiAliasingEnabled(antiAliasEnabled);
+		}
+		if (fractionalMetricsEnabled!=old.fractionalMetricsEnabled) {
+			pane.setFractionalFontMetricsEnabled(fractionalMetricsEnabled);
+		}
+		if (undoHistoryMaxSize!=old.undoHistoryMaxSize ||
+				undoHistoryMaxSteps!=old.undoHistoryMaxSteps) {
+			applyUndoHistoryLimits(pane);
+		}
+
+	}
+
+
+	/**
+	 * Applies all of these settings to a text area.  This should be called
+	 * on newly-created text areas before they are added to the UI.
+	 *
+	 * @param pane The text area to configure.
+	 * @see #applyDiff(EditorSettings, RTextEditorPane)
+	 */
+	public void applyTo(RTextEditorPane pane) {
+
+		if (syntaxScheme!=null) {
+			pane.setSyntaxScheme(syntaxScheme);
+		}
+		pane.setFont(font);
+		pane.setForeground(foreground);
+		pane.setTabSize(tabSize);
+		pane.setTabsEmulated(tabsEmulated);
+		pane.setHighlightCurrentLine(highlightCurrentLine);
+		pane.setCurrentLineHighlightColor(currentLineColor);
+		pane.setMarginLineEnabled(marginLineEnabled);
+		pane.setMarginLinePosition(marginLinePosition);
+		pane.setMarginLineColor(marginLineColor);
+		pane.setHighlightSecondaryLanguages(highlightSecondaryLanguages);
+		for (int i=0; i<secondaryLanguageColors.length; i++) {
+			pane.setSecondaryLanguageBackground(i+1, secondaryLanguageColors[i]);
+		}
+		pane.setMarkAllHighlightColor(markAllHighlightColor);
+		pane.setMarkOccurrences(markOccurrences && !pane.isLongLineMode());
+		pane.setMarkOccurrencesColor(markOccurrencesColor);
+		pane.setBracketMatchingEnabled(bracketMatchingEnabled &&
+				!pane.isLongLineMode());
+		pane.setPaintMatchedBracketPair(matchBothBrackets);
+		pane.setMatchedBracketBGColor(matchedBracketBGColor);
+		pane.setMatchedBracketBorderColor(matchedBracketBorderColor);
+		pane.setWhitespaceVisible(whitespaceVisible);
+		pane.setPaintTabLines(showTabLines);
+		pane.setTabLineColor(tabLinesColor);
+		pane.setEOLMarkersVisible(showEOLMarkers);
+		pane.setClearWhitespaceLinesEnabled(!rememberWhitespaceLines);
+		pane.setCloseCurlyBraces(autoInsertClosingCurlys);
+		pane.setCaretColor(caretColor);
+		pane.setSelectionColor(selectionColor);
+		pane.setSelectedTextColor(selectedTextColor);
+		pane.setUseSelectedTextColor(useSelectedTextColor);
+		pane.setHyperlinksEnabled(hyperlinksEnabled);
+		pane.setHyperlinkForeground(hyperlinkColor);
+		pane.setLinkScanningMask(hyperlinkModifierKey);
+		pane.setRoundedSelectionEdges(roundedSelectionEdges);
+		pane.setCaretStyle(RTextArea.INSERT_MODE, insertCaret);
+		pane.setCaretStyle(RTextArea.OVERWRITE_MODE, overwriteCaret);
+		pane.getCaret().setBlinkRate(caretBlinkRate);
+		pane.setAntiAliasingEnabled(antiAliasEnabled);
+		pane.setFractionalFontMetricsEnabled(fractionalMetricsEnabled);
+		applyUndoHistoryLimits(pane);
+
+	}
+
+
+	/**
+	 * Applies the undo history limits to a text area.
+	 *
+	 * @param pane The text area.
+	 */
+	private void applyUndoHistoryLimits(RTextEditorPane pane) {
+		pane.setUndoHistoryLimits(undoHistoryMaxSize * 1024L * 1024L,
+				undoHistoryMaxSteps);
+	}
+
+
+}
@@ -0,0 +1,529 @@
+/*
+ * 10/19/2026
+ *
+ * EdtWatchdog.java - Finds out what is making the UI unresponsive.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Watches the event dispatch thread for events that take too long to
+ * handle, and finds out what they were doing.<p>
+ *
+ * The watchdog does nothing until it is {@link #install() installed},
+ * which RText does when the UI Responsiveness window is first shown, or at
+ * startup if the <code>edtWatchdog</code> system property is set.  Once
+ * installed, every event dispatched is timed.
+ * While an event is being handled, a watchdog thread samples the EDT's
+ * stack every {@link #SAMPLE_INTERVAL} milliseconds.  If handling the event
+ * takes longer than the {@link #setThreshold(int) threshold}, it's a stall,
+ * and the samples show where the time went.  At most {@link #MAX_SAMPLES}
+ * samples are kept per event.  Events pumped by a modal dialog are timed
+ * on their own, and the event that opened the dialog is neither sampled
+ * nor reported once that happens.  The stall is attributed to
+ * its <em>call site</em>: the first frame of RText code in the stack
+ * sampled most often, so stalls caused by the same code are grouped
+ * together whatever JDK code they block in.<p>
+ *
+ * The watchdog also measures how long it takes for an event posted to the
+ * queue to be dispatched, which is what the user feels as lag.<p>
+ *
+ * Each stall is appended to {@link #LOG_FILE_NAME} in the preferences
+ * directory.  When the log grows past {@link #MAX_LOG_SIZE}, it is renamed
+ * with a <code>.1</code> suffix and a new one is started.  Statistics for
+ * each call site are available from {@link #getStallSites()}, and are
+ * shown in the {@link UiResponsivenessWindow}.<p>
+ *
+ * All methods in this class may be called from any thread.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class EdtWatchdog {
+
+	private static final EdtWatchdog INSTANCE = new EdtWatchdog();
+
+	private volatile Dispatch current;
+	private volatile int threshold;
+	private boolean installed;
+
+	private final Map<String, StallSite> sites;
+	private long stallCount;
+	private long latencyCount;
+	private long totalLatencyNanos;
+	private long maxLatencyNanos;
+	private long lastLatencyNanos;
+
+	/**
+	 * The name of the stall log, in the preferences directory.
+	 */
+	public static final String LOG_FILE_NAME = "edtStalls.log";
+
+	/**
+	 * The size past which the stall log is rolled over, in bytes.
+	 */
+	public static final long MAX_LOG_SIZE = 512 * 1024;
+
+	/**
+	 * How often the EDT's stack is sampled while it handles an event, in
+	 * milliseconds.
+	 */
+	public static final int SAMPLE_INTERVAL = 20;
+
+	/**
+	 * The most stack samples kept while handling a single event.
+	 */
+	public static final int MAX_SAMPLES = 250;
+
+	/**
+	 * The default threshold, in milliseconds.
+	 */
+	private static final int DEFAULT_THRESHOLD = 100;
+
+	/**
+	 * How often the dispatch latency is measured, in samples.
+	 */
+	private static final int LATENCY_PROBE_INTERVAL = 25;
+
+	/**
+	 * The most frames of a stack written to the log.
+	 */
+	private static final int MAX_LOGGED_FRAMES = 20;
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private EdtWatchdog() {
+		sites = new HashMap<>();
+		threshold = DEFAULT_THRESHOLD;
+	}
+
+
+	/**
+	 * Clears all statistics.  The log isn't affected.
+	 */
+	public synchronized void clear() {
+		sites.clear();
+		stallCount = 0;
+		latencyCount = 0;
+		totalLatencyNanos = 0;
+		maxLatencyNanos = 0;
+		lastLatencyNanos = 0;
+	}
+
+
+	/**
+	 * Returns the watchdog.
+	 *
+	 * @return The watchdog.
+	 */
+	public static EdtWatchdog get() {
+		return INSTANCE;
+	}
+
+
+	/**
+	 * Returns the average time it takes for a posted event to be
+	 * dispatched.
+	 *
+	 * @return The average latency, in milliseconds.
+	 */
+	public synchronized double getAverageLatencyMillis() {
+		return latencyCount==0 ? 0 : totalLatencyNanos / 1000000.0 / latencyCount;
+	}
+
+
+	/**
+	 * Returns the call site of a stack: the first frame in RText's own code
+	 * (or a plugin's), or the top frame if there is no such frame.
+	 *
+	 * @param stack The stack.
+	 * @return The call site.
+	 */
+	private static String getCallSite(StackTraceElement[] stack) {
+		for (StackTraceElement frame : stack) {
+			String className = frame.getClassName();
+			if (className.startsWith("org.fife.") &&
+					!className.startsWith(EdtWatchdog.class.getName())) {
+				return frame.toString();
+			}
+		}
+		return stack.length>0 ? stack[0].toString() : "Unknown";
+	}
+
+
+	/**
+	 * Returns the time it took for the most recently measured posted event
+	 * to be dispatched.
+	 *
+	 * @return The latency, in milliseconds.
+	 */
+	public synchronized double getLastLatencyMillis() {
+		return lastLatencyNanos / 1000000.0;
+	}
+
+
+	/**
+	 * Returns the longest time it took for a posted event to be dispatched.
+	 *
+	 * @return The longest latency, in milliseconds.
+	 */
+	public synchronized double getMaxLatencyMillis() {
+		return maxLatencyNanos / 1000000.0;
+	}
+
+
+	/**
+	 * Returns the number of stalls since statistics were last cleared.
+	 *
+	 * @return The number of stalls.
+	 */
+	public synchronized long getStallCount() {
+		return stallCount;
+	}
+
+
+	/**
+	 * Returns the call sites that have stalled the EDT, ordered by the
+	 * total time they have stalled it.
+	 *
+	 * @return Copies of the call sites' statistics.
+	 */
+	public synchronized List<StallSite> getStallSites() {
+		List<StallSite> copy = new ArrayList<>();
+		for (StallSite site : sites.values()) {
+			copy.add(new StallSite(site));
+		}
+		copy.sort((s1, s2) -> Long.compare(s2.totalNanos, s1.totalNanos));
+		return copy;
+	}
+
+
+	/**
+	 * Returns the threshold past which handling an event is a stall.
+	 *
+	 * @return The threshold, in milliseconds.
+	 * @see #setThreshold(int)
+	 */
+	public int getThreshold() {
+		return threshold;
+	}
+
+
+	/**
+	 * Starts watching the EDT.  Calling this more than once has no effect.
+	 */
+	public synchronized void install() {
+		if (!installed) {
+			installed = true;
+			Toolkit.getDefaultToolkit().getSystemEventQueue().push(new TimingEventQueue());
+			Thread t = new Thread(this::watch, "RText EDT Watchdog");
+			t.setDaemon(true);
+			t.start();
+		}
+	}
+
+
+	/**
+	 * Appends a stall to the log, rolling it over first if it's full.
+	 * This is called on a worker thread.
+	 *
+	 * @param line A description of the stall.
+	 * @param stack The stack sampled most often, or <code>null</code> if
+	 *        none was sampled.
+	 */
+	private static void log(String line, StackTraceElement[] stack) {
+
+		File file = new File(RTextUtilities.getPreferencesDirectory(), LOG_FILE_NAME);
+		if (file.length()>MAX_LOG_SIZE) {
+			File old = new File(file.getParentFile(), LOG_FILE_NAME + ".1");
+			if (old.isFile() && !old.delete()) {
+				return;
+			}
+			if (!file.renameTo(old)) {
+				return;
+			}
+		}
+
+		try (PrintWriter w = new PrintWriter(new FileWriter(file, true))) {
+			w.println(line);
+			if (stack!=null) {
+				int count = Math.min(stack.length, MAX_LOGGED_FRAMES);
+				for (int i=0; i<count; i++) {
+					w.println("\tat " + stack[i]);
+				}
+				if (count<stack.length) {
+					w.println("\t... " + (stack.length - count) + " more");
+				}
+			}
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+
+	}
+
+
+	/**
+	 * Records the time it took for a posted event to be dispatched.
+	 *
+	 * @param nanos The latency, in nanoseconds.
+	 */
+	private synchronized void recordLatency(long nanos) {
+		latencyCount++;
+		totalLatencyNanos += nanos;
+		maxLatencyNanos = Math.max(maxLatencyNanos, nanos);
+		lastLatencyNanos = nanos;
+	}
+
+
+	/**
+	 * Records a stall.
+	 *
+	 * @param d The event that stalled the EDT.
+	 * @param nanos How long it took to handle the event.
+	 */
+	private void recordStall(Dispatch d, long nanos) {
+
+		// Find the stack seen most often; it's where the time went
+		StackTraceElement[] stack = null;
+		String callSite = null;
+		synchronized (d) {
+			Map<String, Integer> counts = new HashMap<>();
+			int best = 0;
+			for (StackTraceElement[] sample : d.samples) {
+				String site = getCallSite(sample);
+				int count = counts.merge(site, 1, Integer::sum);
+				if (count>best) {
+					best = count;
+					callSite = site;
+					stack = sample;
+				}
+			}
+		}
+		if (callSite==null) { // Too short to be sampled
+			callSite = d.eventClass.getName();
+		}
+
+		synchronized (this) {
+			stallCount++;
+			StallSite site = sites.computeIfAbsent(callSite, StallSite::new);
+			site.count++;
+			site.totalNanos += nanos;
+			if (nanos>=site.maxNanos) {
+				site.maxNanos = nanos;
+				site.stack = stack;
+			}
+		}
+
+		String time = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date());
+		String line = time + "  " + (nanos / 1000000) + " ms  " +
+				d.eventClass.getSimpleName() + "  " + callSite;
+		StackTraceElement[] loggedStack = stack;
+		TaskScheduler.get().submit(TaskScheduler.Lane.BACKGROUND, "EdtWatchdog",
+				token -> log(line, loggedStack));
+
+	}
+
+
+	/**
+	 * Sets the threshold past which handling an event is a stall.
+	 *
+	 * @param threshold The threshold, in milliseconds.
+	 * @see #getThreshold()
+	 */
+	public void setThreshold(int threshold) {
+		this.threshold = threshold;
+	}
+
+
+	/**
+	 * Samples the EDT's stack while it handles long events, and measures
+	 * dispatch latency.  This runs on the watchdog thread.
+	 */
+	private void watch() {
+
+		int tick = 0;
+
+		while (true) {
+
+			try {
+				Thread.sleep(SAMPLE_INTERVAL);
+			} catch (InterruptedException ie) {
+				return;
+			}
+
+			// Start sampling at half the threshold, so even short stalls
+			// have samples.  Once a nested event loop (e.g. a modal dialog)
+			// has run, the event won't be reported, so stop sampling it.
+			Dispatch d = current;
+			long now = System.nanoTime();
+			if (d!=null && !d.nested && (now-d.start)/1000000 >= threshold/2) {
+				StackTraceElement[] stack = d.thread.getStackTrace();
+				if (current==d) { // Still handling the same event
+					synchronized (d) {
+						if (d.samples.size()<MAX_SAMPLES) {
+							d.samples.add(stack);
+						}
+					}
+				}
+			}
+
+			if (++tick==LATENCY_PROBE_INTERVAL) {
+				tick = 0;
+				long posted = System.nanoTime();
+				EventQueue.invokeLater(() -> recordLatency(System.nanoTime() - posted));
+			}
+
+		}
+
+	}
+
+
+	/**
+	 * An event being dispatched.
+	 */
+	private static final class Dispatch {
+
+		private final Thread thread;
+		private final Class<?> eventClass;
+		private final long start;
+		private final List<StackTraceElement[]> samples;
+		private volatile boolean nested;
+
+		Dispatch(AWTEvent event) {
+			thread = Thread.currentThread();
+			eventClass = event.getClass();
+			start = System.nanoTime();
+			samples = new ArrayList<>(1);
+		}
+
+	}
+
+
+	/**
+	 * Statistics on the stalls caused by one call site.
+	 */
+	public static final class StallSite {
+
+		private final String callSite;
+		private int count;
+		private long totalNanos;
+		private long maxNanos;
+		private StackTraceElement[] stack;
+
+		StallSite(String callSite) {
+			this.callSite = callSite;
+		}
+
+		StallSite(StallSite site) {
+			callSite = site.callSite;
+			count = site.count;
+			totalNanos = site.totalNanos;
+			maxNanos = site.maxNanos;
+			stack = site.stack;
+		}
+
+		/**
+		 * Returns the call site.
+		 *
+		 * @return The call site, as a stack frame.
+		 */
+		public String getCallSite() {
+			return callSite;
+		}
+
+		/**
+		 * Returns the number of stalls caused by this call site.
+		 *
+		 * @return The number of stalls.
+		 */
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * Returns the longest stall caused by this call site.
+		 *
+		 * @return The longest stall, in milliseconds.
+		 */
+		public long getMaxMillis() {
+			return maxNanos / 1000000;
+		}
+
+		/**
+		 * Returns the stack sampled most often during the longest stall
+		 * caused by this call site.
+		 *
+		 * @return The stack, or <code>null</code> if none was sampled.
+		 */
+		public StackTraceElement[] getStackTrace() {
+			return stack==null ? null : stack.clone();
+		}
+
+		/**
+		 * Returns the total time this call site has stalled the EDT.
+		 *
+		 * @return The total time, in milliseconds.
+		 */
+		public long getTotalMillis() {
+			return totalNanos / 1000000;
+		}
+
+	}
+
+
+	/**
+	 * Times each event as it is dispatched.
+	 */
+	private final class TimingEventQueue extends EventQueue {
+
+		@Override
+		protected void dispatchEvent(AWTEvent event) {
+
+			Dispatch outer = current;
+			if (outer!=null) {
+				// A modal dialog or secondary loop is pumping events; the
+				// outer event's time is mostly spent in those
+				outer.nested = true;
+				synchronized (outer) {
+					outer.samples.clear(); // It won't be reported
+				}
+			}
+			Dispatch d = new Dispatch(event);
+			current = d;
+
+			try {
+				super.dispatchEvent(event);
+			} finally {
+				current = outer;
+				long nanos = System.nanoTime() - d.start;
+				if (!d.nested && nanos/1000000 >= threshold) {
+					recordStall(d, nanos);
+				}
+			}
+
+		}
+
+	}
+
+
+}
@@ -0,0 +1,424 @@
+/*
+ * 10/19/2026
+ *
+ * ExternalProcess.java - An external process whose output is streamed.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.fife.io.ProcessRunnerOutputListener;
+
+
+/**
+ * Runs an external process and streams its output to a listener.  This is
+ * a replacement for <code>ProcessRunner</code> that doesn't need a thread
+ * of its own; the process is managed by the {@link ProcessService}.<p>
+ *
+ * Output is sent to the listener in chunks as soon as it is available.
+ * Line terminators are kept in the chunks, with <code>"\r\n"</code>
+ * normalized to <code>'\n'</code>, so a chunk that doesn't end with one
+ * ends mid-line, and the next chunk from the same stream continues that
+ * line.  A chunk is never larger than {@link #CHUNK_SIZE} characters.  The
+ * listener is called on the thread reading the stream, and the stream
+ * isn't read again until it returns.  A listener that can't keep up thus
+ * makes the process wait, rather than its output piling up in memory.<p>
+ *
+ * When the process ends, the listener's <code>processCompleted()</code>
+ * method is called with an <code>InterruptedException</code> if it was
+ * {@link #kill() killed}, a <code>TimeoutException</code> if it ran longer
+ * than its {@link #setTimeout(long) timeout}, or the exception thrown if it
+ * couldn't be started.<p>
+ *
+ * Killing a process also kills any processes it started, such as the
+ * programs run by a shell.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class ExternalProcess {
+
+	private final String[] command;
+	private File directory;
+	private Map<String, String> env;
+	private boolean appendEnv;
+	private ProcessRunnerOutputListener listener;
+	private long timeout;
+
+	private boolean started;
+	private volatile Process process;
+	private volatile boolean killed;
+	private volatile boolean completed;
+	private final CountDownLatch done;
+	private int returnCode;
+	private Throwable lastError;
+
+	/**
+	 * The maximum size of a chunk of output, in characters.
+	 */
+	public static final int CHUNK_SIZE = 8192;
+
+	/**
+	 * How long a killed process has to exit before it is forcibly
+	 * terminated, in milliseconds.
+	 */
+	private static final long KILL_GRACE_PERIOD = 1000;
+
+	/**
+	 * How long to wait for the rest of a process's output after it exits,
+	 * in milliseconds.  A process it started may still have its output
+	 * streams open.
+	 */
+	private static final long OUTPUT_DRAIN_TIME = 5000;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param command The program to run, followed by its arguments.
+	 */
+	public ExternalProcess(String... command) {
+		this.command = command.clone();
+		done = new CountDownLatch(1);
+		returnCode = -1;
+	}
+
+
+	/**
+	 * Records how the process ended and notifies the listener.
+	 *
+	 * @param p The process, or <code>null</code> if it couldn't be started.
+	 * @param rc The process's return code.
+	 * @param error The reason the process ended abnormally, or
+	 *        <code>null</code> if it ran to completion.
+	 */
+	private void complete(Process p, int rc, Throwable error) {
+		returnCode = rc;
+		lastError = error;
+		completed = true;
+		try {
+			if (listener!=null) {
+				listener.processCompleted(p, rc, error);
+			}
+		} finally {
+			done.countDown();
+		}
+	}
+
+
+	/**
+	 * Returns the exception that ended the process abnormally, if any.
+	 *
+	 * @return The exception, or <code>null</code> if the process ran to
+	 *         completion or hasn't completed yet.
+	 */
+	public Throwable getLastError() {
+		return done.getCount()==0 ? lastError : null;
+	}
+
+
+	/**
+	 * Returns the process's return code.
+	 *
+	 * @return The return code, or <code>-1</code> if the process couldn't
+	 *         be started or hasn't completed yet.
+	 */
+	public int getReturnCode() {
+		return done.getCount()==0 ? returnCode : -1;
+	}
+
+
+	/**
+	 * Returns whether the process has completed.
+	 *
+	 * @return Whether the process has completed.
+	 */
+	public boolean isCompleted() {
+		return completed;
+	}
+
+
+	/**
+	 * Kills the process and any processes it started.  They are asked to
+	 * exit, then forcibly terminated if they are still running after a
+	 * short grace period.  This method does not block.
+	 */
+	public void kill() {
+		killed = true;
+		Process p = process;
+		if (p!=null) {
+			terminate(p);
+		}
+	}
+
+
+	/**
+	 * Reads the process's output and waits for it to exit.  This runs on a
+	 * process thread.
+	 */
+	private void run() {
+
+		ProcessBuilder pb = new ProcessBuilder(command);
+		if (directory!=null) {
+			pb.directory(directory);
+		}
+		if (env!=null) {
+			Map<String, String> pbEnv = pb.environment();
+			if (!appendEnv) {
+				pbEnv.clear();
+			}
+			pbEnv.putAll(env);
+		}
+
+		Process p;
+		try {
+			p = pb.start();
+		} catch (IOException ioe) {
+			complete(null, -1, ioe);
+			return;
+		}
+
+		ProcessService service = ProcessService.get();
+		service.processStarted();
+		process = p;
+		if (killed) { // kill() was called while we were starting
+			terminate(p);
+		}
+
+		try {
+			p.getOutputStream().close(); // We never write to stdin
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+
+		CountDownLatch pumps = new CountDownLatch(2);
+		service.execute(new Pump(p, p.getInputStream(), true, pumps));
+		service.execute(new Pump(p, p.getErrorStream(), false, pumps));
+
+		boolean timedOut = false;
+		int rc = -1;
+		try {
+			if (timeout>0 && !p.waitFor(timeout, TimeUnit.MILLISECONDS)) {
+				timedOut = true;
+				terminate(p);
+			}
+			rc = p.waitFor();
+			pumps.await(OUTPUT_DRAIN_TIME, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ie) { // Never happens
+			terminate(p);
+			killed = true;
+		} finally {
+			service.processEnded();
+		}
+
+		Throwable error = null;
+		if (killed) {
+			error = new InterruptedException("Process killed");
+		}
+		else if (timedOut) {
+			error = new TimeoutException("Process ran longer than " +
+					timeout + " ms");
+		}
+		complete(p, rc, error);
+
+	}
+
+
+	/**
+	 * Sets the working directory of the process.
+	 *
+	 * @param directory The directory, or <code>null</code> for RText's
+	 *        working directory.
+	 */
+	public void setDirectory(File directory) {
+		this.directory = directory;
+	}
+
+
+	/**
+	 * Sets environment variables for the process.
+	 *
+	 * @param env The variables, or <code>null</code> to use RText's
+	 *        environment.
+	 * @param append Whether to add these variables to RText's environment,
+	 *        as opposed to using only these variables.
+	 */
+	public void setEnvironmentVars(Map<String, String> env, boolean append) {
+		this.env = env;
+		this.appendEnv = append;
+	}
+
+
+	/**
+	 * Sets the listener notified of output and completion.
+	 *
+	 * @param listener The listener, or <code>null</code> for none.
+	 */
+	public void setOutputListener(ProcessRunnerOutputListener listener) {
+		this.listener = listener;
+	}
+
+
+	/**
+	 * Sets how long the process may run before it is killed.
+	 *
+	 * @param timeout The timeout, in milliseconds.  If this is
+	 *        <code>0</code>, the process may run indefinitely.
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+
+	/**
+	 * Starts the process.  This method returns immediately.
+	 *
+	 * @throws IllegalStateException If the process was already started.
+	 * @see #waitFor()
+	 */
+	public synchronized void start() {
+		if (started) {
+			throw new IllegalStateException("Process already started");
+		}
+		started = true;
+		ProcessService.get().execute(this::run);
+	}
+
+
+	/**
+	 * Kills a process and its descendants.
+	 *
+	 * @param p The process.
+	 */
+	private static void terminate(Process p) {
+		List<ProcessHandle> tree = new ArrayList<>();
+		p.descendants().forEach(tree::add);
+		tree.add(p.toHandle());
+		tree.forEach(ProcessHandle::destroy);
+		ProcessService.get().execute(() -> {
+			try {
+				Thread.sleep(KILL_GRACE_PERIOD);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			}
+			tree.stream().filter(ProcessHandle::isAlive).
+					forEach(ProcessHandle::destroyForcibly);
+		});
+	}
+
+
+	/**
+	 * Waits for the process to complete, and for its listener to be
+	 * notified.
+	 *
+	 * @return The process's return code.
+	 * @throws InterruptedException If the current thread is interrupted
+	 *         while waiting.
+	 * @see #start()
+	 */
+	public int waitFor() throws InterruptedException {
+		done.await();
+		return returnCode;
+	}
+
+
+	/**
+	 * Reads one of a process's output streams and sends it to the
+	 * listener in chunks.
+	 */
+	private class Pump implements Runnable {
+
+		private final Process p;
+		private final InputStream in;
+		private final boolean stdout;
+		private final CountDownLatch pumps;
+		private final StringBuilder chunk;
+		private boolean pendingCR;
+
+		Pump(Process p, InputStream in, boolean stdout, CountDownLatch pumps) {
+			this.p = p;
+			this.in = in;
+			this.stdout = stdout;
+			this.pumps = pumps;
+			chunk = new StringBuilder();
+		}
+
+		/**
+		 * Adds a character to the chunk, sending the chunk to the listener
+		 * if it is full.
+		 *
+		 * @param ch The character.
+		 */
+		private void append(char ch) {
+			chunk.append(ch);
+			if (chunk.length()==CHUNK_SIZE) {
+				flush();
+			}
+		}
+
+		/**
+		 * Sends the output read so far to the listener.
+		 */
+		private void flush() {
+			if (chunk.length()>0) {
+				// Output read after we stopped waiting is dropped
+				if (listener!=null && !completed) {
+					listener.outputWritten(p, chunk.toString(), stdout);
+				}
+				chunk.setLength(0);
+			}
+		}
+
+		@Override
+		public void run() {
+			try (Reader r = new InputStreamReader(in)) {
+				char[] buf = new char[CHUNK_SIZE];
+				int count;
+				while ((count=r.read(buf))!=-1) {
+					for (int i=0; i<count; i++) {
+						char ch = buf[i];
+						// Hold a '\r' until we know whether it ends a line
+						if (pendingCR && ch!='\n') {
+							append('\r');
+						}
+						pendingCR = ch=='\r';
+						if (!pendingCR) {
+							append(ch);
+						}
+					}
+					// Send what we have unless more is waiting to be read
+					if (!r.ready()) {
+						flush();
+					}
+				}
+				// A '\r' at the very end doesn't have a '\n' to go with
+				if (pendingCR) {
+					append('\r');
+					pendingCR = false;
+				}
+				flush();
+			} catch (IOException ioe) {
+				// The stream was closed because the process was killed
+			} finally {
+				pumps.countDown();
+			}
+		}
+
+	}
+
+
+}
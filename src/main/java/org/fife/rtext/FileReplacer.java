@@ -0,0 +1,232 @@
+/*
+ * 10/19/2026
+ *
+ * FileReplacer.java - Replaces files with temporary files written beside them.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.DosFileAttributeView;
+import java.nio.file.attribute.DosFileAttributes;
+import java.nio.file.attribute.FileOwnerAttributeView;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+
+/**
+ * Utility methods for replacing a file with a temporary file written in the
+ * same directory, so a crash while writing never leaves a truncated file
+ * behind.<p>
+ *
+ * The replacement is a new file, so it only looks like the original to
+ * other programs if the original's attributes are copied to it first (see
+ * {@link #copyAttributes(Path, Path)}).  A file with several hard links
+ * can't be replaced without breaking the links, so callers should write
+ * such files in place instead (see {@link #isHardLinked(Path)}).
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class FileReplacer {
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private FileReplacer() {
+		// Do nothing (comment for Sonar)
+	}
+
+
+	/**
+	 * Copies a file's owner, permissions, ACL and extended attributes to
+	 * another file.  This is done on a best-effort basis; if an attribute
+	 * can't be copied, the rest still are.
+	 *
+	 * @param from The file to copy attributes from.
+	 * @param to The file to copy attributes to.
+	 * @return Whether all attributes were copied.  If this is
+	 *         <code>false</code>, replacing <code>from</code> with
+	 *         <code>to</code> would change how the file can be accessed.
+	 */
+	static boolean copyAttributes(Path from, Path to) {
+
+		boolean copied = true;
+
+		PosixFileAttributeView posix = Files.getFileAttributeView(from,
+				PosixFileAttributeView.class);
+		if (posix!=null) {
+			try {
+				PosixFileAttributes attrs = posix.readAttributes();
+				PosixFileAttributeView toPosix = Files.getFileAttributeView(to,
+						PosixFileAttributeView.class);
+				if (!attrs.group().equals(toPosix.readAttributes().group())) {
+					toPosix.setGroup(attrs.group());
+				}
+				toPosix.setPermissions(attrs.permissions());
+			} catch (IOException | RuntimeException e) {
+				copied = false;
+			}
+		}
+
+		DosFileAttributeView dos = Files.getFileAttributeView(from,
+				DosFileAttributeView.class);
+		if (posix==null && dos!=null) {
+			try {
+				DosFileAttributes attrs = dos.readAttributes();
+				DosFileAttributeView toDos = Files.getFileAttributeView(to,
+						DosFileAttributeView.class);
+				toDos.setHidden(attrs.isHidden());
+				toDos.setSystem(attrs.isSystem());
+				toDos.setArchive(attrs.isArchive());
+			} catch (IOException | RuntimeException e) {
+				copied = false;
+			}
+		}
+
+		AclFileAttributeView acl = Files.getFileAttributeView(from,
+				AclFileAttributeView.class);
+		if (acl!=null) {
+			try {
+				Files.getFileAttributeView(to, AclFileAttributeView.class).
+						setAcl(acl.getAcl());
+			} catch (IOException | RuntimeException e) {
+				copied = false;
+			}
+		}
+
+		UserDefinedFileAttributeView user = Files.getFileAttributeView(from,
+				UserDefinedFileAttributeView.class);
+		if (user!=null) {
+			copied &= copyUserAttributes(user, Files.getFileAttributeView(to,
+					UserDefinedFileAttributeView.class));
+		}
+
+		// Last, since changing the owner may leave us unable to change
+		// anything else
+		FileOwnerAttributeView owner = Files.getFileAttributeView(from,
+				FileOwnerAttributeView.class);
+		if (owner!=null) {
+			try {
+				FileOwnerAttributeView toOwner = Files.getFileAttributeView(to,
+						FileOwnerAttributeView.class);
+				if (!owner.getOwner().equals(toOwner.getOwner())) {
+					toOwner.setOwner(owner.getOwner());
+				}
+			} catch (IOException | RuntimeException e) {
+				copied = false;
+			}
+		}
+
+		return copied;
+
+	}
+
+
+	/**
+	 * Copies a file's extended attributes to another file.
+	 *
+	 * @param from The attributes to copy.
+	 * @param to The attributes to copy to.
+	 * @return Whether all attributes were copied.
+	 */
+	private static boolean copyUserAttributes(UserDefinedFileAttributeView from,
+			UserDefinedFileAttributeView to) {
+
+		List<String> names;
+		try {
+			names = from.list();
+		} catch (IOException | RuntimeException e) {
+			return true; // The file system doesn't support them
+		}
+
+		try {
+			for (String name : names) {
+				ByteBuffer value = ByteBuffer.allocate(from.size(name));
+				from.read(name, value);
+				value.flip();
+				to.write(name, value);
+			}
+		} catch (IOException | RuntimeException e) {
+			return false;
+		}
+		return true;
+
+	}
+
+
+	/**
+	 * Creates an empty temporary file in the same directory as a file.
+	 * Unlike <code>Files.createTempFile()</code>, the file is created with
+	 * the same default permissions as any other new file.
+	 *
+	 * @param target The file the temporary file will replace.
+	 * @return The temporary file.
+	 * @throws IOException If an IO error occurs.
+	 */
+	static Path createTempFile(Path target) throws IOException {
+		Path dir = target.toAbsolutePath().getParent();
+		String prefix = "." + target.getFileName() + ".";
+		while (true) {
+			long id = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+			try {
+				return Files.createFile(dir.resolve(prefix + id + ".tmp"));
+			} catch (FileAlreadyExistsException faee) {
+				// Try another name
+			}
+		}
+	}
+
+
+	/**
+	 * Returns whether a file has more than one hard link.  Replacing such a
+	 * file would leave its other links pointing at the old contents.
+	 *
+	 * @param file The file.
+	 * @return Whether the file is hard linked.  This is <code>false</code>
+	 *         if the file doesn't exist, or the file system doesn't report
+	 *         link counts.
+	 */
+	static boolean isHardLinked(Path file) {
+		try {
+			Object count = Files.getAttribute(file, "unix:nlink");
+			return count instanceof Integer && (Integer)count>1;
+		} catch (IOException | RuntimeException e) {
+			return false;
+		}
+	}
+
+
+	/**
+	 * Renames a temporary file over the file it replaces, atomically if
+	 * the file system supports it.
+	 *
+	 * @param temp The temporary file.
+	 * @param target The file to replace.
+	 * @throws IOException If an IO error occurs.
+	 */
+	static void replace(Path temp, Path target) throws IOException {
+		try {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException amnse) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+
+}
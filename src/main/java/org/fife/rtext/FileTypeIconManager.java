@@ -38,9 +38,15 @@ public final class FileTypeIconManager {
 	private Map<String, String> type2IconNameMap;
 
 	/**
-	 * The map of icon names to icons.
+	 * The cache of icon names to loaded icons.
 	 */
-	private Map<String, Icon> iconName2IconMap;
+	private ManagedCache<String, Icon> iconCache;
+
+	/**
+	 * Icons set by plugins, by syntax style.  These can't be reloaded, so
+	 * they aren't cached.
+	 */
+	private Map<String, Icon> customIconMap;
 
 	/**
 	 * The icon to use when no specific icon is found.
@@ -55,6 +61,11 @@ public final class FileTypeIconManager {
 
 	private static final String PATH = "/org/fife/rtext/graphics/file_icons/";
 
+	/**
+	 * The budget for loaded icons, in bytes.
+	 */
+	private static final long MAX_ICON_CACHE_WEIGHT = 64 * 1024;
+
 	private static final String DEFAULT_UNKNOWN_ICON_DARK_UI = "plain.svg";
 	private static final String DEFAULT_UNKNOWN_ICON_LIGHT_UI = "txt.gif";
 
@@ -93,7 +104,9 @@ public final class FileTypeIconManager {
 		type2IconNameMap.put(SyntaxConstants.SYNTAX_STYLE_WINDOWS_BATCH,	PATH + "bat.gif");
 		type2IconNameMap.put(SyntaxConstants.SYNTAX_STYLE_XML,				PATH + "xml.png");
 
-		iconName2IconMap = new HashMap<>();
+		iconCache = CacheManager.get().createCache("File Type Icons",
+				MAX_ICON_CACHE_WEIGHT, (name, icon) -> CacheManager.getWeight(icon));
+		customIconMap = new HashMap<>();
 
 	}
 
@@ -116,19 +129,18 @@ public final class FileTypeIconManager {
 		}
 		else {
 
+			// Check whether a plugin set an icon for this file type.
+			icon = customIconMap.get(style);
+
 			// Check whether there's a special icon for this file extension.
 			String iconName = type2IconNameMap.get(style);
-			if (iconName!=null) {
-				icon = iconName2IconMap.get(iconName);
+			if (icon==null && iconName!=null) {
 				// Load and cache the icon if it's not yet loaded.
-				if (icon==null) {
-					icon = getIconImpl(iconName);
-					iconName2IconMap.put(iconName, icon);
-				}
+				icon = iconCache.computeIfAbsent(iconName, this::getIconImpl);
 			}
 
 			// No special icon?  Then use the default one.
-			else {
+			if (icon==null) {
 				icon = defaultIcon;
 			}
 
@@ -172,8 +184,7 @@ public final class FileTypeIconManager {
 	 * @param icon The icon to use.
 	 */
 	public void setIconFor(String syntaxStyle, Icon icon) {
-		type2IconNameMap.put(syntaxStyle, syntaxStyle);
-		iconName2IconMap.put(syntaxStyle, icon);
+		customIconMap.put(syntaxStyle, icon);
 	}
 
 
@@ -0,0 +1,531 @@
+/*
+ * 10/19/2026
+ *
+ * IncrementalMarkAll.java - Marks all occurrences in large documents without
+ * blocking the EDT.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+import org.fife.ui.rtextarea.SearchContext;
+import org.fife.ui.rtextarea.SearchEngine;
+
+
+/**
+ * Performs "mark all" for large documents incrementally.<p>
+ *
+ * <code>SearchEngine.markAll()</code> searches and highlights an entire
+ * document on the EDT.  The find tool bar does this on every keystroke,
+ * which for a document of many megabytes makes typing in the search field
+ * lag badly.  For documents above {@link #INCREMENTAL_THRESHOLD}, this
+ * class instead marks the matches in the visible part of the text area
+ * right away.  Once the search text stops changing for a moment, a snapshot
+ * of the document is searched on a worker thread, and the running count of
+ * matches is shown in the status bar.  When the search completes, all
+ * matches are marked at once, unless there are more than
+ * {@link #MAX_MARKED}.  Highlighting that many would block the EDT, so
+ * instead only the matches around the visible part of the text area are
+ * marked, and the marks follow it as it's scrolled.<p>
+ *
+ * Starting a new search abandons any search in progress, as does editing
+ * the document, after which the search is run again on the new text.<p>
+ *
+ * When memory is low, at most {@link #LOW_MEMORY_MAX_MATCHES} matches are
+ * marked.<p>
+ *
+ * All methods in this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class IncrementalMarkAll {
+
+	private final RText owner;
+	private final Timer timer;
+	private Scan scan;
+	private LazyMarks lazyMarks;
+
+	/**
+	 * Documents at least this many characters long are searched
+	 * incrementally.  Smaller ones are marked synchronously.
+	 */
+	private static final int INCREMENTAL_THRESHOLD = 1024 * 1024;
+
+	/**
+	 * How long the search text must stay the same before the whole document
+	 * is searched, in milliseconds.
+	 */
+	private static final int DELAY = 250;
+
+	/**
+	 * The most characters searched synchronously to mark the visible part
+	 * of a text area.  This only matters for very long lines.
+	 */
+	private static final int MAX_VISIBLE_CHARS = 64 * 1024;
+
+	/**
+	 * How often the match count in the status bar is updated while the
+	 * document is searched, in milliseconds.
+	 */
+	private static final int REPORT_INTERVAL = 200;
+
+	/**
+	 * The most matches marked when memory is low.  Each one costs a
+	 * highlight in the text area as well as a document range.
+	 */
+	private static final int LOW_MEMORY_MAX_MATCHES = 10000;
+
+	/**
+	 * The most matches marked at once.  Beyond this, only the matches
+	 * around the visible part of the text area are marked.
+	 */
+	private static final int MAX_MARKED = 5000;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent application.
+	 */
+	public IncrementalMarkAll(RText owner) {
+		this.owner = owner;
+		timer = new Timer(DELAY, e -> startScan());
+		timer.setRepeats(false);
+	}
+
+
+	/**
+	 * Abandons the search in progress, if any.
+	 */
+	public void cancel() {
+		timer.stop();
+		if (scan!=null) {
+			scan.cancel();
+			scan = null;
+		}
+		if (lazyMarks!=null) {
+			lazyMarks.uninstall();
+			lazyMarks = null;
+		}
+	}
+
+
+	/**
+	 * Returns a pattern matching what the search context searches for.
+	 *
+	 * @param context The search context.
+	 * @return The pattern.
+	 * @throws PatternSyntaxException If the context's regular expression is
+	 *         invalid.
+	 * @see ReplaceAllEngine
+	 */
+	static Pattern createPattern(SearchContext context) {
+		int flags = Pattern.MULTILINE;
+		if (!context.getMatchCase()) {
+			flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+		}
+		String searchFor = context.getSearchFor();
+		if (!context.isRegularExpression()) {
+			searchFor = Pattern.quote(searchFor);
+		}
+		return Pattern.compile(searchFor, flags);
+	}
+
+
+	/**
+	 * Adds all matches in a range of text to a list.
+	 *
+	 * @param m A matcher over the text.  Its region is the range to search,
+	 *        and it should use transparent bounds.
+	 * @param text The text being searched.
+	 * @param wholeWord Whether matches must be whole words.
+	 * @param offset The document offset of the start of the text.
+	 * @param ranges The list to add matches to.
+	 * @param limit Searching stops once the list has this many matches.
+	 * @param scan The scan doing the search, or <code>null</code> if none.
+	 *        If this scan is canceled, searching stops.
+	 */
+	private static void findMatches(Matcher m, CharSequence text,
+			boolean wholeWord, int offset, List<DocumentRange> ranges, int limit,
+			Scan scan) {
+
+		while ((scan==null || !scan.canceled) && ranges.size()<limit && m.find()) {
+			int start = m.start();
+			int end = m.end();
+			if (start==end) {
+				continue; // Zero-length regex matches aren't marked
+			}
+			if (wholeWord && !isWholeWord(text, start, end)) {
+				continue;
+			}
+			ranges.add(new DocumentRange(offset + start, offset + end));
+			if (scan!=null) {
+				scan.matchFound(ranges.size());
+			}
+		}
+
+	}
+
+
+	/**
+	 * Returns the matches in the visible part of a text area.
+	 *
+	 * @param textArea The text area.
+	 * @param pattern The pattern to search for.
+	 * @param wholeWord Whether matches must be whole words.
+	 * @return The matches.
+	 */
+	private static List<DocumentRange> findVisibleMatches(
+			RTextEditorPane textArea, Pattern pattern, boolean wholeWord) {
+
+		List<DocumentRange> ranges = new ArrayList<>();
+
+		Rectangle visible = textArea.getVisibleRect();
+		int start = textArea.viewToModel2D(visible.getLocation());
+		int end = textArea.viewToModel2D(new Point(visible.x + visible.width,
+				visible.y + visible.height));
+		if (start<0 || end<start) {
+			return ranges;
+		}
+
+		// Search entire lines unless they're very long
+		Document doc = textArea.getDocument();
+		Element root = doc.getDefaultRootElement();
+		int lineStart = root.getElement(root.getElementIndex(start)).getStartOffset();
+		int lineEnd = root.getElement(root.getElementIndex(end)).getEndOffset() - 1;
+		if (lineEnd-lineStart<=MAX_VISIBLE_CHARS) {
+			start = lineStart;
+			end = lineEnd;
+		}
+
+		// Include a character on either side for whole word checks
+		int textStart = Math.max(0, start - 1);
+		int textEnd = Math.min(doc.getLength(), end + 1);
+		try {
+			String text = doc.getText(textStart, textEnd - textStart);
+			Matcher m = pattern.matcher(text);
+			m.useTransparentBounds(true);
+			m.region(start - textStart, end - textStart);
+			findMatches(m, text, wholeWord, textStart, ranges, Integer.MAX_VALUE, null);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+		}
+
+		return ranges;
+
+	}
+
+
+	/**
+	 * Returns whether a match is a whole word, that is, it isn't preceded
+	 * or followed by a letter or digit.
+	 *
+	 * @param text The text searched.
+	 * @param start The start of the match.
+	 * @param end The end of the match.
+	 * @return Whether the match is a whole word.
+	 */
+	static boolean isWholeWord(CharSequence text, int start, int end) {
+		return (start==0 || !Character.isLetterOrDigit(text.charAt(start-1))) &&
+				(end==text.length() || !Character.isLetterOrDigit(text.charAt(end)));
+	}
+
+
+	/**
+	 * Marks all occurrences of the search text in a text area.  If the
+	 * context's "mark all" flag is off, or there is nothing to search for,
+	 * any marked occurrences are cleared instead.
+	 *
+	 * @param textArea The text area.
+	 * @param context What to search for.
+	 */
+	public void markAll(RTextEditorPane textArea, SearchContext context) {
+
+		cancel();
+
+		String searchFor = context.getSearchFor();
+		if (!context.getMarkAll() || searchFor==null || searchFor.isEmpty() ||
+				textArea.getDocument().getLength()<INCREMENTAL_THRESHOLD) {
+			SearchEngine.markAll(textArea, context);
+			return;
+		}
+
+		Pattern pattern;
+		try {
+			pattern = createPattern(context);
+		} catch (PatternSyntaxException pse) {
+			textArea.clearMarkAllHighlights();
+			return;
+		}
+
+		boolean wholeWord = context.getWholeWord();
+		textArea.markAll(findVisibleMatches(textArea, pattern, wholeWord));
+
+		scan = new Scan(textArea, pattern, wholeWord);
+		timer.restart();
+
+	}
+
+
+	/**
+	 * Searches a copy of the document on the worker thread.
+	 */
+	private void startScan() {
+		if (scan!=null) {
+			scan.start();
+		}
+	}
+
+
+	/**
+	 * A search of an entire document.
+	 */
+	private final class Scan implements DocumentListener {
+
+		private final RTextEditorPane textArea;
+		private final Pattern pattern;
+		private final boolean wholeWord;
+		private volatile boolean canceled;
+		private long lastReport;
+
+		Scan(RTextEditorPane textArea, Pattern pattern, boolean wholeWord) {
+			this.textArea = textArea;
+			this.pattern = pattern;
+			this.wholeWord = wholeWord;
+		}
+
+		void cancel() {
+			canceled = true;
+			textArea.getDocument().removeDocumentListener(this);
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		/**
+		 * Called on the EDT when the search completes.
+		 */
+		private void completed(List<DocumentRange> ranges, boolean capped) {
+			if (!canceled) {
+				cancel();
+				scan = null;
+				if (ranges.size()>MAX_MARKED) {
+					lazyMarks = new LazyMarks(textArea, pattern, wholeWord, ranges);
+					lazyMarks.install();
+				}
+				else {
+					textArea.markAll(ranges);
+				}
+				owner.setMessages(null, owner.getString(
+						capped ? "MarkAllCountCapped" : "MarkAllCount",
+						String.valueOf(ranges.size())));
+			}
+		}
+
+		/**
+		 * Called on the worker thread each time a match is found.
+		 */
+		void matchFound(int count) {
+			long now = System.currentTimeMillis();
+			if (now-lastReport>=REPORT_INTERVAL) {
+				lastReport = now;
+				SwingUtilities.invokeLater(() -> {
+					if (!canceled) {
+						owner.setMessages(null, owner.getString(
+								"MarkAllCounting", String.valueOf(count)));
+					}
+				});
+			}
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			restart();
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			restart();
+		}
+
+		/**
+		 * Called when the document changes.  The search so far is for text
+		 * that's no longer there, so it's thrown out and run again.
+		 */
+		private void restart() {
+			cancel();
+			scan = new Scan(textArea, pattern, wholeWord);
+			timer.restart();
+		}
+
+		/**
+		 * Searches the document.  This is called on the worker thread.
+		 *
+		 * @param text A snapshot of the document's text.
+		 */
+		private void search(DocumentSnapshot text) {
+			List<DocumentRange> ranges = new ArrayList<>();
+			lastReport = System.currentTimeMillis();
+			Matcher m = pattern.matcher(text);
+			m.useTransparentBounds(true);
+			int limit = MemoryPressureMonitor.get().isAtLeast(
+					MemoryPressureMonitor.Level.HIGH) ?
+					LOW_MEMORY_MAX_MATCHES : Integer.MAX_VALUE;
+			findMatches(m, text, wholeWord, 0, ranges, limit, this);
+			if (!canceled) {
+				boolean capped = ranges.size()>=limit;
+				SwingUtilities.invokeLater(() -> completed(ranges, capped));
+			}
+		}
+
+		void start() {
+			// Don't keep mirroring the document just for this search
+			boolean tracked = textArea.hasSnapshotTracker();
+			DocumentSnapshot text = textArea.createSnapshot();
+			if (!tracked) {
+				textArea.releaseSnapshotTracker();
+			}
+			textArea.getDocument().addDocumentListener(this);
+			// Only the latest search matters
+			TaskScheduler.get().submitCoalesced(TaskScheduler.Lane.VISIBLE_DOCUMENT,
+					"IncrementalMarkAll", token -> search(text));
+		}
+
+	}
+
+
+	/**
+	 * Marks the matches around the visible part of a text area, for a
+	 * search with too many matches to mark them all.  The marks are
+	 * updated as the text area is scrolled.
+	 */
+	private final class LazyMarks implements ChangeListener, DocumentListener {
+
+		private final RTextEditorPane textArea;
+		private final Pattern pattern;
+		private final boolean wholeWord;
+		private final List<DocumentRange> ranges;
+		private final JViewport viewport;
+		private int markedFrom;
+
+		LazyMarks(RTextEditorPane textArea, Pattern pattern, boolean wholeWord,
+				List<DocumentRange> ranges) {
+			this.textArea = textArea;
+			this.pattern = pattern;
+			this.wholeWord = wholeWord;
+			this.ranges = ranges;
+			viewport = (JViewport)SwingUtilities.getAncestorOfClass(
+					JViewport.class, textArea);
+			markedFrom = -1;
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		/**
+		 * Returns the index of the first match ending after an offset.
+		 *
+		 * @param offs The offset.
+		 * @return The index, or <code>ranges.size()</code> if there is
+		 *         none.
+		 */
+		private int indexAfter(int offs) {
+			int low = 0;
+			int high = ranges.size();
+			while (low<high) {
+				int mid = (low + high) >>> 1;
+				if (ranges.get(mid).getEndOffset()<=offs) {
+					low = mid + 1;
+				}
+				else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			restart();
+		}
+
+		void install() {
+			if (viewport!=null) {
+				viewport.addChangeListener(this);
+			}
+			textArea.getDocument().addDocumentListener(this);
+			markVisible();
+		}
+
+		/**
+		 * Marks the matches around the visible part of the text area, unless
+		 * those marked already cover it.  The visible matches are kept near
+		 * the middle of the marked ones, so scrolling a little doesn't
+		 * re-mark them.
+		 */
+		private void markVisible() {
+			Rectangle visible = textArea.getVisibleRect();
+			int offs = Math.max(0, textArea.viewToModel2D(visible.getLocation()));
+			int from = indexAfter(offs) - MAX_MARKED/2;
+			from = Math.max(0, Math.min(from, ranges.size() - MAX_MARKED));
+			if (markedFrom==-1 || Math.abs(from-markedFrom)>=MAX_MARKED/4) {
+				markedFrom = from;
+				textArea.markAll(ranges.subList(from, from + MAX_MARKED));
+			}
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			restart();
+		}
+
+		/**
+		 * Called when the document changes.  The matches' offsets are for
+		 * the old text, so the search is run again.
+		 */
+		private void restart() {
+			cancel();
+			scan = new Scan(textArea, pattern, wholeWord);
+			timer.restart();
+		}
+
+		@Override
+		public void stateChanged(ChangeEvent e) {
+			markVisible();
+		}
+
+		void uninstall() {
+			if (viewport!=null) {
+				viewport.removeChangeListener(this);
+			}
+			textArea.getDocument().removeDocumentListener(this);
+		}
+
+	}
+
+
+}
@@ -0,0 +1,539 @@
+/*
+ * 10/19/2026
+ *
+ * LargeFileDocument.java - A plain text document for very large files.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.DoubleConsumer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.PlainDocument;
+import javax.swing.text.Segment;
+import javax.swing.text.SimpleAttributeSet;
+import javax.swing.undo.AbstractUndoableEdit;
+
+import org.fife.io.UnicodeWriter;
+
+
+/**
+ * A plain text document over a {@link PieceTableContent}, for editing files
+ * too large to load into an <code>RTextEditorPane</code>.<p>
+ *
+ * <code>PlainDocument</code> keeps an element per line, which for a file
+ * with tens of millions of lines costs more heap than the text itself.
+ * This document's line elements are instead created on demand from the
+ * content's newline index, so the only per-line cost is an
+ * <code>int</code>.  Since views such as <code>PlainView</code> still
+ * walk every line, it should be displayed with a {@link LargeFileView},
+ * which only looks at the lines it paints.<p>
+ *
+ * Since the file stays memory-mapped while it is open, saving it writes a
+ * temporary file that then replaces the original (see
+ * {@link #save(File, String, String)}).  The document is then backed by
+ * the saved file, so edits made before a save can't be undone after it.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class LargeFileDocument extends AbstractDocument {
+
+	private final PieceTableContent content;
+	private final RootElement root;
+
+	/**
+	 * How many times to try replacing a file while its old mapping may not
+	 * have been released yet.
+	 */
+	private static final int REPLACE_ATTEMPTS = 5;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param content The content of the document.
+	 * @see #load(File, String)
+	 */
+	public LargeFileDocument(PieceTableContent content) {
+		super(content);
+		this.content = content;
+		root = new RootElement();
+		putProperty(PlainDocument.tabSizeAttribute, 8);
+	}
+
+
+	/**
+	 * Releases the file this document was loaded from.  The document should
+	 * not be used afterward.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 */
+	public void close() throws IOException {
+		content.close();
+	}
+
+
+	/**
+	 * Returns line elements for a range of lines.
+	 *
+	 * @param first The first line.
+	 * @param count The number of lines.
+	 * @return The elements.
+	 */
+	private Element[] createLineElements(int first, int count) {
+		Element[] elements = new Element[count];
+		for (int i=0; i<count; i++) {
+			elements[i] = root.getElement(first + i);
+		}
+		return elements;
+	}
+
+
+	@Override
+	public Element getDefaultRootElement() {
+		return root;
+	}
+
+
+	/**
+	 * Returns the encoding the file was loaded with.
+	 *
+	 * @return The encoding.
+	 * @see #getLineSeparator()
+	 */
+	public String getEncoding() {
+		return content.getEncoding();
+	}
+
+
+	/**
+	 * Returns the line separator the loaded file used.
+	 *
+	 * @return The line separator, or <code>null</code> if the file had only
+	 *         one line.
+	 * @see #getEncoding()
+	 */
+	public String getLineSeparator() {
+		return content.getOriginalLineSeparator();
+	}
+
+
+	@Override
+	public Element getParagraphElement(int pos) {
+		return root.getElement(root.getElementIndex(pos));
+	}
+
+
+	@Override
+	protected void insertUpdate(DefaultDocumentEvent chng, AttributeSet attr) {
+
+		// The content has already been updated
+		int offs = chng.getOffset();
+		int line = content.getLineIndex(offs);
+		int lines = content.getLineIndex(offs + chng.getLength()) - line;
+
+		if (lines>0) {
+			Element[] added = createLineElements(line, lines + 1);
+			int end = added[lines].getEndOffset() - chng.getLength();
+			Element[] removed = { new LineElement(added[0].getStartOffset(), end) };
+			chng.addEdit(new LineChange(line, removed, added));
+		}
+
+	}
+
+
+	/**
+	 * Loads a file.
+	 *
+	 * @param file The file.
+	 * @param encoding The file's encoding, or <code>null</code> for the
+	 *        system default.
+	 * @param progress Called periodically with the fraction of the file
+	 *        read so far, or <code>null</code> for none.  This is called
+	 *        on the calling thread.
+	 * @return The document.
+	 * @throws IOException If an IO error occurs.
+	 */
+	public static LargeFileDocument load(File file, String encoding,
+			DoubleConsumer progress) throws IOException {
+		return new LargeFileDocument(new PieceTableContent(file, encoding,
+				progress));
+	}
+
+
+	@Override
+	protected void postRemoveUpdate(DefaultDocumentEvent chng) {
+		// Nothing to do; line elements are derived from the content
+	}
+
+
+	@Override
+	protected void removeUpdate(DefaultDocumentEvent chng) {
+
+		// The content has not yet been updated
+		int offs = chng.getOffset();
+		int len = chng.getLength();
+		int line = content.getLineIndex(offs);
+		int lines = content.getLineIndex(offs + len) - line;
+
+		if (lines>0) {
+			Element[] removed = createLineElements(line, lines + 1);
+			int end = removed[lines].getEndOffset() - len;
+			Element[] added = { new LineElement(removed[0].getStartOffset(), end) };
+			chng.addEdit(new LineChange(line, removed, added));
+		}
+
+	}
+
+
+	/**
+	 * Replaces a file with a temporary file.  If that fails, the collector
+	 * is given a chance to release any mappings of the file that were
+	 * dropped, and it is tried again.
+	 *
+	 * @param temp The temporary file.
+	 * @param target The file to replace.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private static void replace(Path temp, Path target) throws IOException {
+		for (int attempt=1; ; attempt++) {
+			try {
+				FileReplacer.replace(temp, target);
+				return;
+			} catch (FileSystemException fse) {
+				if (attempt==REPLACE_ATTEMPTS) {
+					throw fse;
+				}
+				System.gc();
+				try {
+					Thread.sleep(100L * attempt);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw fse;
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Saves this document.  This should be called on a worker thread, and
+	 * the document should not be edited until it returns.<p>
+	 *
+	 * The text is written to a temporary file in the same directory that
+	 * is given <code>file</code>'s attributes, and then replaces it, so the
+	 * file this document was loaded from is never overwritten while it is
+	 * mapped.  Since a mapped file can't be replaced on some platforms, the
+	 * document's mapping is released first, and the document is then backed
+	 * by the saved file.  Edits made before the save can no longer be
+	 * undone.
+	 *
+	 * @param file The file to save to.
+	 * @param encoding The encoding to save in.
+	 * @param lineSeparator The line separator to write.
+	 * @throws IOException If an IO error occurs.
+	 */
+	public void save(File file, String encoding, String lineSeparator)
+			throws IOException {
+
+		Path target = file.toPath().toAbsolutePath();
+		boolean exists = Files.exists(target);
+		if (exists) {
+			target = target.toRealPath(); // Don't replace symlinks
+		}
+		Path temp = FileReplacer.createTempFile(target);
+
+		try {
+
+			try (Writer w = new BufferedWriter(new UnicodeWriter(
+					new FileOutputStream(temp.toFile()), encoding))) {
+				readLock();
+				try {
+					write(w, lineSeparator);
+				} finally {
+					readUnlock();
+				}
+			}
+			if (exists) {
+				FileReplacer.copyAttributes(target, temp);
+			}
+
+			// Index the saved file now, so the write lock is held briefly
+			MappedText saved = new MappedText(temp.toFile(), encoding, null);
+			saved.unmap();
+
+			int oldLength = getLength();
+			writeLock();
+			try {
+				content.unmapFile();
+				try {
+					replace(temp, target);
+				} catch (IOException ioe) {
+					saved.close();
+					content.remapFile();
+					throw ioe;
+				}
+				saved.remap(target.toFile());
+				content.rebase(saved);
+				if (getLength()!=oldLength) {
+					// Characters the encoding couldn't represent were replaced
+					DefaultDocumentEvent e = new DefaultDocumentEvent(0,
+							getLength(), DocumentEvent.EventType.CHANGE);
+					e.end();
+					fireChangedUpdate(e);
+				}
+			} finally {
+				writeUnlock();
+			}
+
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+
+	}
+
+
+	/**
+	 * Writes this document's text.  The caller should hold the read lock.
+	 *
+	 * @param w The writer to write to.
+	 * @param lineSeparator The line separator to write in place of
+	 *        <code>\n</code>.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private void write(Writer w, String lineSeparator) throws IOException {
+
+		Segment seg = new Segment();
+		seg.setPartialReturn(true);
+
+		int offs = 0;
+		int len = getLength();
+		try {
+			while (offs<len) {
+				getText(offs, len-offs, seg);
+				int start = seg.offset;
+				int end = seg.offset + seg.count;
+				for (int i=start; i<end; i++) {
+					if (seg.array[i]=='\n') {
+						w.write(seg.array, start, i-start);
+						w.write(lineSeparator);
+						start = i + 1;
+					}
+				}
+				w.write(seg.array, start, end-start);
+				offs += seg.count;
+			}
+		} catch (BadLocationException ble) { // Never happens
+			throw new IOException(ble);
+		}
+
+	}
+
+
+	/**
+	 * Describes how lines changed in an edit.  Unlike
+	 * <code>AbstractDocument.ElementEdit</code>, undoing this doesn't modify
+	 * any elements, since line elements are derived from the content.
+	 */
+	private static final class LineChange extends AbstractUndoableEdit
+			implements DocumentEvent.ElementChange {
+
+		private final int index;
+		private Element[] removed;
+		private Element[] added;
+		private final Element element;
+
+		LineChange(int index, Element[] removed, Element[] added) {
+			this.index = index;
+			this.removed = removed;
+			this.added = added;
+			this.element = removed[0].getParentElement();
+		}
+
+		@Override
+		public Element[] getChildrenAdded() {
+			return added;
+		}
+
+		@Override
+		public Element[] getChildrenRemoved() {
+			return removed;
+		}
+
+		@Override
+		public Element getElement() {
+			return element;
+		}
+
+		@Override
+		public int getIndex() {
+			return index;
+		}
+
+		@Override
+		public void redo() {
+			super.redo();
+			swap();
+		}
+
+		private void swap() {
+			Element[] temp = removed;
+			removed = added;
+			added = temp;
+		}
+
+		@Override
+		public void undo() {
+			super.undo();
+			swap();
+		}
+
+	}
+
+
+	/**
+	 * A single line.  Line elements are created as they are asked for, and
+	 * their offsets aren't updated by later edits.
+	 */
+	private final class LineElement implements Element {
+
+		private final int start;
+		private final int end;
+
+		LineElement(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public AttributeSet getAttributes() {
+			return SimpleAttributeSet.EMPTY;
+		}
+
+		@Override
+		public Document getDocument() {
+			return LargeFileDocument.this;
+		}
+
+		@Override
+		public Element getElement(int index) {
+			return null;
+		}
+
+		@Override
+		public int getElementCount() {
+			return 0;
+		}
+
+		@Override
+		public int getElementIndex(int offset) {
+			return -1;
+		}
+
+		@Override
+		public int getEndOffset() {
+			return end;
+		}
+
+		@Override
+		public String getName() {
+			return ContentElementName;
+		}
+
+		@Override
+		public Element getParentElement() {
+			return root;
+		}
+
+		@Override
+		public int getStartOffset() {
+			return start;
+		}
+
+		@Override
+		public boolean isLeaf() {
+			return true;
+		}
+
+	}
+
+
+	/**
+	 * The root element, whose children are the lines of the document.
+	 */
+	private final class RootElement implements Element {
+
+		@Override
+		public AttributeSet getAttributes() {
+			return SimpleAttributeSet.EMPTY;
+		}
+
+		@Override
+		public Document getDocument() {
+			return LargeFileDocument.this;
+		}
+
+		@Override
+		public Element getElement(int index) {
+			if (index<0 || index>=getElementCount()) {
+				return null;
+			}
+			return new LineElement(content.getLineStartOffset(index),
+					content.getLineStartOffset(index + 1));
+		}
+
+		@Override
+		public int getElementCount() {
+			return content.getLineCount();
+		}
+
+		@Override
+		public int getElementIndex(int offset) {
+			return content.getLineIndex(offset);
+		}
+
+		@Override
+		public int getEndOffset() {
+			return content.length();
+		}
+
+		@Override
+		public String getName() {
+			return ParagraphElementName;
+		}
+
+		@Override
+		public Element getParentElement() {
+			return null;
+		}
+
+		@Override
+		public int getStartOffset() {
+			return 0;
+		}
+
+		@Override
+		public boolean isLeaf() {
+			return false;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,486 @@
+/*
+ * 10/19/2026
+ *
+ * LargeFileEditor.java - A window for editing very large files.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.BorderLayout;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JEditorPane;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.text.DefaultEditorKit;
+import javax.swing.text.ViewFactory;
+import javax.swing.undo.UndoManager;
+
+import org.fife.ui.EscapableDialog;
+import org.fife.ui.RScrollPane;
+import org.fife.ui.ResizableFrameContentPane;
+import org.fife.ui.UIUtil;
+import org.fife.ui.rtextarea.RTextArea;
+
+
+/**
+ * A window for editing a file too large to open in a tab.  The file is
+ * loaded into a {@link LargeFileDocument} on a worker thread, so its text
+ * stays off-heap and memory use only grows with the edits made to it.<p>
+ *
+ * Since a syntax-highlighting text area can't use that document, the file
+ * is shown as plain text by a {@link LargeFileView}: there is no syntax
+ * highlighting, code folding, line wrapping, parsing or searching.
+ * Editing, undo and saving work as they do for other files, except that
+ * edits can't be undone after the file is saved.<p>
+ *
+ * Open windows are closed along with RText's documents, so the user is
+ * prompted to save them when RText exits.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see AbstractMainView#openFile(FileLocation, String, boolean)
+ */
+public class LargeFileEditor extends EscapableDialog {
+
+	private final RText rtext;
+	private final File file;
+	private final LargeFileDocument doc;
+	private final JEditorPane textArea;
+	private final UndoManager undoManager;
+	private final JButton saveButton;
+	private final JButton undoButton;
+	private final JButton redoButton;
+	private boolean dirty;
+	private boolean saving;
+	private boolean closeAfterSave;
+	private boolean closed;
+	private TaskScheduler.ScheduledTask saveTask;
+	private volatile IOException saveError;
+
+	/**
+	 * The system property that overrides the size, in bytes, above which
+	 * files are opened in this window.
+	 */
+	private static final String PROPERTY_LARGE_FILE_SIZE = "largeFileSize";
+
+	/**
+	 * The default size, in bytes, above which files are opened in this
+	 * window.
+	 */
+	private static final long DEFAULT_LARGE_FILE_SIZE = 100L * 1024 * 1024;
+
+	/**
+	 * The minimum time between progress updates while a file is loading,
+	 * in milliseconds.
+	 */
+	private static final int REPORT_INTERVAL = 200;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parent The parent application.
+	 * @param file The file to edit.
+	 * @param doc The file's contents.
+	 */
+	private LargeFileEditor(RText parent, File file, LargeFileDocument doc) {
+
+		super(parent, parent.getString("LargeFileEditor.Title", file.getName()), false);
+		this.rtext = parent;
+		this.file = file;
+		this.doc = doc;
+
+		JPanel cp = new ResizableFrameContentPane(new BorderLayout());
+		cp.setBorder(UIUtil.getEmpty5Border());
+		setContentPane(cp);
+
+		JLabel descLabel = new JLabel(rtext.getString("LargeFileEditor.Desc",
+				file.getAbsolutePath()));
+		descLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 5, 0));
+		cp.add(descLabel, BorderLayout.NORTH);
+
+		textArea = new LargeFileTextArea(doc);
+		textArea.setFont(RTextArea.getDefaultFont());
+		RScrollPane sp = new RScrollPane(textArea);
+		sp.setPreferredSize(new Dimension(800, 600));
+		cp.add(sp);
+
+		undoManager = new UndoManager();
+		doc.addUndoableEditListener(e -> {
+			undoManager.addEdit(e.getEdit());
+			dirty = true;
+			updateButtons();
+		});
+
+		saveButton = new JButton(rtext.getString("LargeFileEditor.Save"));
+		saveButton.addActionListener(e -> save());
+		undoButton = new JButton(rtext.getString("LargeFileEditor.Undo"));
+		undoButton.addActionListener(e -> {
+			undoManager.undo();
+			updateButtons();
+		});
+		redoButton = new JButton(rtext.getString("LargeFileEditor.Redo"));
+		redoButton.addActionListener(e -> {
+			undoManager.redo();
+			updateButtons();
+		});
+		JButton closeButton = new JButton(rtext.getString("LargeFileEditor.Close"));
+		closeButton.addActionListener(e -> escapePressed());
+		Container buttons = UIUtil.createButtonFooter(saveButton, undoButton,
+				redoButton, closeButton);
+		cp.add(buttons, BorderLayout.SOUTH);
+
+		setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+		updateButtons();
+		pack();
+		setLocationRelativeTo(rtext);
+		rtext.getMainView().addLargeFileEditor(this);
+
+	}
+
+
+	/**
+	 * Waits for a save in progress to complete, and updates this window
+	 * as if it had completed normally.
+	 */
+	private void awaitSave() {
+		if (saving) {
+			try {
+				saveTask.get();
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				saveError = new InterruptedIOException("Interrupted waiting for save");
+			} catch (ExecutionException | CancellationException e) {
+				saveError = new IOException(e);
+			}
+			saveCompleted();
+		}
+	}
+
+
+	/**
+	 * Closes this window and releases the file.
+	 */
+	private void close() {
+		closed = true;
+		rtext.getMainView().removeLargeFileEditor(this);
+		setVisible(false);
+		dispose();
+		try {
+			doc.close();
+		} catch (IOException ioe) {
+			rtext.displayException(ioe);
+		}
+	}
+
+
+	/**
+	 * Closes this window, prompting to save first if the file has been
+	 * modified.
+	 */
+	@Override
+	public void escapePressed() {
+		if (!saving) {
+			promptAndClose(false);
+		}
+	}
+
+
+	/**
+	 * Returns the size, in bytes, above which files are opened in this
+	 * window rather than in a tab.
+	 *
+	 * @return The size.
+	 */
+	static long getLargeFileSize() {
+		return Long.getLong(PROPERTY_LARGE_FILE_SIZE, DEFAULT_LARGE_FILE_SIZE);
+	}
+
+
+	/**
+	 * Returns whether a file should be opened in this window rather than in
+	 * a tab.
+	 *
+	 * @param file The file.
+	 * @return Whether the file is too large for a tab.
+	 * @see #open(RText, File, String)
+	 */
+	static boolean isLargeFile(File file) {
+		return file.length()>getLargeFileSize();
+	}
+
+
+	/**
+	 * Opens a file in a new window.  The file is read on a worker thread,
+	 * with its progress shown in the status bar, and the window is shown
+	 * once it has been read.  This method should be called on the EDT.
+	 *
+	 * @param parent The parent application.
+	 * @param file The file.
+	 * @param encoding The file's encoding, or <code>null</code> for the
+	 *        system default.  A byte order mark in the file overrides this.
+	 * @param errorHandler Called on the EDT if the file can't be read.
+	 * @see #isLargeFile(File)
+	 */
+	static void open(RText parent, File file, String encoding,
+			Consumer<IOException> errorHandler) {
+
+		LoadProgress progress = new LoadProgress(parent, file);
+		progress.accept(0);
+
+		TaskScheduler.get().submit(TaskScheduler.Lane.INTERACTIVE,
+				"LargeFileEditor.open." + file.getAbsolutePath(), token -> {
+			LargeFileDocument doc = null;
+			IOException error = null;
+			try {
+				doc = LargeFileDocument.load(file, encoding, progress);
+			} catch (IOException ioe) {
+				error = ioe;
+			}
+			LargeFileDocument result = doc;
+			IOException loadError = error;
+			SwingUtilities.invokeLater(() -> {
+				parent.setMessages(null, parent.getString("Ready"));
+				if (loadError!=null) {
+					errorHandler.accept(loadError);
+				}
+				else {
+					new LargeFileEditor(parent, file, result).setVisible(true);
+				}
+			});
+		});
+
+	}
+
+
+	/**
+	 * Closes this window, prompting to save first if the file has been
+	 * modified.
+	 *
+	 * @param wait Whether to wait for the file to be saved, if the user
+	 *        chooses to save it.  If this is <code>false</code>, the window
+	 *        closes once the save completes.
+	 * @return Whether the window was closed.
+	 */
+	private boolean promptAndClose(boolean wait) {
+
+		if (dirty) {
+			String prompt = rtext.getString("SaveChangesPrompt", file.getName());
+			int rc = JOptionPane.showConfirmDialog(this, prompt,
+					rtext.getString("ConfDialogTitle"),
+					JOptionPane.YES_NO_CANCEL_OPTION);
+			if (rc==JOptionPane.YES_OPTION) {
+				save(true);
+				if (wait) {
+					awaitSave();
+				}
+				return closed;
+			}
+			if (rc!=JOptionPane.NO_OPTION) {
+				return false;
+			}
+		}
+
+		close();
+		return true;
+
+	}
+
+
+	/**
+	 * Saves the file in the background.
+	 */
+	private void save() {
+		save(false);
+	}
+
+
+	/**
+	 * Saves the file in the background.  The text area is read-only until
+	 * the save completes.  The file keeps the encoding and line separator
+	 * it was loaded with.
+	 *
+	 * @param close Whether to close this window once the file is saved.
+	 */
+	private void save(boolean close) {
+
+		if (saving) {
+			return;
+		}
+		saving = true;
+		closeAfterSave = close;
+		saveError = null;
+		textArea.setEditable(false);
+		updateButtons();
+
+		String encoding = doc.getEncoding();
+		String lineSeparator = doc.getLineSeparator();
+		if (lineSeparator==null) {
+			lineSeparator = System.lineSeparator();
+		}
+		String sep = lineSeparator;
+
+		saveTask = TaskScheduler.get().submit(TaskScheduler.Lane.INTERACTIVE,
+				"LargeFileEditor.save." + file.getAbsolutePath(), token -> {
+			try {
+				doc.save(file, encoding, sep);
+			} catch (IOException ioe) {
+				saveError = ioe;
+			}
+			SwingUtilities.invokeLater(this::saveCompleted);
+		});
+
+	}
+
+
+	/**
+	 * Called on the EDT when a save completes.  This does nothing if the
+	 * save was already handled by {@link #awaitSave()}.
+	 */
+	private void saveCompleted() {
+
+		if (!saving) {
+			return;
+		}
+		saving = false;
+		textArea.setEditable(true);
+
+		IOException error = saveError;
+		if (error!=null) {
+			String desc = rtext.getString("LargeFileEditor.SaveFailed",
+					file.getAbsolutePath(), error.getMessage());
+			JOptionPane.showMessageDialog(this, desc,
+					rtext.getString("ErrorDialogTitle"), JOptionPane.ERROR_MESSAGE);
+		}
+		else {
+			dirty = false;
+			// The document is now backed by the saved file
+			undoManager.discardAllEdits();
+			if (closeAfterSave) {
+				close();
+				return;
+			}
+		}
+
+		updateButtons();
+
+	}
+
+
+	/**
+	 * Closes this window as part of closing all documents, such as when
+	 * RText exits.  If the file has been modified, the user is prompted to
+	 * save it, and if they choose to, this waits for the save to complete.
+	 * This method should be called on the EDT.
+	 *
+	 * @return Whether the window was closed.  This is <code>false</code>
+	 *         if the user cancelled, or the file couldn't be saved.
+	 */
+	boolean tryClose() {
+		awaitSave();
+		if (closed) {
+			return true;
+		}
+		toFront();
+		return promptAndClose(true);
+	}
+
+
+	/**
+	 * Enables or disables the buttons for the current state.
+	 */
+	private void updateButtons() {
+		saveButton.setEnabled(dirty && !saving);
+		undoButton.setEnabled(undoManager.canUndo() && !saving);
+		redoButton.setEnabled(undoManager.canRedo() && !saving);
+	}
+
+
+	/**
+	 * The text component.  Text is rendered by a {@link LargeFileView}.
+	 */
+	private static final class LargeFileTextArea extends JEditorPane {
+
+		LargeFileTextArea(LargeFileDocument doc) {
+			setEditorKit(new LargeFileEditorKit());
+			setDocument(doc);
+		}
+
+		// Fill the viewport when the text is smaller than it, as
+		// JTextArea does
+
+		@Override
+		public boolean getScrollableTracksViewportHeight() {
+			Container parent = SwingUtilities.getUnwrappedParent(this);
+			return parent instanceof JViewport &&
+					parent.getHeight()>getPreferredSize().height;
+		}
+
+		@Override
+		public boolean getScrollableTracksViewportWidth() {
+			Container parent = SwingUtilities.getUnwrappedParent(this);
+			return parent instanceof JViewport &&
+					parent.getWidth()>getPreferredSize().width;
+		}
+
+	}
+
+
+	/**
+	 * An editor kit whose views are {@link LargeFileView}s.
+	 */
+	private static final class LargeFileEditorKit extends DefaultEditorKit {
+
+		@Override
+		public ViewFactory getViewFactory() {
+			return LargeFileView::new;
+		}
+
+	}
+
+
+	/**
+	 * Shows the progress of loading a file in the status bar.
+	 */
+	private static final class LoadProgress implements DoubleConsumer {
+
+		private final RText rtext;
+		private final String fileName;
+		private long lastReport;
+
+		LoadProgress(RText rtext, File file) {
+			this.rtext = rtext;
+			this.fileName = file.getName();
+		}
+
+		@Override
+		public void accept(double fraction) {
+			long now = System.currentTimeMillis();
+			if (now-lastReport>=REPORT_INTERVAL) {
+				lastReport = now;
+				String percent = Integer.toString((int)(fraction * 100));
+				SwingUtilities.invokeLater(() -> rtext.setMessages(null,
+						rtext.getString("LargeFileEditor.Loading", fileName, percent)));
+			}
+		}
+
+	}
+
+
+}
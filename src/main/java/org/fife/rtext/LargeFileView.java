@@ -0,0 +1,277 @@
+/*
+ * 10/19/2026
+ *
+ * LargeFileView.java - A view of a LargeFileDocument.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import javax.swing.event.DocumentEvent;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.JTextComponent;
+import javax.swing.text.PlainDocument;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.text.TabExpander;
+import javax.swing.text.Utilities;
+import javax.swing.text.View;
+import javax.swing.text.ViewFactory;
+
+
+/**
+ * Renders a {@link LargeFileDocument} as plain text, without line
+ * wrapping.<p>
+ *
+ * <code>PlainView</code> measures every line of a document to find the
+ * widest one, which for a file with tens of millions of lines means
+ * decoding all of it whenever the font changes.  This view only measures
+ * the lines it paints, so its preferred width is that of the widest line
+ * painted so far, and grows as the user scrolls to wider lines.  Its
+ * height is just the line count times the line height.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class LargeFileView extends View implements TabExpander {
+
+	private Font font;
+	private FontMetrics metrics;
+	private int lineHeight;
+	private float tabSize;
+	private float tabBase;
+	private float widestLine;
+	private final Segment seg;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param root The document's root element.
+	 */
+	LargeFileView(Element root) {
+		super(root);
+		seg = new Segment();
+	}
+
+
+	@Override
+	public void changedUpdate(DocumentEvent e, Shape a, ViewFactory f) {
+		repaintFrom(e.getOffset(), a, true);
+	}
+
+
+	/**
+	 * Returns the text of a line, without its newline.
+	 *
+	 * @param line The line.
+	 * @return The text.  This is only valid until the next call.
+	 */
+	private Segment getLineText(Element line) {
+		int start = line.getStartOffset();
+		int end = line.getEndOffset() - 1;
+		try {
+			getDocument().getText(start, end-start, seg);
+		} catch (BadLocationException ble) { // Never happens
+			seg.count = 0;
+		}
+		return seg;
+	}
+
+
+	@Override
+	public float getPreferredSpan(int axis) {
+		updateMetrics();
+		if (axis==X_AXIS) {
+			return widestLine + 1; // Room for the caret
+		}
+		return getElement().getElementCount() * lineHeight;
+	}
+
+
+	@Override
+	public void insertUpdate(DocumentEvent e, Shape a, ViewFactory f) {
+		repaintFrom(e.getOffset(), a, e.getChange(getElement())!=null);
+	}
+
+
+	/**
+	 * Measures the text of a line up to a point.
+	 *
+	 * @param line The line.
+	 * @param text The line's text.
+	 * @param x The x-coordinate the line starts at.
+	 * @return The width.
+	 */
+	private float measure(Element line, Segment text, float x) {
+		return Utilities.getTabbedTextWidth(text, metrics, x, this,
+				line.getStartOffset());
+	}
+
+
+	@Override
+	public Shape modelToView(int pos, Shape a, Position.Bias b)
+			throws BadLocationException {
+
+		Document doc = getDocument();
+		if (pos<0 || pos>doc.getLength()) {
+			throw new BadLocationException("Invalid offset", pos);
+		}
+		updateMetrics();
+
+		Rectangle alloc = a.getBounds();
+		tabBase = alloc.x;
+		Element root = getElement();
+		int index = root.getElementIndex(pos);
+		Element line = root.getElement(index);
+		Segment text = getLineText(line);
+		text.count = Math.min(text.count, pos - line.getStartOffset());
+		int x = alloc.x + (int)measure(line, text, alloc.x);
+
+		return new Rectangle(x, alloc.y + index*lineHeight, 1, lineHeight);
+
+	}
+
+
+	@Override
+	public float nextTabStop(float x, int tabOffset) {
+		if (tabSize==0) {
+			return x;
+		}
+		int tabs = (int)((x - tabBase) / tabSize);
+		return tabBase + (tabs + 1) * tabSize;
+	}
+
+
+	@Override
+	public void paint(Graphics g, Shape a) {
+
+		updateMetrics();
+		Rectangle alloc = a.getBounds();
+		Rectangle clip = g.getClipBounds();
+		if (clip==null) {
+			clip = alloc;
+		}
+		tabBase = alloc.x;
+
+		JTextComponent host = (JTextComponent)getContainer();
+		g.setFont(font);
+		g.setColor(host.isEnabled() ? host.getForeground() :
+				host.getDisabledTextColor());
+
+		Element root = getElement();
+		int first = Math.max(0, (clip.y - alloc.y) / lineHeight);
+		int last = Math.min(root.getElementCount() - 1,
+				(clip.y + clip.height - alloc.y) / lineHeight);
+		int y = alloc.y + first*lineHeight + metrics.getAscent();
+		float widest = widestLine;
+
+		for (int i=first; i<=last; i++) {
+			Element line = root.getElement(i);
+			Segment text = getLineText(line);
+			float end = Utilities.drawTabbedText(text, (float)alloc.x, y,
+					(Graphics2D)g, this, line.getStartOffset());
+			widest = Math.max(widest, end - alloc.x);
+			y += lineHeight;
+		}
+
+		if (widest>widestLine) {
+			widestLine = widest;
+			preferenceChanged(null, true, false);
+		}
+
+	}
+
+
+	@Override
+	public void removeUpdate(DocumentEvent e, Shape a, ViewFactory f) {
+		repaintFrom(e.getOffset(), a, e.getChange(getElement())!=null);
+	}
+
+
+	/**
+	 * Repaints the lines affected by a change to the document.
+	 *
+	 * @param offs The offset of the change.
+	 * @param a The view's allocation.
+	 * @param linesChanged Whether lines were added or removed.  If they
+	 *        were, everything below the change is repainted.
+	 */
+	private void repaintFrom(int offs, Shape a, boolean linesChanged) {
+
+		if (linesChanged) {
+			preferenceChanged(null, false, true);
+		}
+		Container host = getContainer();
+		if (a==null || host==null) {
+			return;
+		}
+
+		updateMetrics();
+		Rectangle alloc = a.getBounds();
+		int y = alloc.y + getElement().getElementIndex(offs) * lineHeight;
+		int height = linesChanged ? alloc.y + alloc.height - y : lineHeight;
+		host.repaint(alloc.x, y, alloc.width, height);
+
+	}
+
+
+	/**
+	 * Updates the font metrics if the host's font has changed.
+	 */
+	private void updateMetrics() {
+		Component host = getContainer();
+		Font f = host.getFont();
+		if (f!=font) {
+			font = f;
+			metrics = host.getFontMetrics(f);
+			lineHeight = metrics.getHeight();
+			Object size = getDocument().getProperty(PlainDocument.tabSizeAttribute);
+			int tabChars = size instanceof Integer ? (Integer)size : 8;
+			tabSize = tabChars * metrics.charWidth('m');
+			widestLine = 0;
+		}
+	}
+
+
+	@Override
+	public int viewToModel(float fx, float fy, Shape a, Position.Bias[] bias) {
+
+		updateMetrics();
+		bias[0] = Position.Bias.Forward;
+		Rectangle alloc = a.getBounds();
+		tabBase = alloc.x;
+
+		Element root = getElement();
+		if (fy<alloc.y) {
+			return getStartOffset();
+		}
+		int index = (int)((fy - alloc.y) / lineHeight);
+		if (index>=root.getElementCount()) {
+			return getEndOffset() - 1;
+		}
+
+		Element line = root.getElement(index);
+		if (fx<alloc.x) {
+			return line.getStartOffset();
+		}
+		Segment text = getLineText(line);
+		return line.getStartOffset() + Utilities.getTabbedTextOffset(text,
+				metrics, (float)alloc.x, fx, this, line.getStartOffset(), true);
+
+	}
+
+
+}
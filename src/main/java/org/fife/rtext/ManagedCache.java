@@ -0,0 +1,737 @@
+/*
+ * 10/19/2026
+ *
+ * ManagedCache.java - A bounded cache registered with the CacheManager.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+
+/**
+ * A cache whose total weight is bounded.  Caches are created by
+ * {@link CacheManager#createCache(String, long, Weigher)}, which tracks
+ * their statistics and shrinks them when memory runs low.<p>
+ *
+ * Each entry has a weight, computed by the cache's {@link Weigher} when it
+ * is added, in whatever unit suits the cache (bytes, pixels, or simply
+ * <code>1</code> per entry).  When the total weight exceeds the cache's
+ * maximum, entries are evicted using a W-TinyLFU policy:
+ * <ul>
+ *    <li>New entries enter a small "window" ordered by recency, so a
+ *        burst of new entries doesn't flush the cache.</li>
+ *    <li>Entries leaving the window compete with the least recently used
+ *        entry of the main area, and the one used less often (as estimated
+ *        by a compact frequency sketch) is evicted.</li>
+ *    <li>The main area is split into a "probation" segment for entries
+ *        that haven't been used since entering it, and a "protected"
+ *        segment for those that have.</li>
+ * </ul>
+ * This keeps entries that are used often, even if not recently, while
+ * still adapting to changes in what is used.<p>
+ *
+ * All methods in this class may be called from any thread.  The eviction
+ * listener is called on the thread that caused the eviction, without the
+ * cache's lock held.
+ *
+ * @param <K> The type of keys.
+ * @param <V> The type of values.
+ * @author Robert Futrell
+ * @version 1.0
+ * @see CacheManager
+ */
+public final class ManagedCache<K, V> {
+
+	private final String name;
+	private final Weigher<? super K, ? super V> weigher;
+	private long maxWeight;
+	private BiConsumer<? super K, ? super V> evictionListener;
+
+	private final Map<K, Node<K, V>> data;
+	private final LinkedHashMap<K, Node<K, V>> window;
+	private final LinkedHashMap<K, Node<K, V>> probation;
+	private final LinkedHashMap<K, Node<K, V>> protectedEntries;
+	private long windowWeight;
+	private long probationWeight;
+	private long protectedWeight;
+	private final FrequencySketch sketch;
+
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+	private long evictedWeight;
+
+	/**
+	 * The fraction of the maximum weight given to the window.
+	 */
+	private static final double WINDOW_FRACTION = 0.01;
+
+	/**
+	 * The fraction of the main area's weight given to the protected
+	 * segment.
+	 */
+	private static final double PROTECTED_FRACTION = 0.8;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param name The name of the cache, for display purposes.
+	 * @param maxWeight The maximum total weight of the entries.
+	 * @param weigher Computes the weight of each entry.
+	 * @see CacheManager#createCache(String, long, Weigher)
+	 */
+	ManagedCache(String name, long maxWeight, Weigher<? super K, ? super V> weigher) {
+		this.name = name;
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+		data = new HashMap<>();
+		window = new LinkedHashMap<>(16, 0.75f, true);
+		probation = new LinkedHashMap<>(16, 0.75f, true);
+		protectedEntries = new LinkedHashMap<>(16, 0.75f, true);
+		sketch = new FrequencySketch();
+	}
+
+
+	/**
+	 * Removes all entries.  The eviction listener is not notified.
+	 */
+	public synchronized void clear() {
+		data.clear();
+		window.clear();
+		probation.clear();
+		protectedEntries.clear();
+		windowWeight = probationWeight = protectedWeight = 0;
+	}
+
+
+	/**
+	 * Returns the value for a key, computing and adding it if it isn't
+	 * cached.  The value is computed without the cache's lock held, so two
+	 * threads may compute it at the same time.
+	 *
+	 * @param key The key.
+	 * @param loader Computes the value.  If this returns <code>null</code>,
+	 *        nothing is cached.
+	 * @return The value, or <code>null</code> if it couldn't be computed.
+	 */
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+		V value = get(key);
+		if (value==null) {
+			value = loader.apply(key);
+			if (value!=null) {
+				put(key, value);
+			}
+		}
+		return value;
+	}
+
+
+	/**
+	 * Evicts entries until the total weight is no more than a limit.
+	 * Entries on probation go first, then protected ones, and finally the
+	 * window.
+	 *
+	 * @param limit The limit.
+	 * @param evicted Receives the evicted entries.
+	 */
+	private void evictTo(long limit, List<Node<K, V>> evicted) {
+		while (getWeightImpl()>limit) {
+			Node<K, V> victim = first(probation);
+			if (victim==null) {
+				victim = first(protectedEntries);
+			}
+			if (victim==null) {
+				victim = first(window);
+			}
+			evicted.add(victim);
+			removeNode(victim);
+			evictionCount++;
+			evictedWeight += victim.weight;
+		}
+	}
+
+
+	/**
+	 * Moves entries out of the window if it is too heavy, and evicts the
+	 * least valuable entries if the cache is.
+	 *
+	 * @param evicted Receives the evicted entries.
+	 */
+	private void evictIfNecessary(List<Node<K, V>> evicted) {
+
+		long maxWindow = Math.max(1, (long)(maxWeight * WINDOW_FRACTION));
+
+		while (windowWeight>maxWindow && window.size()>1) {
+
+			Node<K, V> candidate = first(window);
+			window.remove(candidate.key);
+			windowWeight -= candidate.weight;
+			if (getWeightImpl() + candidate.weight<=maxWeight) {
+				addTo(probation, candidate, Segment.PROBATION);
+				continue;
+			}
+
+			// The main area is full; the candidate must beat the main
+			// area's eviction victims to be admitted
+			int candidateFreq = sketch.frequency(candidate.key);
+			while (getWeightImpl() + candidate.weight>maxWeight) {
+				Node<K, V> victim = first(probation);
+				if (victim==null) {
+					victim = first(protectedEntries);
+				}
+				if (victim==null || candidateFreq<=sketch.frequency(victim.key)) {
+					victim = candidate;
+				}
+				evicted.add(victim);
+				evictionCount++;
+				evictedWeight += victim.weight;
+				if (victim==candidate) {
+					data.remove(candidate.key);
+					break;
+				}
+				removeNode(victim);
+			}
+			if (data.containsKey(candidate.key)) {
+				addTo(probation, candidate, Segment.PROBATION);
+			}
+
+		}
+
+		// Only happens if a single entry fills the window
+		evictTo(maxWeight, evicted);
+
+	}
+
+
+	/**
+	 * Adds a node to a segment, as its most recently used entry.
+	 *
+	 * @param segment The segment's map.
+	 * @param node The node.
+	 * @param id The segment.
+	 */
+	private void addTo(Map<K, Node<K, V>> segment, Node<K, V> node, Segment id) {
+		segment.put(node.key, node);
+		node.segment = id;
+		switch (id) {
+			case WINDOW:
+				windowWeight += node.weight;
+				break;
+			case PROBATION:
+				probationWeight += node.weight;
+				break;
+			default:
+				protectedWeight += node.weight;
+				break;
+		}
+	}
+
+
+	/**
+	 * Returns the least recently used entry of a segment.
+	 *
+	 * @param segment The segment.
+	 * @return The entry, or <code>null</code> if the segment is empty.
+	 */
+	private static <K, V> Node<K, V> first(Map<K, Node<K, V>> segment) {
+		Iterator<Node<K, V>> i = segment.values().iterator();
+		return i.hasNext() ? i.next() : null;
+	}
+
+
+	/**
+	 * Returns the cached value for a key.
+	 *
+	 * @param key The key.
+	 * @return The value, or <code>null</code> if it isn't cached.
+	 * @see #put(Object, Object)
+	 */
+	public synchronized V get(K key) {
+
+		sketch.increment(key);
+		Node<K, V> node = data.get(key);
+		if (node==null) {
+			missCount++;
+			return null;
+		}
+		hitCount++;
+
+		switch (node.segment) {
+			case WINDOW:
+				window.get(key); // Marks as most recently used
+				break;
+			case PROBATION:
+				// Used again, so it graduates to the protected segment
+				probation.remove(key);
+				probationWeight -= node.weight;
+				addTo(protectedEntries, node, Segment.PROTECTED);
+				long maxProtected = (long)(maxWeight * PROTECTED_FRACTION);
+				while (protectedWeight>maxProtected && protectedEntries.size()>1) {
+					Node<K, V> demoted = first(protectedEntries);
+					protectedEntries.remove(demoted.key);
+					protectedWeight -= demoted.weight;
+					addTo(probation, demoted, Segment.PROBATION);
+				}
+				break;
+			default:
+				protectedEntries.get(key);
+				break;
+		}
+		return node.value;
+
+	}
+
+
+	/**
+	 * Returns the maximum total weight of the entries.
+	 *
+	 * @return The maximum weight.
+	 * @see #setMaxWeight(long)
+	 */
+	public synchronized long getMaxWeight() {
+		return maxWeight;
+	}
+
+
+	/**
+	 * Returns the name of this cache.
+	 *
+	 * @return The name of this cache.
+	 */
+	public String getName() {
+		return name;
+	}
+
+
+	/**
+	 * Returns statistics about this cache.
+	 *
+	 * @return The statistics, as of now.
+	 */
+	public synchronized Stats getStats() {
+		return new Stats(name, data.size(), getWeightImpl(), maxWeight,
+				hitCount, missCount, evictionCount, evictedWeight);
+	}
+
+
+	/**
+	 * Returns the total weight of the entries.
+	 *
+	 * @return The total weight.
+	 */
+	private long getWeightImpl() {
+		return windowWeight + probationWeight + protectedWeight;
+	}
+
+
+	/**
+	 * Notifies the eviction listener of evicted entries.  This must be
+	 * called without this cache's lock held.
+	 *
+	 * @param evicted The evicted entries.
+	 */
+	private void notifyEvicted(List<Node<K, V>> evicted) {
+		BiConsumer<? super K, ? super V> listener;
+		synchronized (this) {
+			listener = evictionListener;
+		}
+		if (listener!=null) {
+			for (Node<K, V> node : evicted) {
+				listener.accept(node.key, node.value);
+			}
+		}
+	}
+
+
+	/**
+	 * Adds or replaces a value.  If the value weighs more than the cache's
+	 * maximum weight, it is not cached.
+	 *
+	 * @param key The key.
+	 * @param value The value.  This cannot be <code>null</code>.
+	 * @see #get(Object)
+	 */
+	public void put(K key, V value) {
+
+		long weight = weigher.weigh(key, value);
+		if (weight<0) {
+			throw new IllegalArgumentException("Negative weight: " + weight);
+		}
+		List<Node<K, V>> evicted = new ArrayList<>(1);
+
+		synchronized (this) {
+			Node<K, V> old = data.remove(key);
+			if (old!=null) {
+				removeFromSegment(old);
+			}
+			if (weight<=maxWeight) {
+				Node<K, V> node = new Node<>(key, value, weight);
+				data.put(key, node);
+				addTo(window, node, Segment.WINDOW);
+				evictIfNecessary(evicted);
+			}
+		}
+
+		notifyEvicted(evicted);
+
+	}
+
+
+	/**
+	 * Removes a value.  The eviction listener is not notified.
+	 *
+	 * @param key The key.
+	 * @return The value that was removed, or <code>null</code> if it
+	 *         wasn't cached.
+	 */
+	public synchronized V remove(K key) {
+		Node<K, V> node = data.get(key);
+		if (node==null) {
+			return null;
+		}
+		removeNode(node);
+		return node.value;
+	}
+
+
+	/**
+	 * Removes a node from the cache.
+	 *
+	 * @param node The node.
+	 */
+	private void removeNode(Node<K, V> node) {
+		data.remove(node.key);
+		removeFromSegment(node);
+	}
+
+
+	/**
+	 * Removes a node from the segment it's in.
+	 *
+	 * @param node The node.
+	 */
+	private void removeFromSegment(Node<K, V> node) {
+		switch (node.segment) {
+			case WINDOW:
+				window.remove(node.key);
+				windowWeight -= node.weight;
+				break;
+			case PROBATION:
+				probation.remove(node.key);
+				probationWeight -= node.weight;
+				break;
+			default:
+				protectedEntries.remove(node.key);
+				protectedWeight -= node.weight;
+				break;
+		}
+	}
+
+
+	/**
+	 * Sets the listener notified when entries are evicted to make room for
+	 * others, or to free memory.  It isn't notified of entries that are
+	 * explicitly removed or replaced.
+	 *
+	 * @param listener The listener, or <code>null</code> for none.
+	 */
+	public synchronized void setEvictionListener(
+			BiConsumer<? super K, ? super V> listener) {
+		this.evictionListener = listener;
+	}
+
+
+	/**
+	 * Sets the maximum total weight of the entries.  If the cache is
+	 * heavier than this, entries are evicted.
+	 *
+	 * @param maxWeight The new maximum weight.
+	 * @see #getMaxWeight()
+	 */
+	public void setMaxWeight(long maxWeight) {
+		List<Node<K, V>> evicted = new ArrayList<>();
+		synchronized (this) {
+			this.maxWeight = maxWeight;
+			evictTo(maxWeight, evicted);
+		}
+		notifyEvicted(evicted);
+	}
+
+
+	/**
+	 * Evicts entries until the cache weighs no more than a fraction of its
+	 * current weight.  This is called when memory is low.
+	 *
+	 * @param fraction The fraction, between <code>0</code> and
+	 *        <code>1</code>.
+	 */
+	void trim(double fraction) {
+		List<Node<K, V>> evicted = new ArrayList<>();
+		synchronized (this) {
+			evictTo((long)(getWeightImpl() * fraction), evicted);
+		}
+		notifyEvicted(evicted);
+	}
+
+
+	/**
+	 * Approximately counts how often keys are used.  This is a count-min
+	 * sketch of 4-bit counters, halved periodically so that old uses count
+	 * less than recent ones.
+	 */
+	private static final class FrequencySketch {
+
+		private final long[] table;
+		private int additions;
+
+		private static final int TABLE_SIZE = 512; // 8192 counters
+		private static final int SAMPLE_SIZE = TABLE_SIZE * 16 * 10;
+		private static final long RESET_MASK = 0x7777777777777777L;
+		private static final int[] SEEDS = {
+			0x97cb3127, 0x0c1d4c4d, 0x5f356495, 0x9e3779b9,
+		};
+
+		FrequencySketch() {
+			table = new long[TABLE_SIZE];
+		}
+
+		/**
+		 * Returns the estimated number of recent uses of a key.
+		 *
+		 * @param key The key.
+		 * @return The estimate, from <code>0</code> to <code>15</code>.
+		 */
+		int frequency(Object key) {
+			int hash = spread(key.hashCode());
+			int freq = 15;
+			for (int i=0; i<SEEDS.length; i++) {
+				int index = index(hash, i);
+				int shift = (index & 15) << 2;
+				freq = Math.min(freq, (int)((table[index>>>4] >>> shift) & 15));
+			}
+			return freq;
+		}
+
+		/**
+		 * Records a use of a key.
+		 *
+		 * @param key The key.
+		 */
+		void increment(Object key) {
+			int hash = spread(key.hashCode());
+			boolean added = false;
+			for (int i=0; i<SEEDS.length; i++) {
+				int index = index(hash, i);
+				int shift = (index & 15) << 2;
+				long mask = 15L << shift;
+				if ((table[index>>>4] & mask)!=mask) {
+					table[index>>>4] += 1L << shift;
+					added = true;
+				}
+			}
+			if (added && ++additions==SAMPLE_SIZE) {
+				for (int i=0; i<table.length; i++) {
+					table[i] = (table[i] >>> 1) & RESET_MASK;
+				}
+				additions /= 2;
+			}
+		}
+
+		private static int index(int hash, int i) {
+			int h = hash * SEEDS[i];
+			h ^= h >>> 16;
+			return h & (TABLE_SIZE*16 - 1);
+		}
+
+		private static int spread(int hash) {
+			hash ^= hash >>> 17;
+			hash *= 0xed5ad4bb;
+			hash ^= hash >>> 11;
+			return hash;
+		}
+
+	}
+
+
+	/**
+	 * A cached entry.
+	 */
+	private static final class Node<K, V> {
+
+		private final K key;
+		private final V value;
+		private final long weight;
+		private Segment segment;
+
+		Node(K key, V value, long weight) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+		}
+
+	}
+
+
+	/**
+	 * The segments an entry can be in.
+	 */
+	private enum Segment {
+		WINDOW,
+		PROBATION,
+		PROTECTED
+	}
+
+
+	/**
+	 * Statistics about a cache.
+	 */
+	public static final class Stats {
+
+		private final String name;
+		private final int size;
+		private final long weight;
+		private final long maxWeight;
+		private final long hitCount;
+		private final long missCount;
+		private final long evictionCount;
+		private final long evictedWeight;
+
+		Stats(String name, int size, long weight, long maxWeight,
+				long hitCount, long missCount, long evictionCount,
+				long evictedWeight) {
+			this.name = name;
+			this.size = size;
+			this.weight = weight;
+			this.maxWeight = maxWeight;
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.evictionCount = evictionCount;
+			this.evictedWeight = evictedWeight;
+		}
+
+		/**
+		 * Returns the number of entries evicted so far.
+		 *
+		 * @return The eviction count.
+		 */
+		public long getEvictionCount() {
+			return evictionCount;
+		}
+
+		/**
+		 * Returns the total weight of the entries evicted so far.
+		 *
+		 * @return The evicted weight.
+		 */
+		public long getEvictedWeight() {
+			return evictedWeight;
+		}
+
+		/**
+		 * Returns the fraction of lookups that found a value.
+		 *
+		 * @return The hit rate, from <code>0</code> to <code>1</code>.
+		 */
+		public double getHitRate() {
+			long total = hitCount + missCount;
+			return total==0 ? 1 : (double)hitCount / total;
+		}
+
+		/**
+		 * Returns the number of lookups that found a value.
+		 *
+		 * @return The hit count.
+		 */
+		public long getHitCount() {
+			return hitCount;
+		}
+
+		/**
+		 * Returns the maximum total weight of the cache.
+		 *
+		 * @return The maximum weight.
+		 */
+		public long getMaxWeight() {
+			return maxWeight;
+		}
+
+		/**
+		 * Returns the number of lookups that didn't find a value.
+		 *
+		 * @return The miss count.
+		 */
+		public long getMissCount() {
+			return missCount;
+		}
+
+		/**
+		 * Returns the name of the cache.
+		 *
+		 * @return The name.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the number of entries in the cache.
+		 *
+		 * @return The number of entries.
+		 */
+		public int getSize() {
+			return size;
+		}
+
+		/**
+		 * Returns the total weight of the entries in the cache.
+		 *
+		 * @return The weight.
+		 */
+		public long getWeight() {
+			return weight;
+		}
+
+		@Override
+		public String toString() {
+			return name + ": " + size + " entries, weight " + weight + "/" +
+					maxWeight + ", hits=" + hitCount + ", misses=" + missCount +
+					", evictions=" + evictionCount;
+		}
+
+	}
+
+
+	/**
+	 * Computes the weight of cache entries.
+	 *
+	 * @param <K> The type of keys.
+	 * @param <V> The type of values.
+	 */
+	@FunctionalInterface
+	public interface Weigher<K, V> {
+
+		/**
+		 * Returns the weight of an entry.
+		 *
+		 * @param key The key.
+		 * @param value The value.
+		 * @return The weight, which must not be negative.
+		 */
+		long weigh(K key, V value);
+
+	}
+
+
+}
@@ -0,0 +1,498 @@
+/*
+ * 10/19/2026
+ *
+ * MappedText.java - The read-only text of a memory-mapped file.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.DoubleConsumer;
+
+
+/**
+ * The text of a file, decoded on demand from a read-only memory mapping.
+ * This is the "original" buffer of a {@link PieceTableContent}.<p>
+ *
+ * The file is scanned once when it is opened.  The scan records a
+ * checkpoint every few thousand characters, pairing a character offset
+ * with the byte offset it was decoded from, and the offset of every
+ * newline.  Both are kept in primitive arrays, so the heap needed for even
+ * a multi-gigabyte file is a small fraction of its size.  Text is then
+ * decoded one checkpoint interval at a time as it is asked for.<p>
+ *
+ * As with files loaded into a text component, <code>\r\n</code> and
+ * <code>\r</code> are seen as <code>\n</code>.  Stateful encodings such as
+ * ISO-2022 are not supported, since decoding can start at any checkpoint.<p>
+ *
+ * A mapped file can't be replaced on some platforms, such as Windows, so
+ * the mapping can be released while the file is replaced by one with the
+ * same contents, and then remapped (see {@link #unmap()}).
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class MappedText implements PieceTableContent.TextSource, Closeable {
+
+	private File file;
+	private FileChannel channel;
+	private MappedByteBuffer[] regions;
+	private final Charset charset;
+	private final long byteLength;
+	private int length;
+
+	private int[] checkpointChars;
+	private long[] checkpointBytes;
+	private final BitSet checkpointAfterCR;
+	private int checkpointCount;
+
+	private int[] newlines;
+	private int newlineCount;
+	private String lineSeparator;
+
+	private CharsetDecoder decoder;
+	private int cachedInterval;
+	private final char[] cachedChars;
+	private int cachedCount;
+
+	/**
+	 * Roughly the number of characters between checkpoints.
+	 */
+	private static final int CHECKPOINT_CHARS = 4096;
+
+	/**
+	 * The most bytes a checkpoint interval can span.  Four bytes per char
+	 * covers every encoding Java ships with.
+	 */
+	private static final int CHECKPOINT_BYTES = CHECKPOINT_CHARS * 4;
+
+	/**
+	 * The size of each mapped region of the file.  Files larger than this
+	 * are mapped as several regions, each overlapping the next by enough
+	 * that any checkpoint interval lies entirely within one of them.
+	 */
+	private static final long REGION_SIZE = 1L << 30;
+
+
+	/**
+	 * Maps and scans a file.
+	 *
+	 * @param file The file.
+	 * @param encoding The file's encoding, or <code>null</code> for the
+	 *        system default.  A byte order mark in the file overrides this.
+	 * @param progress Called periodically with the fraction of the file
+	 *        scanned so far, or <code>null</code> for none.  This is called
+	 *        on the calling thread.
+	 * @throws IOException If an IO error occurs, or the file has more text
+	 *         than a document can hold.
+	 */
+	MappedText(File file, String encoding, DoubleConsumer progress)
+			throws IOException {
+
+		byteLength = map(file);
+
+		Charset cs = encoding==null ? Charset.defaultCharset() : Charset.forName(encoding);
+		int bomLength = 0;
+		ByteBuffer head = slice(0, (int)Math.min(byteLength, 3));
+		int b0 = head.remaining()>0 ? head.get(0) & 0xff : -1;
+		int b1 = head.remaining()>1 ? head.get(1) & 0xff : -1;
+		int b2 = head.remaining()>2 ? head.get(2) & 0xff : -1;
+		if (b0==0xef && b1==0xbb && b2==0xbf) {
+			cs = StandardCharsets.UTF_8;
+			bomLength = 3;
+		}
+		else if (b0==0xfe && b1==0xff) {
+			cs = StandardCharsets.UTF_16BE;
+			bomLength = 2;
+		}
+		else if (b0==0xff && b1==0xfe) {
+			cs = StandardCharsets.UTF_16LE;
+			bomLength = 2;
+		}
+		else if (cs.equals(StandardCharsets.UTF_16)) {
+			cs = StandardCharsets.UTF_16BE; // No BOM means big-endian
+		}
+		charset = cs;
+
+		checkpointChars = new int[1024];
+		checkpointBytes = new long[1024];
+		checkpointAfterCR = new BitSet();
+		newlines = new int[1024];
+		cachedInterval = -1;
+		cachedChars = new char[CHECKPOINT_CHARS + 16];
+
+		try {
+			scan(bomLength, progress);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+
+	}
+
+
+	/**
+	 * Records a checkpoint.
+	 *
+	 * @param chars The character offset.
+	 * @param bytes The byte offset the character is decoded from.
+	 * @param afterCR Whether the preceding character was a <code>\r</code>,
+	 *        meaning a <code>\n</code> here is the second half of a
+	 *        <code>\r\n</code> pair.
+	 */
+	private void addCheckpoint(int chars, long bytes, boolean afterCR) {
+		if (checkpointCount==checkpointChars.length) {
+			checkpointChars = Arrays.copyOf(checkpointChars, checkpointCount*2);
+			checkpointBytes = Arrays.copyOf(checkpointBytes, checkpointCount*2);
+		}
+		checkpointChars[checkpointCount] = chars;
+		checkpointBytes[checkpointCount] = bytes;
+		checkpointAfterCR.set(checkpointCount, afterCR);
+		checkpointCount++;
+	}
+
+
+	/**
+	 * Releases the file.  The text should not be accessed afterward.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 */
+	@Override
+	public void close() throws IOException {
+		regions = null;
+		channel.close();
+	}
+
+
+	@Override
+	public int countNewlines(int start, int end) {
+		return lowerBound(end) - lowerBound(start);
+	}
+
+
+	/**
+	 * Decodes a checkpoint interval into the cache.
+	 *
+	 * @param interval The interval.
+	 */
+	private void decodeInterval(int interval) {
+
+		if (interval==cachedInterval) {
+			return;
+		}
+
+		long start = checkpointBytes[interval];
+		long end = checkpointBytes[interval+1];
+		ByteBuffer in = slice(start, (int)(end-start));
+		CharBuffer out = CharBuffer.allocate(cachedChars.length);
+
+		decoder.reset();
+		boolean last = interval==checkpointCount-2;
+		decoder.decode(in, out, last);
+		if (last) {
+			decoder.flush(out);
+		}
+		out.flip();
+
+		boolean afterCR = checkpointAfterCR.get(interval);
+		int count = 0;
+		while (out.hasRemaining()) {
+			char ch = out.get();
+			if (ch=='\n' && afterCR) {
+				afterCR = false;
+				continue;
+			}
+			afterCR = ch=='\r';
+			cachedChars[count++] = afterCR ? '\n' : ch;
+		}
+
+		cachedInterval = interval;
+		cachedCount = count;
+
+	}
+
+
+	@Override
+	public synchronized void getChars(int start, int len, char[] dest, int destOffs) {
+
+		int interval = Arrays.binarySearch(checkpointChars, 0, checkpointCount, start);
+		if (interval<0) {
+			interval = -interval - 2;
+		}
+		// Empty intervals share their start with the next one
+		while (interval<checkpointCount-2 && checkpointChars[interval+1]<=start) {
+			interval++;
+		}
+
+		while (len>0) {
+			decodeInterval(interval);
+			int from = start - checkpointChars[interval];
+			int n = Math.min(len, cachedCount - from);
+			System.arraycopy(cachedChars, from, dest, destOffs, n);
+			start += n;
+			destOffs += n;
+			len -= n;
+			interval++;
+		}
+
+	}
+
+
+	/**
+	 * Returns the charset the file was decoded with.
+	 *
+	 * @return The charset.  This is the one named by a byte order mark, if
+	 *         the file has one.
+	 */
+	public Charset getCharset() {
+		return charset;
+	}
+
+
+	/**
+	 * Returns the file this text is mapped from.
+	 *
+	 * @return The file.
+	 */
+	File getFile() {
+		return file;
+	}
+
+
+	/**
+	 * Returns the line separator the file's first line ends with.
+	 *
+	 * @return The line separator, or <code>null</code> if the file has
+	 *         only one line.
+	 */
+	public String getLineSeparator() {
+		return lineSeparator;
+	}
+
+
+	/**
+	 * Returns the number of characters in the file.
+	 *
+	 * @return The length of the text.
+	 */
+	public int length() {
+		return length;
+	}
+
+
+	/**
+	 * Returns the index of the first newline at or after an offset.
+	 *
+	 * @param offs The offset.
+	 * @return The index into the newline array.
+	 */
+	private int lowerBound(int offs) {
+		int low = 0;
+		int high = newlineCount;
+		while (low<high) {
+			int mid = (low+high) >>> 1;
+			if (newlines[mid]<offs) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+
+	/**
+	 * Maps a file.
+	 *
+	 * @param file The file.
+	 * @return The size of the file, in bytes.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private long map(File file) throws IOException {
+		FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			long size = ch.size();
+			int regionCount = (int)Math.max(1, (size+REGION_SIZE-1) / REGION_SIZE);
+			MappedByteBuffer[] mapped = new MappedByteBuffer[regionCount];
+			for (int i=0; i<regionCount; i++) {
+				long start = i * REGION_SIZE;
+				long len = Math.min(size - start, REGION_SIZE + CHECKPOINT_BYTES);
+				mapped[i] = ch.map(FileChannel.MapMode.READ_ONLY, start, len);
+			}
+			this.file = file;
+			channel = ch;
+			regions = mapped;
+			return size;
+		} catch (IOException | RuntimeException e) {
+			ch.close();
+			throw e;
+		}
+	}
+
+
+	@Override
+	public int newlineOffset(int start, int n) {
+		return newlines[lowerBound(start) + n];
+	}
+
+
+	/**
+	 * Creates a decoder for this file's charset.  Malformed input is
+	 * replaced, as it is when a file is read into an editor.
+	 *
+	 * @return The decoder.
+	 */
+	private CharsetDecoder newDecoder() {
+		return charset.newDecoder().
+				onMalformedInput(CodingErrorAction.REPLACE).
+				onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+
+	/**
+	 * Maps a file again after {@link #unmap()} was called.  The file
+	 * should have exactly the same contents as the one that was unmapped,
+	 * as this text was scanned from it.
+	 *
+	 * @param file The file, which may be at a different path than the one
+	 *        unmapped.
+	 * @throws IOException If an IO error occurs, or the file's size has
+	 *         changed.
+	 */
+	void remap(File file) throws IOException {
+		long size = map(file);
+		if (size!=byteLength) {
+			unmap();
+			throw new IOException("File has changed: " + file.getAbsolutePath());
+		}
+	}
+
+
+	/**
+	 * Decodes the entire file once, recording checkpoints and the offsets of
+	 * all newlines.
+	 *
+	 * @param bomLength The length of the byte order mark, if any.
+	 * @param progress Called periodically with the fraction of the file
+	 *        scanned so far, or <code>null</code> for none.
+	 * @throws IOException If the file has more text than a document can
+	 *         hold.
+	 */
+	private void scan(int bomLength, DoubleConsumer progress) throws IOException {
+
+		decoder = newDecoder();
+		CharBuffer out = CharBuffer.allocate(CHECKPOINT_CHARS);
+		long pos = bomLength;
+		long chars = 0;
+		boolean afterCR = false;
+		addCheckpoint(0, pos, false);
+
+		while (true) {
+
+			int n = (int)Math.min(byteLength-pos, CHECKPOINT_BYTES);
+			boolean endOfInput = pos+n==byteLength;
+			ByteBuffer in = slice(pos, n);
+			int inStart = in.position();
+			out.clear();
+			CoderResult result = decoder.decode(in, out, endOfInput);
+			boolean done = endOfInput && result.isUnderflow();
+			if (done) {
+				decoder.flush(out);
+			}
+			pos += in.position() - inStart;
+			out.flip();
+
+			while (out.hasRemaining()) {
+				char ch = out.get();
+				if (ch=='\n' && afterCR) {
+					if (newlineCount==1) {
+						lineSeparator = "\r\n";
+					}
+					afterCR = false;
+					continue;
+				}
+				afterCR = ch=='\r';
+				if (afterCR || ch=='\n') {
+					if (newlineCount==0) {
+						lineSeparator = afterCR ? "\r" : "\n";
+					}
+					if (newlineCount==newlines.length) {
+						newlines = Arrays.copyOf(newlines, newlineCount*2);
+					}
+					newlines[newlineCount++] = (int)chars;
+				}
+				chars++;
+			}
+
+			// Leave room for the trailing newline every document has
+			if (chars>=Integer.MAX_VALUE) {
+				throw new IOException("File is too large to open: " + byteLength + " bytes");
+			}
+			addCheckpoint((int)chars, pos, afterCR);
+			if (progress!=null) {
+				progress.accept((double)pos / byteLength);
+			}
+
+			if (done) {
+				break;
+			}
+
+		}
+
+		length = (int)chars;
+		decoder.reset();
+
+	}
+
+
+	/**
+	 * Returns a buffer over a range of the file.
+	 *
+	 * @param start The byte offset to start at.
+	 * @param len The number of bytes.  This must be no more than
+	 *        {@link #CHECKPOINT_BYTES}.
+	 * @return The buffer.
+	 */
+	private ByteBuffer slice(long start, int len) {
+		int region = (int)(start / REGION_SIZE);
+		int offs = (int)(start - region*REGION_SIZE);
+		ByteBuffer buf = regions[region].duplicate();
+		buf.limit(offs + len);
+		buf.position(offs);
+		return buf;
+	}
+
+
+	/**
+	 * Releases the file's mapping, so the file can be replaced.  The text
+	 * can't be read until {@link #remap(File)} is called.  Java can't unmap
+	 * a file directly; the mapping is released once the buffers dropped
+	 * here are garbage collected.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 */
+	void unmap() throws IOException {
+		regions = null;
+		channel.close();
+	}
+
+
+}
@@ -0,0 +1,300 @@
+/*
+ * 10/19/2026
+ *
+ * MemoryPressureMonitor.java - Tracks how full the heap is after GC.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.swing.SwingUtilities;
+
+
+/**
+ * Watches how full the heap is after each garbage collection, and
+ * announces when RText should shed load to avoid running out of memory.<p>
+ *
+ * The monitor is driven by garbage collection notifications, and by a
+ * usage threshold on the tenured heap pools for JVMs that don't send
+ * them.  After each collection, the fraction of the heap still in use
+ * determines the pressure {@link Level}.  Each level adds a step to those
+ * of the levels below it:
+ * <ol>
+ *    <li>{@link Level#ELEVATED}: all caches are trimmed.</li>
+ *    <li>{@link Level#HIGH}: idle tabs are hibernated, and search results
+ *        are capped.</li>
+ *    <li>{@link Level#SEVERE}: spell checking and task parsing are
+ *        paused.</li>
+ *    <li>{@link Level#CRITICAL}: large files can't be opened.</li>
+ * </ol>
+ * A level is left once usage falls somewhat below its threshold, so RText
+ * doesn't flip between levels, and its steps are undone by the listeners
+ * that took them.<p>
+ *
+ * Listeners of {@link #LEVEL_PROPERTY} are notified on the EDT.  Other
+ * methods may be called from any thread.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class MemoryPressureMonitor {
+
+	private static final MemoryPressureMonitor INSTANCE = new MemoryPressureMonitor();
+
+	/**
+	 * The property fired when the pressure level changes.
+	 */
+	public static final String LEVEL_PROPERTY = "MemoryPressureMonitor.level";
+
+	private final PropertyChangeSupport support;
+	private final List<MemoryPoolMXBean> pools;
+	private volatile Level level;
+	private volatile double heapUsage;
+
+	/**
+	 * How far usage must fall below a level's threshold to leave it.
+	 */
+	private static final double HYSTERESIS = 0.05;
+
+	/**
+	 * How often usage is checked even if no collection happens, in
+	 * milliseconds.  Memory freed by closing files is only noticed after
+	 * a collection, but one might not happen for a while in an idle JVM.
+	 */
+	private static final int POLL_INTERVAL = 30000;
+
+	private static final String GC_NOTIFICATION = "com.sun.management.gc.notification";
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private MemoryPressureMonitor() {
+
+		support = new PropertyChangeSupport(this);
+		pools = new ArrayList<>();
+		level = Level.NORMAL;
+
+		// The tenured pools are the ones supporting usage thresholds
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType()==MemoryType.HEAP && pool.isUsageThresholdSupported() &&
+					pool.isCollectionUsageThresholdSupported()) {
+				pools.add(pool);
+			}
+		}
+
+		NotificationListener listener = (notification, handback) -> handleNotification(notification);
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (gc instanceof NotificationEmitter) {
+				((NotificationEmitter)gc).addNotificationListener(listener, null, null);
+			}
+		}
+		for (MemoryPoolMXBean pool : pools) {
+			long max = getMax(pool);
+			pool.setCollectionUsageThreshold((long)(max * Level.ELEVATED.threshold));
+		}
+		((NotificationEmitter)ManagementFactory.getMemoryMXBean()).
+				addNotificationListener(listener, null, null);
+
+		TaskScheduler.get().scheduleRepeating(TaskScheduler.Lane.BACKGROUND,
+				"MemoryPressureMonitor", POLL_INTERVAL, POLL_INTERVAL,
+				token -> update());
+
+	}
+
+
+	/**
+	 * Adds a listener notified when the pressure level changes.
+	 *
+	 * @param listener The listener to add.
+	 * @see #removeLevelListener(PropertyChangeListener)
+	 */
+	public void addLevelListener(PropertyChangeListener listener) {
+		support.addPropertyChangeListener(LEVEL_PROPERTY, listener);
+	}
+
+
+	/**
+	 * Returns the monitor.
+	 *
+	 * @return The monitor.
+	 */
+	public static MemoryPressureMonitor get() {
+		return INSTANCE;
+	}
+
+
+	/**
+	 * Returns the fraction of the heap that was in use after the most
+	 * recent garbage collection.
+	 *
+	 * @return The fraction, from <code>0</code> to <code>1</code>.
+	 */
+	public double getHeapUsage() {
+		return heapUsage;
+	}
+
+
+	/**
+	 * Returns the current pressure level.
+	 *
+	 * @return The level.
+	 */
+	public Level getLevel() {
+		return level;
+	}
+
+
+	/**
+	 * Returns the maximum size of a memory pool.
+	 *
+	 * @param pool The pool.
+	 * @return The pool's maximum size, or the heap's if it has none.
+	 */
+	private static long getMax(MemoryPoolMXBean pool) {
+		long max = pool.getUsage().getMax();
+		return max>0 ? max : Runtime.getRuntime().maxMemory();
+	}
+
+
+	/**
+	 * Handles a notification from a garbage collector or the memory bean.
+	 *
+	 * @param notification The notification.
+	 */
+	private void handleNotification(Notification notification) {
+		String type = notification.getType();
+		if (GC_NOTIFICATION.equals(type) ||
+				MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)) {
+			update();
+		}
+	}
+
+
+	/**
+	 * Returns whether the pressure is at least a given level.
+	 *
+	 * @param level The level.
+	 * @return Whether the pressure is at least that level.
+	 */
+	public boolean isAtLeast(Level level) {
+		return this.level.compareTo(level)>=0;
+	}
+
+
+	/**
+	 * Removes a listener notified when the pressure level changes.
+	 *
+	 * @param listener The listener to remove.
+	 * @see #addLevelListener(PropertyChangeListener)
+	 */
+	public void removeLevelListener(PropertyChangeListener listener) {
+		support.removePropertyChangeListener(LEVEL_PROPERTY, listener);
+	}
+
+
+	/**
+	 * Checks the heap usage after the last collection and updates the
+	 * pressure level.
+	 */
+	private synchronized void update() {
+
+		double usage = 0;
+		for (MemoryPoolMXBean pool : pools) {
+			MemoryUsage collected = pool.getCollectionUsage();
+			if (collected!=null) {
+				usage = Math.max(usage, (double)collected.getUsed() / getMax(pool));
+			}
+		}
+		heapUsage = usage;
+
+		// Rise to the highest level reached, but only fall once well below
+		Level oldLevel = level;
+		Level newLevel = Level.NORMAL;
+		for (Level l : Level.values()) {
+			double threshold = l.threshold;
+			if (l.compareTo(oldLevel)<=0) {
+				threshold -= HYSTERESIS;
+			}
+			if (usage>=threshold) {
+				newLevel = l;
+			}
+		}
+
+		if (newLevel!=oldLevel) {
+			level = newLevel;
+			if (newLevel.compareTo(oldLevel)>0 && newLevel.compareTo(Level.ELEVATED)>=0) {
+				CacheManager.get().trimAll(CacheManager.MEMORY_PRESSURE_TRIM);
+			}
+			SwingUtilities.invokeLater(() ->
+				support.firePropertyChange(LEVEL_PROPERTY, oldLevel, newLevel));
+		}
+
+	}
+
+
+	/**
+	 * The levels of memory pressure, in increasing order.
+	 */
+	public enum Level {
+
+		/**
+		 * Memory isn't low.
+		 */
+		NORMAL(0),
+
+		/**
+		 * Caches are trimmed.
+		 */
+		ELEVATED(0.70),
+
+		/**
+		 * Idle tabs are hibernated and search results are capped.
+		 */
+		HIGH(0.80),
+
+		/**
+		 * Spell checking and task parsing are paused.
+		 */
+		SEVERE(0.88),
+
+		/**
+		 * Large files can't be opened.
+		 */
+		CRITICAL(0.94);
+
+		private final double threshold;
+
+		Level(double threshold) {
+			this.threshold = threshold;
+		}
+
+		/**
+		 * Returns the fraction of the heap in use after a collection at
+		 * which this level is entered.
+		 *
+		 * @return The threshold.
+		 */
+		public double getThreshold() {
+			return threshold;
+		}
+
+	}
+
+
+}
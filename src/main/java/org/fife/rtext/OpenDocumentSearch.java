@@ -0,0 +1,486 @@
+/*
+ * 10/19/2026
+ *
+ * OpenDocumentSearch.java - Finds or replaces text in all open documents.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.SwingUtilities;
+
+import org.fife.ui.rtextarea.SearchContext;
+
+
+/**
+ * Finds or replaces text in all open documents at once.<p>
+ *
+ * Find in Files reads files from disk, so it misses unsaved changes and
+ * can't search remote or untitled documents.  This class instead searches
+ * a {@link DocumentSnapshot} of every open document, so it sees exactly
+ * what the user sees.  The documents are searched in parallel on the
+ * {@link TaskScheduler}, and the matching lines are listed in a
+ * {@link SearchResultsWindow} once all of them have been searched.
+ * Snapshots are taken on the worker threads, and documents that weren't
+ * already mirrored for snapshots stop being mirrored when the search
+ * ends.<p>
+ *
+ * Replacing computes each document's new text in parallel the same way,
+ * then applies it on the EDT as a single edit per document, so each
+ * document's replacements are undone in one step.  A document edited while
+ * its replacement was being computed is searched again on the EDT
+ * instead.  Read-only documents are skipped, as they are when saving all
+ * files.<p>
+ *
+ * Starting a new search abandons any search in progress.  All methods in
+ * this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class OpenDocumentSearch {
+
+	private final RText rtext;
+	private Search search;
+	private SearchResultsWindow window;
+
+	/**
+	 * The most matching lines listed for a single document.
+	 */
+	private static final int MAX_LINES_PER_DOCUMENT = 1000;
+
+	/**
+	 * The most characters of a matching line shown in the results.
+	 */
+	private static final int MAX_LINE_LENGTH = 200;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param rtext The parent application.
+	 */
+	public OpenDocumentSearch(RText rtext) {
+		this.rtext = rtext;
+	}
+
+
+	/**
+	 * Abandons the search in progress, if any.
+	 */
+	public void cancel() {
+		if (search!=null) {
+			search.cancel();
+			search = null;
+		}
+	}
+
+
+	/**
+	 * Lists all lines in open documents containing the search text.  This
+	 * method returns immediately; the results are shown when all documents
+	 * have been searched.
+	 *
+	 * @param context What to search for.
+	 * @throws PatternSyntaxException If the context's regular expression is
+	 *         invalid.
+	 * @see #replaceAll(SearchContext)
+	 */
+	public void findAll(SearchContext context) {
+		start(context, false);
+	}
+
+
+	/**
+	 * Returns the text of a line, trimmed for display.
+	 *
+	 * @param text The text.
+	 * @param line The line.
+	 * @return The line's text.
+	 */
+	private static String getLineText(DocumentSnapshot text, int line) {
+		int start = text.getLineStartOffset(line);
+		int end = text.getLineEndOffset(line);
+		end = Math.min(end, start + MAX_LINE_LENGTH);
+		return text.getText(start, end - start).trim();
+	}
+
+
+	/**
+	 * Returns the window listing search results, creating it if necessary.
+	 *
+	 * @return The window.
+	 */
+	private SearchResultsWindow getResultsWindow() {
+		if (window==null) {
+			window = new SearchResultsWindow(rtext);
+			rtext.addDockableWindow(window);
+		}
+		else {
+			window.setActive(true);
+		}
+		return window;
+	}
+
+
+	/**
+	 * Returns whether text can be replaced in a document.
+	 *
+	 * @param textArea The document.
+	 * @return Whether the document can be modified.
+	 */
+	private static boolean isReplaceable(RTextEditorPane textArea) {
+		return !textArea.isReadOnly() && textArea.isEditable();
+	}
+
+
+	/**
+	 * Replaces all occurrences of the search text in open documents.  This
+	 * method returns immediately; the documents are modified when all of
+	 * them have been searched.
+	 *
+	 * @param context What to search for, and what to replace it with.
+	 * @throws PatternSyntaxException If the context's regular expression is
+	 *         invalid.
+	 * @see #findAll(SearchContext)
+	 */
+	public void replaceAll(SearchContext context) {
+		start(context, true);
+	}
+
+
+	/**
+	 * Starts searching all open documents.
+	 *
+	 * @param context What to search for.
+	 * @param replace Whether to replace the matches.
+	 * @throws PatternSyntaxException If the context's regular expression is
+	 *         invalid.
+	 */
+	private void start(SearchContext context, boolean replace) {
+
+		cancel();
+
+		String searchFor = context.getSearchFor();
+		if (searchFor==null || searchFor.isEmpty()) {
+			return;
+		}
+
+		AbstractMainView view = rtext.getMainView();
+		List<RTextEditorPane> textAreas = new ArrayList<>();
+		for (int i=0; i<view.getNumDocuments(); i++) {
+			RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
+			if (!replace || isReplaceable(textArea)) {
+				textAreas.add(textArea);
+			}
+		}
+
+		search = new Search(context, replace,
+				textAreas.toArray(new RTextEditorPane[0]));
+		search.start();
+
+	}
+
+
+	/**
+	 * A line containing a match.
+	 */
+	static final class Match {
+
+		private final int line;
+		private final String text;
+
+		Match(int line, String text) {
+			this.line = line;
+			this.text = text;
+		}
+
+		/**
+		 * Returns the line.
+		 *
+		 * @return The line, <code>0</code>-based.
+		 */
+		int getLine() {
+			return line;
+		}
+
+		/**
+		 * Returns the text of the line.
+		 *
+		 * @return The text, trimmed for display.
+		 */
+		String getText() {
+			return text;
+		}
+
+	}
+
+
+	/**
+	 * A search of all open documents.
+	 */
+	private final class Search {
+
+		private final SearchContext context;
+		private final Pattern pattern;
+		private final boolean wholeWord;
+		private final boolean regex;
+		private final String replaceWith;
+		private final boolean replace;
+		private final RTextEditorPane[] textAreas;
+		private final DocumentSnapshot[] snapshots;
+		private final Set<RTextEditorPane> trackersInstalled;
+		private final List<TaskScheduler.ScheduledTask> tasks;
+		private final AtomicInteger remaining;
+		private final AtomicInteger occurrences;
+		private volatile boolean canceled;
+		private volatile RuntimeException error;
+
+		// Only one of these is filled in, depending on whether we're replacing
+		private final List<List<Match>> matches;
+		private final List<ReplaceAllEngine.Replacement> replacements;
+
+		Search(SearchContext context, boolean replace,
+				RTextEditorPane[] textAreas) {
+
+			// The context is copied, since it may be changed while we search
+			this.context = context.clone();
+			pattern = IncrementalMarkAll.createPattern(context);
+			regex = context.isRegularExpression();
+			wholeWord = context.getWholeWord();
+			String replaceWith = context.getReplaceWith();
+			this.replaceWith = replaceWith==null ? "" : replaceWith;
+
+			this.replace = replace;
+			this.textAreas = textAreas;
+			snapshots = new DocumentSnapshot[textAreas.length];
+			trackersInstalled = ConcurrentHashMap.newKeySet();
+			tasks = new ArrayList<>();
+			remaining = new AtomicInteger(textAreas.length);
+			occurrences = new AtomicInteger();
+			matches = new ArrayList<>(Collections.nCopies(textAreas.length, null));
+			replacements = new ArrayList<>(Collections.nCopies(textAreas.length, null));
+
+		}
+
+		void cancel() {
+			canceled = true;
+			for (TaskScheduler.ScheduledTask task : tasks) {
+				task.cancel(false);
+			}
+			releaseTrackers();
+		}
+
+		/**
+		 * Called on the EDT when all documents have been searched.
+		 */
+		private void completed() {
+
+			if (canceled) {
+				return;
+			}
+			search = null;
+
+			if (error!=null) {
+				// Most likely a bad group reference in the replacement text
+				releaseTrackers();
+				rtext.displayException(error);
+				return;
+			}
+
+			if (replace) {
+				replaceMatches();
+				releaseTrackers();
+				return;
+			}
+			releaseTrackers();
+
+			SearchResultsWindow window = getResultsWindow();
+			window.clear();
+			int documentCount = 0;
+			for (int i=0; i<textAreas.length; i++) {
+				List<Match> documentMatches = matches.get(i);
+				if (documentMatches!=null && !documentMatches.isEmpty()) {
+					window.addMatches(textAreas[i], documentMatches);
+					documentCount++;
+				}
+			}
+
+			String message = rtext.getString("OpenDocumentsSearchCount",
+					String.valueOf(occurrences.get()),
+					String.valueOf(documentCount),
+					String.valueOf(textAreas.length));
+			rtext.setMessages(null, message);
+
+		}
+
+		/**
+		 * Returns the lines in a document that contain a match.  This is
+		 * called on a worker thread.
+		 *
+		 * @param text The document's text.
+		 * @param token Cancelled if the search is abandoned.
+		 * @return The matching lines.
+		 */
+		private List<Match> findMatches(DocumentSnapshot text,
+				CancellationToken token) {
+
+			List<Match> lines = new ArrayList<>();
+			Matcher m = pattern.matcher(text);
+			int lastLine = -1;
+
+			while (!token.isCancelled() && m.find()) {
+				int start = m.start();
+				int end = m.end();
+				if (start==end) {
+					continue; // Zero-length regex matches aren't listed
+				}
+				if (wholeWord && !IncrementalMarkAll.isWholeWord(text, start, end)) {
+					continue;
+				}
+				occurrences.incrementAndGet();
+				int line = text.getLineOfOffset(start);
+				if (line!=lastLine && lines.size()<MAX_LINES_PER_DOCUMENT) {
+					lines.add(new Match(line, getLineText(text, line)));
+					lastLine = line;
+				}
+			}
+
+			return lines;
+
+		}
+
+		/**
+		 * Applies the computed replacements.  Each document is modified
+		 * in a single edit.
+		 */
+		private void replaceMatches() {
+
+			// Documents may have been closed while we searched
+			AbstractMainView view = rtext.getMainView();
+			Set<RTextEditorPane> open = Collections.newSetFromMap(new IdentityHashMap<>());
+			for (int i=0; i<view.getNumDocuments(); i++) {
+				open.add(view.getRTextEditorPaneAt(i));
+			}
+
+			int count = 0;
+			int documentCount = 0;
+			for (int i=0; i<textAreas.length; i++) {
+				RTextEditorPane textArea = textAreas[i];
+				ReplaceAllEngine.Replacement r = replacements.get(i);
+				if (!open.contains(textArea) || !isReplaceable(textArea)) {
+					continue;
+				}
+				int replaced;
+				if (textArea.isSnapshotCurrent(snapshots[i])) {
+					if (r==null) {
+						continue;
+					}
+					ReplaceAllEngine.apply(textArea, r);
+					replaced = r.getCount();
+				}
+				else { // Edited since we searched
+					replaced = ReplaceAllEngine.replaceAll(textArea, context);
+				}
+				if (replaced>0) {
+					count += replaced;
+					documentCount++;
+				}
+			}
+
+			String message = rtext.getString("OpenDocumentsReplaceCount",
+					String.valueOf(count), String.valueOf(documentCount));
+			rtext.setMessages(null, message);
+
+		}
+
+		/**
+		 * Stops mirroring the documents that weren't being mirrored for
+		 * snapshots before this search started.  This may be called on any
+		 * thread.
+		 */
+		private void releaseTrackers() {
+			for (RTextEditorPane textArea : trackersInstalled) {
+				textArea.releaseSnapshotTracker();
+			}
+			trackersInstalled.clear();
+		}
+
+		/**
+		 * Takes a snapshot of a document.  If the document wasn't already
+		 * mirrored for snapshots, this reads all of its text, which is why
+		 * it's done on a worker thread rather than the EDT.
+		 *
+		 * @param index The index of the document.
+		 * @return The snapshot.
+		 */
+		private DocumentSnapshot takeSnapshot(int index) {
+			RTextEditorPane textArea = textAreas[index];
+			if (!textArea.hasSnapshotTracker()) {
+				trackersInstalled.add(textArea);
+			}
+			DocumentSnapshot snapshot = textArea.createSnapshot();
+			snapshots[index] = snapshot;
+			// The search may have been abandoned while we were copying
+			if (canceled) {
+				releaseTrackers();
+			}
+			return snapshot;
+		}
+
+		/**
+		 * Searches one document.  This is called on a worker thread.
+		 *
+		 * @param index The index of the document.
+		 * @param token Cancelled if the search is abandoned.
+		 */
+		private void scan(int index, CancellationToken token) {
+			try {
+				DocumentSnapshot text = takeSnapshot(index);
+				if (replace) {
+					replacements.set(index, ReplaceAllEngine.computeReplacement(
+							text, pattern, wholeWord, replaceWith, regex));
+				}
+				else {
+					matches.set(index, findMatches(text, token));
+				}
+			} catch (RuntimeException re) {
+				error = re;
+			} finally {
+				if (remaining.decrementAndGet()==0) {
+					SwingUtilities.invokeLater(this::completed);
+				}
+			}
+		}
+
+		void start() {
+			if (textAreas.length==0) {
+				completed();
+				return;
+			}
+			// The visible document lane keeps saves and other interactive
+			// work responsive while many documents are searched
+			TaskScheduler scheduler = TaskScheduler.get();
+			for (int i=0; i<textAreas.length; i++) {
+				int index = i;
+				tasks.add(scheduler.submit(TaskScheduler.Lane.VISIBLE_DOCUMENT,
+						null, token -> scan(index, token)));
+			}
+		}
+
+	}
+
+
+}
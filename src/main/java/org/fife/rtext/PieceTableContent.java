@@ -0,0 +1,756 @@
+/*
+ * 10/19/2026
+ *
+ * PieceTableContent.java - Document content for very large files.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.undo.AbstractUndoableEdit;
+import javax.swing.undo.UndoableEdit;
+
+
+/**
+ * Document content backed by a piece table, for files too large to
+ * comfortably hold in memory.<p>
+ *
+ * The file's text is never copied onto the heap; it stays in a read-only
+ * memory mapping (see {@link MappedText}) and is decoded as it is asked
+ * for.  Inserted text is appended to a buffer that only ever grows, and
+ * the document is described by a list of "pieces," each a range of either
+ * the file or that buffer.  Edits just split and splice pieces, so the heap
+ * used tracks the size of the edits rather than the size of the file.
+ * Undo and redo restore the pieces an edit replaced, so undoing a huge
+ * deletion doesn't need a copy of the deleted text either.<p>
+ *
+ * Every newline's offset is indexed, so line lookups needed for painting
+ * and navigation are binary searches rather than scans.  See
+ * {@link LargeFileDocument} for a document using this content.<p>
+ *
+ * As with all <code>Content</code> implementations, this class is not
+ * thread safe; access should be guarded by the document's locks.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class PieceTableContent implements AbstractDocument.Content {
+
+	private MappedText original;
+	private AddBuffer added;
+	private final List<Piece> pieces;
+	private int textLength;
+	private int newlineCount;
+	private final List<WeakReference<Mark>> marks;
+
+	/**
+	 * Prefix sums of piece lengths and newline counts, rebuilt lazily after
+	 * edits.
+	 */
+	private int[] pieceOffsets;
+	private int[] pieceLines;
+	private boolean indexValid;
+
+	/**
+	 * The most characters returned by a partial <code>getChars()</code>.
+	 */
+	private static final int PARTIAL_RETURN_MAX = 64 * 1024;
+
+
+	/**
+	 * Opens a file.
+	 *
+	 * @param file The file.
+	 * @param encoding The file's encoding, or <code>null</code> for the
+	 *        system default.
+	 * @param progress Called periodically with the fraction of the file
+	 *        read so far, or <code>null</code> for none.
+	 * @throws IOException If an IO error occurs.
+	 */
+	public PieceTableContent(File file, String encoding, DoubleConsumer progress)
+			throws IOException {
+		original = new MappedText(file, encoding, progress);
+		added = new AddBuffer();
+		pieces = new ArrayList<>();
+		marks = new ArrayList<>();
+		textLength = original.length();
+		if (textLength>0) {
+			pieces.add(new Piece(original, 0, textLength));
+			newlineCount = pieces.get(0).newlines;
+		}
+	}
+
+
+	/**
+	 * Releases the underlying file.  This content should not be used
+	 * afterward.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 */
+	public void close() throws IOException {
+		original.close();
+	}
+
+
+	@Override
+	public Position createPosition(int offset) throws BadLocationException {
+		if (offset<0 || offset>textLength) {
+			throw new BadLocationException("Invalid offset", offset);
+		}
+		Mark mark = new Mark(offset);
+		marks.add(new WeakReference<>(mark));
+		return mark;
+	}
+
+
+	/**
+	 * Returns the index of the piece containing an offset.
+	 *
+	 * @param offs The offset.
+	 * @return The piece index, or the number of pieces if
+	 *         <code>offs</code> is the end of the text.
+	 */
+	private int findPiece(int offs) {
+		ensureIndex();
+		int index = Arrays.binarySearch(pieceOffsets, 0, pieces.size()+1, offs);
+		return index>=0 ? index : -index - 2;
+	}
+
+
+	/**
+	 * Rebuilds the piece offset and line prefix sums, if necessary.
+	 */
+	private void ensureIndex() {
+		if (indexValid) {
+			return;
+		}
+		int count = pieces.size();
+		if (pieceOffsets==null || pieceOffsets.length<count+1) {
+			pieceOffsets = new int[count + 16];
+			pieceLines = new int[count + 16];
+		}
+		int offs = 0;
+		int lines = 0;
+		for (int i=0; i<count; i++) {
+			pieceOffsets[i] = offs;
+			pieceLines[i] = lines;
+			Piece piece = pieces.get(i);
+			offs += piece.length;
+			lines += piece.newlines;
+		}
+		pieceOffsets[count] = offs;
+		pieceLines[count] = lines;
+		indexValid = true;
+	}
+
+
+	/**
+	 * Copies text into an array.
+	 *
+	 * @param where The offset of the text.
+	 * @param len The length of the text.  This may include the trailing
+	 *        newline.
+	 * @param dest The array to copy into.
+	 * @param destOffs The offset into <code>dest</code>.
+	 */
+	private void getChars(int where, int len, char[] dest, int destOffs) {
+
+		int end = Math.min(where + len, textLength);
+		int index = findPiece(where);
+		int offs = where;
+		while (offs<end) {
+			Piece piece = pieces.get(index);
+			int pieceStart = pieceOffsets[index];
+			int from = offs - pieceStart;
+			int n = Math.min(piece.length - from, end - offs);
+			piece.source.getChars(piece.start + from, n, dest, destOffs);
+			destOffs += n;
+			offs += n;
+			index++;
+		}
+
+		if (where+len>textLength) {
+			dest[destOffs] = '\n';
+		}
+
+	}
+
+
+	@Override
+	public void getChars(int where, int len, Segment txt) throws BadLocationException {
+
+		if (where<0 || len<0 || where+len>length()) {
+			throw new BadLocationException("Invalid location", where + len);
+		}
+
+		if (txt.isPartialReturn()) {
+			// Return at most the rest of the piece containing "where"
+			int index = findPiece(where);
+			if (index<pieces.size()) {
+				int pieceEnd = pieceOffsets[index] + pieces.get(index).length;
+				len = Math.min(len, pieceEnd - where);
+			}
+			len = Math.min(len, PARTIAL_RETURN_MAX);
+		}
+
+		char[] chars = new char[len];
+		getChars(where, len, chars, 0);
+		txt.array = chars;
+		txt.offset = 0;
+		txt.count = len;
+
+	}
+
+
+	/**
+	 * Returns the encoding the file was loaded with.
+	 *
+	 * @return The encoding.  This is the one named by the file's byte
+	 *         order mark, if it has one.
+	 * @see #getOriginalLineSeparator()
+	 */
+	public String getEncoding() {
+		return original.getCharset().name();
+	}
+
+
+	/**
+	 * Returns the number of lines in the text.  As with Swing's line
+	 * elements, the trailing newline ends a last line, which is empty if
+	 * the text ends with a newline.
+	 *
+	 * @return The line count.
+	 */
+	public int getLineCount() {
+		return newlineCount + 1;
+	}
+
+
+	/**
+	 * Returns the line containing an offset.
+	 *
+	 * @param offs The offset.
+	 * @return The line index.
+	 * @see #getLineStartOffset(int)
+	 */
+	public int getLineIndex(int offs) {
+		offs = Math.max(0, Math.min(offs, textLength));
+		int index = findPiece(offs);
+		if (index==pieces.size()) {
+			return newlineCount;
+		}
+		Piece piece = pieces.get(index);
+		int from = offs - pieceOffsets[index];
+		return pieceLines[index] +
+				piece.source.countNewlines(piece.start, piece.start + from);
+	}
+
+
+	/**
+	 * Returns the line separator the loaded file used.  The content itself
+	 * always uses <code>\n</code>.
+	 *
+	 * @return The line separator, or <code>null</code> if the file had only
+	 *         one line.
+	 * @see #getEncoding()
+	 */
+	public String getOriginalLineSeparator() {
+		return original.getLineSeparator();
+	}
+
+
+	/**
+	 * Returns the offset of the start of a line.
+	 *
+	 * @param line The line index.  If this is past the last line, the
+	 *        content's length is returned.
+	 * @return The start offset.
+	 * @see #getLineIndex(int)
+	 */
+	public int getLineStartOffset(int line) {
+
+		if (line<=0) {
+			return 0;
+		}
+		if (line>newlineCount) {
+			return length();
+		}
+
+		// Find the piece containing the line'th newline
+		ensureIndex();
+		int low = 0;
+		int high = pieces.size() - 1;
+		while (low<high) {
+			int mid = (low+high+1) >>> 1;
+			if (pieceLines[mid]<line) {
+				low = mid;
+			}
+			else {
+				high = mid - 1;
+			}
+		}
+
+		Piece piece = pieces.get(low);
+		int n = line - pieceLines[low] - 1;
+		int newline = piece.source.newlineOffset(piece.start, n);
+		return pieceOffsets[low] + newline - piece.start + 1;
+
+	}
+
+
+	@Override
+	public String getString(int where, int len) throws BadLocationException {
+		if (where<0 || len<0 || where+len>length()) {
+			throw new BadLocationException("Invalid location", where + len);
+		}
+		char[] chars = new char[len];
+		getChars(where, len, chars, 0);
+		return new String(chars);
+	}
+
+
+	@Override
+	public UndoableEdit insertString(int where, String str) throws BadLocationException {
+
+		if (where<0 || where>textLength) {
+			throw new BadLocationException("Invalid insert", where);
+		}
+		if (str.isEmpty()) {
+			return null;
+		}
+
+		int start = added.append(str);
+		Piece piece = new Piece(added, start, str.length());
+
+		// Typing appends to the piece just typed into rather than adding one
+		int index = splitAt(where);
+		if (index>0) {
+			Piece prev = pieces.get(index-1);
+			if (prev.source==added && prev.start+prev.length==start) {
+				pieces.set(index-1, new Piece(added, prev.start, prev.length + piece.length));
+				insertUpdate(where, piece.length, piece.newlines);
+				return new InsertEdit(where, str.length());
+			}
+		}
+
+		insertPieces(where, Collections.singletonList(piece));
+		return new InsertEdit(where, str.length());
+
+	}
+
+
+	/**
+	 * Inserts pieces.
+	 *
+	 * @param where The offset at which to insert.
+	 * @param toInsert The pieces to insert.
+	 */
+	private void insertPieces(int where, List<Piece> toInsert) {
+		int index = splitAt(where);
+		pieces.addAll(index, toInsert);
+		int len = 0;
+		int lines = 0;
+		for (Piece piece : toInsert) {
+			len += piece.length;
+			lines += piece.newlines;
+		}
+		insertUpdate(where, len, lines);
+	}
+
+
+	/**
+	 * Updates lengths and positions after an insertion.
+	 *
+	 * @param where The offset of the insertion.
+	 * @param len The length of the inserted text.
+	 * @param lines The number of newlines inserted.
+	 */
+	private void insertUpdate(int where, int len, int lines) {
+
+		textLength += len;
+		newlineCount += lines;
+		indexValid = false;
+
+		// As with GapContent, positions at 0 stay at the start of the text
+		for (Iterator<WeakReference<Mark>> i=marks.iterator(); i.hasNext(); ) {
+			Mark mark = i.next().get();
+			if (mark==null) {
+				i.remove();
+			}
+			else if (mark.offset>where || (mark.offset==where && where>0)) {
+				mark.offset += len;
+			}
+		}
+
+	}
+
+
+	@Override
+	public int length() {
+		return textLength + 1; // Include the implied trailing newline
+	}
+
+
+	/**
+	 * Replaces the text with that of a file saved from it.  The saved text
+	 * should be the same as this content's, so positions keep their
+	 * offsets.  The original file is released.  Edits made before this
+	 * can't be undone or redone afterward, since the text they restore may
+	 * have been in the original file.
+	 *
+	 * @param saved The text of the saved file.
+	 * @throws IOException If an IO error occurs releasing the original
+	 *         file.
+	 * @see #unmapFile()
+	 */
+	void rebase(MappedText saved) throws IOException {
+
+		MappedText old = original;
+		original = saved;
+		added = new AddBuffer();
+		pieces.clear();
+		textLength = saved.length();
+		newlineCount = 0;
+		if (textLength>0) {
+			pieces.add(new Piece(saved, 0, textLength));
+			newlineCount = pieces.get(0).newlines;
+		}
+		indexValid = false;
+
+		// In case the encoding couldn't represent some characters
+		for (Iterator<WeakReference<Mark>> i=marks.iterator(); i.hasNext(); ) {
+			Mark mark = i.next().get();
+			if (mark==null) {
+				i.remove();
+			}
+			else if (mark.offset>textLength) {
+				mark.offset = textLength;
+			}
+		}
+
+		old.close();
+
+	}
+
+
+	/**
+	 * Maps the original file again after {@link #unmapFile()} was called,
+	 * for example because replacing it failed.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 */
+	void remapFile() throws IOException {
+		original.remap(original.getFile());
+	}
+
+
+	@Override
+	public UndoableEdit remove(int where, int nitems) throws BadLocationException {
+		if (where<0 || nitems<0 || where+nitems>textLength) {
+			throw new BadLocationException("Invalid remove", where + nitems);
+		}
+		return new RemoveEdit(where, removeRange(where, nitems));
+	}
+
+
+	/**
+	 * Removes a range of text.
+	 *
+	 * @param where The start of the range.
+	 * @param len The length of the range.
+	 * @return The removed pieces.
+	 */
+	private List<Piece> removeRange(int where, int len) {
+
+		int start = splitAt(where);
+		int end = splitAt(where + len);
+		List<Piece> range = pieces.subList(start, end);
+		List<Piece> removed = new ArrayList<>(range);
+		range.clear();
+
+		int lines = 0;
+		for (Piece piece : removed) {
+			lines += piece.newlines;
+		}
+		textLength -= len;
+		newlineCount -= lines;
+		indexValid = false;
+
+		for (Iterator<WeakReference<Mark>> i=marks.iterator(); i.hasNext(); ) {
+			Mark mark = i.next().get();
+			if (mark==null) {
+				i.remove();
+			}
+			else if (mark.offset>=where+len) {
+				mark.offset -= len;
+			}
+			else if (mark.offset>where) {
+				mark.offset = where;
+			}
+		}
+
+		return removed;
+
+	}
+
+
+	/**
+	 * Ensures a piece starts at an offset, splitting a piece if necessary.
+	 *
+	 * @param offs The offset.
+	 * @return The index of the piece starting at <code>offs</code>, or the
+	 *         number of pieces if <code>offs</code> is the end of the text.
+	 */
+	private int splitAt(int offs) {
+
+		int index = findPiece(offs);
+		if (index==pieces.size() || pieceOffsets[index]==offs) {
+			return index;
+		}
+
+		Piece piece = pieces.get(index);
+		int leftLength = offs - pieceOffsets[index];
+		Piece left = new Piece(piece.source, piece.start, leftLength);
+		Piece right = new Piece(piece.source, piece.start + leftLength,
+				piece.length - leftLength);
+		pieces.set(index, left);
+		pieces.add(index+1, right);
+		indexValid = false;
+		return index + 1;
+
+	}
+
+
+	/**
+	 * Releases the original file's memory mapping, so the file can be
+	 * replaced.  The text can't be read until {@link #remapFile()} or
+	 * {@link #rebase(MappedText)} is called, so the caller should hold the
+	 * document's write lock until then.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 */
+	void unmapFile() throws IOException {
+		original.unmap();
+	}
+
+
+	/**
+	 * Text that pieces can refer to.
+	 */
+	interface TextSource {
+
+		/**
+		 * Returns the number of newlines in a range of text.
+		 *
+		 * @param start The start of the range, inclusive.
+		 * @param end The end of the range, exclusive.
+		 * @return The number of newlines.
+		 */
+		int countNewlines(int start, int end);
+
+		/**
+		 * Copies text into an array.
+		 *
+		 * @param start The offset of the text.
+		 * @param len The length of the text.
+		 * @param dest The array to copy into.
+		 * @param destOffs The offset into <code>dest</code>.
+		 */
+		void getChars(int start, int len, char[] dest, int destOffs);
+
+		/**
+		 * Returns the offset of a newline.
+		 *
+		 * @param start The offset to start counting newlines from.
+		 * @param n The number of newlines to skip, starting at
+		 *        <code>start</code>.
+		 * @return The offset of the newline.
+		 */
+		int newlineOffset(int start, int n);
+
+	}
+
+
+	/**
+	 * The buffer inserted text is appended to.  Text in it is never modified
+	 * or removed, so pieces referring to it stay valid for undo and redo.
+	 */
+	private static final class AddBuffer implements TextSource {
+
+		private final StringBuilder text;
+		private int[] newlines;
+		private int newlineCount;
+
+		AddBuffer() {
+			text = new StringBuilder();
+			newlines = new int[16];
+		}
+
+		/**
+		 * Appends text.
+		 *
+		 * @param str The text to append.
+		 * @return The offset of the text in this buffer.
+		 */
+		int append(String str) {
+			int start = text.length();
+			text.append(str);
+			for (int i=0; i<str.length(); i++) {
+				if (str.charAt(i)=='\n') {
+					if (newlineCount==newlines.length) {
+						newlines = Arrays.copyOf(newlines, newlineCount*2);
+					}
+					newlines[newlineCount++] = start + i;
+				}
+			}
+			return start;
+		}
+
+		@Override
+		public int countNewlines(int start, int end) {
+			return lowerBound(end) - lowerBound(start);
+		}
+
+		@Override
+		public void getChars(int start, int len, char[] dest, int destOffs) {
+			text.getChars(start, start + len, dest, destOffs);
+		}
+
+		private int lowerBound(int offs) {
+			int index = Arrays.binarySearch(newlines, 0, newlineCount, offs);
+			return index>=0 ? index : -index - 1;
+		}
+
+		@Override
+		public int newlineOffset(int start, int n) {
+			return newlines[lowerBound(start) + n];
+		}
+
+	}
+
+
+	/**
+	 * Undoes and redoes an insertion.
+	 */
+	private final class InsertEdit extends AbstractUndoableEdit {
+
+		private final int where;
+		private final int len;
+		private List<Piece> removed;
+
+		InsertEdit(int where, int len) {
+			this.where = where;
+			this.len = len;
+		}
+
+		@Override
+		public void redo() {
+			super.redo();
+			insertPieces(where, removed);
+			removed = null;
+		}
+
+		@Override
+		public void undo() {
+			super.undo();
+			removed = removeRange(where, len);
+		}
+
+	}
+
+
+	/**
+	 * A position that moves as text is inserted and removed before it.
+	 */
+	private static final class Mark implements Position {
+
+		private int offset;
+
+		Mark(int offset) {
+			this.offset = offset;
+		}
+
+		@Override
+		public int getOffset() {
+			return offset;
+		}
+
+		@Override
+		public String toString() {
+			return Integer.toString(offset);
+		}
+
+	}
+
+
+	/**
+	 * A range of text in a {@link TextSource}.  Pieces are immutable.
+	 */
+	private static final class Piece {
+
+		private final TextSource source;
+		private final int start;
+		private final int length;
+		private final int newlines;
+
+		Piece(TextSource source, int start, int length) {
+			this.source = source;
+			this.start = start;
+			this.length = length;
+			this.newlines = source.countNewlines(start, start + length);
+		}
+
+	}
+
+
+	/**
+	 * Undoes and redoes a removal.  The removed pieces, rather than the
+	 * removed text, are kept.
+	 */
+	private final class RemoveEdit extends AbstractUndoableEdit {
+
+		private final int where;
+		private final int len;
+		private List<Piece> removed;
+
+		RemoveEdit(int where, List<Piece> removed) {
+			this.where = where;
+			this.removed = removed;
+			int total = 0;
+			for (Piece piece : removed) {
+				total += piece.length;
+			}
+			this.len = total;
+		}
+
+		@Override
+		public void redo() {
+			super.redo();
+			removed = removeRange(where, len);
+		}
+
+		@Override
+		public void undo() {
+			super.undo();
+			insertPieces(where, removed);
+		}
+
+	}
+
+
+}
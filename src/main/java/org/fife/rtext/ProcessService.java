@@ -0,0 +1,156 @@
+/*
+ * 10/19/2026
+ *
+ * ProcessService.java - Runs the threads that manage external processes.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Runs the threads that start, watch and read the output of
+ * {@link ExternalProcess}es.<p>
+ *
+ * Each external process needs three threads that spend nearly all of
+ * their time blocked: one waiting for the process to exit, and one for
+ * each of its output streams.  On Java 21 and newer these are virtual
+ * threads, so a running process costs almost nothing.  On older Java
+ * versions they come from a pool of platform threads that are reused
+ * between processes, and exit when they have been idle for a while.<p>
+ *
+ * All methods in this class may be called from any thread.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see ExternalProcess
+ */
+public final class ProcessService {
+
+	private static final ProcessService INSTANCE = new ProcessService();
+
+	private final ExecutorService executor;
+	private final boolean virtualThreads;
+	private final AtomicInteger runningCount;
+
+	/**
+	 * How long pooled platform threads wait for more work before exiting,
+	 * in seconds.
+	 */
+	private static final int KEEP_ALIVE_SECONDS = 30;
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private ProcessService() {
+
+		ExecutorService virtual = createVirtualThreadExecutor();
+		virtualThreads = virtual!=null;
+
+		if (virtualThreads) {
+			executor = virtual;
+		}
+		else {
+			// Not a fixed-size pool; the threads block reading streams, so
+			// a bounded pool could leave a process's output unread
+			AtomicInteger count = new AtomicInteger();
+			executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+					KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(),
+					r -> {
+						Thread t = new Thread(r, "RText Process " + count.incrementAndGet());
+						t.setDaemon(true);
+						return t;
+					});
+		}
+
+		runningCount = new AtomicInteger();
+
+	}
+
+
+	/**
+	 * Returns an executor that runs each task in a new virtual thread, if
+	 * this JVM supports them.  This is done via reflection since RText
+	 * still runs on older Java versions.
+	 *
+	 * @return The executor, or <code>null</code> if virtual threads aren't
+	 *         supported.
+	 */
+	private static ExecutorService createVirtualThreadExecutor() {
+		try {
+			return (ExecutorService)Executors.class.
+					getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null; // Java 20 or older, or preview features disabled
+		}
+	}
+
+
+	/**
+	 * Runs a task on a process thread.
+	 *
+	 * @param task The task.
+	 */
+	void execute(Runnable task) {
+		executor.execute(task);
+	}
+
+
+	/**
+	 * Returns the service.
+	 *
+	 * @return The service.
+	 */
+	public static ProcessService get() {
+		return INSTANCE;
+	}
+
+
+	/**
+	 * Returns the number of external processes currently running.
+	 *
+	 * @return The number of running processes.
+	 */
+	public int getRunningProcessCount() {
+		return runningCount.get();
+	}
+
+
+	/**
+	 * Returns whether processes are managed by virtual threads.
+	 *
+	 * @return Whether virtual threads are used.  If this is
+	 *         <code>false</code>, pooled platform threads are used.
+	 */
+	public boolean isUsingVirtualThreads() {
+		return virtualThreads;
+	}
+
+
+	/**
+	 * Called when a process starts.
+	 */
+	void processStarted() {
+		runningCount.incrementAndGet();
+	}
+
+
+	/**
+	 * Called when a process that was started ends.
+	 */
+	void processEnded() {
+		runningCount.decrementAndGet();
+	}
+
+
+}
@@ -30,6 +30,8 @@ import javax.swing.text.Element;
 import org.fife.help.HelpDialog;
 import org.fife.rsta.ui.CollapsibleSectionPanel;
 import org.fife.rtext.actions.ActionFactory;
+import org.fife.rtext.jfr.PluginInstallEvent;
+import org.fife.rtext.jfr.StartupPhaseEvent;
 import org.fife.ui.CustomizableToolBar;
 import org.fife.ui.OptionsDialog;
 import org.fife.ui.SplashScreen;
@@ -108,6 +110,7 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	private HelpDialog helpDialog;
 
 	private SpellingErrorWindow spellingWindow;
+	private UiResponsivenessWindow uiResponsivenessWindow;
 
 	private SyntaxScheme colorScheme;
 
@@ -157,17 +160,43 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 
 	private RecentFileManager recentFileManager;
 
+	/**
+	 * Saves and restores the documents open between sessions.
+	 */
+	private SessionManager sessionManager;
+
+	private boolean restoreSession;
+
+	/**
+	 * Coalesces status bar and other UI updates into one per frame.
+	 * Created lazily, as caret events can arrive during construction.
+	 */
+	private UpdateScheduler updateScheduler;
+
+	/**
+	 * The target of caret position updates scheduled with
+	 * {@link #updateScheduler}.
+	 */
+	private static final Object CARET_POSITION_UPDATE = new Object();
+
 	/**
 	 * Used as a "hack" to re-load the Options dialog if the user opens it
 	 * too early, before all plugins have added their options to it.
 	 */
 	private int lastPluginCount;
+	private long lastPluginInstallNanos;
 
 	/**
 	 * System property that, if set, causes RText to print timing information
 	 * while it is starting up.
 	 */
-	private static final String PROPERTY_PRINT_START_TIMES = "printStartTimes";
+	static final String PROPERTY_PRINT_START_TIMES = "printStartTimes";
+
+	/**
+	 * System property that, if set, starts the {@link EdtWatchdog} as RText
+	 * starts up, rather than when the UI Responsiveness window is opened.
+	 */
+	static final String PROPERTY_EDT_WATCHDOG = "edtWatchdog";
 
 	public static final String VERSION_STRING		= "4.0.0";
 
@@ -227,10 +256,27 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	 */
 	@Override
 	public void caretUpdate(CaretEvent e) {
-
 		// NOTE: e may be "null"; we do this sometimes to force caret
 		// updates to update e.g. the current line highlight.
-		RTextEditorPane textArea = mainView.getCurrentTextArea();
+		// Holding down an arrow key fires many of these per frame, so only
+		// update the status bar once per frame.
+		getUpdateScheduler().schedule(CARET_POSITION_UPDATE,
+				this::updateCaretPosition);
+	}
+
+
+	/**
+	 * Updates the status bar to show the current text area's caret position.
+	 *
+	 * @see #caretUpdate(CaretEvent)
+	 */
+	private void updateCaretPosition() {
+
+		RTextEditorPane textArea = mainView!=null ?
+				mainView.getCurrentTextArea() : null;
+		if (textArea==null) {
+			return;
+		}
 		int dot = textArea.getCaretPosition();//e.getDot();
 
 		// Update row/column information in status field.
@@ -422,6 +468,14 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	@Override
 	public void doExit() {
 
+		// Don't let exiting cut off a "Save All" still writing files.
+		getMainView().awaitPendingSaves();
+
+		// Remember the open documents before they are closed.
+		if (restoreSession && StoreKeeper.getInstanceCount()==1) {
+			sessionManager.saveSession();
+		}
+
 		// Attempt to close all open documents.
 		boolean allDocumentsClosed = getMainView().closeAllDocuments();
 
@@ -429,6 +483,9 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 		// didn't click "Cancel")...
 		if (allDocumentsClosed) {
 
+			// Closing the documents deleted their journals
+			getMainView().getRecoveryJournal().shutdown();
+
 			// If there will be no more rtext's running, stop the JVM.
 			if (StoreKeeper.getInstanceCount()==1) {
 				savePreferences();
@@ -730,6 +787,18 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Returns whether the documents open when RText exits are reopened the
+	 * next time it starts.
+	 *
+	 * @return Whether the session is restored.
+	 * @see #setRestoreSession(boolean)
+	 */
+	public boolean getRestoreSession() {
+		return restoreSession;
+	}
+
+
 	/**
 	 * Returns whether the hostname should be shown in the title of the
 	 * main RText window.
@@ -782,6 +851,19 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Returns the scheduler used to coalesce UI updates into one per frame.
+	 *
+	 * @return The update scheduler.
+	 */
+	public UpdateScheduler getUpdateScheduler() {
+		if (updateScheduler==null) {
+			updateScheduler = new UpdateScheduler();
+		}
+		return updateScheduler;
+	}
+
+
 	/**
 	 * Returns the version string for this application.
 	 *
@@ -824,6 +906,13 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 		if (textArea!=null) {
 			textArea.requestFocusInWindow();
 		}
+
+		long now = System.nanoTime();
+		PluginInstallEvent event = new PluginInstallEvent();
+		event.setPlugin(plugin.getPluginName(), plugin.getPluginVersion());
+		event.setLoadTime(now - lastPluginInstallNanos);
+		event.commit();
+		lastPluginInstallNanos = now;
 	}
 
 
@@ -848,6 +937,12 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	private void init(String[] filesToOpen) {
 		lastPluginCount = -1;
 		openFiles(filesToOpen);
+		if (restoreSession && StoreKeeper.getInstanceCount()==0) {
+			SwingUtilities.invokeLater(() -> sessionManager.restoreSession());
+		}
+		if (StoreKeeper.getInstanceCount()==0) {
+			SwingUtilities.invokeLater(() -> getMainView().getRecoveryJournal().recover());
+		}
 	}
 
 
@@ -905,12 +1000,28 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Returns whether the UI Responsiveness window is visible.
+	 *
+	 * @return Whether the window is visible.
+	 * @see #setUiResponsivenessWindowVisible(boolean)
+	 */
+	public boolean isUiResponsivenessWindowVisible() {
+		return uiResponsivenessWindow!=null && uiResponsivenessWindow.isActive();
+	}
+
+
 	/**
 	 * Loads and validates the icon groups available to RText.
 	 */
 	private void loadPossibleIconGroups() {
-		iconGroupMap = IconGroupLoader.loadIconGroups(this,
-					getInstallLocation() + "/icongroups/ExtraIcons.xml");
+		StartupTracer.Span span = StartupTracer.get().begin(StartupTracer.INIT, "IconGroupLoader");
+		try {
+			iconGroupMap = IconGroupLoader.loadIconGroups(this,
+						getInstallLocation() + "/icongroups/ExtraIcons.xml");
+		} finally {
+			span.end();
+		}
 	}
 
 
@@ -923,7 +1034,13 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	private void openFiles(String[] filesToOpen) {
 		int count = filesToOpen==null ? 0 : filesToOpen.length;
 		for (int i=0; i<count; i++) {
-			openFile(new File(filesToOpen[i]));
+			StartupTracer.Span span = StartupTracer.get().begin(StartupTracer.FILE,
+					"Open " + filesToOpen[i]);
+			try {
+				openFile(new File(filesToOpen[i]));
+			} finally {
+				span.end();
+			}
 		}
 	}
 
@@ -932,51 +1049,65 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	protected void preDisplayInit(RTextPrefs prefs, SplashScreen splashScreen) {
 
 		long start = System.currentTimeMillis();
+		StartupPhaseEvent event = new StartupPhaseEvent("preDisplayInit");
+		event.begin();
+		StartupTracer.Span span = StartupTracer.get().begin(StartupTracer.PHASE, "preDisplayInit");
+		try {
 
-		// Some stuff down the line may assume this directory exists!
-		File prefsDir = RTextUtilities.getPreferencesDirectory();
-		if (!prefsDir.isDirectory()) {
-			prefsDir.mkdirs();
-		}
+			// Some stuff down the line may assume this directory exists!
+			File prefsDir = RTextUtilities.getPreferencesDirectory();
+			if (!prefsDir.isDirectory()) {
+				prefsDir.mkdirs();
+			}
 
-		// Install any plugins.
-		super.preDisplayInit(prefs, splashScreen);
+			// Install any plugins.
+			lastPluginInstallNanos = System.nanoTime();
+			StartupTracer.Span pluginSpan = StartupTracer.get().begin(StartupTracer.PLUGIN, "Load plugins");
+			try {
+				super.preDisplayInit(prefs, splashScreen);
+			} finally {
+				pluginSpan.end();
+			}
 
-		if (prefs.searchToolBarVisible) {
-			addToolBar(getSearchToolBar(), BorderLayout.SOUTH);
-			searchBar.setVisible(true);
-		}
+			if (prefs.searchToolBarVisible) {
+				addToolBar(getSearchToolBar(), BorderLayout.SOUTH);
+				searchBar.setVisible(true);
+			}
 
-		splashScreen.updateStatus(getString("AddingFinalTouches"), 90);
+			splashScreen.updateStatus(getString("AddingFinalTouches"), 90);
 
-		// If the user clicks the "X" in the top-right of the window, do nothing.
-		// (We'll clean up in our window listener).
-		addWindowListener(new RTextWindowListener(this));
-		setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+			// If the user clicks the "X" in the top-right of the window, do nothing.
+			// (We'll clean up in our window listener).
+			addWindowListener(new RTextWindowListener(this));
+			setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
 
-		mainView.setLineNumbersEnabled(prefs.lineNumbersVisible);
+			mainView.setLineNumbersEnabled(prefs.lineNumbersVisible);
 
-		// Enable templates in text areas.
-		if (RTextUtilities.enableTemplates(this, true)) {
-			// If there are no templates, assume this is the user's first
-			// time in RText and add some "standard" templates.
-			CodeTemplateManager ctm = RTextEditorPane.getCodeTemplateManager();
-			if (ctm.getTemplates().length==0) {
-				RTextUtilities.addDefaultCodeTemplates();
+			// Enable templates in text areas.
+			if (RTextUtilities.enableTemplates(this, true)) {
+				// If there are no templates, assume this is the user's first
+				// time in RText and add some "standard" templates.
+				CodeTemplateManager ctm = RTextEditorPane.getCodeTemplateManager();
+				if (ctm.getTemplates().length==0) {
+					RTextUtilities.addDefaultCodeTemplates();
+				}
 			}
-		}
 
-		setSearchWindowOpacityEnabled(prefs.searchWindowOpacityEnabled);
-		setSearchWindowOpacity(prefs.searchWindowOpacity);
-		setSearchWindowOpacityRule(prefs.searchWindowOpacityRule);
+			setSearchWindowOpacityEnabled(prefs.searchWindowOpacityEnabled);
+			setSearchWindowOpacity(prefs.searchWindowOpacity);
+			setSearchWindowOpacityRule(prefs.searchWindowOpacityRule);
 
-		if (Boolean.getBoolean(PROPERTY_PRINT_START_TIMES)) {
-			System.err.println("preDisplayInit: " + (System.currentTimeMillis()-start));
-		}
+			if (Boolean.getBoolean(PROPERTY_PRINT_START_TIMES)) {
+				System.err.println("preDisplayInit: " + (System.currentTimeMillis()-start));
+			}
 
-		RTextUtilities.setDropShadowsEnabledInEditor(prefs.dropShadowsInEditor);
+			RTextUtilities.setDropShadowsEnabledInEditor(prefs.dropShadowsInEditor);
 
-		setWindowDraggableByMenuBarAndToolBar();
+			setWindowDraggableByMenuBarAndToolBar();
+		} finally {
+			span.end();
+		}
+		event.commit();
 	}
 
 
@@ -984,23 +1115,37 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	protected void preMenuBarInit(RTextPrefs prefs, SplashScreen splashScreen) {
 
 		long start = System.currentTimeMillis();
+		StartupPhaseEvent event = new StartupPhaseEvent("preMenuBarInit");
+		event.begin();
+		StartupTracer.Span span = StartupTracer.get().begin(StartupTracer.PHASE, "preMenuBarInit");
+		try {
 
-		initRecentFileManager(prefs);
+			initRecentFileManager(prefs);
+			sessionManager = new SessionManager(this);
+			setRestoreSession(prefs.restoreSession);
+			MemoryPressureMonitor.get().addLevelListener(this);
+			if (Boolean.getBoolean(PROPERTY_EDT_WATCHDOG)) {
+				EdtWatchdog.get().install();
+			}
 
-		// Make the split pane positions same as last time.
-		setSplitPaneDividerLocation(TOP, prefs.dividerLocations[TOP], prefs.dividerVisible[TOP]);
-		setSplitPaneDividerLocation(LEFT, prefs.dividerLocations[LEFT], prefs.dividerVisible[LEFT]);
-		setSplitPaneDividerLocation(BOTTOM, prefs.dividerLocations[BOTTOM], prefs.dividerVisible[BOTTOM]);
-		setSplitPaneDividerLocation(RIGHT, prefs.dividerLocations[RIGHT], prefs.dividerVisible[RIGHT]);
+			// Make the split pane positions same as last time.
+			setSplitPaneDividerLocation(TOP, prefs.dividerLocations[TOP], prefs.dividerVisible[TOP]);
+			setSplitPaneDividerLocation(LEFT, prefs.dividerLocations[LEFT], prefs.dividerVisible[LEFT]);
+			setSplitPaneDividerLocation(BOTTOM, prefs.dividerLocations[BOTTOM], prefs.dividerVisible[BOTTOM]);
+			setSplitPaneDividerLocation(RIGHT, prefs.dividerLocations[RIGHT], prefs.dividerVisible[RIGHT]);
 
-		// Show any docked windows
-		setSpellingWindowVisible(prefs.viewSpellingList);
+			// Show any docked windows
+			setSpellingWindowVisible(prefs.viewSpellingList);
 
-		setShowHostName(prefs.showHostName);
+			setShowHostName(prefs.showHostName);
 
-		if (Boolean.getBoolean(PROPERTY_PRINT_START_TIMES)) {
-			System.err.println("preMenuBarInit: " + (System.currentTimeMillis()-start));
+			if (Boolean.getBoolean(PROPERTY_PRINT_START_TIMES)) {
+				System.err.println("preMenuBarInit: " + (System.currentTimeMillis()-start));
+			}
+		} finally {
+			span.end();
 		}
+		event.commit();
 
 	}
 
@@ -1010,56 +1155,64 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 							SplashScreen splashScreen) {
 
 		long start = System.currentTimeMillis();
+		StartupPhaseEvent event = new StartupPhaseEvent("preStatusBarInit");
+		event.begin();
+		StartupTracer.Span span = StartupTracer.get().begin(StartupTracer.PHASE, "preStatusBarInit");
+		try {
 
-		final String[] filesToOpen = null;
+			final String[] filesToOpen = null;
 
-		// Initialize our "new, empty text file" name.
-		newFileName = getString("NewFileName");
+			// Initialize our "new, empty text file" name.
+			newFileName = getString("NewFileName");
 
-		splashScreen.updateStatus(getString("SettingSHColors"), 10);
-		setSyntaxScheme(prefs.colorScheme);
+			splashScreen.updateStatus(getString("SettingSHColors"), 10);
+			setSyntaxScheme(prefs.colorScheme);
 
-		setWorkingDirectory(prefs.workingDirectory);
+			setWorkingDirectory(prefs.workingDirectory);
 
-		splashScreen.updateStatus(getString("CreatingView"), 20);
+			splashScreen.updateStatus(getString("CreatingView"), 20);
 
-		loadPossibleIconGroups();
-		try {
-			setIconGroupByName(prefs.iconGroupName);
-		} catch (InternalError ie) {
-			displayException(ie);
-			System.exit(0);
-		}
+			loadPossibleIconGroups();
+			try {
+				setIconGroupByName(prefs.iconGroupName);
+			} catch (InternalError ie) {
+				displayException(ie);
+				System.exit(0);
+			}
 
-		// Initialize our view object.
-		switch (prefs.mainView) {
-			case TABBED_VIEW:
-				mainViewStyle = TABBED_VIEW;
-				mainView = new RTextTabbedPaneView(RText.this, filesToOpen, prefs);
-				break;
-			case SPLIT_PANE_VIEW:
-				mainViewStyle = SPLIT_PANE_VIEW;
-				mainView = new RTextSplitPaneView(RText.this, filesToOpen, prefs);
-				break;
-			default:
-				mainViewStyle = MDI_VIEW;
-				mainView = new RTextMDIView(RText.this, filesToOpen, prefs);
-				break;
-		}
+			// Initialize our view object.
+			switch (prefs.mainView) {
+				case TABBED_VIEW:
+					mainViewStyle = TABBED_VIEW;
+					mainView = new RTextTabbedPaneView(RText.this, filesToOpen, prefs);
+					break;
+				case SPLIT_PANE_VIEW:
+					mainViewStyle = SPLIT_PANE_VIEW;
+					mainView = new RTextSplitPaneView(RText.this, filesToOpen, prefs);
+					break;
+				default:
+					mainViewStyle = MDI_VIEW;
+					mainView = new RTextMDIView(RText.this, filesToOpen, prefs);
+					break;
+			}
 
-		// Change all RTextAreas' open documents' icon sets.  This must be done
-		// after the main view is instantiated.
-		RTextEditorPane.setIconGroup(iconGroup);
+			// Change all RTextAreas' open documents' icon sets.  This must be done
+			// after the main view is instantiated.
+			RTextEditorPane.setIconGroup(iconGroup);
 
-		csp = new CollapsibleSectionPanel(false);
-		csp.add(mainView);
-		getContentPane().add(csp);
+			csp = new CollapsibleSectionPanel(false);
+			csp.add(mainView);
+			getContentPane().add(csp);
 
-		splashScreen.updateStatus(getString("CreatingStatusBar"), 25);
+			splashScreen.updateStatus(getString("CreatingStatusBar"), 25);
 
-		if (Boolean.getBoolean(PROPERTY_PRINT_START_TIMES)) {
-			System.err.println("preStatusBarInit: " + (System.currentTimeMillis()-start));
+			if (Boolean.getBoolean(PROPERTY_PRINT_START_TIMES)) {
+				System.err.println("preStatusBarInit: " + (System.currentTimeMillis()-start));
+			}
+		} finally {
+			span.end();
 		}
+		event.commit();
 
 	}
 
@@ -1068,14 +1221,22 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	protected void preToolBarInit(RTextPrefs prefs, SplashScreen splashScreen) {
 
 		long start = System.currentTimeMillis();
+		StartupPhaseEvent event = new StartupPhaseEvent("preToolBarInit");
+		event.begin();
+		StartupTracer.Span span = StartupTracer.get().begin(StartupTracer.PHASE, "preToolBarInit");
+		try {
 
-		StatusBar statusBar = (StatusBar)getStatusBar();
-		mainView.addPropertyChangeListener(statusBar);
+			StatusBar statusBar = (StatusBar)getStatusBar();
+			mainView.addPropertyChangeListener(statusBar);
 
-		splashScreen.updateStatus(getString("CreatingToolBar"), 60);
-		if (Boolean.getBoolean(PROPERTY_PRINT_START_TIMES)) {
-			System.err.println("preToolbarInit: " + (System.currentTimeMillis()-start));
+			splashScreen.updateStatus(getString("CreatingToolBar"), 60);
+			if (Boolean.getBoolean(PROPERTY_PRINT_START_TIMES)) {
+				System.err.println("preToolbarInit: " + (System.currentTimeMillis()-start));
+			}
+		} finally {
+			span.end();
 		}
+		event.commit();
 
 	}
 
@@ -1106,6 +1267,14 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 			}
 		}
 
+		// If memory is getting low, free what we can
+		else if (propertyName.equals(MemoryPressureMonitor.LEVEL_PROPERTY)) {
+			MemoryPressureMonitor.Level level = (MemoryPressureMonitor.Level)e.getNewValue();
+			if (level.compareTo(MemoryPressureMonitor.Level.HIGH)>=0 && getMainView()!=null) {
+				getMainView().hibernateIdleTextAreas();
+			}
+		}
+
 	}
 
 
@@ -1398,6 +1567,20 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Sets whether the documents open when RText exits are reopened the
+	 * next time it starts.  While enabled, the session is also saved
+	 * periodically so it survives a crash.
+	 *
+	 * @param restore Whether to restore the session.
+	 * @see #getRestoreSession()
+	 */
+	public void setRestoreSession(boolean restore) {
+		this.restoreSession = restore;
+		sessionManager.setAutoSave(restore);
+	}
+
+
 	/**
 	 * Sets whether the read-only indicator in the status bar is enabled.
 	 *
@@ -1549,6 +1732,32 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	}
 
 
+	/**
+	 * Toggles whether the UI Responsiveness window is visible.
+	 *
+	 * @param visible Whether the window is visible.
+	 * @see #isUiResponsivenessWindowVisible()
+	 */
+	public void setUiResponsivenessWindowVisible(boolean visible) {
+		if (visible) {
+			EdtWatchdog.get().install(); // Nothing to show otherwise
+			if (uiResponsivenessWindow==null) {
+				uiResponsivenessWindow = new UiResponsivenessWindow(this);
+				DockableWindowPanel dwp = (DockableWindowPanel)mainContentPanel;
+				dwp.addDockableWindow(uiResponsivenessWindow);
+			}
+			else {
+				uiResponsivenessWindow.setActive(true);
+			}
+		}
+		else {
+			if (uiResponsivenessWindow!=null) {
+				uiResponsivenessWindow.setActive(false);
+			}
+		}
+	}
+
+
 	/**
 	 * Sets the "working directory;" that is, the directory in which
 	 * new, empty files are placed.
@@ -42,12 +42,14 @@ public interface RTextActionInfo {
 	String TOOL_BAR_ACTION			  = "toolBarAction";
 	String STATUS_BAR_ACTION		  = "statusBarAction";
 	String LINE_NUMBER_ACTION		  = "lineNumberAction";
+	String UI_RESPONSIVENESS_ACTION	  = "uiResponsivenessAction";
 	String NEXT_DOCUMENT_ACTION		  = "nextDocumentAction";
 	String PREVIOUS_DOCUMENT_ACTION   = "prevDocumentAction";
 	String FILE_PROPERTIES_ACTION	  = "filePropertiesAction";
 	String OPTIONS_ACTION			  = "optionsAction";
 	String HOME_PAGE_ACTION			  = "homePageAction";
 	String UPDATES_ACTION			  = "checkForUpdatesAction";
+	String STARTUP_TIMELINE_ACTION	  = "startupTimelineAction";
 	String INC_FONT_SIZES_ACTION	  = "incFontSizesAction";
 	String DEC_FONT_SIZES_ACTION	  = "decFontSizesAction";
 
@@ -58,6 +60,8 @@ public interface RTextActionInfo {
 	String REPLACE_ALL_ACTION		= "replaceAllAction";
 	String FIND_IN_FILES_ACTION		= "findInFilesAction";
 	String REPLACE_IN_FILES_ACTION	= "replaceInFilesAction";
+	String FIND_IN_OPEN_DOCUMENTS_ACTION	= "findInOpenDocumentsAction";
+	String REPLACE_IN_OPEN_DOCUMENTS_ACTION	= "replaceInOpenDocumentsAction";
 	String PRINT_ACTION				= "printAction";
 	String PRINT_PREVIEW_ACTION		= "printPreviewAction";
 	String CLOSE_ACTION				= "closeAction";
@@ -90,6 +94,7 @@ public interface RTextActionInfo {
 		TOOL_BAR_ACTION,
 		STATUS_BAR_ACTION,
 		LINE_NUMBER_ACTION,
+		UI_RESPONSIVENESS_ACTION,
 		NEXT_DOCUMENT_ACTION,
 		PREVIOUS_DOCUMENT_ACTION,
 		FILE_PROPERTIES_ACTION,
@@ -98,6 +103,7 @@ public interface RTextActionInfo {
 		OPTIONS_ACTION,
 		HOME_PAGE_ACTION,
 		UPDATES_ACTION,
+		STARTUP_TIMELINE_ACTION,
 		DEC_FONT_SIZES_ACTION,
 		INC_FONT_SIZES_ACTION,
 
@@ -108,6 +114,8 @@ public interface RTextActionInfo {
 		REPLACE_ALL_ACTION,
 		FIND_IN_FILES_ACTION,
 		REPLACE_IN_FILES_ACTION,
+		FIND_IN_OPEN_DOCUMENTS_ACTION,
+		REPLACE_IN_OPEN_DOCUMENTS_ACTION,
 		PRINT_ACTION,
 		PRINT_PREVIEW_ACTION,
 		CLOSE_ACTION,
@@ -10,6 +10,7 @@ import org.fife.ui.rtextarea.RTextArea;
 
 import java.awt.*;
 import java.io.File;
+import javax.swing.SwingUtilities;
 
 /**
  * The application context for {@code RText}.
@@ -41,7 +42,13 @@ public class RTextAppContext extends AppContext<RText, RTextPrefs> {
 	@Override
 	protected RText createApplication(String[] filesToOpen, RTextPrefs preferences) {
 
-		RText rtext = new RText(this, filesToOpen, preferences);
+		RText rtext;
+		StartupTracer.Span span = StartupTracer.get().begin(StartupTracer.PHASE, "Create main window");
+		try {
+			rtext = new RText(this, filesToOpen, preferences);
+		} finally {
+			span.end();
+		}
 
 		// For some reason, when using MDI_VIEW, the first window
 		// isn't selected (although it is activated)...
@@ -53,6 +60,9 @@ public class RTextAppContext extends AppContext<RText, RTextPrefs> {
 		// We currently have one RText instance running.
 		StoreKeeper.addRTextInstance(rtext);
 
+		// Startup is done once the window has been shown
+		SwingUtilities.invokeLater(() -> StartupTracer.get().finish());
+
 		return rtext;
 	}
 
@@ -147,7 +157,13 @@ public class RTextAppContext extends AppContext<RText, RTextPrefs> {
 		prefs.foldBackground			= mainView.getFoldBackground();
 		prefs.armedFoldBackground		= mainView.getArmedFoldBackground();
 		prefs.showHostName				= rtext.getShowHostName();
+		prefs.restoreSession			= rtext.getRestoreSession();
 		prefs.bomInUtf8				= mainView.getWriteBOMInUtf8Files();
+		prefs.atomicSaves				= mainView.getAtomicSaves();
+		prefs.syncOnSave				= mainView.getSyncOnSave();
+		prefs.undoHistoryMaxSize		= mainView.getUndoHistoryMaxSize();
+		prefs.undoHistoryMaxSteps		= mainView.getUndoHistoryMaxSteps();
+		prefs.longLineThreshold			= mainView.getLongLineThreshold();
 		prefs.bookmarksEnabled			= mainView.getBookmarksEnabled();
 		prefs.lineNumberFont			= mainView.getLineNumberFont();
 		prefs.lineNumberColor			= mainView.getLineNumberColor();
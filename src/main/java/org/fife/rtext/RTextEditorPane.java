@@ -11,17 +11,24 @@ package org.fife.rtext;
 
 import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.event.HierarchyEvent;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.Transferable;
 import java.awt.print.PageFormat;
+import java.io.File;
 import java.io.IOException;
 import javax.swing.*;
+import javax.swing.event.CaretEvent;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.Document;
 
 import org.fife.print.RPrintUtilities;
 import org.fife.rtext.plugins.filesystemtree.FileSystemTreePlugin;
 import org.fife.ui.rsyntaxtextarea.FileLocation;
 import org.fife.ui.rsyntaxtextarea.TextEditorPane;
+import org.fife.ui.rsyntaxtextarea.parser.Parser;
 import org.fife.ui.rtextarea.RTATextTransferHandler;
+import org.fife.ui.rtextarea.RUndoManager;
 
 
 /**
@@ -33,6 +40,38 @@ import org.fife.ui.rtextarea.RTATextTransferHandler;
 public class RTextEditorPane extends TextEditorPane {
 
 	private RText rtext;
+	private BoundedUndoManager undoManager;
+	private long undoHistoryMaxSize;
+	private int undoHistoryMaxSteps;
+	private boolean longLineMode;
+	private int backgroundFoldThreshold;
+	private volatile DocumentSnapshotTracker snapshotTracker;
+	private EditorSettings editorSettings;
+	private EditorSettings pendingEditorSettings;
+	private FileLocation deferredLocation;
+	private String deferredEncoding;
+
+	private int bulkEditDepth;
+	private boolean bulkEditMarkOccurrences;
+	private boolean bulkEditRepaint;
+	private boolean bulkEditRevalidate;
+	private CaretEvent bulkEditCaretEvent;
+
+	/**
+	 * Property fired when a bulk edit begins or ends.
+	 */
+	public static final String BULK_EDIT_PROPERTY = "RTextEditorPane.bulkEdit";
+
+	/**
+	 * Property fired when long-line mode is enabled or disabled.
+	 */
+	public static final String LONG_LINE_MODE_PROPERTY = "RTextEditorPane.longLineMode";
+
+	/**
+	 * Property fired when a text area whose loading was deferred loads its
+	 * file.
+	 */
+	public static final String DEFERRED_LOAD_PROPERTY = "RTextEditorPane.deferredLoad";
 
 
 	/**
@@ -51,11 +90,115 @@ public class RTextEditorPane extends TextEditorPane {
 	 */
 	public RTextEditorPane(RText rtext, boolean wordWrapEnabled,
 		int textMode, FileLocation loc, String encoding) throws IOException {
-		super(textMode, wordWrapEnabled, loc, encoding);
+		this(rtext, wordWrapEnabled, textMode, loc, encoding, false);
+	}
+
+
+	/**
+	 * Creates a new <code>RTextEditorPane</code>, optionally without reading
+	 * its file.  A text area whose loading is deferred is empty, but reports
+	 * the file's name, path and encoding, and reads the file the first time
+	 * it is shown.
+	 *
+	 * @param rtext The owning RText instance.
+	 * @param wordWrapEnabled Whether or not to use word wrap in this pane.
+	 * @param textMode Either <code>INSERT_MODE</code> or
+	 *        <code>OVERWRITE_MODE</code>.
+	 * @param loc The location of the file to open.
+	 * @param encoding The encoding of the file.
+	 * @param deferLoad Whether to put off reading the file until this text
+	 *        area is shown.
+	 * @throws IOException If an IO error occurs reading the file to load.
+	 * @see #isLoadDeferred()
+	 */
+	RTextEditorPane(RText rtext, boolean wordWrapEnabled, int textMode,
+			FileLocation loc, String encoding, boolean deferLoad)
+			throws IOException {
+		super(textMode, wordWrapEnabled, deferLoad ? null : loc, encoding);
 		this.rtext = rtext;
+		if (deferLoad) {
+			deferredLocation = loc;
+			deferredEncoding = encoding;
+		}
 		// Change the transfer handler to one that recognizes drag-and-dropped
 		// files as needing to be opened in the parent main view.
 		setTransferHandler(new RTextEditorPaneTransferHandler());
+		addHierarchyListener(e -> {
+			if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED)!=0 &&
+					isShowing()) {
+				applyPendingEditorSettings();
+				if (isLoadDeferred()) {
+					// Only load if still showing once all tabs are added
+					SwingUtilities.invokeLater(() -> {
+						if (isShowing() && isLoadDeferred()) {
+							rtext.getMainView().loadDeferredTextArea(this);
+						}
+					});
+				}
+			}
+		});
+	}
+
+
+	/**
+	 * Adds a parser.  Each parser is wrapped so its runs are recorded for
+	 * Java Flight Recorder, though {@link #getParser(int)} returns it
+	 * unwrapped.
+	 *
+	 * @param parser The parser to add.
+	 * @see #removeParser(Parser)
+	 */
+	@Override
+	public void addParser(Parser parser) {
+		super.addParser(new RecordingParser(this, parser));
+	}
+
+
+	/**
+	 * Applies any editor settings that changed while this text area was
+	 * hidden.
+	 *
+	 * @see #setEditorSettings(EditorSettings)
+	 */
+	private void applyPendingEditorSettings() {
+		if (pendingEditorSettings!=null) {
+			EditorSettings settings = pendingEditorSettings;
+			pendingEditorSettings = null;
+			settings.applyDiff(editorSettings, this);
+			editorSettings = settings;
+		}
+	}
+
+
+	/**
+	 * Begins a bulk edit.  Until the matching call to
+	 * {@link #endBulkEdit()}:
+	 * <ul>
+	 *    <li>All edits are collected into a single undoable edit.
+	 *    <li>Repaints and layout are deferred.
+	 *    <li>Caret listeners aren't notified, so neither the status bar nor
+	 *        bracket matching nor the current line highlight are updated.
+	 *    <li>Mark occurrences is turned off.
+	 * </ul>
+	 * When the bulk edit ends, each of these happens once, and a
+	 * {@link #BULK_EDIT_PROPERTY} property change event tells listeners
+	 * the text may have changed throughout.  Bulk edits may be nested;
+	 * only the outermost one has any effect.<p>
+	 *
+	 * Document listeners, including views and parsers, are still notified
+	 * of each edit, though parsers only reparse once their delay passes.
+	 *
+	 * @see #endBulkEdit()
+	 * @see #isInBulkEdit()
+	 * @see BulkEdit
+	 */
+	public void beginBulkEdit() {
+		if (bulkEditDepth++==0) {
+			beginAtomicEdit();
+			bulkEditMarkOccurrences = getMarkOccurrences();
+			setMarkOccurrences(false);
+			firePropertyChange(BULK_EDIT_PROPERTY, false, true);
+		}
 	}
 
 
@@ -72,6 +215,329 @@ public class RTextEditorPane extends TextEditorPane {
 	}
 
 
+	/**
+	 * Returns a read-only snapshot of this text area's text.  The snapshot
+	 * can be read on any thread, and never changes, even as the document is
+	 * edited.  This may be called on any thread.<p>
+	 *
+	 * The first call reads the entire document.  Later calls are cheap,
+	 * since snapshots share the parts of the text that haven't changed.
+	 *
+	 * @return The snapshot.
+	 * @see #isSnapshotCurrent(DocumentSnapshot)
+	 */
+	public DocumentSnapshot createSnapshot() {
+		DocumentSnapshotTracker tracker = snapshotTracker;
+		if (tracker==null || tracker.getDocument()!=getDocument()) {
+			synchronized (this) {
+				tracker = snapshotTracker;
+				if (tracker==null || tracker.getDocument()!=getDocument()) {
+					if (tracker!=null) {
+						tracker.uninstall();
+					}
+					tracker = new DocumentSnapshotTracker((AbstractDocument)getDocument());
+					snapshotTracker = tracker;
+				}
+			}
+		}
+		return tracker.createSnapshot();
+	}
+
+
+	/**
+	 * Returns an undo manager that limits the memory used by this text
+	 * area's undo history.
+	 *
+	 * @return The undo manager.
+	 */
+	@Override
+	protected RUndoManager createUndoManager() {
+		// Called from the super constructor, and again if edits are discarded
+		undoManager = new BoundedUndoManager(this);
+		applyUndoLimits();
+		return undoManager;
+	}
+
+
+	/**
+	 * Ends a bulk edit.  If this ends the outermost bulk edit, all deferred
+	 * updates are done.
+	 *
+	 * @throws IllegalStateException If no bulk edit is in progress.
+	 * @see #beginBulkEdit()
+	 */
+	public void endBulkEdit() {
+
+		if (bulkEditDepth==0) {
+			throw new IllegalStateException("Bulk edit not in progress");
+		}
+		if (--bulkEditDepth>0) {
+			return;
+		}
+
+		endAtomicEdit();
+		if (bulkEditRevalidate) {
+			bulkEditRevalidate = false;
+			revalidate();
+		}
+		if (bulkEditCaretEvent!=null) {
+			CaretEvent e = bulkEditCaretEvent;
+			bulkEditCaretEvent = null;
+			fireCaretUpdate(e);
+		}
+		setMarkOccurrences(bulkEditMarkOccurrences);
+		if (bulkEditRepaint) {
+			bulkEditRepaint = false;
+			repaint();
+		}
+		firePropertyChange(BULK_EDIT_PROPERTY, true, false);
+
+	}
+
+
+	/**
+	 * Notifies caret listeners of a caret change, unless a bulk edit is in
+	 * progress, in which case only the last change is sent once it ends.
+	 *
+	 * @param e The caret event.
+	 */
+	@Override
+	protected void fireCaretUpdate(CaretEvent e) {
+		if (bulkEditDepth>0) {
+			bulkEditCaretEvent = e;
+		}
+		else {
+			super.fireCaretUpdate(e);
+		}
+	}
+
+
+	/**
+	 * Applies the undo history limits to the current undo manager.
+	 */
+	private void applyUndoLimits() {
+		undoManager.setMaxSize(undoHistoryMaxSize);
+		if (undoHistoryMaxSteps>0) {
+			undoManager.setLimit(undoHistoryMaxSteps);
+		}
+	}
+
+
+	@Override
+	public boolean forceReparsing(Parser parser) {
+		int index = indexOfParser(parser);
+		return index>-1 && forceReparsing(index);
+	}
+
+
+	/**
+	 * Returns the document size above which this text area's folds are
+	 * parsed in the background.
+	 *
+	 * @return The threshold, in characters.  A value of <code>0</code> means
+	 *         folds are always parsed on the EDT.
+	 * @see #setBackgroundFoldThreshold(int)
+	 */
+	public int getBackgroundFoldThreshold() {
+		return backgroundFoldThreshold;
+	}
+
+
+	/**
+	 * Returns the encoding of this text area's file.
+	 *
+	 * @return The encoding.
+	 */
+	@Override
+	public String getEncoding() {
+		if (deferredLocation!=null && deferredEncoding!=null) {
+			return deferredEncoding;
+		}
+		return super.getEncoding();
+	}
+
+
+	/**
+	 * Returns the full path of this text area's file, even if it hasn't
+	 * been loaded yet.
+	 *
+	 * @return The full path.
+	 * @see #isLoadDeferred()
+	 */
+	@Override
+	public String getFileFullPath() {
+		return deferredLocation!=null ? deferredLocation.getFileFullPath() :
+				super.getFileFullPath();
+	}
+
+
+	/**
+	 * Returns the name of this text area's file, even if it hasn't been
+	 * loaded yet.
+	 *
+	 * @return The file name.
+	 * @see #isLoadDeferred()
+	 */
+	@Override
+	public String getFileName() {
+		return deferredLocation!=null ? deferredLocation.getFileName() :
+				super.getFileName();
+	}
+
+
+	@Override
+	public Parser getParser(int index) {
+		Parser parser = super.getParser(index);
+		if (parser instanceof RecordingParser) {
+			parser = ((RecordingParser)parser).getParser();
+		}
+		return parser;
+	}
+
+
+	/**
+	 * Returns the estimated memory used by this text area's undo history.
+	 *
+	 * @return The memory used, in bytes.
+	 * @see #setUndoHistoryLimits(long, int)
+	 */
+	public long getUndoHistorySize() {
+		return undoManager.getSize();
+	}
+
+
+	/**
+	 * Frees memory this text area can do without while it isn't used.
+	 * Its undo history is discarded, and its text is no longer mirrored
+	 * for snapshots until one is next requested.  This should only be
+	 * called on text areas without unsaved changes, since their edits can
+	 * no longer be undone.
+	 */
+	void hibernate() {
+		if (!isInBulkEdit()) {
+			discardAllEdits();
+			releaseSnapshotTracker();
+		}
+	}
+
+
+	/**
+	 * Returns the index of a parser.
+	 *
+	 * @param parser The parser, as it was added.
+	 * @return The parser's index, or <code>-1</code> if it isn't installed.
+	 */
+	private int indexOfParser(Parser parser) {
+		for (int i=0; i<getParserCount(); i++) {
+			if (getParser(i)==parser) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Returns whether a bulk edit is in progress.
+	 *
+	 * @return Whether a bulk edit is in progress.
+	 * @see #beginBulkEdit()
+	 */
+	public boolean isInBulkEdit() {
+		return bulkEditDepth>0;
+	}
+
+
+	/**
+	 * Returns whether this text area's file hasn't been read yet.  Such a
+	 * text area is empty until it is first shown.
+	 *
+	 * @return Whether loading the file is deferred.
+	 * @see #loadDeferred()
+	 */
+	public boolean isLoadDeferred() {
+		return deferredLocation!=null;
+	}
+
+
+	/**
+	 * Returns whether this text area is in long-line mode.  Documents with
+	 * very long lines (such as minified files) are put into this mode when
+	 * they are opened.  Syntax highlighting, bracket matching, mark
+	 * occurrences and code folding, which all scan entire lines, are
+	 * disabled, and lines are wrapped so they are never measured or
+	 * painted at their full width.
+	 *
+	 * @return Whether this text area is in long-line mode.
+	 * @see #setLongLineMode(boolean)
+	 */
+	public boolean isLongLineMode() {
+		return longLineMode;
+	}
+
+
+	/**
+	 * Returns whether this text area's document is being mirrored for
+	 * snapshots, that is, whether {@link #createSnapshot()} is cheap.  This
+	 * may be called on any thread.
+	 *
+	 * @return Whether snapshots are being tracked.
+	 * @see #releaseSnapshotTracker()
+	 */
+	boolean hasSnapshotTracker() {
+		DocumentSnapshotTracker tracker = snapshotTracker;
+		return tracker!=null && tracker.getDocument()==getDocument();
+	}
+
+
+	/**
+	 * Returns whether a snapshot still matches this text area's text, that
+	 * is, whether the document hasn't been edited or replaced since the
+	 * snapshot was created.  This may be called on any thread.
+	 *
+	 * @param snapshot The snapshot.
+	 * @return Whether the snapshot is current.
+	 * @see #createSnapshot()
+	 */
+	public boolean isSnapshotCurrent(DocumentSnapshot snapshot) {
+		DocumentSnapshotTracker tracker = snapshotTracker;
+		return tracker!=null && snapshot.isFrom(tracker) &&
+				tracker.getDocument()==getDocument() &&
+				snapshot.getVersion()==tracker.getVersion();
+	}
+
+
+	/**
+	 * Reads this text area's file, if loading it was deferred.  This fires
+	 * a property change event of type {@link #DEFERRED_LOAD_PROPERTY} once
+	 * the file is loaded.  If an error occurs, loading is still deferred,
+	 * so it is tried again the next time this text area is shown.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 * @see #isLoadDeferred()
+	 */
+	void loadDeferred() throws IOException {
+
+		if (deferredLocation==null) {
+			return;
+		}
+
+		// The path and encoding are still reported while loading, so no
+		// spurious path change is fired
+		FileLocation loc = deferredLocation;
+		load(loc, deferredEncoding);
+		deferredLocation = null;
+		deferredEncoding = null;
+
+		syncLastSaveOrLoadTimeToActualFile();
+		if (loc.isLocalAndExists()) {
+			setReadOnly(!new File(loc.getFileFullPath()).canWrite());
+		}
+		firePropertyChange(DEFERRED_LOAD_PROPERTY, true, false);
+
+	}
+
+
 	/**
 	 * Method called when it's time to print this badboy (the old-school, AWT
 	 * way).  This method overrides <code>RTextArea</code>'s <code>print</code>
@@ -91,6 +557,188 @@ public class RTextEditorPane extends TextEditorPane {
 	}
 
 
+	/**
+	 * Stops mirroring the document for snapshots.  Existing snapshots are
+	 * no longer current.  This may be called on any thread.
+	 *
+	 * @see #hasSnapshotTracker()
+	 */
+	void releaseSnapshotTracker() {
+		DocumentSnapshotTracker tracker;
+		synchronized (this) {
+			tracker = snapshotTracker;
+			snapshotTracker = null;
+		}
+		if (tracker!=null) {
+			tracker.uninstall();
+		}
+	}
+
+
+	/**
+	 * Removes a parser, along with any notices it reported.
+	 *
+	 * @param parser The parser to remove.
+	 * @return Whether the parser was installed.
+	 * @see #addParser(Parser)
+	 */
+	@Override
+	public boolean removeParser(Parser parser) {
+		int index = indexOfParser(parser);
+		if (index==-1) {
+			return false;
+		}
+		RecordingParser recorder = (RecordingParser)super.getParser(index);
+		recorder.setRemoved();
+		forceReparsing(index); // Clears its notices
+		return super.removeParser(recorder);
+	}
+
+
+	/**
+	 * Repaints a region of this text area, unless a bulk edit is in
+	 * progress, in which case the whole text area is repainted once it
+	 * ends.
+	 */
+	@Override
+	public void repaint(long tm, int x, int y, int width, int height) {
+		if (bulkEditDepth>0) {
+			bulkEditRepaint = true;
+		}
+		else {
+			super.repaint(tm, x, y, width, height);
+		}
+	}
+
+
+	/**
+	 * Lays out this text area again, unless a bulk edit is in progress, in
+	 * which case this is done once it ends.
+	 */
+	@Override
+	public void revalidate() {
+		if (bulkEditDepth>0) {
+			bulkEditRevalidate = true;
+		}
+		else {
+			super.revalidate();
+		}
+	}
+
+
+	/**
+	 * Sets the document size above which this text area's folds are parsed
+	 * on a background thread rather than on the EDT.  This only matters if
+	 * code folding is enabled.
+	 *
+	 * @param threshold The threshold, in characters, or <code>0</code> to
+	 *        always parse folds on the EDT.
+	 * @see #getBackgroundFoldThreshold()
+	 */
+	public void setBackgroundFoldThreshold(int threshold) {
+		if (threshold!=backgroundFoldThreshold) {
+			backgroundFoldThreshold = threshold;
+			if (isCodeFoldingEnabled()) {
+				getFoldManager().reparse();
+			}
+		}
+	}
+
+
+	/**
+	 * Sets the document edited by this text area.  Snapshots of the old
+	 * document are no longer current.
+	 *
+	 * @param document The new document.
+	 */
+	@Override
+	public void setDocument(Document document) {
+		super.setDocument(document);
+		releaseSnapshotTracker();
+	}
+
+
+	/**
+	 * Gives this text area the editor settings shared by all text areas.
+	 * The first settings are applied in full.  After that, only the
+	 * settings that changed are applied, and if this text area isn't
+	 * showing, that is put off until it is, so editors in hidden tabs
+	 * aren't laid out and repainted for every change.
+	 *
+	 * @param settings The settings.
+	 * @see AbstractMainView#flushEditorSettings()
+	 */
+	void setEditorSettings(EditorSettings settings) {
+		if (editorSettings==null) {
+			settings.applyTo(this);
+			editorSettings = settings;
+		}
+		else {
+			pendingEditorSettings = settings;
+			if (isShowing()) {
+				applyPendingEditorSettings();
+			}
+		}
+	}
+
+
+	/**
+	 * Toggles long-line mode.  Enabling it turns off the features that
+	 * scan entire lines and wraps lines.  Disabling it only clears the flag;
+	 * callers are responsible for restoring any features they want back.
+	 * This method fires a property change event of type
+	 * {@link #LONG_LINE_MODE_PROPERTY}.
+	 *
+	 * @param longLineMode Whether to enable long-line mode.
+	 * @see #isLongLineMode()
+	 */
+	public void setLongLineMode(boolean longLineMode) {
+		if (longLineMode!=this.longLineMode) {
+			this.longLineMode = longLineMode;
+			if (longLineMode) {
+				setSyntaxEditingStyle(SYNTAX_STYLE_NONE);
+				setMarkOccurrences(false);
+				setBracketMatchingEnabled(false);
+				setCodeFoldingEnabled(false);
+				setWrapStyleWord(false);
+				setLineWrap(true);
+			}
+			firePropertyChange(LONG_LINE_MODE_PROPERTY, !longLineMode,
+					longLineMode);
+		}
+	}
+
+
+	/**
+	 * Sets the syntax style, first making sure the style's folds can be
+	 * parsed in the background.
+	 *
+	 * @param styleKey The syntax style.
+	 * @see #setBackgroundFoldThreshold(int)
+	 */
+	@Override
+	public void setSyntaxEditingStyle(String styleKey) {
+		BackgroundFoldParser.install(styleKey);
+		super.setSyntaxEditingStyle(styleKey);
+	}
+
+
+	/**
+	 * Limits this text area's undo history.  Once either limit is reached,
+	 * the oldest steps are forgotten.
+	 *
+	 * @param maxSize The most memory the history may use, in bytes, or
+	 *        <code>0</code> for no limit.
+	 * @param maxSteps The most steps that can be undone.
+	 * @see #getUndoHistorySize()
+	 */
+	public void setUndoHistoryLimits(long maxSize, int maxSteps) {
+		undoHistoryMaxSize = maxSize;
+		undoHistoryMaxSteps = maxSteps;
+		applyUndoLimits();
+	}
+
+
 	/**
 	 * Transfer handler for editor panes.  Overrides the default transfer
 	 * handler so we can drag-and-drop files into a text area, and know to
@@ -125,6 +125,8 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 	private JMenuItem replaceNextItem;
 	private JMenuItem findInFilesItem;
 	private JMenuItem replaceInFilesItem;
+	private JMenuItem findInOpenDocumentsItem;
+	private JMenuItem replaceInOpenDocumentsItem;
 	private JMenuItem goToItem;
 	private JMenuItem selectAllItem;
 	private JMenuItem timeDateItem;
@@ -133,6 +135,7 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 	private JCheckBoxMenuItem searchToolbarMenuItem;
 	private JCheckBoxMenuItem statusBarItem;
 	private JCheckBoxMenuItem lineNumbersItem;
+	private JCheckBoxMenuItem uiResponsivenessItem;
 	private JMenuItem nextDocItem;
 	private JMenuItem prevDocItem;
 	private JMenuItem increaseFontSizesItem;
@@ -142,6 +145,7 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 	private JMenuItem helpItem;
 	private JMenuItem homePageItem;
 	private JMenuItem updatesItem;
+	private JMenuItem startupTimelineItem;
 	private JMenuItem aboutItem;
 	private JMenuItem filePropItem;
 
@@ -487,6 +491,9 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 		updatesItem = createMenuItem(rtext.getAction(RText.UPDATES_ACTION));
 		menu.add(updatesItem);
 
+		startupTimelineItem = createMenuItem(rtext.getAction(RText.STARTUP_TIMELINE_ACTION));
+		menu.add(startupTimelineItem);
+
 		menu.addSeparator();
 
 		aboutItem = createMenuItem(rtext.getAction(RText.ABOUT_ACTION_KEY));
@@ -522,6 +529,14 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 			rtext.getAction(RText.REPLACE_IN_FILES_ACTION));
 		menu.add(replaceInFilesItem);
 
+		findInOpenDocumentsItem = createMenuItem(
+			rtext.getAction(RText.FIND_IN_OPEN_DOCUMENTS_ACTION));
+		menu.add(findInOpenDocumentsItem);
+
+		replaceInOpenDocumentsItem = createMenuItem(
+			rtext.getAction(RText.REPLACE_IN_OPEN_DOCUMENTS_ACTION));
+		menu.add(replaceInOpenDocumentsItem);
+
 		menu.addSeparator();
 
 		goToItem = createMenuItem(rtext.getAction(RText.GOTO_ACTION));
@@ -629,6 +644,10 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 
 		JMenu dwMenu = createMenu(menuMsg, "MenuDockedWindows");
 		registerMenuByName(MENU_DOCKED_WINDOWS, dwMenu);
+		uiResponsivenessItem = new JCheckBoxMenuItem(rtext.getAction(RText.UI_RESPONSIVENESS_ACTION));
+		uiResponsivenessItem.setToolTipText(null);
+		uiResponsivenessItem.setSelected(rtext.isUiResponsivenessWindowVisible());
+		dwMenu.add(uiResponsivenessItem);
 		viewMenu.add(dwMenu);
 
 		statusBarItem = new JCheckBoxMenuItem(rtext.getAction(RText.STATUS_BAR_ACTION));
@@ -876,6 +895,7 @@ public class RTextMenuBar extends MenuBar implements PropertyChangeListener,
 		if (source==viewMenu.getPopupMenu()) {
 			AbstractMainView mainView = rtext.getMainView();
 			lineNumbersItem.setSelected(mainView.getLineNumbersEnabled());
+			uiResponsivenessItem.setSelected(rtext.isUiResponsivenessWindowVisible());
 		}
 
 		// If the "window" menu is becoming visible (MDI view only)...
@@ -147,6 +147,12 @@ public class RTextPrefs extends AppPrefs implements RTextActionInfo {
 	public boolean dropShadowsInEditor;
 	public String codeFoldingEnabledFor;
 	public boolean useSearchDialogs;
+	public boolean restoreSession;
+	public boolean atomicSaves;
+	public boolean syncOnSave;
+	public int undoHistoryMaxSize;
+	public int undoHistoryMaxSteps;
+	public int longLineThreshold;
 
 
 	/**
@@ -344,6 +350,12 @@ public class RTextPrefs extends AppPrefs implements RTextActionInfo {
 		dropShadowsInEditor = getDefaultDropShadowsInEditorValue();
 		codeFoldingEnabledFor = "";
 		useSearchDialogs = true;
+		restoreSession = true;
+		atomicSaves = false;
+		syncOnSave = false;
+		undoHistoryMaxSize = 32;
+		undoHistoryMaxSteps = 100;
+		longLineThreshold = 10000;
 
 	}
 
@@ -48,6 +48,7 @@ import org.fife.ui.DrawDnDIndicatorTabbedPane;
 import org.fife.ui.rtextarea.RTextScrollPane;
 import org.fife.ui.rtextfilechooser.Actions;
 import org.fife.ui.rtextfilechooser.FileSelector;
+import org.fife.ui.rtextfilechooser.Utilities;
 
 
 /**
@@ -608,7 +609,12 @@ inCloseCurrentDocument = false;
 			if (ui != null) {
 				int index = ui.tabForCoordinate(this, e.getX(), e.getY());
 				if (index!=-1) {
-					return getRTextEditorPaneAt(index).getFileFullPath();
+					RTextEditorPane textArea = getRTextEditorPaneAt(index);
+					String path = textArea.getFileFullPath().
+							replace("&", "&amp;").replace("<", "&lt;");
+					String undo = owner.getString("UndoHistorySize",
+						Utilities.getFileSizeStringFor(textArea.getUndoHistorySize(), false));
+					return "<html>" + path + "<br>" + undo;
 				}
 			}
 			return super.getToolTipText(e);
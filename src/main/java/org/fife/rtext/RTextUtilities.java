@@ -25,6 +25,8 @@ import javax.swing.JWindow;
 import javax.swing.LookAndFeel;
 import javax.swing.UIManager;
 import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
 
 import org.fife.jgoodies.looks.common.ShadowPopupBorder;
 import org.fife.jgoodies.looks.common.ShadowPopupFactory;
@@ -556,6 +558,24 @@ public final class RTextUtilities {
 	}
 
 
+	/**
+	 * Returns the length of the longest line in a document.  This only
+	 * examines the document's line elements, not its text.
+	 *
+	 * @param doc The document.
+	 * @return The length of the longest line, not including its newline.
+	 */
+	public static int getLongestLineLength(Document doc) {
+		Element root = doc.getDefaultRootElement();
+		int longest = 0;
+		for (int i=0; i<root.getElementCount(); i++) {
+			Element line = root.getElement(i);
+			longest = Math.max(longest, line.getEndOffset() - line.getStartOffset() - 1);
+		}
+		return longest;
+	}
+
+
 	/**
 	 * Returns the directory in which the user's macros are stored.
 	 *
@@ -0,0 +1,127 @@
+/*
+ * 10/19/2026
+ *
+ * RecordingParser.java - Records JFR events for another parser.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.net.URL;
+
+import org.fife.rtext.jfr.ParserRunEvent;
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.parser.DefaultParseResult;
+import org.fife.ui.rsyntaxtextarea.parser.ExtendedHyperlinkListener;
+import org.fife.ui.rsyntaxtextarea.parser.ParseResult;
+import org.fife.ui.rsyntaxtextarea.parser.Parser;
+
+
+/**
+ * Wraps each parser added to an {@link RTextEditorPane}, and records a
+ * {@link ParserRunEvent} each time it parses the document.  This covers
+ * parsers added by language supports too, which RText doesn't create.<p>
+ *
+ * The wrapped parser's notices still name it as their parser, so code
+ * comparing notices against it keeps working.  The text area's own
+ * bookkeeping only knows this wrapper though, so when the wrapped parser is
+ * disabled or removed, this class parses to an empty result for it,
+ * clearing its notices.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class RecordingParser implements Parser {
+
+	private final RTextEditorPane textArea;
+	private final Parser parser;
+	private boolean removed;
+
+
+	RecordingParser(RTextEditorPane textArea, Parser parser) {
+		this.textArea = textArea;
+		this.parser = parser;
+	}
+
+
+	@Override
+	public ExtendedHyperlinkListener getHyperlinkListener() {
+		return parser.getHyperlinkListener();
+	}
+
+
+	@Override
+	public URL getImageBase() {
+		return parser.getImageBase();
+	}
+
+
+	/**
+	 * Returns the wrapped parser.
+	 *
+	 * @return The wrapped parser.
+	 */
+	Parser getParser() {
+		return parser;
+	}
+
+
+	/**
+	 * Always returns <code>true</code>, so this class can clear the
+	 * notices of a disabled parser.
+	 *
+	 * @return <code>true</code> always.
+	 */
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+
+
+	@Override
+	public ParseResult parse(RSyntaxDocument doc, String style) {
+
+		if (removed || !parser.isEnabled()) {
+			DefaultParseResult result = new DefaultParseResult(parser);
+			result.setParsedLines(0, doc.getDefaultRootElement().getElementCount()-1);
+			return result;
+		}
+
+		ParserRunEvent event = new ParserRunEvent();
+		event.begin();
+		ParseResult result = null;
+		try {
+			result = parser.parse(doc, style);
+			return result;
+		} catch (RuntimeException re) {
+			event.setFailed(re);
+			throw re;
+		} finally {
+			if (event.shouldCommit()) {
+				event.setParser(parser.getClass().getName());
+				event.setDocument(textArea.getFileFullPath(), style, doc.getLength());
+				if (result!=null) {
+					event.setNotices(result.getNotices().size());
+					if (result.getError()!=null) {
+						event.setFailed(result.getError());
+					}
+				}
+				event.commit();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Marks the wrapped parser as removed from the text area.  Its notices
+	 * are cleared the next time this parser parses.
+	 */
+	void setRemoved() {
+		removed = true;
+	}
+
+
+}
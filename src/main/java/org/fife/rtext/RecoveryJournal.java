@@ -0,0 +1,763 @@
+/*
+ * 10/19/2026
+ *
+ * RecoveryJournal.java - Journals unsaved edits so they survive a crash.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JOptionPane;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+
+import org.fife.ui.rsyntaxtextarea.FileLocation;
+import org.fife.ui.rsyntaxtextarea.TextEditorPane;
+
+
+/**
+ * Keeps an append-only journal of the unsaved edits to each local document,
+ * so they can be recovered if RText does not shut down properly.<p>
+ *
+ * A journal is started by a document's first edit after it is loaded or
+ * saved, and deleted when the document is saved or closed.  It records the
+ * file the edits apply to, followed by one small record per insertion or
+ * removal, so journaling costs time proportional to the size of each edit,
+ * not the size of the document.  Records are encoded on the EDT and
+ * appended by a background thread a few times a second, with one flush per
+ * batch ("group commit").  Once a journal grows larger than its document,
+ * it is compacted into a snapshot of the document's current content.<p>
+ *
+ * When RText next starts, journals left behind by processes that are no
+ * longer running are found, and the user is offered to replay them.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class RecoveryJournal {
+
+	private final RText owner;
+	private final File dir;
+	private final Future<?> periodicCommit;
+	private final List<Journal> journals;		// Only accessed by writer tasks
+	private volatile boolean shutdown;
+
+	/**
+	 * Identifies a journal file.
+	 */
+	private static final int MAGIC = 0x52544a4e; // "RTJN"
+
+	/**
+	 * The version of the journal file format.
+	 */
+	private static final short VERSION = 1;
+
+	/**
+	 * The journal's edits apply to an empty document.
+	 */
+	private static final byte BASE_EMPTY = 0;
+
+	/**
+	 * The journal's edits apply to the file on disk.
+	 */
+	private static final byte BASE_FILE = 1;
+
+	private static final byte INSERT = 1;
+	private static final byte REMOVE = 2;
+
+	/**
+	 * How often queued records are written, in milliseconds.
+	 */
+	private static final int COMMIT_INTERVAL = 250;
+
+	/**
+	 * Journals smaller than this are never compacted.
+	 */
+	private static final long MIN_COMPACT_SIZE = 1024 * 1024;
+
+	/**
+	 * The maximum number of characters in each record of a snapshot.
+	 */
+	private static final int SNAPSHOT_CHUNK_SIZE = 64 * 1024;
+
+	private static final String DIR_NAME = "recovery";
+	private static final String FAILED_DIR_NAME = "failed";
+	private static final String EXTENSION = ".journal";
+
+	/**
+	 * The scheduler key of all tasks that write journals, so they run one
+	 * at a time and in order.
+	 */
+	private static final String TASK_KEY = "RecoveryJournal";
+
+	private static final long PID = ProcessHandle.current().pid();
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent application.
+	 */
+	public RecoveryJournal(RText owner) {
+
+		this.owner = owner;
+		dir = new File(RTextUtilities.getPreferencesDirectory(), DIR_NAME);
+		journals = new ArrayList<>();
+
+		periodicCommit = TaskScheduler.get().scheduleRepeating(
+				TaskScheduler.Lane.BACKGROUND, TASK_KEY, COMMIT_INTERVAL,
+				COMMIT_INTERVAL, token -> commitAll());
+
+	}
+
+
+	/**
+	 * Writes all queued records.  Called by a writer task.
+	 */
+	private void commitAll() {
+		for (Journal journal : new ArrayList<>(journals)) {
+			journal.commit();
+		}
+	}
+
+
+	/**
+	 * Returns the tracker for a document, if it is being tracked.
+	 *
+	 * @param textArea The document.
+	 * @return The tracker, or <code>null</code> if there isn't one.
+	 */
+	private static Tracker getTracker(RTextEditorPane textArea) {
+		return (Tracker)textArea.getClientProperty(Tracker.class);
+	}
+
+
+	/**
+	 * Returns whether the process that wrote a journal is still running.
+	 *
+	 * @param file The journal file.
+	 * @return Whether its owner is still running.
+	 */
+	private static boolean isOwnerAlive(File file) {
+		String name = file.getName();
+		int dash = name.indexOf('-');
+		try {
+			long pid = Long.parseLong(name.substring(0, Math.max(dash, 0)));
+			return pid==PID || ProcessHandle.of(pid).
+					map(ProcessHandle::isAlive).orElse(false);
+		} catch (NumberFormatException nfe) {
+			return false;
+		}
+	}
+
+
+	/**
+	 * Reads a journal left behind by an earlier session.
+	 *
+	 * @param file The journal file.
+	 * @return The journal's content, or <code>null</code> if it isn't a
+	 *         valid journal.  A record cut short by a crash is ignored.
+	 */
+	private static JournalContent readJournal(File file) {
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file)))) {
+
+			if (in.readInt()!=MAGIC || in.readShort()!=VERSION) {
+				return null;
+			}
+			JournalContent content = new JournalContent();
+			content.file = file;
+			content.path = in.readUTF();
+			content.encoding = in.readUTF();
+			content.base = in.readByte();
+			content.baseLength = in.readLong();
+			content.baseModified = in.readLong();
+
+			try {
+				while (true) {
+					int type = in.read();
+					if (type==-1) {
+						break;
+					}
+					int offs = in.readInt();
+					int len = in.readInt();
+					String text = null;
+					if (type==INSERT) {
+						char[] chars = new char[len];
+						for (int i=0; i<len; i++) {
+							chars[i] = in.readChar();
+						}
+						text = new String(chars);
+					}
+					content.edits.add(new Edit(offs, len, text));
+				}
+			} catch (EOFException eofe) {
+				// The last record was only partially written
+			}
+
+			return content;
+
+		} catch (IOException ioe) {
+			return null;
+		}
+
+	}
+
+
+	/**
+	 * Moves a journal that couldn't be replayed out of the way, so it isn't
+	 * offered again but the user can still get at its edits.
+	 *
+	 * @param file The journal file.
+	 * @param failedDir The directory to move it to.
+	 * @return Whether the file was moved.
+	 */
+	private static boolean moveAside(File file, File failedDir) {
+		if (!failedDir.isDirectory() && !failedDir.mkdirs()) {
+			return false;
+		}
+		File dest = new File(failedDir, System.currentTimeMillis() + "-" +
+				file.getName());
+		try {
+			Files.move(file.toPath(), dest.toPath());
+			return true;
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+			return false;
+		}
+	}
+
+
+	/**
+	 * Looks for journals left behind by sessions that didn't shut down
+	 * properly and, if there are any, offers to replay them.  Journals that
+	 * can't be replayed, e.g. because their files changed on disk, are moved
+	 * into a subdirectory and the user is told where; the rest are deleted.
+	 * This should be called on the EDT once RText has started.
+	 */
+	public void recover() {
+
+		File[] files = dir.listFiles((d, name) -> name.endsWith(EXTENSION));
+		if (files==null) {
+			return;
+		}
+
+		List<File> orphans = new ArrayList<>();
+		List<JournalContent> contents = new ArrayList<>();
+		for (File file : files) {
+			if (!isOwnerAlive(file)) {
+				orphans.add(file);
+				JournalContent content = readJournal(file);
+				if (content!=null && !content.edits.isEmpty()) {
+					contents.add(content);
+				}
+			}
+		}
+
+		if (!contents.isEmpty()) {
+			String msg = owner.getString("RecoverUnsavedChanges",
+					Integer.toString(contents.size()));
+			int rc = JOptionPane.showConfirmDialog(owner, msg,
+					owner.getString("ConfDialogTitle"),
+					JOptionPane.YES_NO_OPTION);
+			if (rc==JOptionPane.YES_OPTION) {
+				File failedDir = new File(dir, FAILED_DIR_NAME);
+				int failed = 0;
+				for (JournalContent content : contents) {
+					if (!replay(content)) {
+						// Keep the journal; don't delete it below
+						if (moveAside(content.file, failedDir)) {
+							orphans.remove(content.file);
+						}
+						failed++;
+					}
+				}
+				if (failed>0) {
+					msg = owner.getString("RecoveryFailed",
+							Integer.toString(failed), failedDir.getAbsolutePath());
+					JOptionPane.showMessageDialog(owner, msg,
+							owner.getString("ErrorDialogTitle"),
+							JOptionPane.ERROR_MESSAGE);
+				}
+			}
+		}
+
+		for (File file : orphans) {
+			file.delete();
+		}
+
+	}
+
+
+	/**
+	 * Starts a new journal for a document whose edits are about to start
+	 * diverging from its file on disk.  If the document has a recovery
+	 * journal already, it is replaced by a snapshot of the document.  This
+	 * is useful when the file has been rewritten while the document still
+	 * had unsaved changes.
+	 *
+	 * @param textArea The document.
+	 */
+	public void rebase(RTextEditorPane textArea) {
+		Tracker tracker = getTracker(textArea);
+		if (tracker!=null && tracker.journal!=null) {
+			tracker.journal.compactRequested = true;
+		}
+	}
+
+
+	/**
+	 * Opens the file a journal applies to and replays its edits.
+	 *
+	 * @param content The journal's content.
+	 * @return Whether the edits were replayed.  This is <code>false</code>
+	 *         if the file has changed since the edits were made.
+	 */
+	private boolean replay(JournalContent content) {
+
+		FileLocation loc = FileLocation.create(content.path);
+		boolean exists = loc.isLocalAndExists();
+
+		if (content.base==BASE_FILE) {
+			File file = new File(content.path);
+			if (!exists || file.length()!=content.baseLength ||
+					file.lastModified()!=content.baseModified) {
+				return false;
+			}
+		}
+
+		AbstractMainView mainView = owner.getMainView();
+		String encoding = content.encoding.isEmpty() ? null : content.encoding;
+		if (exists) {
+			// Very large files open in their own window, not a tab
+			if (!mainView.openFile(loc, encoding, true) ||
+					!content.path.equals(mainView.getCurrentTextArea().getFileFullPath())) {
+				return false;
+			}
+		}
+		else {
+			mainView.addNewEmptyUntitledFile();
+		}
+
+		RTextEditorPane textArea = mainView.getCurrentTextArea();
+		Document doc = textArea.getDocument();
+		textArea.beginAtomicEdit();
+		try {
+			if (content.base==BASE_EMPTY) {
+				doc.remove(0, doc.getLength());
+			}
+			for (Edit edit : content.edits) {
+				if (edit.text!=null) {
+					doc.insertString(edit.offs, edit.text, null);
+				}
+				else {
+					doc.remove(edit.offs, edit.len);
+				}
+			}
+		} catch (BadLocationException ble) {
+			// The journal doesn't match the file; keep what was replayed
+			ble.printStackTrace();
+		} finally {
+			textArea.endAtomicEdit();
+		}
+		textArea.setCaretPosition(0);
+		return true;
+
+	}
+
+
+	/**
+	 * Writes any queued records and stops the background writer.  This
+	 * should be called when RText exits.
+	 */
+	public void shutdown() {
+		shutdown = true;
+		periodicCommit.cancel(false);
+		Future<?> commit = submit(this::commitAll);
+		try {
+			commit.get(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException e) {
+			e.printStackTrace();
+		}
+	}
+
+
+	/**
+	 * Runs a task that reads or writes journals.  Such tasks run one at a
+	 * time, in the order they were submitted.
+	 *
+	 * @param task The task.
+	 * @return The pending task.
+	 */
+	private static Future<?> submit(Runnable task) {
+		return TaskScheduler.get().submit(TaskScheduler.Lane.BACKGROUND,
+				TASK_KEY, token -> task.run());
+	}
+
+
+	/**
+	 * Starts journaling a document's edits.  Remote files aren't journaled.
+	 * This should be called when a document is created, before it is
+	 * modified.
+	 *
+	 * @param textArea The document.
+	 * @see #untrack(RTextEditorPane)
+	 */
+	public void track(RTextEditorPane textArea) {
+		if (textArea.isLocal() && getTracker(textArea)==null) {
+			Tracker tracker = new Tracker(textArea);
+			textArea.putClientProperty(Tracker.class, tracker);
+			textArea.getDocument().addDocumentListener(tracker);
+			textArea.addPropertyChangeListener(TextEditorPane.DIRTY_PROPERTY,
+					tracker);
+		}
+	}
+
+
+	/**
+	 * Stops journaling a document's edits, and deletes its journal.  This
+	 * should be called when a document is closed.
+	 *
+	 * @param textArea The document.
+	 * @see #track(RTextEditorPane)
+	 */
+	public void untrack(RTextEditorPane textArea) {
+		Tracker tracker = getTracker(textArea);
+		if (tracker!=null) {
+			textArea.putClientProperty(Tracker.class, null);
+			textArea.getDocument().removeDocumentListener(tracker);
+			textArea.removePropertyChangeListener(
+					TextEditorPane.DIRTY_PROPERTY, tracker);
+			tracker.endJournal();
+		}
+	}
+
+
+	/**
+	 * Writes a record to a stream.
+	 *
+	 * @param out The stream to write to.
+	 * @param type The record type.
+	 * @param offs The offset of the edit.
+	 * @param len The length of the edit.
+	 * @param text The inserted text, or <code>null</code> for a removal.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private static void writeRecord(DataOutputStream out, byte type, int offs,
+							int len, CharSequence text) throws IOException {
+		out.writeByte(type);
+		out.writeInt(offs);
+		out.writeInt(len);
+		if (text!=null) {
+			for (int i=0; i<len; i++) {
+				out.writeChar(text.charAt(i));
+			}
+		}
+	}
+
+
+	/**
+	 * A single insertion or removal read from a journal.
+	 */
+	private static final class Edit {
+
+		private final int offs;
+		private final int len;
+		private final String text;
+
+		Edit(int offs, int len, String text) {
+			this.offs = offs;
+			this.len = len;
+			this.text = text;
+		}
+
+	}
+
+
+	/**
+	 * The content of a journal read from disk.
+	 */
+	private static final class JournalContent {
+
+		private File file;
+		private String path;
+		private String encoding;
+		private byte base;
+		private long baseLength;
+		private long baseModified;
+		private final List<Edit> edits = new ArrayList<>();
+
+	}
+
+
+	/**
+	 * The journal for one stretch of unsaved edits to a document.  Records
+	 * are queued on the EDT and written by writer tasks.
+	 */
+	private final class Journal {
+
+		private final AbstractDocument doc;
+		private final File file;
+		private final String path;
+		private final String encoding;
+		private final byte base;
+		private final long baseLength;
+		private final long baseModified;
+		private final ConcurrentLinkedQueue<byte[]> records;
+		private volatile boolean discarded;
+		private volatile boolean compactRequested;
+		private FileOutputStream fileOut;
+		private DataOutputStream out;
+		private long size;
+		private boolean failed;
+
+		Journal(RTextEditorPane textArea) {
+			doc = (AbstractDocument)textArea.getDocument();
+			file = new File(dir, PID + "-" + NEXT_ID.incrementAndGet() + EXTENSION);
+			path = textArea.getFileFullPath();
+			String enc = textArea.getEncoding();
+			encoding = enc!=null ? enc : "";
+			File baseFile = new File(path);
+			base = baseFile.isFile() ? BASE_FILE : BASE_EMPTY;
+			baseLength = baseFile.length();
+			baseModified = baseFile.lastModified();
+			records = new ConcurrentLinkedQueue<>();
+		}
+
+		/**
+		 * Writes all queued records in a single batch, compacting the
+		 * journal if it has grown too large.  Called by a writer task.
+		 */
+		void commit() {
+
+			if (discarded) {
+				close();
+				file.delete();
+				journals.remove(this);
+				return;
+			}
+			if (failed || (records.isEmpty() && !compactRequested)) {
+				return;
+			}
+
+			try {
+				if (out==null) {
+					open(false);
+					writeHeader(out, base, baseLength, baseModified);
+				}
+				byte[] record;
+				while ((record = records.poll())!=null) {
+					out.write(record);
+					size += record.length;
+				}
+				out.flush();
+				fileOut.getChannel().force(false);
+				if (compactRequested ||
+						size>Math.max(MIN_COMPACT_SIZE, 2L*doc.getLength())) {
+					compact();
+				}
+			} catch (IOException ioe) {
+				// Don't keep failing every commit, e.g. on a full disk
+				ioe.printStackTrace();
+				failed = true;
+				close();
+			}
+
+		}
+
+		private void close() {
+			if (out!=null) {
+				try {
+					out.close();
+				} catch (IOException ioe) {
+					ioe.printStackTrace();
+				}
+				out = null;
+				fileOut = null;
+			}
+		}
+
+		/**
+		 * Replaces this journal with a snapshot of its document's current
+		 * content.  The content is copied while the document is read-locked,
+		 * so any queued records are already reflected in it, and written
+		 * after the lock is released so the EDT isn't blocked on the disk.
+		 *
+		 * @throws IOException If an IO error occurs.
+		 */
+		private void compact() throws IOException {
+
+			compactRequested = false;
+			close();
+			File temp = new File(dir, file.getName() + ".tmp");
+
+			String text;
+			doc.readLock();
+			try {
+				records.clear();
+				text = doc.getText(0, doc.getLength());
+			} catch (BadLocationException ble) { // Never happens
+				throw new IOException(ble);
+			} finally {
+				doc.readUnlock();
+			}
+
+			try (DataOutputStream snapshot = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(temp)))) {
+				writeHeader(snapshot, BASE_EMPTY, 0, 0);
+				int len = text.length();
+				for (int offs=0; offs<len; offs+=SNAPSHOT_CHUNK_SIZE) {
+					int count = Math.min(SNAPSHOT_CHUNK_SIZE, len-offs);
+					writeRecord(snapshot, INSERT, offs, count,
+							text.substring(offs, offs+count));
+				}
+			}
+
+			try {
+				Files.move(temp.toPath(), file.toPath(),
+						StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException amnse) {
+				Files.move(temp.toPath(), file.toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			open(true);
+			size = file.length();
+
+		}
+
+		private void open(boolean append) throws IOException {
+			if (!dir.isDirectory() && !dir.mkdirs()) {
+				throw new IOException("Cannot create directory: " + dir);
+			}
+			fileOut = new FileOutputStream(file, append);
+			out = new DataOutputStream(new BufferedOutputStream(fileOut));
+		}
+
+		/**
+		 * Queues a record.  Called on the EDT.
+		 */
+		void queue(byte type, int offs, int len, String text) {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream(
+					9 + (text!=null ? 2*len : 0));
+			try {
+				writeRecord(new DataOutputStream(baos), type, offs, len, text);
+			} catch (IOException ioe) { // Never happens
+				ioe.printStackTrace();
+			}
+			records.add(baos.toByteArray());
+		}
+
+		private void writeHeader(DataOutputStream stream, byte base,
+				long baseLength, long baseModified) throws IOException {
+			stream.writeInt(MAGIC);
+			stream.writeShort(VERSION);
+			stream.writeUTF(path);
+			stream.writeUTF(encoding);
+			stream.writeByte(base);
+			stream.writeLong(baseLength);
+			stream.writeLong(baseModified);
+		}
+
+	}
+
+
+	/**
+	 * Listens for edits to a document and journals them.
+	 */
+	private final class Tracker implements DocumentListener,
+										PropertyChangeListener {
+
+		private final RTextEditorPane textArea;
+		private Journal journal;
+
+		Tracker(RTextEditorPane textArea) {
+			this.textArea = textArea;
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+		}
+
+		void endJournal() {
+			if (journal!=null) {
+				journal.discarded = true;
+				Journal ended = journal;
+				journal = null;
+				if (!shutdown) {
+					submit(ended::commit);
+				}
+			}
+		}
+
+		private Journal getJournal() {
+			if (journal==null) {
+				Journal newJournal = new Journal(textArea);
+				journal = newJournal;
+				submit(() -> journals.add(newJournal));
+			}
+			return journal;
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			int offs = e.getOffset();
+			int len = e.getLength();
+			try {
+				String text = e.getDocument().getText(offs, len);
+				getJournal().queue(INSERT, offs, len, text);
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+		}
+
+		@Override
+		public void propertyChange(PropertyChangeEvent e) {
+			// Saved or reloaded, so the file on disk is up to date
+			if (Boolean.FALSE.equals(e.getNewValue())) {
+				endJournal();
+			}
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			getJournal().queue(REMOVE, e.getOffset(), e.getLength(), null);
+		}
+
+	}
+
+
+}
@@ -0,0 +1,269 @@
+/*
+ * 10/19/2026
+ *
+ * ReplaceAllEngine.java - Replaces all matches in a document in one edit.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+
+
+/**
+ * Replaces all occurrences of text in a text area with a single edit.<p>
+ *
+ * <code>SearchEngine.replaceAll()</code> finds and replaces one match at a
+ * time, so each replacement is its own document change, firing document
+ * events and restarting parser and fold timers.  With many thousands of
+ * matches this can take minutes.  {@link #replaceAll(RTextArea, SearchContext)}
+ * instead finds all matches and computes their replacements in a single
+ * pass over a copy of the document, then replaces each match, last to
+ * first, inside one atomic edit.  This is one undoable edit.  Only the
+ * matched text changes, so bookmarks, folds, parser notices and other
+ * positions between matches stay where they are.<p>
+ *
+ * Search options, including "whole word" in regular expression mode,
+ * behave as they do in <code>SearchEngine</code>.  In regular expression
+ * mode, the replacement text may reference groups with <code>$n</code>,
+ * and may contain <code>\n</code> and <code>\t</code>.<p>
+ *
+ * The replacement text can also be computed from a snapshot of a document
+ * off the EDT, and applied later if the document hasn't changed since.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class ReplaceAllEngine {
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private ReplaceAllEngine() {
+	}
+
+
+	/**
+	 * Appends the replacement for a regular expression match.
+	 *
+	 * @param m The matcher that found the match.
+	 * @param template The replacement text.
+	 * @param sb The buffer to append to.
+	 * @throws IndexOutOfBoundsException If the template references a group
+	 *         the pattern doesn't have.
+	 */
+	private static void appendReplacement(Matcher m, String template,
+			StringBuilder sb) {
+
+		int len = template.length();
+		for (int i=0; i<len; i++) {
+			char ch = template.charAt(i);
+			if (ch=='\\' && i<len-1) {
+				ch = template.charAt(++i);
+				switch (ch) {
+					case 'n':
+						sb.append('\n');
+						break;
+					case 't':
+						sb.append('\t');
+						break;
+					default:
+						sb.append(ch);
+						break;
+				}
+			}
+			else if (ch=='$' && i<len-1 && Character.isDigit(template.charAt(i+1))) {
+				int group = template.charAt(++i) - '0';
+				// Take more digits as long as the group exists
+				while (i<len-1 && Character.isDigit(template.charAt(i+1))) {
+					int next = group*10 + template.charAt(i+1) - '0';
+					if (next>m.groupCount()) {
+						break;
+					}
+					group = next;
+					i++;
+				}
+				String text = m.group(group);
+				if (text!=null) {
+					sb.append(text);
+				}
+			}
+			else {
+				sb.append(ch);
+			}
+		}
+
+	}
+
+
+	/**
+	 * Replaces all matches in a text area, in one edit.  The caret stays
+	 * where it was relative to the text around it.
+	 *
+	 * @param textArea The text area.
+	 * @param r The replacement, computed from the text area's current
+	 *        text.
+	 * @see #computeReplacement(CharSequence, Pattern, boolean, String, boolean)
+	 */
+	static void apply(RTextArea textArea, Replacement r) {
+
+		int caret = textArea.getCaretPosition();
+		int newCaret = caret;
+		int count = r.getCount();
+
+		textArea.beginAtomicEdit();
+		try {
+			// Last to first, so earlier offsets stay valid
+			for (int i=count-1; i>=0; i--) {
+				int start = r.starts[i];
+				int end = r.ends[i];
+				String text = r.texts.get(i);
+				textArea.replaceRange(text, start, end);
+				if (caret>=end) {
+					newCaret += text.length() - (end - start);
+				}
+				else if (caret>start) {
+					newCaret = start + text.length();
+				}
+			}
+		} finally {
+			textArea.endAtomicEdit();
+		}
+
+		textArea.setCaretPosition(newCaret);
+
+	}
+
+
+	/**
+	 * Computes the replacement for all matches in some text.  This may be
+	 * called on any thread.
+	 *
+	 * @param text The text to search.
+	 * @param pattern The pattern to search for.
+	 * @param wholeWord Whether matches must be whole words.
+	 * @param replaceWith The replacement text.
+	 * @param regex Whether <code>replaceWith</code> may reference groups
+	 *        and contain escapes.
+	 * @return The replacement, or <code>null</code> if there are no
+	 *         matches.
+	 * @throws IndexOutOfBoundsException If the replacement text references
+	 *         a group the pattern doesn't have.
+	 * @see #apply(RTextArea, Replacement)
+	 */
+	static Replacement computeReplacement(CharSequence text, Pattern pattern,
+			boolean wholeWord, String replaceWith, boolean regex) {
+
+		Matcher m = pattern.matcher(text);
+		Replacement r = new Replacement();
+		StringBuilder sb = new StringBuilder();
+
+		while (m.find()) {
+			int start = m.start();
+			int end = m.end();
+			if (wholeWord && !IncrementalMarkAll.isWholeWord(text, start, end)) {
+				continue;
+			}
+			String replacement = replaceWith;
+			if (regex) {
+				sb.setLength(0);
+				appendReplacement(m, replaceWith, sb);
+				replacement = sb.toString();
+			}
+			r.add(start, end, replacement);
+		}
+
+		return r.getCount()==0 ? null : r;
+
+	}
+
+
+	/**
+	 * Replaces all occurrences of the search text in a text area.  The
+	 * caret stays where it was relative to the text around it.
+	 *
+	 * @param textArea The text area.
+	 * @param context What to search for and what to replace it with.
+	 * @return The number of occurrences replaced.
+	 * @throws PatternSyntaxException If the search is a regular expression
+	 *         and is invalid.
+	 * @throws IndexOutOfBoundsException If the replacement text references
+	 *         a group the regular expression doesn't have.
+	 */
+	public static int replaceAll(RTextArea textArea, SearchContext context) {
+
+		String searchFor = context.getSearchFor();
+		if (searchFor==null || searchFor.isEmpty()) {
+			return 0;
+		}
+		String replaceWith = context.getReplaceWith();
+		if (replaceWith==null) {
+			replaceWith = "";
+		}
+
+		Pattern pattern = IncrementalMarkAll.createPattern(context);
+		boolean regex = context.isRegularExpression();
+		boolean wholeWord = context.getWholeWord();
+
+		Replacement r = computeReplacement(textArea.getText(), pattern,
+				wholeWord, replaceWith, regex);
+		if (r==null) {
+			return 0;
+		}
+		apply(textArea, r);
+		return r.getCount();
+
+	}
+
+
+	/**
+	 * The replacements for all matches in a document: each match's range,
+	 * in document order, and the text to replace it with.
+	 */
+	static final class Replacement {
+
+		private int[] starts;
+		private int[] ends;
+		private final List<String> texts;
+
+		Replacement() {
+			starts = new int[16];
+			ends = new int[16];
+			texts = new ArrayList<>();
+		}
+
+		private void add(int start, int end, String text) {
+			int count = texts.size();
+			if (count==starts.length) {
+				starts = Arrays.copyOf(starts, count*2);
+				ends = Arrays.copyOf(ends, count*2);
+			}
+			starts[count] = start;
+			ends[count] = end;
+			texts.add(text);
+		}
+
+		/**
+		 * Returns the number of matches replaced.
+		 *
+		 * @return The number of matches.
+		 */
+		int getCount() {
+			return texts.size();
+		}
+
+	}
+
+
+}
@@ -29,7 +29,8 @@ import org.fife.ui.rtextarea.SearchResult;
 
 
 /**
- * Handles the Find and Replace dialogs and search bars.
+ * Handles the Find and Replace dialogs and search bars, and searches of all
+ * open documents.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -42,6 +43,7 @@ public class SearchManager {
 	private ReplaceDialog replaceDialog;
 	private FindToolBar findToolBar;
 	private ReplaceToolBar replaceToolBar;
+	private OpenDocumentSearch openDocumentSearch;
 
 
 	/**
@@ -52,6 +54,7 @@ public class SearchManager {
 	public SearchManager(RText rtext) {
 		this.rtext = rtext;
 		setSearchingMode(SearchingMode.TOOLBARS);
+		openDocumentSearch = new OpenDocumentSearch(rtext);
 	}
 
 
@@ -206,6 +209,41 @@ public class SearchManager {
 	}
 
 
+	/**
+	 * Lists all lines in open documents containing the search text.  Unsaved
+	 * changes are searched, as are remote and untitled documents.
+	 *
+	 * @param context The search context to use.  The context shared between
+	 *        all of the find/replace dialogs will be used if this is
+	 *        {@code null}.
+	 * @see #replaceInOpenDocuments(SearchContext)
+	 */
+	public void findInOpenDocuments(SearchContext context) {
+
+		AbstractMainView mainView = rtext.getMainView();
+		if (context == null) {
+			context = mainView.searchContext;
+		}
+
+		// If they haven't searched yet, bring up the Find UI.
+		String searchString = context.getSearchFor();
+		if (searchString==null || searchString.isEmpty()) {
+			showFindUI();
+			return;
+		}
+
+		try {
+			openDocumentSearch.findAll(context);
+		} catch (PatternSyntaxException pse) {
+			JOptionPane.showMessageDialog(rtext,
+			"Invalid regular expression:\n" + pse.toString() +
+			"\nPlease check your regular expression search string.",
+			"Error", JOptionPane.ERROR_MESSAGE);
+		}
+
+	}
+
+
 	public static Image getDarkLookAndFeelContentAssistImage() {
 
 		Image image = null;
@@ -355,6 +393,42 @@ public class SearchManager {
 	}
 
 
+	/**
+	 * Replaces all occurrences of the search text in open documents.  Each
+	 * document is modified in a single edit, so its replacements can be
+	 * undone in one step.
+	 *
+	 * @param context The search context to use.  The context shared between
+	 *        all of the find/replace dialogs will be used if this is
+	 *        {@code null}.
+	 * @see #findInOpenDocuments(SearchContext)
+	 */
+	public void replaceInOpenDocuments(SearchContext context) {
+
+		AbstractMainView mainView = rtext.getMainView();
+		if (context == null) {
+			context = mainView.searchContext;
+		}
+
+		// If they haven't searched yet, bring up the Replace UI.
+		String searchString = context.getSearchFor();
+		if (searchString==null || searchString.isEmpty()) {
+			showReplaceUI();
+			return;
+		}
+
+		try {
+			openDocumentSearch.replaceAll(context);
+		} catch (PatternSyntaxException pse) {
+			JOptionPane.showMessageDialog(rtext,
+			"Invalid regular expression:\n" + pse.toString() +
+			"\nPlease check your regular expression search string.",
+			"Error", JOptionPane.ERROR_MESSAGE);
+		}
+
+	}
+
+
 	/**
 	 * Toggles whether to use dialogs or tool bars for searching.
 	 *
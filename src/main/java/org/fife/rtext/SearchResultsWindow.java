@@ -0,0 +1,122 @@
+/*
+ * 10/19/2026
+ *
+ * SearchResultsWindow.java - A dockable window that lists the results of
+ * searching all open documents.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.BorderLayout;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.net.URL;
+import java.util.List;
+import javax.swing.ImageIcon;
+import javax.swing.JTable;
+
+import org.fife.ui.RScrollPane;
+import org.fife.ui.UIUtil;
+import org.fife.ui.dockablewindows.DockableWindowScrollPane;
+import org.fife.ui.rsyntaxtextarea.parser.ParserNotice;
+
+
+/**
+ * A window that lists the lines in open documents matching a search.
+ * Double-clicking a line selects it in its document.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see OpenDocumentSearch
+ */
+class SearchResultsWindow extends AbstractParserNoticeWindow
+							implements PropertyChangeListener {
+
+	private final SearchResultsTableModel model;
+
+
+	SearchResultsWindow(RText rtext) {
+
+		super(rtext);
+		AbstractMainView mainView = rtext.getMainView();
+		mainView.addPropertyChangeListener(AbstractMainView.TEXT_AREA_REMOVED_PROPERTY, this);
+
+		model = new SearchResultsTableModel(rtext.getString("SearchResultsList.Text"));
+		JTable table = createTable(model);
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(table);
+		RScrollPane sp = new DockableWindowScrollPane(table);
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(sp);
+
+		setLayout(new BorderLayout());
+		add(sp);
+
+		setPosition(BOTTOM);
+		setActive(true);
+		setDockableWindowName(rtext.getString("SearchResultsList.SearchResults"));
+
+		URL url = getClass().getResource("graphics/options_search.png");
+		setIcon(new ImageIcon(url));
+
+	}
+
+
+	/**
+	 * Adds the matching lines in a document.
+	 *
+	 * @param textArea The document.
+	 * @param matches The matching lines.
+	 * @see #clear()
+	 */
+	void addMatches(RTextEditorPane textArea, List<OpenDocumentSearch.Match> matches) {
+		for (OpenDocumentSearch.Match match : matches) {
+			Object[] data = { getIcon(), textArea,
+				match.getLine() + 1,
+				match.getText() };
+			model.addRow(data);
+		}
+	}
+
+
+	/**
+	 * Removes all results.
+	 *
+	 * @see #addMatches(RTextEditorPane, List)
+	 */
+	void clear() {
+		model.update(null, null);
+	}
+
+
+	@Override
+	public void propertyChange(PropertyChangeEvent e) {
+
+		String prop = e.getPropertyName();
+
+		// Results for closed documents can't be shown
+		if (AbstractMainView.TEXT_AREA_REMOVED_PROPERTY.equals(prop)) {
+			RTextEditorPane textArea = (RTextEditorPane)e.getNewValue();
+			model.update(textArea, null);
+		}
+
+	}
+
+
+	private class SearchResultsTableModel extends ParserNoticeTableModel {
+
+		SearchResultsTableModel(String lastColHeader) {
+			super(lastColHeader);
+		}
+
+		@Override
+		protected void addNoticesImpl(RTextEditorPane textArea,
+				List<ParserNotice> notices) {
+			// Search results aren't parser notices; they're added directly
+		}
+
+	}
+
+
+}
@@ -0,0 +1,616 @@
+/*
+ * 10/19/2026
+ *
+ * SessionManager.java - Saves and restores the set of documents open in RText.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+
+import org.fife.ui.rsyntaxtextarea.FileLocation;
+import org.fife.ui.rsyntaxtextarea.folding.Fold;
+import org.fife.ui.rsyntaxtextarea.folding.FoldManager;
+import org.fife.ui.rtextarea.Gutter;
+import org.fife.ui.rtextarea.GutterIconInfo;
+import org.fife.ui.rtextarea.RTextScrollPane;
+
+
+/**
+ * Remembers the documents open in RText between sessions.  The open files,
+ * their encodings, caret positions, collapsed folds and bookmarks are
+ * written to a small binary file in the preferences directory when RText
+ * exits, and periodically while it runs so a crash loses little.<p>
+ *
+ * Snapshots are gathered on the EDT (which is cheap, as only offsets and
+ * line numbers are recorded), but written to disk on a background thread.
+ * When restoring, a tab is added for each document without reading its
+ * file; files are only read when their tabs are first shown, so even a
+ * large session is restored quickly.  Until then, the remembered state of
+ * such a document is kept and saved with the session as-is.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class SessionManager {
+
+	private final RText rtext;
+	private final Timer autoSaveTimer;
+	private final PropertyChangeListener loadListener;
+
+	/**
+	 * The remembered state of restored documents whose files haven't been
+	 * loaded yet.
+	 */
+	private final Map<RTextEditorPane, DocState> unloadedStates;
+
+	/**
+	 * Identifies a session file.
+	 */
+	private static final int MAGIC = 0x52545353; // "RTSS"
+
+	/**
+	 * The version of the session file format.
+	 */
+	private static final short VERSION = 1;
+
+	/**
+	 * How often the session is saved while RText is running, in milliseconds.
+	 */
+	private static final int AUTO_SAVE_DELAY = 60000;
+
+	private static final String FILE_NAME = "session.bin";
+
+	/**
+	 * The scheduler key of session writes, so they run one at a time and
+	 * in order.
+	 */
+	private static final String TASK_KEY = "SessionManager";
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param rtext The parent application.
+	 */
+	public SessionManager(RText rtext) {
+
+		this.rtext = rtext;
+
+		autoSaveTimer = new Timer(AUTO_SAVE_DELAY, e -> saveSessionAsync());
+		autoSaveTimer.setRepeats(true);
+
+		loadListener = this::deferredLoadCompleted;
+		unloadedStates = new WeakHashMap<>();
+
+	}
+
+
+	/**
+	 * Called when a restored document's file is loaded.  Its caret, folds
+	 * and bookmarks are restored.
+	 *
+	 * @param e The event.
+	 */
+	private void deferredLoadCompleted(PropertyChangeEvent e) {
+
+		RTextEditorPane textArea = (RTextEditorPane)e.getSource();
+		textArea.removePropertyChangeListener(
+				RTextEditorPane.DEFERRED_LOAD_PROPERTY, loadListener);
+
+		DocState state = unloadedStates.remove(textArea);
+		if (state != null) {
+			RTextScrollPane sp = (RTextScrollPane)SwingUtilities.
+					getAncestorOfClass(RTextScrollPane.class, textArea);
+			applyState(textArea, sp, state);
+		}
+
+	}
+
+
+	/**
+	 * Returns the file the session is stored in.
+	 *
+	 * @return The session file.
+	 */
+	private static File getSessionFile() {
+		return new File(RTextUtilities.getPreferencesDirectory(), FILE_NAME);
+	}
+
+
+	/**
+	 * Returns whether a document should be remembered in the session.
+	 * Untitled documents that were never saved are skipped.
+	 *
+	 * @param textArea The document.
+	 * @return Whether to remember the document.
+	 */
+	private boolean isRememberable(RTextEditorPane textArea) {
+		FileLocation loc = FileLocation.create(textArea.getFileFullPath());
+		return loc.isRemote() || loc.isLocalAndExists();
+	}
+
+
+	/**
+	 * Restores the last saved session, if any.  A tab is added for each
+	 * document, but only the file of the tab that ends up shown is read.
+	 * The session isn't auto-saved until all tabs are added.  This method
+	 * should be called on the EDT.
+	 */
+	public void restoreSession() {
+
+		Session session;
+		try {
+			session = readSession(getSessionFile());
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+			return;
+		}
+
+		if (session == null || session.docs.isEmpty()) {
+			return;
+		}
+
+		boolean autoSave = autoSaveTimer.isRunning();
+		autoSaveTimer.stop();
+		try {
+			AbstractMainView mainView = rtext.getMainView();
+			for (DocState state : session.docs) {
+				restoreDocument(mainView, state);
+			}
+			int selected = session.selectedIndex;
+			if (selected >= 0 && selected < mainView.getNumDocuments()) {
+				mainView.setSelectedIndex(selected);
+			}
+		} finally {
+			if (autoSave) {
+				autoSaveTimer.restart();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Adds a tab for a document from a session.  The document's file isn't
+	 * read until the tab is shown.
+	 *
+	 * @param mainView The main view.
+	 * @param state The document to restore.
+	 */
+	private void restoreDocument(AbstractMainView mainView, DocState state) {
+
+		// Skip anything already opened, e.g. from the command line
+		if (mainView.getFileIndex(state.path) != -1) {
+			return;
+		}
+
+		FileLocation loc = FileLocation.create(state.path);
+		if (!loc.isRemote() && !loc.isLocalAndExists()) {
+			return;
+		}
+		// Files too large for a tab aren't reopened
+		if (loc.isLocal() && LargeFileEditor.isLargeFile(new File(state.path))) {
+			return;
+		}
+
+		String encoding = state.encoding.isEmpty() ? null : state.encoding;
+		RTextEditorPane textArea = mainView.openFileDeferred(loc, encoding);
+		unloadedStates.put(textArea, state);
+		textArea.addPropertyChangeListener(
+				RTextEditorPane.DEFERRED_LOAD_PROPERTY, loadListener);
+
+	}
+
+
+	/**
+	 * Restores the caret, folds, bookmarks and scroll position of a
+	 * document.
+	 *
+	 * @param textArea The text area.
+	 * @param sp The scroll pane containing the text area.
+	 * @param state The remembered state.
+	 */
+	private static void applyState(RTextEditorPane textArea,
+								RTextScrollPane sp, DocState state) {
+
+		int lineCount = textArea.getLineCount();
+
+		FoldManager fm = textArea.getFoldManager();
+		if (fm.isCodeFoldingSupportedAndEnabled()) {
+			for (int line : state.collapsedFoldLines) {
+				if (line < lineCount) {
+					Fold fold = fm.getFoldForLine(line);
+					if (fold != null) {
+						fold.setCollapsed(true);
+					}
+				}
+			}
+		}
+
+		if (sp != null && state.bookmarkLines.length > 0) {
+			Gutter gutter = sp.getGutter();
+			if (gutter.isBookmarkingEnabled()) {
+				try {
+					for (int line : state.bookmarkLines) {
+						if (line < lineCount) {
+							gutter.toggleBookmark(line);
+						}
+					}
+				} catch (BadLocationException ble) {
+					ble.printStackTrace(); // Never happens
+				}
+			}
+		}
+
+		int caret = Math.min(state.caret, textArea.getDocument().getLength());
+		textArea.setCaretPosition(Math.max(0, caret));
+
+		// The view isn't laid out yet, so scroll once it is
+		int firstLine = Math.min(state.firstVisibleLine, lineCount - 1);
+		if (firstLine > 0) {
+			SwingUtilities.invokeLater(() -> {
+				try {
+					Rectangle2D r = textArea.modelToView2D(
+							textArea.getLineStartOffset(firstLine));
+					if (r != null) {
+						Rectangle visible = textArea.getVisibleRect();
+						visible.y = (int)r.getY();
+						textArea.scrollRectToVisible(visible);
+					}
+				} catch (BadLocationException ble) {
+					ble.printStackTrace(); // Never happens
+				}
+			});
+		}
+
+	}
+
+
+	/**
+	 * Reads a session file.
+	 *
+	 * @param file The file to read.
+	 * @return The session, or <code>null</code> if the file does not exist
+	 *         or is not a session file this version of RText understands.
+	 * @throws IOException If an IO error occurs, or the file is corrupt.
+	 */
+	private static Session readSession(File file) throws IOException {
+
+		if (!file.isFile()) {
+			return null;
+		}
+
+		// Every count is of values at least an int long
+		long maxCount = file.length() / 4;
+
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(file)))) {
+
+			if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+				return null;
+			}
+
+			Session session = new Session();
+			session.selectedIndex = in.readInt();
+			int count = readCount(in, maxCount);
+			for (int i = 0; i < count; i++) {
+				DocState state = new DocState();
+				state.path = in.readUTF();
+				state.encoding = in.readUTF();
+				state.caret = in.readInt();
+				state.firstVisibleLine = in.readInt();
+				state.collapsedFoldLines = readInts(in, maxCount);
+				state.bookmarkLines = readInts(in, maxCount);
+				session.docs.add(state);
+			}
+			return session;
+
+		}
+
+	}
+
+
+	/**
+	 * Reads a count of values from a session file.
+	 *
+	 * @param in The stream to read from.
+	 * @param max The largest count the file could contain.
+	 * @return The count.
+	 * @throws IOException If an IO error occurs, or the count is invalid.
+	 */
+	private static int readCount(DataInputStream in, long max) throws IOException {
+		int count = in.readInt();
+		if (count < 0 || count > max) {
+			throw new IOException("Corrupt session file: invalid count " + count);
+		}
+		return count;
+	}
+
+
+	private static int[] readInts(DataInputStream in, long max) throws IOException {
+		int[] values = new int[readCount(in, max)];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readInt();
+		}
+		return values;
+	}
+
+
+	/**
+	 * Saves the session.  This method blocks until the session is written,
+	 * and is intended to be called as RText exits.  It should be called on
+	 * the EDT.
+	 */
+	public void saveSession() {
+		byte[] bytes = snapshot();
+		// Replace any queued snapshot so an older one can't overwrite
+		// this one
+		Future<?> future = submitWrite(bytes);
+		try {
+			future.get(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException e) {
+			e.printStackTrace();
+		}
+	}
+
+
+	/**
+	 * Toggles whether the session is periodically saved.
+	 *
+	 * @param autoSave Whether to periodically save the session.
+	 */
+	public void setAutoSave(boolean autoSave) {
+		if (autoSave) {
+			autoSaveTimer.restart();
+		}
+		else {
+			autoSaveTimer.stop();
+		}
+	}
+
+
+	/**
+	 * Takes a snapshot of the session on the EDT and writes it on a
+	 * background thread.
+	 */
+	private void saveSessionAsync() {
+		submitWrite(snapshot());
+	}
+
+
+	/**
+	 * Writes a session on a background thread.  A write that is still
+	 * waiting to run is replaced, since this session is newer.
+	 *
+	 * @param bytes The serialized session.
+	 * @return The pending write.
+	 */
+	private static Future<?> submitWrite(byte[] bytes) {
+		return TaskScheduler.get().submitCoalesced(
+				TaskScheduler.Lane.BACKGROUND, TASK_KEY, token -> {
+					try {
+						writeSession(bytes);
+					} catch (IOException ioe) {
+						ioe.printStackTrace();
+					}
+				});
+	}
+
+
+	/**
+	 * Serializes the current state of all open documents.  Documents that
+	 * were restored but haven't been loaded yet keep their remembered
+	 * state.  This must be called on the EDT.
+	 *
+	 * @return The serialized session.
+	 */
+	private byte[] snapshot() {
+
+		AbstractMainView mainView = rtext.getMainView();
+		int docCount = mainView.getNumDocuments();
+		int selected = -1;
+
+		List<DocState> docs = new ArrayList<>(docCount);
+		for (int i = 0; i < docCount; i++) {
+			RTextEditorPane textArea = mainView.getRTextEditorPaneAt(i);
+			DocState state = unloadedStates.get(textArea);
+			if (state == null && isRememberable(textArea)) {
+				state = createDocState(textArea, mainView.getRTextScrollPaneAt(i));
+			}
+			if (state != null) {
+				if (i == mainView.getSelectedIndex()) {
+					selected = docs.size();
+				}
+				docs.add(state);
+			}
+		}
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
+		try (DataOutputStream out = new DataOutputStream(baos)) {
+
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeInt(selected);
+			out.writeInt(docs.size());
+
+			for (DocState state : docs) {
+				out.writeUTF(state.path);
+				out.writeUTF(state.encoding);
+				out.writeInt(state.caret);
+				out.writeInt(state.firstVisibleLine);
+				writeInts(out, state.collapsedFoldLines);
+				writeInts(out, state.bookmarkLines);
+			}
+
+		} catch (IOException ioe) { // Never happens
+			ioe.printStackTrace();
+		}
+
+		return baos.toByteArray();
+
+	}
+
+
+	/**
+	 * Returns the current state of an open document.
+	 *
+	 * @param textArea The document.
+	 * @param sp The scroll pane containing the document.
+	 * @return The document's state.
+	 */
+	private static DocState createDocState(RTextEditorPane textArea,
+										RTextScrollPane sp) {
+		DocState state = new DocState();
+		state.path = textArea.getFileFullPath();
+		String encoding = textArea.getEncoding();
+		state.encoding = encoding == null ? "" : encoding;
+		state.caret = textArea.getCaretPosition();
+		state.firstVisibleLine = getFirstVisibleLine(textArea);
+		state.collapsedFoldLines = getCollapsedFoldLines(textArea.getFoldManager());
+		state.bookmarkLines = getBookmarkLines(textArea, sp);
+		return state;
+	}
+
+
+	private static int getFirstVisibleLine(RTextEditorPane textArea) {
+		Rectangle visible = textArea.getVisibleRect();
+		int offs = textArea.viewToModel2D(visible.getLocation());
+		Element root = textArea.getDocument().getDefaultRootElement();
+		return offs < 0 ? 0 : root.getElementIndex(offs);
+	}
+
+
+	private static int[] getBookmarkLines(RTextEditorPane textArea,
+										RTextScrollPane sp) {
+
+		GutterIconInfo[] bookmarks = sp == null ? null :
+				sp.getGutter().getBookmarks();
+		if (bookmarks == null) {
+			return new int[0];
+		}
+
+		Element root = textArea.getDocument().getDefaultRootElement();
+		int[] lines = new int[bookmarks.length];
+		for (int i = 0; i < bookmarks.length; i++) {
+			lines[i] = root.getElementIndex(bookmarks[i].getMarkedOffset());
+		}
+		return lines;
+
+	}
+
+
+	private static int[] getCollapsedFoldLines(FoldManager fm) {
+		List<Integer> lines = new ArrayList<>();
+		for (int i = 0; i < fm.getFoldCount(); i++) {
+			addCollapsedFolds(fm.getFold(i), lines);
+		}
+		return lines.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+
+	private static void addCollapsedFolds(Fold fold, List<Integer> lines) {
+		if (fold.isCollapsed()) {
+			lines.add(fold.getStartLine());
+		}
+		for (int i = 0; i < fold.getChildCount(); i++) {
+			addCollapsedFolds(fold.getChild(i), lines);
+		}
+	}
+
+
+	private static void writeInts(DataOutputStream out, int[] values)
+			throws IOException {
+		out.writeInt(values.length);
+		for (int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+
+	/**
+	 * Writes a serialized session to disk.  The session is written to a
+	 * temporary file that then replaces the old session, so a crash while
+	 * writing never leaves a corrupt session behind.
+	 *
+	 * @param bytes The serialized session.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private static synchronized void writeSession(byte[] bytes)
+			throws IOException {
+
+		File file = getSessionFile();
+		File temp = new File(file.getParentFile(), FILE_NAME + ".tmp");
+
+		try (BufferedOutputStream out = new BufferedOutputStream(
+				new FileOutputStream(temp))) {
+			out.write(bytes);
+		}
+
+		try {
+			Files.move(temp.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException amnse) {
+			Files.move(temp.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING);
+		}
+
+	}
+
+
+	/**
+	 * The remembered state of a single document.
+	 */
+	private static class DocState {
+		private String path;
+		private String encoding;
+		private int caret;
+		private int firstVisibleLine;
+		private int[] collapsedFoldLines;
+		private int[] bookmarkLines;
+	}
+
+
+	/**
+	 * A saved session.
+	 */
+	private static class Session {
+		private int selectedIndex;
+		private final List<DocState> docs = new ArrayList<>();
+	}
+
+
+}
@@ -11,6 +11,7 @@ package org.fife.rtext;
 
 import java.awt.Color;
 import java.awt.event.ActionEvent;
+import java.beans.PropertyChangeEvent;
 import java.io.File;
 import java.io.IOException;
 
@@ -25,7 +26,8 @@ import org.fife.ui.rsyntaxtextarea.spell.event.SpellingParserListener;
 
 
 /**
- * Handles spell checking options in RText.
+ * Handles spell checking options in RText.  Spell checking is paused while
+ * memory is severely low.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -60,6 +62,7 @@ public class SpellingSupport implements SpellingParserListener {
 	 */
 	public SpellingSupport(RText rtext) {
 		this.rtext = rtext;
+		MemoryPressureMonitor.get().addLevelListener(this::memoryPressureChanged);
 	}
 
 
@@ -119,6 +122,7 @@ public class SpellingSupport implements SpellingParserListener {
 			spellingParser.setMaxErrorCount(getMaxSpellingErrors());
 			spellingParser.setAllowAdd(true);//userDictionary!=null);
 			spellingParser.setAllowIgnore(true);
+			spellingParser.setEnabled(!isPausedForLowMemory());
 			spellingParser.addSpellingParserListener(this);
 			try {
 				if (userDictionary!=null && !userDictionary.exists()) {
@@ -208,6 +212,16 @@ public class SpellingSupport implements SpellingParserListener {
 	}
 
 
+	/**
+	 * Returns whether spell checking is paused because memory is low.
+	 *
+	 * @return Whether spell checking is paused.
+	 */
+	private static boolean isPausedForLowMemory() {
+		return MemoryPressureMonitor.get().isAtLeast(MemoryPressureMonitor.Level.SEVERE);
+	}
+
+
 	/**
 	 * Returns whether spell checking is enabled.
 	 *
@@ -219,6 +233,26 @@ public class SpellingSupport implements SpellingParserListener {
 	}
 
 
+	/**
+	 * Called when the memory pressure level changes.  Spell checking is
+	 * paused while memory is severely low, and the squiggles already
+	 * shown are removed to free their memory.
+	 *
+	 * @param e The event.
+	 */
+	private void memoryPressureChanged(PropertyChangeEvent e) {
+		if (spellingParser!=null) {
+			boolean paused = isPausedForLowMemory();
+			if (spellingParser.isEnabled()==paused) {
+				spellingParser.setEnabled(!paused);
+				if (isSpellCheckingEnabled()) {
+					recheckSpelling();
+				}
+			}
+		}
+	}
+
+
 	/**
 	 * Forces all opened documents to be re-spell checked.
 	 */
@@ -279,7 +313,8 @@ public class SpellingSupport implements SpellingParserListener {
 
 			// Lazily create the spelling parser.
 			if (enabled && spellingParser==null) {
-				new Thread(new CreateParserRunnable()).start();
+				TaskScheduler.get().submit(TaskScheduler.Lane.BACKGROUND,
+						null, token -> new CreateParserRunnable().run());
 			}
 			else {
 				toggleSpellingParserInstalled(); // Already created
@@ -0,0 +1,156 @@
+/*
+ * 10/19/2026
+ *
+ * StartupTimelineDialog.java - Shows how long each part of startup took.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.BorderLayout;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.io.File;
+import java.util.List;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTable;
+import javax.swing.UIManager;
+import javax.swing.table.AbstractTableModel;
+
+import org.fife.ui.EscapableDialog;
+import org.fife.ui.RScrollPane;
+import org.fife.ui.ResizableFrameContentPane;
+import org.fife.ui.UIUtil;
+
+
+/**
+ * A dialog listing the spans recorded by the {@link StartupTracer}, nested
+ * as they happened, so the user can see what made startup slow.  The full
+ * trace can be opened for loading into a trace viewer.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class StartupTimelineDialog extends EscapableDialog {
+
+	private final RText rtext;
+
+	/**
+	 * How many spaces each level of nesting is indented by.
+	 */
+	private static final int INDENT = 4;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parent The parent application.
+	 */
+	public StartupTimelineDialog(RText parent) {
+
+		super(parent, parent.getString("StartupTimeline.Title"), true);
+		this.rtext = parent;
+
+		StartupTracer tracer = StartupTracer.get();
+		File traceFile = tracer.getTraceFile();
+
+		JPanel cp = new ResizableFrameContentPane(new BorderLayout());
+		cp.setBorder(UIUtil.getEmpty5Border());
+		setContentPane(cp);
+
+		JLabel summaryLabel = new JLabel(rtext.getString("StartupTimeline.Summary",
+				String.valueOf(tracer.getStartupMillis()), traceFile.getAbsolutePath()));
+		summaryLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 5, 0));
+		cp.add(summaryLabel, BorderLayout.NORTH);
+
+		JTable table = new JTable(new SpanTableModel(tracer.getSpans()));
+		table.getColumnModel().getColumn(0).setPreferredWidth(400);
+		RScrollPane sp = new RScrollPane(table);
+		sp.setPreferredSize(new Dimension(700, 400));
+		cp.add(sp);
+
+		JButton openButton = new JButton(rtext.getString("StartupTimeline.OpenTraceFile"));
+		openButton.addActionListener(e -> {
+			if (traceFile.isFile()) {
+				rtext.openFile(traceFile);
+				escapePressed();
+			}
+			else {
+				UIManager.getLookAndFeel().provideErrorFeedback(openButton);
+			}
+		});
+		JButton okButton = new JButton(rtext.getString("OKButtonLabel"));
+		okButton.addActionListener(e -> escapePressed());
+		Container buttons = UIUtil.createButtonFooter(openButton, okButton);
+		cp.add(buttons, BorderLayout.SOUTH);
+
+		getRootPane().setDefaultButton(okButton);
+		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+		pack();
+		setLocationRelativeTo(rtext);
+
+	}
+
+
+	/**
+	 * The table model listing spans.
+	 */
+	private class SpanTableModel extends AbstractTableModel {
+
+		private final List<StartupTracer.Span> spans;
+		private final String[] columnNames;
+
+		SpanTableModel(List<StartupTracer.Span> spans) {
+			this.spans = spans;
+			columnNames = new String[] {
+				rtext.getString("StartupTimeline.Name"),
+				rtext.getString("StartupTimeline.Thread"),
+				rtext.getString("StartupTimeline.StartMillis"),
+				rtext.getString("StartupTimeline.DurationMillis"),
+			};
+		}
+
+		@Override
+		public Class<?> getColumnClass(int column) {
+			return column<2 ? String.class : Number.class;
+		}
+
+		@Override
+		public int getColumnCount() {
+			return columnNames.length;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			return columnNames[column];
+		}
+
+		@Override
+		public int getRowCount() {
+			return spans.size();
+		}
+
+		@Override
+		public Object getValueAt(int row, int column) {
+			StartupTracer.Span span = spans.get(row);
+			switch (column) {
+				case 0:
+					return " ".repeat(span.getDepth() * INDENT) + span.getName();
+				case 1:
+					return span.getThreadName();
+				case 2:
+					return Math.round(span.getStartMillis());
+				default:
+					return Math.round(span.getDurationMillis() * 10) / 10.0;
+			}
+		}
+
+	}
+
+
+}
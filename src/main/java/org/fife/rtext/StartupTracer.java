@@ -0,0 +1,443 @@
+/*
+ * 10/19/2026
+ *
+ * StartupTracer.java - Records a timeline of RText's startup.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Records a nested timeline of what RText does while starting up, so a
+ * slow startup can be pinned on a specific phase, plugin or file.<p>
+ *
+ * Code that may be slow brackets itself in a {@link Span}:
+ * <pre>
+ * StartupTracer.Span span = StartupTracer.get().begin(StartupTracer.INIT, "Load icon groups");
+ * ...
+ * span.end();
+ * </pre>
+ * Spans begun while another is open on the same thread are nested inside
+ * it.  A span that is never ended, for example because an exception was
+ * thrown, is simply left out of the timeline.<p>
+ *
+ * When the main window has been created, {@link #finish()} writes the
+ * timeline to {@link #TRACE_FILE_NAME} in the preferences directory, in
+ * the Chrome trace event format understood by <code>chrome://tracing</code>
+ * and <code>https://ui.perfetto.dev</code>.  Plugins may still be installing
+ * at that point, so spans begun shortly afterward are still recorded, and
+ * the file is rewritten as they end.  Times are relative to the process's
+ * start, or to when this class was loaded if the platform doesn't report
+ * when the process started.<p>
+ *
+ * This class is thread-safe.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see StartupTimelineDialog
+ */
+public final class StartupTracer {
+
+	private static final StartupTracer INSTANCE = new StartupTracer();
+
+	/**
+	 * The category for the phases of creating the main window.
+	 */
+	public static final String PHASE = "phase";
+
+	/**
+	 * The category for plugins being created and installed.
+	 */
+	public static final String PLUGIN = "plugin";
+
+	/**
+	 * The category for loading resources, such as icons and dictionaries.
+	 */
+	public static final String INIT = "init";
+
+	/**
+	 * The category for opening files.
+	 */
+	public static final String FILE = "file";
+
+	/**
+	 * The name of the trace file, in the preferences directory.
+	 */
+	public static final String TRACE_FILE_NAME = "startupTrace.json";
+
+	/**
+	 * How long after {@link #finish()} new spans are still recorded, in
+	 * nanoseconds.
+	 */
+	private static final long LATE_SPAN_NANOS = 30_000_000_000L;
+
+	/**
+	 * The span returned when startup is over.  Ending it does nothing.
+	 */
+	private static final Span INACTIVE = new Span(null, null, 0);
+
+	private final long startNanos;
+	private final long startUptimeMicros;
+	private final List<Span> spans;
+	private final ThreadLocal<int[]> depths;
+	private long finishNanos;
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private StartupTracer() {
+		startNanos = System.nanoTime();
+		// ProcessHandle doesn't load JMX on the startup path, unlike the
+		// runtime MXBean
+		startUptimeMicros = ProcessHandle.current().info().startInstant().
+				map(start -> Math.max(0, ChronoUnit.MICROS.between(start, Instant.now()))).
+				orElse(0L);
+		spans = new ArrayList<>();
+		depths = ThreadLocal.withInitial(() -> new int[1]);
+	}
+
+
+	/**
+	 * Appends an event to a trace.
+	 *
+	 * @param sb The trace.
+	 * @param category The event's category.
+	 * @param name The event's name.
+	 * @param tid The thread the event happened on.
+	 * @param ts The event's start, in microseconds.
+	 * @param dur The event's duration, in microseconds.
+	 */
+	private static void appendEvent(StringBuilder sb, String category,
+			String name, long tid, long ts, long dur) {
+		sb.append(",\n{\"name\":");
+		appendJsonString(sb, name);
+		sb.append(",\"cat\":");
+		appendJsonString(sb, category);
+		sb.append(",\"ph\":\"X\",\"pid\":1,\"tid\":").append(tid);
+		sb.append(",\"ts\":").append(ts).append(",\"dur\":").append(dur).append('}');
+	}
+
+
+	/**
+	 * Appends a string to a JSON document, quoting and escaping it.
+	 *
+	 * @param sb The JSON document.
+	 * @param str The string.
+	 */
+	private static void appendJsonString(StringBuilder sb, String str) {
+		sb.append('"');
+		for (int i=0; i<str.length(); i++) {
+			char ch = str.charAt(i);
+			switch (ch) {
+				case '"', '\\' -> sb.append('\\').append(ch);
+				case '\n' -> sb.append("\\n");
+				case '\r' -> sb.append("\\r");
+				case '\t' -> sb.append("\\t");
+				default -> {
+					if (ch<0x20) {
+						sb.append(String.format("\\u%04x", (int)ch));
+					}
+					else {
+						sb.append(ch);
+					}
+				}
+			}
+		}
+		sb.append('"');
+	}
+
+
+	/**
+	 * Begins a span of work.
+	 *
+	 * @param category The category of work, such as {@link #PHASE}.
+	 * @param name A description of the work.
+	 * @return The span.  Call {@link Span#end()} when the work is done.
+	 * @see #beginPlugin(Object, String)
+	 */
+	public Span begin(String category, String name) {
+
+		long now = System.nanoTime();
+		synchronized (this) {
+			if (finishNanos!=0 && now-finishNanos>LATE_SPAN_NANOS) {
+				return INACTIVE;
+			}
+		}
+
+		int[] depth = depths.get();
+		Span span = new Span(category, name, now);
+		span.depth = depth[0]++;
+		return span;
+
+	}
+
+
+	/**
+	 * Begins a span of work done by a plugin.
+	 *
+	 * @param plugin The plugin.
+	 * @param step The work being done, such as <code>"install"</code>.
+	 * @return The span.  Call {@link Span#end()} when the work is done.
+	 * @see #begin(String, String)
+	 */
+	public Span beginPlugin(Object plugin, String step) {
+		return begin(PLUGIN, plugin.getClass().getName() + " " + step);
+	}
+
+
+	/**
+	 * Called when a span ends.
+	 *
+	 * @param span The span.
+	 */
+	private void ended(Span span) {
+		depths.get()[0]--;
+		boolean rewrite;
+		synchronized (this) {
+			spans.add(span);
+			rewrite = finishNanos!=0;
+		}
+		if (rewrite) {
+			writeTrace();
+		}
+	}
+
+
+	/**
+	 * Records that startup is complete and writes the trace file.  Only
+	 * the first call does anything.
+	 */
+	public void finish() {
+
+		synchronized (this) {
+			if (finishNanos!=0) {
+				return;
+			}
+			finishNanos = System.nanoTime();
+		}
+
+		if (Boolean.getBoolean(RText.PROPERTY_PRINT_START_TIMES)) {
+			System.err.println("Startup: " + getStartupMillis() + " (trace: " +
+					getTraceFile().getAbsolutePath() + ")");
+		}
+		writeTrace();
+
+	}
+
+
+	/**
+	 * Returns the tracer.
+	 *
+	 * @return The tracer.
+	 */
+	public static StartupTracer get() {
+		return INSTANCE;
+	}
+
+
+	/**
+	 * Returns the number of milliseconds it took RText to start, from the
+	 * process's start until {@link #finish()} was called.
+	 *
+	 * @return The time, or <code>-1</code> if startup isn't complete.
+	 */
+	public synchronized long getStartupMillis() {
+		return finishNanos==0 ? -1 : toMicros(finishNanos) / 1000;
+	}
+
+
+	/**
+	 * Returns all spans that have ended, in the order they began.
+	 *
+	 * @return The spans.
+	 */
+	public List<Span> getSpans() {
+		List<Span> copy;
+		synchronized (this) {
+			copy = new ArrayList<>(spans);
+		}
+		// Spans end before the ones containing them, so sort outer ones first
+		copy.sort(Comparator.comparingLong((Span s) -> s.start).
+				thenComparingInt(s -> s.depth));
+		return copy;
+	}
+
+
+	/**
+	 * Returns the file the trace is written to.
+	 *
+	 * @return The file.
+	 */
+	public File getTraceFile() {
+		return new File(RTextUtilities.getPreferencesDirectory(), TRACE_FILE_NAME);
+	}
+
+
+	/**
+	 * Returns the time since the process started.
+	 *
+	 * @param nanos A value from <code>System.nanoTime()</code>.
+	 * @return The time since the process started, in microseconds.
+	 */
+	private long toMicros(long nanos) {
+		return startUptimeMicros + (nanos - startNanos) / 1000;
+	}
+
+
+	/**
+	 * Returns the trace in the Chrome trace event format.
+	 *
+	 * @return The trace.
+	 */
+	private String toTraceJson() {
+
+		List<Span> spans = getSpans();
+		long finish;
+		synchronized (this) {
+			finish = finishNanos;
+		}
+
+		StringBuilder sb = new StringBuilder("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+		sb.append("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":1,\"args\":{\"name\":\"RText\"}}");
+
+		Map<Long, String> threads = new LinkedHashMap<>();
+		for (Span span : spans) {
+			threads.putIfAbsent(span.threadId, span.threadName);
+		}
+		for (Map.Entry<Long, String> entry : threads.entrySet()) {
+			sb.append(",\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").
+					append(entry.getKey()).append(",\"args\":{\"name\":");
+			appendJsonString(sb, entry.getValue());
+			sb.append("}}");
+		}
+
+		// The whole startup, from the process's start until the window was ready
+		long tid = threads.isEmpty() ? 1 : threads.keySet().iterator().next();
+		appendEvent(sb, PHASE, "Startup", tid, 0, toMicros(finish));
+
+		for (Span span : spans) {
+			long ts = toMicros(span.start);
+			appendEvent(sb, span.category, span.name, span.threadId, ts,
+					toMicros(span.end) - ts);
+		}
+
+		sb.append("\n]}\n");
+		return sb.toString();
+
+	}
+
+
+	/**
+	 * Writes the trace file on a background thread.
+	 */
+	private void writeTrace() {
+		TaskScheduler.get().submitCoalesced(TaskScheduler.Lane.BACKGROUND,
+				"StartupTracer", token -> {
+					try {
+						Files.write(getTraceFile().toPath(),
+								toTraceJson().getBytes(StandardCharsets.UTF_8));
+					} catch (IOException ioe) {
+						ioe.printStackTrace();
+					}
+				});
+	}
+
+
+	/**
+	 * A span of work done during startup.
+	 */
+	public static final class Span {
+
+		private final String category;
+		private final String name;
+		private final long threadId;
+		private final String threadName;
+		private final long start;
+		private long end;
+		private int depth;
+
+		private Span(String category, String name, long start) {
+			this.category = category;
+			this.name = name;
+			Thread thread = Thread.currentThread();
+			threadId = thread.getId();
+			threadName = thread.getName();
+			this.start = start;
+		}
+
+		/**
+		 * Marks the work as done.  Only the first call does anything.
+		 */
+		public void end() {
+			if (this!=INACTIVE && end==0) {
+				end = System.nanoTime();
+				INSTANCE.ended(this);
+			}
+		}
+
+		/**
+		 * Returns how deeply this span is nested in other spans on its
+		 * thread.
+		 *
+		 * @return The depth, where <code>0</code> means it isn't nested.
+		 */
+		public int getDepth() {
+			return depth;
+		}
+
+		/**
+		 * Returns how long the work took.
+		 *
+		 * @return The duration, in milliseconds.
+		 */
+		public double getDurationMillis() {
+			return (end - start) / 1_000_000.0;
+		}
+
+		/**
+		 * Returns a description of the work.
+		 *
+		 * @return The description.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns when the work started.
+		 *
+		 * @return The start, in milliseconds since the process started.
+		 */
+		public double getStartMillis() {
+			return INSTANCE.toMicros(start) / 1000.0;
+		}
+
+		/**
+		 * Returns the name of the thread the work was done on.
+		 *
+		 * @return The thread's name.
+		 */
+		public String getThreadName() {
+			return threadName;
+		}
+
+	}
+
+
+}
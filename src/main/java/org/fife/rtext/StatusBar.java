@@ -31,6 +31,7 @@ import org.fife.ui.StatusBarPanel;
  *    <li>An overwrite (insert) mode indicator.
  *    <li>A Caps Lock indicator.
  *    <li>A file "Read Only" mode indicator.
+ *    <li>A low memory indicator, shown only when memory is low.
  * </ul>
  *
  * @author Robert Futrell
@@ -44,6 +45,7 @@ public class StatusBar extends org.fife.ui.StatusBar
 	private JLabel overwriteModeIndicator;
 	private JLabel capsLockIndicator;
 	private JLabel readOnlyIndicator;
+	private JLabel memoryPressureIndicator;
 
 	private RText rtext;
 	private int row, column;
@@ -54,10 +56,13 @@ public class StatusBar extends org.fife.ui.StatusBar
 	private StatusBarPanel capsLockPanel;
 	private StatusBarPanel readOnlyPanel;
 	private StatusBarPanel selectionLengthPanel;
+	private StatusBarPanel memoryPressurePanel;
 
 	private String fileSaveSuccessfulText;
 	private String openedFileText;
 	private String selectionLengthText;
+	private int shownSelectionLength;
+	private String[] memoryPressureText;
 
 	// Hack: Sine row/column can change so frequently, we break apart
 	// the row/column text in the status bar for speedy updating.
@@ -105,6 +110,12 @@ public class StatusBar extends org.fife.ui.StatusBar
 		overwriteModeIndicator = createLabel(msg, "OverwriteModeIndicator");
 		overwriteModeIndicator = createLabel(msg, "OverwriteModeIndicator");
 		selectionLengthIndicator = new JLabel();
+		memoryPressureIndicator = createLabel(msg, "MemoryPressureIndicator");
+		MemoryPressureMonitor.Level[] levels = MemoryPressureMonitor.Level.values();
+		memoryPressureText = new String[levels.length];
+		for (int i=1; i<levels.length; i++) {
+			memoryPressureText[i] = msg.getString("MemoryPressure." + levels[i].name());
+		}
 
 		// Make the layout such that different items can be different sizes.
 		GridBagConstraints c = new GridBagConstraints();
@@ -116,6 +127,14 @@ public class StatusBar extends org.fife.ui.StatusBar
 			selectionLengthIndicator);
 		addStatusBarComponent(selectionLengthPanel, c);
 
+		// Create a low memory indicator, hidden until memory is low.
+		c.weightx = 0.0;
+		memoryPressurePanel = new StatusBarPanel(new BorderLayout(),
+									memoryPressureIndicator);
+		addStatusBarComponent(memoryPressurePanel, c);
+		updateMemoryPressureDisplay(MemoryPressureMonitor.get().getLevel());
+		MemoryPressureMonitor.get().addLevelListener(this);
+
 		// Create a Read Only indicator.
 		c.weightx = 0.0;
 		readOnlyPanel = new StatusBarPanel(new BorderLayout(),
@@ -275,6 +294,16 @@ public class StatusBar extends org.fife.ui.StatusBar
 			setReadOnlyIndicatorEnabled(enabled);
 		}
 
+		// If memory got lower (or higher)...
+		else if (property.equals(MemoryPressureMonitor.LEVEL_PROPERTY)) {
+			MemoryPressureMonitor.Level oldLevel = (MemoryPressureMonitor.Level)e.getOldValue();
+			MemoryPressureMonitor.Level level = (MemoryPressureMonitor.Level)e.getNewValue();
+			updateMemoryPressureDisplay(level);
+			if (level.compareTo(oldLevel)>0) {
+				setStatusMessage(memoryPressureText[level.ordinal()]);
+			}
+		}
+
 	}
 
 
@@ -364,6 +393,17 @@ public class StatusBar extends org.fife.ui.StatusBar
 	}
 
 
+	/**
+	 * Shows or hides the low memory indicator, and updates its tool tip.
+	 *
+	 * @param level The memory pressure level.
+	 */
+	private void updateMemoryPressureDisplay(MemoryPressureMonitor.Level level) {
+		memoryPressureIndicator.setToolTipText(memoryPressureText[level.ordinal()]);
+		memoryPressurePanel.setVisible(level!=MemoryPressureMonitor.Level.NORMAL);
+	}
+
+
 	/**
 	 * Updates the row/column indicator to reflect the current caret
 	 * location, if it is enabled.
@@ -393,9 +433,13 @@ public class StatusBar extends org.fife.ui.StatusBar
 			selectionLengthPanel.setVisible(false);
 		}
 		else {
-			String newValue = MessageFormat.format(selectionLengthText,
-				selectionLength);
-			selectionLengthIndicator.setText(newValue);
+			// Only format the text when it actually changes.
+			if (selectionLength!=shownSelectionLength) {
+				String newValue = MessageFormat.format(selectionLengthText,
+					selectionLength);
+				selectionLengthIndicator.setText(newValue);
+				shownSelectionLength = selectionLength;
+			}
 			if (!selectionLengthPanel.isVisible()) {
 				selectionLengthPanel.setVisible(true);
 			}
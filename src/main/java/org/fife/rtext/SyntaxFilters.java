@@ -12,8 +12,8 @@ package org.fife.rtext;
 
 import java.io.File;
 import java.util.*;
-import java.util.regex.Pattern;
 
+import org.fife.ui.OS;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
 
@@ -37,6 +37,17 @@ public class SyntaxFilters implements SyntaxConstants {
 	 */
 	private Map<String, List<String>> addedFilters;
 
+	/**
+	 * Precompiled lookup structures for <code>filters</code> and
+	 * <code>addedFilters</code>.  These are rebuilt by whoever changes the
+	 * filters, and never change once published, so lookups never touch the
+	 * maps above and are safe from multiple threads, e.g. Find in Files.
+	 * <code>addedResolver</code> is <code>null</code> if no filters were
+	 * added.
+	 */
+	private volatile Resolver resolver;
+	private volatile Resolver addedResolver;
+
 	/**
 	 * Creates a new <code>SyntaxFilters</code> with default values for
 	 * all filters.
@@ -115,6 +126,7 @@ public class SyntaxFilters implements SyntaxConstants {
 	 */
 	public void addFileFilter(String style, String filter) {
 		getFiltersForStyle(style).add(filter);
+		filtersChanged();
 	}
 
 
@@ -130,6 +142,16 @@ public class SyntaxFilters implements SyntaxConstants {
 	}
 
 
+	/**
+	 * Called whenever the filters are modified.  Rebuilds and publishes the
+	 * lookup structures.
+	 */
+	private void filtersChanged() {
+		resolver = new Resolver(filters);
+		addedResolver = addedFilters!=null ? new Resolver(addedFilters) : null;
+	}
+
+
 	/**
 	 * Returns the list of filename filters for highlighting with the given
 	 * style.
@@ -213,43 +235,14 @@ public class SyntaxFilters implements SyntaxConstants {
 			fileName = RTextUtilities.stripBackupExtensions(fileName);
 		}
 
-		String style = getSyntaxStyleForFileImpl(fileName, filters);
-		if (style==null && addedFilters!=null) {
-			style = getSyntaxStyleForFileImpl(fileName, addedFilters);
-		}
-		return style!=null ? style : SYNTAX_STYLE_NONE;
+		String style = resolver.getSyntaxStyle(fileName);
 
-	}
-
-
-	/**
-	 * Looks for a syntax style for a file name in a given map.
-	 *
-	 * @param fileName The file name.
-	 * @param filters The map of filters.
-	 * @return The syntax style for the file, or <code>null</code> if not found
-	 *         in that map.
-	 */
-	private static String getSyntaxStyleForFileImpl(String fileName,
-													Map<String, List<String>> filters) {
-
-		String syntaxStyle = null;
-
-		for (Map.Entry<String, List<String>> entry : filters.entrySet()) {
-			for (String filter : entry.getValue()) {
-				Pattern p = RTextUtilities.getPatternForFileFilter(
-									filter, true);
-				if (p!=null && p.matcher(fileName).matches()) {
-					syntaxStyle = entry.getKey();
-					// Stop immediately if we find a non-wildcard match
-					if (!filter.contains("*") && !filter.contains("?")) {
-						break;
-					}
-				}
-			}
+		Resolver added = addedResolver;
+		if (style==null && added!=null) {
+			style = added.getSyntaxStyle(fileName);
 		}
 
-		return syntaxStyle;
+		return style!=null ? style : SYNTAX_STYLE_NONE;
 
 	}
 
@@ -345,6 +338,7 @@ public class SyntaxFilters implements SyntaxConstants {
 		filters.put(SYNTAX_STYLE_XML,				createValue("*.xml", "*.xsl", "*.xsd", "*.xslt", "*.wsdl",
 			"*.svg", "*.tmx", "*.tsx", "*.pom", "*.manifest"));
 		filters.put(SYNTAX_STYLE_YAML,				createValue("*.yml", "*.yaml"));
+		filtersChanged();
 
 		// Keep any filters added by the user
 
@@ -377,6 +371,8 @@ public class SyntaxFilters implements SyntaxConstants {
 			filters.add(filterString.substring(oldSpacePos));
 		}
 
+		filtersChanged();
+
 	}
 
 
@@ -386,7 +382,12 @@ public class SyntaxFilters implements SyntaxConstants {
 	 * @param filters The new values for filters.
 	 */
 	public void setPreservingPluginAdded(SyntaxFilters filters) {
-		this.filters = new HashMap<>(filters.filters);
+		// Copy the lists too, so changes to "filters" don't affect us
+		this.filters = new HashMap<>();
+		for (Map.Entry<String, List<String>> entry : filters.filters.entrySet()) {
+			this.filters.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+		}
+		filtersChanged();
 	}
 
 
@@ -411,4 +412,228 @@ public class SyntaxFilters implements SyntaxConstants {
 	}
 
 
+	/**
+	 * Maps file names to syntax styles for one set of filters.  Filters are
+	 * split into three groups when this object is built:
+	 *
+	 * <ul>
+	 *    <li>Exact names, such as <code>makefile</code></li>
+	 *    <li>Suffixes, such as <code>*.java</code></li>
+	 *    <li>Everything else, such as <code>*.?sh</code></li>
+	 * </ul>
+	 *
+	 * The first two groups live in a single trie keyed on the file name's
+	 * characters in reverse order, so a lookup walks the name once from its
+	 * end, and the longest matching suffix wins.  Exact names take precedence
+	 * over suffixes, which take precedence over the remaining wildcards.  A
+	 * filter of only <code>*</code>s matches every file, but only if nothing
+	 * else does.  Lookups don't compile regular expressions or allocate
+	 * memory.
+	 */
+	private static final class Resolver {
+
+		private final SuffixNode root;
+		private final String[] wildcards;
+		private final String[] wildcardStyles;
+		private final String matchAllStyle;
+
+		private Resolver(Map<String, List<String>> filters) {
+
+			root = new SuffixNode();
+			List<String> wildcardList = new ArrayList<>();
+			List<String> wildcardStyleList = new ArrayList<>();
+			boolean ignoreCase = !OS.get().isCaseSensitive();
+			String matchAll = null;
+
+			for (Map.Entry<String, List<String>> entry : filters.entrySet()) {
+				String style = entry.getKey();
+				for (String filter : entry.getValue()) {
+					if (ignoreCase) {
+						filter = filter.toLowerCase();
+					}
+					int lastWildcard = Math.max(filter.lastIndexOf('*'),
+												filter.lastIndexOf('?'));
+					if (isMatchAll(filter)) {
+						if (matchAll==null) {
+							matchAll = style;
+						}
+					}
+					else if (lastWildcard==-1) {
+						SuffixNode node = root.add(filter, filter.length());
+						if (node.exactStyle==null) {
+							node.exactStyle = style;
+						}
+					}
+					else if (lastWildcard==0 && filter.charAt(0)=='*') {
+						SuffixNode node = root.add(filter, filter.length()-1);
+						if (node.suffixStyle==null) {
+							node.suffixStyle = style;
+						}
+					}
+					else {
+						wildcardList.add(filter);
+						wildcardStyleList.add(style);
+					}
+				}
+			}
+
+			wildcards = wildcardList.toArray(new String[0]);
+			wildcardStyles = wildcardStyleList.toArray(new String[0]);
+			matchAllStyle = matchAll;
+
+		}
+
+		/**
+		 * Returns the syntax style for a file name.
+		 *
+		 * @param fileName The file name, already lower-cased.
+		 * @return The style, or <code>null</code> if no filter matches.
+		 */
+		private String getSyntaxStyle(String fileName) {
+
+			String style = null;
+			SuffixNode node = root;
+			int i = fileName.length() - 1;
+			for (; i>=0; i--) {
+				node = node.get(fileName.charAt(i));
+				if (node==null) {
+					break;
+				}
+				if (node.suffixStyle!=null) {
+					style = node.suffixStyle; // Longest suffix wins
+				}
+			}
+			if (i==-1 && node.exactStyle!=null) {
+				return node.exactStyle;
+			}
+			if (style!=null) {
+				return style;
+			}
+
+			for (int j=0; j<wildcards.length; j++) {
+				if (wildcardMatches(wildcards[j], fileName)) {
+					return wildcardStyles[j];
+				}
+			}
+			return matchAllStyle;
+
+		}
+
+		/**
+		 * Returns whether a filter matches every file name, that is,
+		 * whether it consists of only <code>*</code>s.
+		 *
+		 * @param filter The filter.
+		 * @return Whether the filter matches everything.
+		 */
+		private static boolean isMatchAll(String filter) {
+			for (int i=0; i<filter.length(); i++) {
+				if (filter.charAt(i)!='*') {
+					return false;
+				}
+			}
+			return !filter.isEmpty();
+		}
+
+		/**
+		 * Returns whether a file name matches a filter containing
+		 * <code>*</code> and <code>?</code> wildcards.
+		 *
+		 * @param filter The filter.
+		 * @param name The file name.
+		 * @return Whether the name matches.
+		 */
+		private static boolean wildcardMatches(String filter, String name) {
+
+			int f = 0;
+			int n = 0;
+			int star = -1;
+			int starMatch = 0;
+
+			while (n<name.length()) {
+				if (f<filter.length() &&
+						(filter.charAt(f)=='?' || filter.charAt(f)==name.charAt(n))) {
+					f++;
+					n++;
+				}
+				else if (f<filter.length() && filter.charAt(f)=='*') {
+					star = f++;
+					starMatch = n;
+				}
+				else if (star!=-1) {
+					f = star + 1;
+					n = ++starMatch;
+				}
+				else {
+					return false;
+				}
+			}
+
+			while (f<filter.length() && filter.charAt(f)=='*') {
+				f++;
+			}
+			return f==filter.length();
+
+		}
+
+	}
+
+
+	/**
+	 * A node in the trie of file name suffixes used by {@link Resolver}.
+	 */
+	private static final class SuffixNode {
+
+		private char[] keys;
+		private SuffixNode[] children;
+		private int childCount;
+		private String exactStyle;
+		private String suffixStyle;
+
+		/**
+		 * Adds the characters of a filter to the trie, last one first.
+		 *
+		 * @param filter The filter.
+		 * @param count The number of trailing characters of the filter to add.
+		 * @return The node for the first of those characters.
+		 */
+		private SuffixNode add(String filter, int count) {
+			SuffixNode node = this;
+			for (int i=filter.length()-1; i>=filter.length()-count; i--) {
+				char ch = filter.charAt(i);
+				SuffixNode child = node.get(ch);
+				if (child==null) {
+					child = new SuffixNode();
+					node.put(ch, child);
+				}
+				node = child;
+			}
+			return node;
+		}
+
+		private SuffixNode get(char ch) {
+			for (int i=0; i<childCount; i++) {
+				if (keys[i]==ch) {
+					return children[i];
+				}
+			}
+			return null;
+		}
+
+		private void put(char ch, SuffixNode child) {
+			if (keys==null) {
+				keys = new char[2];
+				children = new SuffixNode[2];
+			}
+			else if (childCount==keys.length) {
+				keys = Arrays.copyOf(keys, childCount*2);
+				children = Arrays.copyOf(children, childCount*2);
+			}
+			keys[childCount] = ch;
+			children[childCount++] = child;
+		}
+
+	}
+
+
 }
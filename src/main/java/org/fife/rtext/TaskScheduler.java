@@ -0,0 +1,595 @@
+/*
+ * 10/19/2026
+ *
+ * TaskScheduler.java - Runs RText's background work.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import jdk.jfr.FlightRecorder;
+
+import org.fife.rtext.jfr.TaskLaneStatsEvent;
+
+
+/**
+ * Runs background work for the entire application.<p>
+ *
+ * Each task is submitted to a {@link Lane}.  Lanes have a limit on how many
+ * of their tasks run at once, and their tasks run at different thread
+ * priorities, so indexing a workspace can't starve a save the user is
+ * waiting for.<p>
+ *
+ * Tasks may be given a key.  Tasks with the same key never run at the same
+ * time, and run in the order they were submitted, so a key can be used to
+ * serialize writes to a file.  A task submitted with
+ * {@link #submitCoalesced(Lane, String, Task)} replaces any task with the
+ * same key that hasn't started yet, which is useful when only the latest
+ * request matters (such as re-parsing a document after an edit).<p>
+ *
+ * Each task is handed a {@link CancellationToken}, which is cancelled when
+ * its {@link ScheduledTask} is.  Statistics for each lane, such as how
+ * many tasks are queued and how long they wait, are available from
+ * {@link #getStats(Lane)}, and are recorded periodically as
+ * {@link TaskLaneStatsEvent}s when a flight recording is running.<p>
+ *
+ * All methods in this class may be called from any thread.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class TaskScheduler {
+
+	private static final TaskScheduler INSTANCE = new TaskScheduler();
+
+	private final Map<Lane, LaneState> lanes;
+	private final Set<String> runningKeys;
+	private final ExecutorService workers;
+	private final ScheduledExecutorService timer;
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private TaskScheduler() {
+
+		lanes = new EnumMap<>(Lane.class);
+		int cpus = Runtime.getRuntime().availableProcessors();
+		lanes.put(Lane.INTERACTIVE, new LaneState(Math.max(2, Math.min(4, cpus))));
+		lanes.put(Lane.VISIBLE_DOCUMENT, new LaneState(Math.max(1, cpus/2)));
+		lanes.put(Lane.BACKGROUND, new LaneState(Math.max(1, cpus/4)));
+		lanes.put(Lane.INDEXING, new LaneState(1));
+		runningKeys = new HashSet<>();
+
+		AtomicInteger count = new AtomicInteger();
+		workers = Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, "RText Worker " + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		timer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "RText Task Timer");
+			t.setDaemon(true);
+			return t;
+		});
+
+		FlightRecorder.addPeriodicEvent(TaskLaneStatsEvent.class, this::recordStats);
+
+	}
+
+
+	/**
+	 * Starts as many queued tasks as the lane limits allow.  Lanes are
+	 * checked in priority order.  The caller should hold this object's
+	 * lock.
+	 */
+	private void dispatch() {
+		for (Lane lane : Lane.values()) {
+			LaneState state = lanes.get(lane);
+			Iterator<ScheduledTask> i = state.queue.iterator();
+			while (state.running<state.maxRunning && i.hasNext()) {
+				ScheduledTask task = i.next();
+				if (task.key==null || runningKeys.add(task.key)) {
+					i.remove();
+					state.running++;
+					workers.execute(() -> run(task));
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Returns the scheduler.
+	 *
+	 * @return The scheduler.
+	 */
+	public static TaskScheduler get() {
+		return INSTANCE;
+	}
+
+
+	/**
+	 * Returns statistics for a lane.
+	 *
+	 * @param lane The lane.
+	 * @return The lane's statistics as of now.
+	 */
+	public synchronized LaneStats getStats(Lane lane) {
+		return new LaneStats(lanes.get(lane));
+	}
+
+
+	/**
+	 * Records each lane's statistics.  Called by Java Flight Recorder.
+	 */
+	private void recordStats() {
+		for (Lane lane : Lane.values()) {
+			new TaskLaneStatsEvent(lane, getStats(lane)).commit();
+		}
+	}
+
+
+	/**
+	 * Removes a task from its lane's queue if it hasn't started.
+	 *
+	 * @param task The task.
+	 * @return Whether the task was removed.
+	 */
+	private synchronized boolean removeQueued(ScheduledTask task) {
+		LaneState state = lanes.get(task.lane);
+		if (state.queue.remove(task)) {
+			state.cancelled++;
+			return true;
+		}
+		return false;
+	}
+
+
+	/**
+	 * Runs a task on a worker thread.
+	 *
+	 * @param task The task.
+	 */
+	private void run(ScheduledTask task) {
+
+		Thread thread = Thread.currentThread();
+		int priority = thread.getPriority();
+		thread.setPriority(task.lane.priority);
+		long start = System.nanoTime();
+
+		try {
+			task.future.run();
+		} finally {
+			thread.setPriority(priority);
+			long end = System.nanoTime();
+			synchronized (this) {
+				LaneState state = lanes.get(task.lane);
+				state.running--;
+				state.completed++;
+				long wait = start - task.queuedNanos;
+				state.totalWaitNanos += wait;
+				state.maxWaitNanos = Math.max(state.maxWaitNanos, wait);
+				state.totalRunNanos += end - start;
+				if (task.key!=null) {
+					runningKeys.remove(task.key);
+				}
+				dispatch();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Runs a task after a delay.
+	 *
+	 * @param lane The lane to run the task in.
+	 * @param key The task's key, or <code>null</code> for none.
+	 * @param delay The delay, in milliseconds.
+	 * @param task The task.
+	 * @return The task.  It is queued once the delay passes, so it counts
+	 *         as queued in its lane's statistics only from then on.
+	 */
+	public ScheduledTask schedule(Lane lane, String key, long delay, Task task) {
+		ScheduledTask scheduled = new ScheduledTask(lane, key, task);
+		timer.schedule(() -> submit(scheduled, false), delay, TimeUnit.MILLISECONDS);
+		return scheduled;
+	}
+
+
+	/**
+	 * Runs a task repeatedly.  Each run is queued <code>delay</code>
+	 * milliseconds after the previous one was queued; if the previous run
+	 * hasn't started yet, it is replaced.
+	 *
+	 * @param lane The lane to run the task in.
+	 * @param key The task's key.  This cannot be <code>null</code>.
+	 * @param initialDelay The delay before the first run, in milliseconds.
+	 * @param delay The delay between runs, in milliseconds.
+	 * @param task The task.
+	 * @return A handle that stops the repetition when cancelled.
+	 */
+	public Future<?> scheduleRepeating(Lane lane, String key,
+			long initialDelay, long delay, Task task) {
+		if (key==null) {
+			throw new IllegalArgumentException("key cannot be null");
+		}
+		return timer.scheduleWithFixedDelay(() ->
+				submitCoalesced(lane, key, task),
+				initialDelay, delay, TimeUnit.MILLISECONDS);
+	}
+
+
+	/**
+	 * Queues a task.
+	 *
+	 * @param lane The lane to run the task in.
+	 * @param key The task's key, or <code>null</code> for none.  Tasks with
+	 *        the same key run one at a time, in order.
+	 * @param task The task.
+	 * @return The task.
+	 * @see #submitCoalesced(Lane, String, Task)
+	 */
+	public ScheduledTask submit(Lane lane, String key, Task task) {
+		return submit(new ScheduledTask(lane, key, task), false);
+	}
+
+
+	/**
+	 * Queues a task.
+	 *
+	 * @param task The task.
+	 * @param coalesce Whether to replace queued tasks with the same key.
+	 * @return The task.
+	 */
+	private synchronized ScheduledTask submit(ScheduledTask task, boolean coalesce) {
+
+		if (task.isDone()) { // Cancelled while waiting on the timer
+			return task;
+		}
+
+		LaneState state = lanes.get(task.lane);
+		if (coalesce) {
+			Iterator<ScheduledTask> i = state.queue.iterator();
+			while (i.hasNext()) {
+				ScheduledTask queued = i.next();
+				if (task.key.equals(queued.key)) {
+					i.remove();
+					queued.token.cancel();
+					queued.future.cancel(false);
+					state.coalesced++;
+				}
+			}
+		}
+
+		task.queuedNanos = System.nanoTime();
+		state.queue.add(task);
+		state.submitted++;
+		dispatch();
+		return task;
+
+	}
+
+
+	/**
+	 * Queues a task, replacing any queued task with the same key that hasn't
+	 * started yet.  A task with the same key that is already running is
+	 * not affected; the new task runs after it.
+	 *
+	 * @param lane The lane to run the task in.
+	 * @param key The task's key.  This cannot be <code>null</code>.
+	 * @param task The task.
+	 * @return The task.
+	 * @see #submit(Lane, String, Task)
+	 */
+	public ScheduledTask submitCoalesced(Lane lane, String key, Task task) {
+		if (key==null) {
+			throw new IllegalArgumentException("key cannot be null");
+		}
+		return submit(new ScheduledTask(lane, key, task), true);
+	}
+
+
+	/**
+	 * The lanes tasks can run in, in order of priority.
+	 */
+	public enum Lane {
+
+		/**
+		 * Work the user is waiting on, such as saving a file.
+		 */
+		INTERACTIVE(Thread.NORM_PRIORITY),
+
+		/**
+		 * Work on the documents the user is looking at, such as parsing
+		 * folds or searching for occurrences.
+		 */
+		VISIBLE_DOCUMENT(Thread.NORM_PRIORITY - 1),
+
+		/**
+		 * Housekeeping, such as writing the session.
+		 */
+		BACKGROUND(Thread.MIN_PRIORITY),
+
+		/**
+		 * Long-running work over many files, such as indexing a workspace.
+		 * This has its own lane so it can't hold up housekeeping.
+		 */
+		INDEXING(Thread.MIN_PRIORITY);
+
+		private final int priority;
+
+		Lane(int priority) {
+			this.priority = priority;
+		}
+
+	}
+
+
+	/**
+	 * Statistics for a lane at a moment in time.
+	 */
+	public static final class LaneStats {
+
+		private final int maxRunning;
+		private final int queueDepth;
+		private final int running;
+		private final long submitted;
+		private final long completed;
+		private final long cancelled;
+		private final long coalesced;
+		private final long totalWaitNanos;
+		private final long maxWaitNanos;
+		private final long totalRunNanos;
+
+		private LaneStats(LaneState state) {
+			maxRunning = state.maxRunning;
+			queueDepth = state.queue.size();
+			running = state.running;
+			submitted = state.submitted;
+			completed = state.completed;
+			cancelled = state.cancelled;
+			coalesced = state.coalesced;
+			totalWaitNanos = state.totalWaitNanos;
+			maxWaitNanos = state.maxWaitNanos;
+			totalRunNanos = state.totalRunNanos;
+		}
+
+		/**
+		 * Returns the average time tasks spent running.
+		 *
+		 * @return The average run time, in milliseconds.
+		 */
+		public double getAverageRunMillis() {
+			return completed==0 ? 0 : totalRunNanos / 1e6 / completed;
+		}
+
+		/**
+		 * Returns the average time tasks waited in the queue before starting.
+		 *
+		 * @return The average wait, in milliseconds.
+		 */
+		public double getAverageWaitMillis() {
+			return completed==0 ? 0 : totalWaitNanos / 1e6 / completed;
+		}
+
+		/**
+		 * Returns the number of tasks cancelled before they started,
+		 * including those replaced by newer tasks.
+		 *
+		 * @return The number of cancelled tasks.
+		 */
+		public long getCancelledCount() {
+			return cancelled + coalesced;
+		}
+
+		/**
+		 * Returns the number of tasks replaced by newer tasks with the same
+		 * key.
+		 *
+		 * @return The number of coalesced tasks.
+		 */
+		public long getCoalescedCount() {
+			return coalesced;
+		}
+
+		/**
+		 * Returns the number of tasks that have run.
+		 *
+		 * @return The number of completed tasks.
+		 */
+		public long getCompletedCount() {
+			return completed;
+		}
+
+		/**
+		 * Returns the most tasks the lane runs at once.
+		 *
+		 * @return The concurrency limit.
+		 */
+		public int getMaxRunning() {
+			return maxRunning;
+		}
+
+		/**
+		 * Returns the longest time a task waited in the queue before
+		 * starting.
+		 *
+		 * @return The longest wait, in milliseconds.
+		 */
+		public double getMaxWaitMillis() {
+			return maxWaitNanos / 1e6;
+		}
+
+		/**
+		 * Returns the number of tasks waiting to run.
+		 *
+		 * @return The queue depth.
+		 */
+		public int getQueueDepth() {
+			return queueDepth;
+		}
+
+		/**
+		 * Returns the number of tasks running.
+		 *
+		 * @return The number of running tasks.
+		 */
+		public int getRunningCount() {
+			return running;
+		}
+
+		/**
+		 * Returns the number of tasks submitted.
+		 *
+		 * @return The number of submitted tasks.
+		 */
+		public long getSubmittedCount() {
+			return submitted;
+		}
+
+	}
+
+
+	/**
+	 * The mutable state of a lane.  Guarded by the scheduler's lock.
+	 */
+	private static final class LaneState {
+
+		private final int maxRunning;
+		private final ArrayDeque<ScheduledTask> queue;
+		private int running;
+		private long submitted;
+		private long completed;
+		private long cancelled;
+		private long coalesced;
+		private long totalWaitNanos;
+		private long maxWaitNanos;
+		private long totalRunNanos;
+
+		LaneState(int maxRunning) {
+			this.maxRunning = maxRunning;
+			queue = new ArrayDeque<>();
+		}
+
+	}
+
+
+	/**
+	 * A task that has been submitted to the scheduler.  Its result can be
+	 * waited for with <code>get()</code>, which throws an
+	 * <code>ExecutionException</code> if the task failed.
+	 */
+	public final class ScheduledTask implements Future<Void> {
+
+		private final Lane lane;
+		private final String key;
+		private final CancellationToken token;
+		private final FutureTask<Void> future;
+		private long queuedNanos;
+
+		private ScheduledTask(Lane lane, String key, Task task) {
+			this.lane = lane;
+			this.key = key;
+			token = new CancellationToken();
+			future = new FutureTask<>(() -> {
+				try {
+					task.run(token);
+				} catch (CancellationException ce) {
+					throw ce;
+				} catch (Exception | Error e) {
+					// Don't let failures go unnoticed if nobody calls get()
+					e.printStackTrace();
+					throw e;
+				}
+				return null;
+			});
+		}
+
+		/**
+		 * Cancels this task.  Its cancellation token is cancelled, and if it
+		 * hasn't started, it never will.
+		 *
+		 * @param mayInterruptIfRunning Whether to also interrupt the thread
+		 *        running the task.
+		 * @return Whether the task was cancelled before it completed.
+		 */
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			token.cancel();
+			boolean cancelled = future.cancel(mayInterruptIfRunning);
+			removeQueued(this);
+			return cancelled;
+		}
+
+		@Override
+		public Void get() throws InterruptedException, ExecutionException {
+			return future.get();
+		}
+
+		@Override
+		public Void get(long timeout, TimeUnit unit) throws InterruptedException,
+				ExecutionException, TimeoutException {
+			return future.get(timeout, unit);
+		}
+
+		/**
+		 * Returns the lane this task runs in.
+		 *
+		 * @return The lane.
+		 */
+		public Lane getLane() {
+			return lane;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return future.isCancelled();
+		}
+
+		@Override
+		public boolean isDone() {
+			return future.isDone();
+		}
+
+	}
+
+
+	/**
+	 * Work to run in the background.
+	 */
+	@FunctionalInterface
+	public interface Task {
+
+		/**
+		 * Runs the task on a worker thread.
+		 *
+		 * @param token Cancelled if the task's result is no longer wanted.
+		 *        Long-running tasks should check it periodically.
+		 * @throws Exception If an error occurs.
+		 */
+		void run(CancellationToken token) throws Exception;
+
+	}
+
+
+}
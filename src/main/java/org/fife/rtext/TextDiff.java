@@ -0,0 +1,266 @@
+/*
+ * 10/19/2026
+ *
+ * TextDiff.java - Replaces a text area's text by applying only what changed.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fife.ui.rtextarea.RTextArea;
+
+
+/**
+ * Replaces all of a text area's text with new text by editing only the
+ * lines that differ.<p>
+ *
+ * Calling <code>setText()</code> removes and re-inserts the whole buffer,
+ * and the resulting undoable edit keeps a copy of the entire old text.
+ * Operations that rewrite a whole document but change little of it (such
+ * as pretty printing) should use {@link #replaceText(RTextArea, String)}
+ * instead, so the undo history only holds the lines that actually changed.
+ * It also keeps bookmarks, folds and the caret near where they were.<p>
+ *
+ * Changed lines are found with Myers' diff algorithm.  If the texts are so
+ * different that the diff would be expensive, the region between their
+ * common leading and trailing lines is replaced as one block.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see BoundedUndoManager
+ */
+public final class TextDiff {
+
+	/**
+	 * The most differing lines the diff looks for before giving up and
+	 * replacing one block.  Memory used is quadratic in this.
+	 */
+	private static final int MAX_EDIT_DISTANCE = 1000;
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private TextDiff() {
+	}
+
+
+	/**
+	 * Returns the changed regions between two lists of lines.
+	 *
+	 * @param a The old lines.
+	 * @param b The new lines.
+	 * @return The changed regions, in order.  Each is an array of the start
+	 *         and end line in <code>a</code> and the start and end line in
+	 *         <code>b</code>.
+	 */
+	static List<int[]> diff(String[] a, String[] b) {
+
+		// Trim common leading and trailing lines
+		int start = 0;
+		while (start<a.length && start<b.length && a[start].equals(b[start])) {
+			start++;
+		}
+		int aEnd = a.length;
+		int bEnd = b.length;
+		while (aEnd>start && bEnd>start && a[aEnd-1].equals(b[bEnd-1])) {
+			aEnd--;
+			bEnd--;
+		}
+
+		List<int[]> hunks = new ArrayList<>();
+		if (start==aEnd && start==bEnd) {
+			return hunks;
+		}
+
+		List<int[]> trace = myers(a, start, aEnd, b, start, bEnd);
+		if (trace==null) {
+			hunks.add(new int[] { start, aEnd, start, bEnd });
+			return hunks;
+		}
+
+		// Walk the trace backward, marking deleted and inserted lines
+		int n = aEnd - start;
+		int m = bEnd - start;
+		boolean[] deleted = new boolean[n];
+		boolean[] inserted = new boolean[m];
+		int x = n;
+		int y = m;
+		for (int d=trace.size()-1; d>0; d--) {
+			int[] prev = trace.get(d-1);
+			int k = x - y;
+			boolean down = k==-d || (k!=d && v(prev, k-1, d) < v(prev, k+1, d));
+			int prevK = down ? k+1 : k-1;
+			int prevX = v(prev, prevK, d);
+			int prevY = prevX - prevK;
+			if (down) {
+				inserted[prevY] = true;
+			}
+			else {
+				deleted[prevX] = true;
+			}
+			x = prevX;
+			y = prevY;
+		}
+
+		// Group consecutive changed lines into hunks
+		int i = 0;
+		int j = 0;
+		while (i<n || j<m) {
+			if ((i<n && deleted[i]) || (j<m && inserted[j])) {
+				int hunkI = i;
+				int hunkJ = j;
+				while ((i<n && deleted[i]) || (j<m && inserted[j])) {
+					while (i<n && deleted[i]) {
+						i++;
+					}
+					while (j<m && inserted[j]) {
+						j++;
+					}
+				}
+				hunks.add(new int[] { start + hunkI, start + i,
+						start + hunkJ, start + j });
+			}
+			else {
+				i++;
+				j++;
+			}
+		}
+
+		return hunks;
+
+	}
+
+
+	/**
+	 * Runs the forward pass of Myers' algorithm.
+	 *
+	 * @return The furthest-reaching x for each diagonal, for each edit
+	 *         distance up to the one where the texts match; or
+	 *         <code>null</code> if that distance exceeds
+	 *         {@link #MAX_EDIT_DISTANCE}.
+	 */
+	private static List<int[]> myers(String[] a, int aStart, int aEnd,
+									String[] b, int bStart, int bEnd) {
+
+		int n = aEnd - aStart;
+		int m = bEnd - bStart;
+		int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+		List<int[]> trace = new ArrayList<>();
+		int[] prev = null;
+
+		for (int d=0; d<=max; d++) {
+			int[] v = new int[2*d + 1];
+			for (int k=-d; k<=d; k+=2) {
+				int x;
+				if (d==0) {
+					x = 0;
+				}
+				else if (k==-d || (k!=d && v(prev, k-1, d) < v(prev, k+1, d))) {
+					x = v(prev, k+1, d);
+				}
+				else {
+					x = v(prev, k-1, d) + 1;
+				}
+				int y = x - k;
+				while (x<n && y<m && a[aStart+x].equals(b[bStart+y])) {
+					x++;
+					y++;
+				}
+				v[k + d] = x;
+				if (x>=n && y>=m) {
+					trace.add(v);
+					return trace;
+				}
+			}
+			trace.add(v);
+			prev = v;
+		}
+
+		return null;
+
+	}
+
+
+	/**
+	 * Replaces all of a text area's text, editing only the lines that
+	 * changed.  This is a single undoable edit.
+	 *
+	 * @param textArea The text area.
+	 * @param text The new text.
+	 */
+	public static void replaceText(RTextArea textArea, String text) {
+
+		String oldText = textArea.getText();
+		if (oldText.equals(text)) {
+			return;
+		}
+
+		String[] a = splitLines(oldText);
+		String[] b = splitLines(text);
+		List<int[]> hunks = diff(a, b);
+
+		int[] aOffsets = new int[a.length + 1];
+		for (int i=0; i<a.length; i++) {
+			aOffsets[i+1] = aOffsets[i] + a[i].length();
+		}
+
+		textArea.beginAtomicEdit();
+		try {
+			// Work backward so earlier offsets stay valid
+			for (int i=hunks.size()-1; i>=0; i--) {
+				int[] hunk = hunks.get(i);
+				StringBuilder sb = new StringBuilder();
+				for (int line=hunk[2]; line<hunk[3]; line++) {
+					sb.append(b[line]);
+				}
+				textArea.replaceRange(sb.toString(), aOffsets[hunk[0]],
+						aOffsets[hunk[1]]);
+			}
+		} finally {
+			textArea.endAtomicEdit();
+		}
+
+	}
+
+
+	/**
+	 * Splits text into lines, each keeping its trailing newline.
+	 *
+	 * @param text The text.
+	 * @return The lines.
+	 */
+	static String[] splitLines(String text) {
+		List<String> lines = new ArrayList<>();
+		int start = 0;
+		int newline;
+		while ((newline = text.indexOf('\n', start))!=-1) {
+			lines.add(text.substring(start, newline + 1));
+			start = newline + 1;
+		}
+		if (start<text.length()) {
+			lines.add(text.substring(start));
+		}
+		return lines.toArray(new String[0]);
+	}
+
+
+	/**
+	 * Returns an entry from a Myers trace row.
+	 *
+	 * @param v The row for edit distance <code>d-1</code>.
+	 * @param k The diagonal.
+	 * @param d The edit distance of the row being computed.
+	 * @return The furthest x reached on diagonal <code>k</code>.
+	 */
+	private static int v(int[] v, int k, int d) {
+		return v[k + d - 1];
+	}
+
+
+}
@@ -0,0 +1,244 @@
+/*
+ * 10/19/2026
+ *
+ * UiResponsivenessWindow.java - A dockable window showing what has stalled
+ * the UI.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.BorderLayout;
+import java.awt.event.HierarchyEvent;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.BorderFactory;
+import javax.swing.ImageIcon;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSplitPane;
+import javax.swing.JTable;
+import javax.swing.JTextArea;
+import javax.swing.ListSelectionModel;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+
+import org.fife.ui.RScrollPane;
+import org.fife.ui.UIUtil;
+import org.fife.ui.dockablewindows.DockableWindow;
+import org.fife.ui.dockablewindows.DockableWindowScrollPane;
+
+
+/**
+ * A window listing the call sites that have stalled the event dispatch
+ * thread, as found by the {@link EdtWatchdog}.  Selecting a call site shows
+ * the stack sampled during its longest stall.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class UiResponsivenessWindow extends DockableWindow {
+
+	private final RText rtext;
+	private final JLabel summaryLabel;
+	private final StallTableModel model;
+	private final JTable table;
+	private final JTextArea stackArea;
+	private final Timer timer;
+
+	/**
+	 * How often the window is refreshed while it's showing, in milliseconds.
+	 */
+	private static final int REFRESH_INTERVAL = 1000;
+
+
+	UiResponsivenessWindow(RText rtext) {
+
+		this.rtext = rtext;
+
+		model = new StallTableModel();
+		table = new JTable(model);
+		table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		table.getSelectionModel().addListSelectionListener(e -> {
+			if (!e.getValueIsAdjusting()) {
+				updateStack();
+			}
+		});
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(table);
+		RScrollPane sp = new DockableWindowScrollPane(table);
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(sp);
+
+		stackArea = new JTextArea();
+		stackArea.setEditable(false);
+		RScrollPane stackSp = new DockableWindowScrollPane(stackArea);
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(stackSp);
+
+		JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, sp, stackSp);
+		splitPane.setResizeWeight(0.5);
+
+		summaryLabel = new JLabel();
+		JButton clearButton = new JButton(rtext.getString("UiResponsiveness.Clear"));
+		clearButton.addActionListener(e -> {
+			EdtWatchdog.get().clear();
+			refresh();
+		});
+		JPanel topPanel = new JPanel(new BorderLayout());
+		topPanel.setBorder(BorderFactory.createEmptyBorder(3, 3, 3, 3));
+		topPanel.add(summaryLabel);
+		topPanel.add(clearButton, BorderLayout.LINE_END);
+
+		setLayout(new BorderLayout());
+		add(topPanel, BorderLayout.NORTH);
+		add(splitPane);
+		setPrimaryComponent(table);
+
+		setPosition(BOTTOM);
+		setActive(true);
+		setDockableWindowName(rtext.getString("UiResponsiveness.Title"));
+
+		URL url = getClass().getResource("graphics/options_ui.png");
+		setIcon(new ImageIcon(url));
+
+		// Only refresh while we can be seen
+		timer = new Timer(REFRESH_INTERVAL, e -> refresh());
+		addHierarchyListener(e -> {
+			if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED)!=0) {
+				if (isShowing()) {
+					refresh();
+					timer.start();
+				}
+				else {
+					timer.stop();
+				}
+			}
+		});
+
+		refresh();
+
+	}
+
+
+	/**
+	 * Updates the window with the watchdog's latest statistics.
+	 */
+	private void refresh() {
+
+		EdtWatchdog watchdog = EdtWatchdog.get();
+		summaryLabel.setText(rtext.getString("UiResponsiveness.Summary",
+				String.format("%.1f", watchdog.getLastLatencyMillis()),
+				String.format("%.1f", watchdog.getAverageLatencyMillis()),
+				String.format("%.1f", watchdog.getMaxLatencyMillis()),
+				String.valueOf(watchdog.getStallCount()),
+				String.valueOf(watchdog.getThreshold())));
+
+		// Keep the same call site selected
+		String selected = null;
+		int row = table.getSelectedRow();
+		if (row>-1) {
+			selected = model.sites.get(row).getCallSite();
+		}
+		model.setSites(watchdog.getStallSites());
+		if (selected!=null) {
+			for (int i=0; i<model.sites.size(); i++) {
+				if (selected.equals(model.sites.get(i).getCallSite())) {
+					table.getSelectionModel().setSelectionInterval(i, i);
+					break;
+				}
+			}
+		}
+		updateStack();
+
+	}
+
+
+	/**
+	 * Shows the stack of the selected call site's longest stall.
+	 */
+	private void updateStack() {
+
+		StringBuilder sb = new StringBuilder();
+		int row = table.getSelectedRow();
+		if (row>-1) {
+			StackTraceElement[] stack = model.sites.get(row).getStackTrace();
+			if (stack!=null) {
+				for (StackTraceElement frame : stack) {
+					sb.append(frame).append('\n');
+				}
+			}
+		}
+
+		String text = sb.toString();
+		if (!text.equals(stackArea.getText())) {
+			stackArea.setText(text);
+			stackArea.setCaretPosition(0);
+		}
+
+	}
+
+
+	/**
+	 * The table model listing call sites.
+	 */
+	private class StallTableModel extends AbstractTableModel {
+
+		private List<EdtWatchdog.StallSite> sites;
+		private final String[] columnNames;
+
+		StallTableModel() {
+			sites = new ArrayList<>();
+			columnNames = new String[] {
+				rtext.getString("UiResponsiveness.CallSite"),
+				rtext.getString("UiResponsiveness.Stalls"),
+				rtext.getString("UiResponsiveness.TotalMillis"),
+				rtext.getString("UiResponsiveness.LongestMillis"),
+			};
+		}
+
+		@Override
+		public Class<?> getColumnClass(int column) {
+			return column==0 ? String.class : Number.class;
+		}
+
+		@Override
+		public int getColumnCount() {
+			return columnNames.length;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			return columnNames[column];
+		}
+
+		@Override
+		public int getRowCount() {
+			return sites.size();
+		}
+
+		@Override
+		public Object getValueAt(int row, int column) {
+			EdtWatchdog.StallSite site = sites.get(row);
+			switch (column) {
+				case 0:
+					return site.getCallSite();
+				case 1:
+					return site.getCount();
+				case 2:
+					return site.getTotalMillis();
+				default:
+					return site.getMaxMillis();
+			}
+		}
+
+		void setSites(List<EdtWatchdog.StallSite> sites) {
+			this.sites = sites;
+			fireTableDataChanged();
+		}
+
+	}
+
+
+}
@@ -0,0 +1,121 @@
+/*
+ * 10/19/2026
+ *
+ * UpdateScheduler.java - Coalesces UI updates into one per frame.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.Timer;
+
+
+/**
+ * Coalesces UI updates so each target is updated at most once per frame.
+ * Callers schedule an update for a target (a status bar field, a listener,
+ * etc.); if another update for the same target is scheduled before the
+ * frame ends, it replaces the first.  This keeps bursts of events, such as
+ * caret moves while an arrow key is held down or quickly cycling through
+ * tabs, from queueing redundant work on the EDT.<p>
+ *
+ * Pending updates run in the order their targets were first scheduled.
+ * All methods in this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class UpdateScheduler {
+
+	private final Map<Object, Runnable> pending;
+	private final Timer timer;
+
+	/**
+	 * The length of a frame, in milliseconds.
+	 */
+	public static final int FRAME_MILLIS = 16;
+
+
+	/**
+	 * Constructor.
+	 */
+	public UpdateScheduler() {
+		pending = new LinkedHashMap<>();
+		timer = new Timer(FRAME_MILLIS, e -> flush());
+		timer.setRepeats(false);
+	}
+
+
+	/**
+	 * Cancels a pending update.
+	 *
+	 * @param target The target of the update.
+	 */
+	public void cancel(Object target) {
+		pending.remove(target);
+	}
+
+
+	/**
+	 * Runs all pending updates now.  Updates scheduled while these run are
+	 * also run.
+	 */
+	public void flush() {
+		timer.stop();
+		while (!pending.isEmpty()) {
+			List<Runnable> updates = new ArrayList<>(pending.values());
+			pending.clear();
+			for (Runnable update : updates) {
+				update.run();
+			}
+		}
+	}
+
+
+	/**
+	 * Returns the update pending for a target, if any.
+	 *
+	 * @param target The target.
+	 * @return The pending update, or <code>null</code> if there is none.
+	 */
+	public Runnable getPending(Object target) {
+		return pending.get(target);
+	}
+
+
+	/**
+	 * Schedules an update that is its own target.  This is useful for
+	 * updates that are the same every time, such as a method reference
+	 * stored in a field.
+	 *
+	 * @param update The update to run.
+	 * @see #schedule(Object, Runnable)
+	 */
+	public void schedule(Runnable update) {
+		schedule(update, update);
+	}
+
+
+	/**
+	 * Schedules an update to run at the end of the current frame.  If an
+	 * update for the same target is already pending, it is replaced.
+	 *
+	 * @param target The target of the update.  Targets are compared with
+	 *        <code>equals()</code>.
+	 * @param update The update to run.
+	 * @see #schedule(Runnable)
+	 */
+	public void schedule(Object target, Runnable update) {
+		pending.put(target, update);
+		if (!timer.isRunning()) {
+			timer.start();
+		}
+	}
+
+
+}
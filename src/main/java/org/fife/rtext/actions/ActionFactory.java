@@ -130,6 +130,9 @@ public final class ActionFactory implements RTextActionInfo {
 		a = new LineNumberAction(rtext, msg, null);
 		rtext.addAction(LINE_NUMBER_ACTION, a);
 
+		a = new UiResponsivenessAction(rtext, msg, null);
+		rtext.addAction(UI_RESPONSIVENESS_ACTION, a);
+
 		a = new FilePropertiesAction(rtext, msg);
 		rtext.addAction(FILE_PROPERTIES_ACTION, a);
 
@@ -148,6 +151,9 @@ public final class ActionFactory implements RTextActionInfo {
 		a = new CheckForUpdatesAction(rtext, msg, null);
 		rtext.addAction(UPDATES_ACTION, a);
 
+		a = new StartupTimelineAction(rtext, msg, null);
+		rtext.addAction(STARTUP_TIMELINE_ACTION, a);
+
 		a = new CloseAction(rtext, msg, null);
 		rtext.addAction(CLOSE_ACTION, a);
 
@@ -175,6 +181,12 @@ public final class ActionFactory implements RTextActionInfo {
 		a = new ReplaceInFilesAction(rtext, msg, null);
 		rtext.addAction(REPLACE_IN_FILES_ACTION, a);
 
+		a = new FindInOpenDocumentsAction(rtext, msg, null);
+		rtext.addAction(FIND_IN_OPEN_DOCUMENTS_ACTION, a);
+
+		a = new ReplaceInOpenDocumentsAction(rtext, msg, null);
+		rtext.addAction(REPLACE_IN_OPEN_DOCUMENTS_ACTION, a);
+
 		a = new PrintAction(rtext, msg, null);
 		rtext.addAction(PRINT_ACTION, a);
 
@@ -0,0 +1,59 @@
+/*
+ * 10/19/2026
+ *
+ * FindInOpenDocumentsAction.java - Action for finding text in all open documents.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.actions;
+
+import java.awt.event.ActionEvent;
+import java.util.ResourceBundle;
+import javax.swing.Icon;
+
+import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.RText;
+import org.fife.ui.app.AppAction;
+import org.fife.ui.rtextarea.SearchContext;
+
+
+/**
+ * Action used by an <code>AbstractMainView</code> to find text in all open documents,
+ * including unsaved changes.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class FindInOpenDocumentsAction extends AppAction<RText> implements AbstractSearchAction {
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param msg The resource bundle to use for localization.
+	 * @param icon The icon associated with the action.
+	 */
+	FindInOpenDocumentsAction(RText owner, ResourceBundle msg, Icon icon) {
+		super(owner, msg, "FindInOpenDocumentsAction");
+		setIcon(icon);
+	}
+
+
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		actionPerformed((SearchContext)null);
+	}
+
+
+	@Override
+	public void actionPerformed(SearchContext context) {
+		RText rtext = getApplication();
+		AbstractMainView mainView = rtext.getMainView();
+		mainView.getSearchManager().findInOpenDocuments(context);
+	}
+
+
+}
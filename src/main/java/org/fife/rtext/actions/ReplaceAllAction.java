@@ -20,10 +20,9 @@ import org.fife.rtext.AbstractMainView;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextEditorPane;
 import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.ReplaceAllEngine;
 import org.fife.ui.app.AppAction;
 import org.fife.ui.rtextarea.SearchContext;
-import org.fife.ui.rtextarea.SearchEngine;
-import org.fife.ui.rtextarea.SearchResult;
 
 
 /**
@@ -76,13 +75,10 @@ class ReplaceAllAction extends AppAction<RText> implements AbstractSearchAction
 		// Do the replacement.
 		try {
 
-			SearchResult result = SearchEngine.replaceAll(textArea, context);
-			int count = result.getCount();
+			// Replaced in a single edit, so it's fast and undone in one step
+			int count = ReplaceAllEngine.replaceAll(textArea, context);
 
-			if (count==-1) {
-				// TODO: Display an error about bad regex.
-			}
-			else if (count>0) {
+			if (count>0) {
 				String temp = rtext.getString("ReplacedNOccString",
 					Integer.toString(count), searchString);
 				JOptionPane.showMessageDialog(rtext, temp,
@@ -0,0 +1,50 @@
+/*
+ * 10/19/2026
+ *
+ * StartupTimelineAction.java - Action that shows how long startup took.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.actions;
+
+import java.awt.event.ActionEvent;
+import java.util.ResourceBundle;
+import javax.swing.Icon;
+
+import org.fife.rtext.RText;
+import org.fife.rtext.StartupTimelineDialog;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Action that displays the timeline of RText's startup.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class StartupTimelineAction extends AppAction<RText> {
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param msg The resource bundle to use for localization.
+	 * @param icon The icon associated with the action.
+	 */
+	StartupTimelineAction(RText owner, ResourceBundle msg, Icon icon) {
+		super(owner, msg, "StartupTimelineAction");
+		setIcon(icon);
+	}
+
+
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		StartupTimelineDialog dialog = new StartupTimelineDialog(getApplication());
+		dialog.setVisible(true);
+	}
+
+
+}
@@ -0,0 +1,50 @@
+/*
+ * 10/19/2026
+ *
+ * UiResponsivenessAction.java - Action that toggles the UI Responsiveness window.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.actions;
+
+import java.awt.event.ActionEvent;
+import java.util.ResourceBundle;
+import javax.swing.Icon;
+
+import org.fife.rtext.RText;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Action that toggles the visibility of the dockable window listing what
+ * has stalled the UI.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class UiResponsivenessAction extends AppAction<RText> {
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param msg The resource bundle to use for localization.
+	 * @param icon The icon associated with the action.
+	 */
+	UiResponsivenessAction(RText owner, ResourceBundle msg, Icon icon) {
+		super(owner, msg, "UiResponsivenessAction");
+		setIcon(icon);
+	}
+
+
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		RText owner = getApplication();
+		owner.setUiResponsivenessWindowVisible(!owner.isUiResponsivenessWindowVisible());
+	}
+
+
+}
@@ -0,0 +1,52 @@
+/*
+ * 10/19/2026
+ *
+ * AbstractFileEvent.java - Base class for file events.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+
+
+/**
+ * The base class for events timing the reading and writing of documents.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Category({ "RText", "Files" })
+public abstract class AbstractFileEvent extends AbstractRTextEvent {
+
+	@Label("Path")
+	private String path;
+
+	@Label("Length")
+	private int length;
+
+
+	/**
+	 * Sets the document's length.
+	 *
+	 * @param length The length, in characters.
+	 */
+	public void setLength(int length) {
+		this.length = length;
+	}
+
+
+	/**
+	 * Sets the file's location.
+	 *
+	 * @param path The full path to the file, or its URL if it is remote.
+	 */
+	public void setPath(String path) {
+		this.path = path;
+	}
+
+
+}
@@ -0,0 +1,108 @@
+/*
+ * 10/19/2026
+ *
+ * AbstractRTextEvent.java - Base class for RText's JFR events.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+
+/**
+ * The base class for Java Flight Recorder events emitted by RText.  Each
+ * event records the outcome of the operation it times.<p>
+ *
+ * Events are used as usual for JFR:
+ * <pre>
+ * FileSaveEvent event = new FileSaveEvent();
+ * event.begin();
+ * try {
+ *    ...
+ * } catch (IOException ioe) {
+ *    event.setFailed(ioe);
+ *    throw ioe;
+ * } finally {
+ *    event.commit();
+ * }
+ * </pre>
+ * When no recording is running, creating and committing events costs
+ * next to nothing.  Recordings can be started with the profile shipped
+ * as <code>rtext.jfc</code> in the install directory.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Category("RText")
+public abstract class AbstractRTextEvent extends Event {
+
+	/**
+	 * The outcome of an operation that completed normally.
+	 */
+	public static final String SUCCEEDED = "Succeeded";
+
+	/**
+	 * The outcome of an operation that failed.
+	 */
+	public static final String FAILED = "Failed";
+
+	/**
+	 * The outcome of an operation that was cancelled.
+	 */
+	public static final String CANCELLED = "Cancelled";
+
+	@Label("Outcome")
+	private String outcome = SUCCEEDED;
+
+	@Label("Error")
+	private String error;
+
+
+	/**
+	 * Returns the outcome of the operation.
+	 *
+	 * @return The outcome, such as {@link #SUCCEEDED}.
+	 */
+	public String getOutcome() {
+		return outcome;
+	}
+
+
+	/**
+	 * Records that the operation was cancelled.
+	 */
+	public void setCancelled() {
+		outcome = CANCELLED;
+	}
+
+
+	/**
+	 * Records that the operation failed.
+	 *
+	 * @param error The error, or <code>null</code> if it isn't known.
+	 */
+	public void setFailed(Throwable error) {
+		outcome = FAILED;
+		if (error!=null) {
+			this.error = error.toString();
+		}
+	}
+
+
+	/**
+	 * Records that the operation failed.
+	 *
+	 * @param error A description of the error.
+	 */
+	public void setFailed(String error) {
+		outcome = FAILED;
+		this.error = error;
+	}
+
+
+}
@@ -0,0 +1,87 @@
+/*
+ * 10/19/2026
+ *
+ * CacheStatsEvent.java - Event for the state of a managed cache.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+import org.fife.rtext.ManagedCache;
+
+
+/**
+ * Periodically records the statistics of one cache registered with the
+ * {@link org.fife.rtext.CacheManager}.  Counts are totals since the cache
+ * was created.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.CacheStats")
+@Label("Cache Statistics")
+@Description("The state of one of RText's caches")
+@Category({ "RText", "Caches" })
+@Period("10 s")
+@StackTrace(false)
+public class CacheStatsEvent extends Event {
+
+	@Label("Cache")
+	private String cache;
+
+	@Label("Entries")
+	private int size;
+
+	@Label("Weight")
+	private long weight;
+
+	@Label("Max Weight")
+	private long maxWeight;
+
+	@Label("Hits")
+	private long hitCount;
+
+	@Label("Misses")
+	private long missCount;
+
+	@Label("Hit Rate")
+	@Percentage
+	private double hitRate;
+
+	@Label("Evictions")
+	private long evictionCount;
+
+	@Label("Evicted Weight")
+	private long evictedWeight;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param stats The cache's statistics.
+	 */
+	public CacheStatsEvent(ManagedCache.Stats stats) {
+		cache = stats.getName();
+		size = stats.getSize();
+		weight = stats.getWeight();
+		maxWeight = stats.getMaxWeight();
+		hitCount = stats.getHitCount();
+		missCount = stats.getMissCount();
+		hitRate = stats.getHitRate();
+		evictionCount = stats.getEvictionCount();
+		evictedWeight = stats.getEvictedWeight();
+	}
+
+
+}
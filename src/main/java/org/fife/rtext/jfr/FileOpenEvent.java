@@ -0,0 +1,72 @@
+/*
+ * 10/19/2026
+ *
+ * FileOpenEvent.java - Event for opening a file.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Times opening a file in a new editor, including loading its text and
+ * configuring the editor for it.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.FileOpen")
+@Label("File Open")
+@Description("A file was opened in a new editor")
+public class FileOpenEvent extends AbstractFileEvent {
+
+	@Label("File Size")
+	@DataAmount
+	private long fileSize;
+
+	@Label("Encoding")
+	private String encoding;
+
+	@Label("Syntax Style")
+	private String syntaxStyle;
+
+
+	/**
+	 * Sets the encoding the file was read with.
+	 *
+	 * @param encoding The encoding.
+	 */
+	public void setEncoding(String encoding) {
+		this.encoding = encoding;
+	}
+
+
+	/**
+	 * Sets the size of the file.
+	 *
+	 * @param fileSize The size, in bytes, or <code>-1</code> if it isn't
+	 *        known.
+	 */
+	public void setFileSize(long fileSize) {
+		this.fileSize = fileSize;
+	}
+
+
+	/**
+	 * Sets the syntax style the editor was given.
+	 *
+	 * @param syntaxStyle The syntax style.
+	 */
+	public void setSyntaxStyle(String syntaxStyle) {
+		this.syntaxStyle = syntaxStyle;
+	}
+
+
+}
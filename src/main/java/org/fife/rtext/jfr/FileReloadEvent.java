@@ -0,0 +1,27 @@
+/*
+ * 10/19/2026
+ *
+ * FileReloadEvent.java - Event for reloading a file.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Times reloading a document that was modified outside of RText.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.FileReload")
+@Label("File Reload")
+@Description("A document was reloaded from disk")
+public class FileReloadEvent extends AbstractFileEvent {
+}
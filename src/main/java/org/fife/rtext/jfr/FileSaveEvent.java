@@ -0,0 +1,43 @@
+/*
+ * 10/19/2026
+ *
+ * FileSaveEvent.java - Event for saving a file.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Times saving a document.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.FileSave")
+@Label("File Save")
+@Description("A document was saved")
+public class FileSaveEvent extends AbstractFileEvent {
+
+	@Label("Background")
+	@Description("Whether the file was written on a worker thread")
+	private boolean background;
+
+
+	/**
+	 * Sets whether the file was written on a worker thread.
+	 *
+	 * @param background Whether the file was written in the background.
+	 */
+	public void setBackground(boolean background) {
+		this.background = background;
+	}
+
+
+}
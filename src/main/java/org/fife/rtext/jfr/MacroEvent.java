@@ -0,0 +1,49 @@
+/*
+ * 10/19/2026
+ *
+ * MacroEvent.java - Event for running a macro.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Times running a macro.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.Macro")
+@Label("Macro")
+@Description("A macro was run")
+@Category({ "RText", "Tools and Macros" })
+public class MacroEvent extends AbstractRTextEvent {
+
+	@Label("Name")
+	private String name;
+
+	@Label("File")
+	private String file;
+
+
+	/**
+	 * Sets the macro run.
+	 *
+	 * @param name The macro's name.
+	 * @param file The macro's script file.
+	 */
+	public void setMacro(String name, String file) {
+		this.name = name;
+		this.file = file;
+	}
+
+
+}
@@ -0,0 +1,65 @@
+/*
+ * 10/19/2026
+ *
+ * OutlineRefreshEvent.java - Event for refreshing the source browser.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Times running ctags to refresh the source browser's outline of a
+ * document.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.OutlineRefresh")
+@Label("Outline Refresh")
+@Description("ctags was run to refresh the source browser")
+@Category({ "RText", "Source Browser" })
+@StackTrace(false)
+public class OutlineRefreshEvent extends AbstractRTextEvent {
+
+	@Label("Path")
+	private String path;
+
+	@Label("Language")
+	private String language;
+
+	@Label("Tags")
+	private int tags;
+
+
+	/**
+	 * Sets the document outlined.
+	 *
+	 * @param path The full path to the document.
+	 * @param language The language ctags parsed it as.
+	 */
+	public void setDocument(String path, String language) {
+		this.path = path;
+		this.language = language;
+	}
+
+
+	/**
+	 * Sets the number of tags found.
+	 *
+	 * @param tags The number of tags.
+	 */
+	public void setTags(int tags) {
+		this.tags = tags;
+	}
+
+
+}
@@ -0,0 +1,83 @@
+/*
+ * 10/19/2026
+ *
+ * ParserRunEvent.java - Event for a parser run.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Times a parser, such as the spelling or task parser or a language's
+ * syntax checker, parsing a document.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.ParserRun")
+@Label("Parser Run")
+@Description("A parser parsed a document")
+@Category({ "RText", "Parsers" })
+@StackTrace(false)
+public class ParserRunEvent extends AbstractRTextEvent {
+
+	@Label("Parser")
+	private String parser;
+
+	@Label("Path")
+	private String path;
+
+	@Label("Syntax Style")
+	private String syntaxStyle;
+
+	@Label("Length")
+	private int length;
+
+	@Label("Notices")
+	private int notices;
+
+
+	/**
+	 * Sets the document parsed.
+	 *
+	 * @param path The full path to the document.
+	 * @param syntaxStyle The document's syntax style.
+	 * @param length The length of the document, in characters.
+	 */
+	public void setDocument(String path, String syntaxStyle, int length) {
+		this.path = path;
+		this.syntaxStyle = syntaxStyle;
+		this.length = length;
+	}
+
+
+	/**
+	 * Sets the number of notices the parser reported.
+	 *
+	 * @param notices The number of notices.
+	 */
+	public void setNotices(int notices) {
+		this.notices = notices;
+	}
+
+
+	/**
+	 * Sets the parser.
+	 *
+	 * @param parser The parser's class name.
+	 */
+	public void setParser(String parser) {
+		this.parser = parser;
+	}
+
+
+}
@@ -0,0 +1,68 @@
+/*
+ * 10/19/2026
+ *
+ * PluginInstallEvent.java - Event for installing a plugin.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+
+/**
+ * Marks a plugin having been installed.  Plugins are loaded and created by
+ * the application framework, so the time each one took can't be measured
+ * directly.  Instead, the event records the time since the previous plugin
+ * was installed, or since plugins started loading for the first plugin.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.PluginInstall")
+@Label("Plugin Install")
+@Description("A plugin was loaded and installed")
+@Category({ "RText", "Startup" })
+public class PluginInstallEvent extends AbstractRTextEvent {
+
+	@Label("Plugin")
+	private String plugin;
+
+	@Label("Version")
+	private String version;
+
+	@Label("Load Time")
+	@Description("The time since the previous plugin was installed")
+	@Timespan
+	private long loadTime;
+
+
+	/**
+	 * Sets how long the plugin took to load and install.
+	 *
+	 * @param loadTime The time, in nanoseconds.
+	 */
+	public void setLoadTime(long loadTime) {
+		this.loadTime = loadTime;
+	}
+
+
+	/**
+	 * Sets the plugin installed.
+	 *
+	 * @param plugin The plugin's name.
+	 * @param version The plugin's version.
+	 */
+	public void setPlugin(String plugin, String version) {
+		this.plugin = plugin;
+		this.version = version;
+	}
+
+
+}
@@ -0,0 +1,80 @@
+/*
+ * 10/19/2026
+ *
+ * SearchFileEvent.java - Event for searching a single file.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Times Find or Replace in Files searching a single file.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see SearchRunEvent
+ */
+@Name("org.fife.rtext.SearchFile")
+@Label("Search File")
+@Description("Find or Replace in Files searched a file")
+@Category({ "RText", "Search" })
+@StackTrace(false)
+public class SearchFileEvent extends AbstractRTextEvent {
+
+	@Label("Path")
+	private String path;
+
+	@Label("File Size")
+	@DataAmount
+	private long fileSize;
+
+	@Label("Matches")
+	private int matches;
+
+	@Label("Replace")
+	private boolean replace;
+
+
+	/**
+	 * Sets the number of matches found.
+	 *
+	 * @param matches The number of matches, or of replacements made.
+	 */
+	public void setMatches(int matches) {
+		this.matches = matches;
+	}
+
+
+	/**
+	 * Sets the file searched.
+	 *
+	 * @param path The full path to the file.
+	 * @param fileSize The size of the file, in bytes.
+	 */
+	public void setFile(String path, long fileSize) {
+		this.path = path;
+		this.fileSize = fileSize;
+	}
+
+
+	/**
+	 * Sets whether matches are replaced.
+	 *
+	 * @param replace Whether this is Replace in Files.
+	 */
+	public void setReplace(boolean replace) {
+		this.replace = replace;
+	}
+
+
+}
@@ -0,0 +1,89 @@
+/*
+ * 10/19/2026
+ *
+ * SearchRunEvent.java - Event for a Find or Replace in Files run.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Times an entire Find or Replace in Files operation.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see SearchFileEvent
+ */
+@Name("org.fife.rtext.SearchRun")
+@Label("Search Run")
+@Description("Find or Replace in Files searched a directory")
+@Category({ "RText", "Search" })
+public class SearchRunEvent extends AbstractRTextEvent {
+
+	@Label("Directory")
+	private String directory;
+
+	@Label("Regular Expression")
+	private boolean regex;
+
+	@Label("Replace")
+	private boolean replace;
+
+	@Label("Files Searched")
+	private int files;
+
+	@Label("Matches")
+	private int matches;
+
+
+	/**
+	 * Records that a file was searched.
+	 *
+	 * @param matches The number of matches in the file, or of replacements
+	 *        made in it.
+	 */
+	public void addFile(int matches) {
+		files++;
+		this.matches += matches;
+	}
+
+
+	/**
+	 * Sets the directory searched.
+	 *
+	 * @param directory The directory.
+	 */
+	public void setDirectory(String directory) {
+		this.directory = directory;
+	}
+
+
+	/**
+	 * Sets whether the search text is a regular expression.
+	 *
+	 * @param regex Whether the search text is a regular expression.
+	 */
+	public void setRegex(boolean regex) {
+		this.regex = regex;
+	}
+
+
+	/**
+	 * Sets whether matches are replaced.
+	 *
+	 * @param replace Whether this is Replace in Files.
+	 */
+	public void setReplace(boolean replace) {
+		this.replace = replace;
+	}
+
+
+}
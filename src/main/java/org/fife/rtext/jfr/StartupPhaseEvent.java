@@ -0,0 +1,44 @@
+/*
+ * 10/19/2026
+ *
+ * StartupPhaseEvent.java - Event for a phase of startup.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Times one phase of RText starting up, such as creating the menu bar.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.StartupPhase")
+@Label("Startup Phase")
+@Description("A phase of application startup")
+@Category({ "RText", "Startup" })
+public class StartupPhaseEvent extends AbstractRTextEvent {
+
+	@Label("Phase")
+	private String phase;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param phase The name of the phase.
+	 */
+	public StartupPhaseEvent(String phase) {
+		this.phase = phase;
+	}
+
+
+}
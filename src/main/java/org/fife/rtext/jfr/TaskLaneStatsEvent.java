@@ -0,0 +1,95 @@
+/*
+ * 10/19/2026
+ *
+ * TaskLaneStatsEvent.java - Event for the state of a task scheduler lane.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+import org.fife.rtext.TaskScheduler;
+
+
+/**
+ * Periodically records the statistics of one lane of the
+ * {@link TaskScheduler}, such as how many tasks are queued and how long
+ * they wait.  Counts are totals since RText started.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.TaskLaneStats")
+@Label("Task Lane Statistics")
+@Description("The state of a lane of the background task scheduler")
+@Category({ "RText", "Tasks" })
+@Period("10 s")
+@StackTrace(false)
+public class TaskLaneStatsEvent extends Event {
+
+	@Label("Lane")
+	private String lane;
+
+	@Label("Max Running")
+	private int maxRunning;
+
+	@Label("Running")
+	private int running;
+
+	@Label("Queue Depth")
+	private int queueDepth;
+
+	@Label("Submitted")
+	private long submitted;
+
+	@Label("Completed")
+	private long completed;
+
+	@Label("Cancelled")
+	private long cancelled;
+
+	@Label("Coalesced")
+	private long coalesced;
+
+	@Label("Average Wait (ms)")
+	private double averageWaitMillis;
+
+	@Label("Max Wait (ms)")
+	private double maxWaitMillis;
+
+	@Label("Average Run (ms)")
+	private double averageRunMillis;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param lane The lane.
+	 * @param stats The lane's statistics.
+	 */
+	public TaskLaneStatsEvent(TaskScheduler.Lane lane,
+			TaskScheduler.LaneStats stats) {
+		this.lane = lane.name();
+		maxRunning = stats.getMaxRunning();
+		running = stats.getRunningCount();
+		queueDepth = stats.getQueueDepth();
+		submitted = stats.getSubmittedCount();
+		completed = stats.getCompletedCount();
+		cancelled = stats.getCancelledCount();
+		coalesced = stats.getCoalescedCount();
+		averageWaitMillis = stats.getAverageWaitMillis();
+		maxWaitMillis = stats.getMaxWaitMillis();
+		averageRunMillis = stats.getAverageRunMillis();
+	}
+
+
+}
@@ -0,0 +1,62 @@
+/*
+ * 10/19/2026
+ *
+ * ToolEvent.java - Event for running a tool.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Times running an external tool, from launching it until it exits.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+@Name("org.fife.rtext.Tool")
+@Label("Tool")
+@Description("An external tool was run")
+@Category({ "RText", "Tools and Macros" })
+public class ToolEvent extends AbstractRTextEvent {
+
+	@Label("Name")
+	private String name;
+
+	@Label("Program")
+	private String program;
+
+	@Label("Exit Code")
+	private int exitCode;
+
+
+	/**
+	 * Sets the tool's exit code.
+	 *
+	 * @param exitCode The exit code.
+	 */
+	public void setExitCode(int exitCode) {
+		this.exitCode = exitCode;
+	}
+
+
+	/**
+	 * Sets the tool run.
+	 *
+	 * @param name The tool's name.
+	 * @param program The program the tool runs.
+	 */
+	public void setTool(String name, String program) {
+		this.name = name;
+		this.program = program;
+	}
+
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Java Flight Recorder events emitted by RText.
+ */
+package org.fife.rtext.jfr;
@@ -51,6 +51,7 @@ class GeneralOptionPanel extends OptionsDialogPanel
 	private final JCheckBox utf8BomCB;
 	private final JCheckBox sizeCheckCB;
 	private final JFormattedTextField sizeField;
+	private final JCheckBox restoreSessionCB;
 	private final JCheckBox dropShadowsInEditorCB;
 
 	private String fileSizeError;
@@ -186,6 +187,12 @@ class GeneralOptionPanel extends OptionsDialogPanel
 		temp.add(Box.createHorizontalGlue());
 		temp2.add(temp, BorderLayout.LINE_START);
 		otherPanel.add(temp2);
+		restoreSessionCB = new JCheckBox(msg.getString("OptRestoreSession"));
+		restoreSessionCB.setActionCommand("RestoreSessionCB");
+		restoreSessionCB.addActionListener(this);
+		temp2 = new JPanel(new BorderLayout());
+		temp2.add(restoreSessionCB, BorderLayout.LINE_START);
+		otherPanel.add(temp2);
 		topPanel.add(otherPanel);
 
 		// A panel for "experimental" options.
@@ -269,6 +276,12 @@ class GeneralOptionPanel extends OptionsDialogPanel
 			firePropertyChange(PROPERTY, !sizeCheck, sizeCheck);
 		}
 
+		else if ("RestoreSessionCB".equals(command)) {
+			hasUnsavedChanges = true;
+			boolean restore = restoreSessionCB.isSelected();
+			firePropertyChange(PROPERTY, !restore, restore);
+		}
+
 		else if (dropShadowsInEditorCB==e.getSource()) {
 			hasUnsavedChanges = true;
 			firePropertyChange(PROPERTY, false, true);
@@ -289,6 +302,7 @@ class GeneralOptionPanel extends OptionsDialogPanel
 				utf8BomCB.isSelected()!=defaultUtf8BomSelected ||
 				!sizeCheckCB.isSelected() ||
 				!defaultSizeFieldText.equals(sizeField.getText()) ||
+				!restoreSessionCB.isSelected() ||
 				dropShadowsInEditorCB.isSelected()!=defaultDropShadowsInEditor) {
 
 				dirField.setText(null);
@@ -298,6 +312,7 @@ class GeneralOptionPanel extends OptionsDialogPanel
 				utf8BomCB.setSelected(defaultUtf8BomSelected);
 				setDoFileSizeCheck(true);
 				sizeField.setText(defaultSizeFieldText);
+				restoreSessionCB.setSelected(true);
 				dropShadowsInEditorCB.setSelected(defaultDropShadowsInEditor);
 
 				hasUnsavedChanges = true;
@@ -329,6 +344,7 @@ class GeneralOptionPanel extends OptionsDialogPanel
 		mainView.setWriteBOMInUtf8Files(getWriteUtf8BOM()); // Ditto.
 		mainView.setDoFileSizeCheck(getDoFileSizeCheck()); // Ditto.
 		mainView.setMaxFileSize(getMaxFileSize());		// Ditto.
+		rtext.setRestoreSession(restoreSessionCB.isSelected());
 
 		// Experimental options
 		RTextUtilities.setDropShadowsEnabledInEditor(
@@ -534,6 +550,7 @@ class GeneralOptionPanel extends OptionsDialogPanel
 		setWriteUtf8BOM(mainView.getWriteBOMInUtf8Files());
 		setDoFileSizeCheck(mainView.getDoFileSizeCheck());
 		setMaxFileSize(mainView.getMaxFileSize());
+		restoreSessionCB.setSelected(rtext.getRestoreSession());
 
 		// Experimental options
 		dropShadowsInEditorCB.setSelected(RTextUtilities.
@@ -23,6 +23,7 @@ import javax.swing.JMenu;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextMenuBar;
 import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.StartupTracer;
 import org.fife.ui.ImageTranscodingUtil;
 import org.fife.ui.app.AbstractPluggableGUIApplication;
 import org.fife.ui.app.GUIPlugin;
@@ -60,27 +61,32 @@ public class Plugin extends GUIPlugin {
 	 */
 	public Plugin(AbstractPluggableGUIApplication<?> app) {
 
-		this.app = (RText)app;
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "<init>");
+		try {
+			this.app = (RText)app;
 
-		loadIcons();
+			loadIcons();
 
-		ConsolePrefs prefs = loadPrefs();
-		setSyntaxHighlightInput(prefs.syntaxHighlightInput);
+			ConsolePrefs prefs = loadPrefs();
+			setSyntaxHighlightInput(prefs.syntaxHighlightInput);
 
-		AppAction<RText> a = new ViewConsoleAction(this.app, MSG, this);
-		a.setAccelerator(prefs.windowVisibilityAccelerator);
-		app.addAction(VIEW_CONSOLE_ACTION, a);
+			AppAction<RText> a = new ViewConsoleAction(this.app, MSG, this);
+			a.setAccelerator(prefs.windowVisibilityAccelerator);
+			app.addAction(VIEW_CONSOLE_ACTION, a);
 
-		// Window MUST always be created for preference saving on shutdown
-		window = new ConsoleWindow(this.app, this);
-		window.setPosition(prefs.windowPosition);
-		window.setActive(prefs.windowVisible);
-		putDockableWindow(DOCKABLE_WINDOW_CONSOLE, window);
+			// Window MUST always be created for preference saving on shutdown
+			window = new ConsoleWindow(this.app, this);
+			window.setPosition(prefs.windowPosition);
+			window.setActive(prefs.windowVisible);
+			putDockableWindow(DOCKABLE_WINDOW_CONSOLE, window);
 
-		window.setForeground(ConsoleTextArea.STYLE_EXCEPTION, prefs.exceptionFG);
-		window.setForeground(ConsoleTextArea.STYLE_PROMPT, prefs.promptFG);
-		window.setForeground(ConsoleTextArea.STYLE_STDERR, prefs.stderrFG);
-		window.setForeground(ConsoleTextArea.STYLE_STDOUT, prefs.stdoutFG);
+			window.setForeground(ConsoleTextArea.STYLE_EXCEPTION, prefs.exceptionFG);
+			window.setForeground(ConsoleTextArea.STYLE_PROMPT, prefs.promptFG);
+			window.setForeground(ConsoleTextArea.STYLE_STDERR, prefs.stderrFG);
+			window.setForeground(ConsoleTextArea.STYLE_STDOUT, prefs.stdoutFG);
+		} finally {
+			span.end();
+		}
 
 	}
 
@@ -173,19 +179,24 @@ public class Plugin extends GUIPlugin {
 	@Override
 	public void install(AbstractPluggableGUIApplication<?> app) {
 
-		RText rtext = (RText)app;
-		RTextMenuBar mb = (RTextMenuBar)app.getJMenuBar();
-
-		// Add an item to the "View" menu to toggle console visibility
-		final JMenu menu = mb.getMenuByName(RTextMenuBar.MENU_DOCKED_WINDOWS);
-		Action a = rtext.getAction(VIEW_CONSOLE_ACTION);
-		final JCheckBoxMenuItem item = new JCheckBoxMenuItem(a);
-		item.setSelected(isConsoleWindowVisible());
-		item.setToolTipText(null);
-		item.applyComponentOrientation(app.getComponentOrientation());
-		menu.add(item);
-
-		window.clearConsoles(); // Needed to pick up styles
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "install");
+		try {
+			RText rtext = (RText)app;
+			RTextMenuBar mb = (RTextMenuBar)app.getJMenuBar();
+
+			// Add an item to the "View" menu to toggle console visibility
+			final JMenu menu = mb.getMenuByName(RTextMenuBar.MENU_DOCKED_WINDOWS);
+			Action a = rtext.getAction(VIEW_CONSOLE_ACTION);
+			final JCheckBoxMenuItem item = new JCheckBoxMenuItem(a);
+			item.setSelected(isConsoleWindowVisible());
+			item.setToolTipText(null);
+			item.applyComponentOrientation(app.getComponentOrientation());
+			menu.add(item);
+
+			window.clearConsoles(); // Needed to pick up styles
+		} finally {
+			span.end();
+		}
 
 	}
 
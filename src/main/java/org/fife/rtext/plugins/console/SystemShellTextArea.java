@@ -15,6 +15,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -28,8 +29,8 @@ import javax.swing.text.Document;
 import javax.swing.text.Element;
 import javax.swing.text.TextAction;
 
-import org.fife.io.ProcessRunner;
 import org.fife.io.ProcessRunnerOutputListener;
+import org.fife.rtext.ExternalProcess;
 import org.fife.ui.OS;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
@@ -45,7 +46,7 @@ class SystemShellTextArea extends ConsoleTextArea {
 	private File pwd;
 	private File prevDir;
 	private final boolean isWindows;
-	private transient Thread activeProcessThread;
+	private transient ExternalProcess activeProcess;
 
 	private static final String CD						= "cd";
 	private static final String CLS						= "cls";
@@ -362,14 +363,11 @@ class SystemShellTextArea extends ConsoleTextArea {
 			final String[] cmd = cmdList.toArray(new String[0]);
 
 			setEditable(false);
-			activeProcessThread = new Thread(() -> {
-				ProcessRunner pr = new ProcessRunner(cmd);
-				pr.setDirectory(pwd);
-				pr.setOutputListener(new ProcessOutputListener());
-				pr.run();
-			});
+			activeProcess = new ExternalProcess(cmd);
+			activeProcess.setDirectory(pwd);
+			activeProcess.setOutputListener(new ProcessOutputListener());
 			firePropertyChange(PROPERTY_PROCESS_RUNNING, false, true);
-			activeProcessThread.start();
+			activeProcess.start();
 
 		}
 
@@ -387,9 +385,9 @@ class SystemShellTextArea extends ConsoleTextArea {
 	 * Stops the currently running process, if any.
 	 */
 	public void stopCurrentProcess() {
-		if (activeProcessThread!=null && activeProcessThread.isAlive()) {
-			activeProcessThread.interrupt();
-			activeProcessThread = null;
+		if (activeProcess!=null && !activeProcess.isCompleted()) {
+			activeProcess.kill();
+			activeProcess = null;
 		}
 	}
 
@@ -519,15 +517,33 @@ class SystemShellTextArea extends ConsoleTextArea {
 	 */
 	private class ProcessOutputListener implements ProcessRunnerOutputListener{
 
+		/**
+		 * Whether the last output appended ended mid-line.
+		 */
+		private volatile boolean midLine;
+
 		@Override
 		public void outputWritten(Process p, String output, boolean stdout) {
-			append(output, stdout ? STYLE_STDOUT : STYLE_STDERR);
+			midLine = !output.endsWith("\n");
+			// Wait for the text to be appended, so a process writing
+			// faster than we can display waits rather than flooding the EDT
+			try {
+				SwingUtilities.invokeAndWait(() ->
+						appendImpl(output, stdout ? STYLE_STDOUT : STYLE_STDERR));
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			} catch (InvocationTargetException ite) {
+				ite.printStackTrace();
+			}
 		}
 
 		@Override
 		public void processCompleted(Process p, int rc, final Throwable e) {
 			// Required because of other Swing calls we make inside
 			SwingUtilities.invokeLater(() -> {
+				if (midLine) {
+					appendImpl("\n", STYLE_STDOUT);
+				}
 				if (e!=null) {
 					String text;
 					if (e instanceof InterruptedException) {
@@ -541,7 +557,7 @@ class SystemShellTextArea extends ConsoleTextArea {
 					append(text, STYLE_EXCEPTION);
 				}
 				// Not really necessary, should allow GC of Process resources
-				activeProcessThread = null;
+				activeProcess = null;
 				appendPrompt();
 				setEditable(true);
 				firePropertyChange(PROPERTY_PROCESS_RUNNING, true, false);
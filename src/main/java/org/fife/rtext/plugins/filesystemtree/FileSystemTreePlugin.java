@@ -72,22 +72,27 @@ public class FileSystemTreePlugin extends GUIPlugin {
 	 */
 	public FileSystemTreePlugin(AbstractPluggableGUIApplication<?> app) {
 
-		this.owner = (RText)app;
-		loadIcons();
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "<init>");
+		try {
+			this.owner = (RText)app;
+			loadIcons();
 
-		ResourceBundle msg = ResourceBundle.getBundle(BUNDLE_NAME);
-		this.name = msg.getString("Name");
+			ResourceBundle msg = ResourceBundle.getBundle(BUNDLE_NAME);
+			this.name = msg.getString("Name");
 
-		FileSystemTreePrefs prefs = loadPrefs();
-		viewAction = new ViewAction(owner, msg);
-		viewAction.setAccelerator(prefs.windowVisibilityAccelerator);
+			FileSystemTreePrefs prefs = loadPrefs();
+			viewAction = new ViewAction(owner, msg);
+			viewAction.setAccelerator(prefs.windowVisibilityAccelerator);
 
-		DockableWindow wind = createDockableWindow(prefs);
-		putDockableWindow(name, wind);
+			DockableWindow wind = createDockableWindow(prefs);
+			putDockableWindow(name, wind);
 
-		rootHistory = new ArrayList<>();
-		rootHistory.add(null);
-		rootHistoryOffs = 0;
+			rootHistory = new ArrayList<>();
+			rootHistory.add(null);
+			rootHistoryOffs = 0;
+		} finally {
+			span.end();
+		}
 
 	}
 
@@ -263,22 +268,27 @@ public class FileSystemTreePlugin extends GUIPlugin {
 	@Override
 	public void install(AbstractPluggableGUIApplication<?> app) {
 
-		RText rtext = (RText)app;
-
-		// Register an action to show the current file in this plugin
-		ShowCurrentFileInFileSystemTreeAction a = new ShowCurrentFileInFileSystemTreeAction(
-			rtext,this, ResourceBundle.getBundle(BUNDLE_NAME));
-		rtext.addAction(SELECT_CURRENT_FILE_ACTION_NAME, a);
-
-		// Add a menu item to toggle the visibility of the dockable window
-		owner.addAction(VIEW_FST_ACTION, viewAction);
-		RTextMenuBar mb = (RTextMenuBar)owner.getJMenuBar();
-		final JCheckBoxMenuItem item = new JCheckBoxMenuItem(viewAction);
-		item.setSelected(getDockableWindow(getPluginName()).isActive());
-		item.setSelected(getDockableWindow(getPluginName()).isActive());
-		item.applyComponentOrientation(app.getComponentOrientation());
-		JMenu viewMenu = mb.getMenuByName(RTextMenuBar.MENU_DOCKED_WINDOWS);
-		viewMenu.add(item);
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "install");
+		try {
+			RText rtext = (RText)app;
+
+			// Register an action to show the current file in this plugin
+			ShowCurrentFileInFileSystemTreeAction a = new ShowCurrentFileInFileSystemTreeAction(
+				rtext,this, ResourceBundle.getBundle(BUNDLE_NAME));
+			rtext.addAction(SELECT_CURRENT_FILE_ACTION_NAME, a);
+
+			// Add a menu item to toggle the visibility of the dockable window
+			owner.addAction(VIEW_FST_ACTION, viewAction);
+			RTextMenuBar mb = (RTextMenuBar)owner.getJMenuBar();
+			final JCheckBoxMenuItem item = new JCheckBoxMenuItem(viewAction);
+			item.setSelected(getDockableWindow(getPluginName()).isActive());
+			item.setSelected(getDockableWindow(getPluginName()).isActive());
+			item.applyComponentOrientation(app.getComponentOrientation());
+			JMenu viewMenu = mb.getMenuByName(RTextMenuBar.MENU_DOCKED_WINDOWS);
+			viewMenu.add(item);
+		} finally {
+			span.end();
+		}
 
 	}
 
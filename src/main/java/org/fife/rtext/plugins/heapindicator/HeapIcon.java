@@ -54,7 +54,8 @@ class HeapIcon implements Icon {
 		g.drawLine(x+width,y+1,    x+width,y+height-1);
 		g.drawLine(x+1,y,          x+width-1,y);
 		g.drawLine(x+1,y+height, x+width-1,y+height);
-		g.setColor(plugin.getIconForeground());
+		g.setColor(plugin.isMemoryLow() ? HeapIndicatorPlugin.LOW_MEMORY_COLOR :
+				plugin.getIconForeground());
 		long usedMem = plugin.getUsedMemory();
 		long totalMem = plugin.getTotalMemory();
 		int x2 = (int)(width*((float)usedMem/(float)totalMem));
@@ -14,6 +14,7 @@ import java.awt.Color;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
+import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
@@ -29,7 +30,9 @@ import javax.swing.Timer;
 import javax.swing.ToolTipManager;
 import javax.swing.UIManager;
 
+import org.fife.rtext.MemoryPressureMonitor;
 import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.StartupTracer;
 import org.fife.util.SubstanceUtil;
 import org.fife.ui.app.AbstractPluggableGUIApplication;
 import org.fife.ui.app.PluginOptionsDialogPanel;
@@ -56,6 +59,7 @@ public class HeapIndicatorPlugin extends StatusBarPlugin {
 	private boolean useSystemColors;
 	private Color iconForeground;
 	private Color iconBorderColor;
+	private final PropertyChangeListener memoryPressureListener;
 
 	private static Object[] objArray;
 
@@ -63,6 +67,11 @@ public class HeapIndicatorPlugin extends StatusBarPlugin {
 					"org.fife.rtext.plugins.heapindicator.HeapIndicator";
 	private static final String VERSION		= "4.0.0";
 
+	/**
+	 * The color the heap is painted in when memory is low.
+	 */
+	static final Color LOW_MEMORY_COLOR = new Color(220, 50, 50);
+
 
 	/**
 	 * Constructor.
@@ -71,31 +80,39 @@ public class HeapIndicatorPlugin extends StatusBarPlugin {
 	 */
 	public HeapIndicatorPlugin(AbstractPluggableGUIApplication<?> app) {
 
-		msg = ResourceBundle.getBundle(BUNDLE_NAME);
-		this.app = app;
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "<init>");
+		try {
+			msg = ResourceBundle.getBundle(BUNDLE_NAME);
+			this.app = app;
 
-		HeapIndicatorPrefs prefs = loadPrefs();
+			HeapIndicatorPrefs prefs = loadPrefs();
 
-		HeapIcon heapIcon = new HeapIcon(this);
-		setLayout(new BorderLayout());
-		setBorder(BorderFactory.createEmptyBorder(2,2,4,2));
-		add(new JLabel(heapIcon));
+			HeapIcon heapIcon = new HeapIcon(this);
+			setLayout(new BorderLayout());
+			setBorder(BorderFactory.createEmptyBorder(2,2,4,2));
+			add(new JLabel(heapIcon));
 
-		setUseSystemColors(prefs.useSystemColors);
-		setIconForeground(prefs.iconForeground);
-		setIconBorderColor(prefs.iconBorderColor);
-		setVisible(prefs.visible);
+			setUseSystemColors(prefs.useSystemColors);
+			setIconForeground(prefs.iconForeground);
+			setIconBorderColor(prefs.iconBorderColor);
+			setVisible(prefs.visible);
 
-		getData();
-		setRefreshInterval(prefs.refreshInterval); // Must be called!
+			getData();
+			setRefreshInterval(prefs.refreshInterval); // Must be called!
 
-		ToolTipManager.sharedInstance().registerComponent(this);
+			ToolTipManager.sharedInstance().registerComponent(this);
 
-		try {
-			URL res = getClass().getResource("indicator.png");
-			pluginIcon = new ImageIcon(ImageIO.read(res));
-		} catch (IOException ioe) { // Never happens
-			app.displayException(ioe);
+			memoryPressureListener = e -> repaint();
+			MemoryPressureMonitor.get().addLevelListener(memoryPressureListener);
+
+			try {
+				URL res = getClass().getResource("indicator.png");
+				pluginIcon = new ImageIcon(ImageIO.read(res));
+			} catch (IOException ioe) { // Never happens
+				app.displayException(ioe);
+			}
+		} finally {
+			span.end();
 		}
 
 	}
@@ -256,6 +273,12 @@ public class HeapIndicatorPlugin extends StatusBarPlugin {
 	public String getToolTipText() {
 		long num = bytesToKb(getUsedMemory());
 		long denom = bytesToKb(getTotalMemory());
+		if (isMemoryLow()) {
+			MemoryPressureMonitor.Level level = MemoryPressureMonitor.get().getLevel();
+			int levelCount = MemoryPressureMonitor.Level.values().length - 1;
+			return MessageFormat.format(msg.getString("Plugin.ToolTip.LowMemory"),
+					num, denom, level.ordinal(), levelCount);
+		}
 		String toolTip = msg.getString("Plugin.ToolTip.text");
 		toolTip = MessageFormat.format(toolTip, getParams(num, denom));
 		return toolTip;
@@ -310,6 +333,18 @@ public class HeapIndicatorPlugin extends StatusBarPlugin {
 	}
 
 
+	/**
+	 * Returns whether memory is low enough that the heap is painted in
+	 * a warning color.
+	 *
+	 * @return Whether memory is low.
+	 * @see MemoryPressureMonitor
+	 */
+	boolean isMemoryLow() {
+		return MemoryPressureMonitor.get().isAtLeast(MemoryPressureMonitor.Level.HIGH);
+	}
+
+
 	private void installTimer(int interval) {
 		if (timer==null) {
 			timerEvent = new TimerEvent();
@@ -447,6 +482,7 @@ public class HeapIndicatorPlugin extends StatusBarPlugin {
 	@Override
 	public boolean uninstall() {
 		uninstallTimer();
+		MemoryPressureMonitor.get().removeLevelListener(memoryPressureListener);
 		return true;
 	}
 
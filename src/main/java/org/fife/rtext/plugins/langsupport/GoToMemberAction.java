@@ -20,7 +20,7 @@ import javax.swing.KeyStroke;
 import javax.swing.UIManager;
 
 import org.fife.rtext.CurrentTextAreaEvent;
-import org.fife.rtext.CurrentTextAreaListener;
+import org.fife.rtext.DeferredCurrentTextAreaListener;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextEditorPane;
 import org.fife.ui.app.AppAction;
@@ -35,7 +35,7 @@ import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
  * @version 1.0
  */
 class GoToMemberAction extends AppAction<RText>
-			implements CurrentTextAreaListener {
+			implements DeferredCurrentTextAreaListener {
 
 
 	GoToMemberAction(RText app) {
@@ -90,7 +90,12 @@ public class Plugin extends GUIPlugin {
 	 * @param app The parent application.
 	 */
 	public Plugin(AbstractPluggableGUIApplication<?> app) {
-		setOptionsDialogPanelParentPanelID(RTextAreaOptionPanel.OPTION_PANEL_ID);
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "<init>");
+		try {
+			setOptionsDialogPanelParentPanelID(RTextAreaOptionPanel.OPTION_PANEL_ID);
+		} finally {
+			span.end();
+		}
 	}
 
 
@@ -206,44 +211,49 @@ public class Plugin extends GUIPlugin {
 	@Override
 	public void install(AbstractPluggableGUIApplication<?> app) {
 
-		icons = new HashMap<>();
-		icons.put(ParserNotice.Level.ERROR,
-			AppIconLoader.getIcon("toolbarError_dark.svg", "error_obj.gif", 14, 14));
-		icons.put(ParserNotice.Level.WARNING,
-			AppIconLoader.getIcon("warning_dark.svg", "warning_obj.gif", 14, 14));
-		// Informational icons are annoying - spelling errors, etc.
-		//icons.put(ParserNotice.Level.INFO, createIcon("info_obj.gif"));
-
-		rtext = (RText)app;
-		listener = new Listener();
-		AbstractMainView view = rtext.getMainView();
-		for (int i=0; i<view.getNumDocuments(); i++) {
-			addSupport(view.getRTextEditorPaneAt(i));
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "install");
+		try {
+			icons = new HashMap<>();
+			icons.put(ParserNotice.Level.ERROR,
+				AppIconLoader.getIcon("toolbarError_dark.svg", "error_obj.gif", 14, 14));
+			icons.put(ParserNotice.Level.WARNING,
+				AppIconLoader.getIcon("warning_dark.svg", "warning_obj.gif", 14, 14));
+			// Informational icons are annoying - spelling errors, etc.
+			//icons.put(ParserNotice.Level.INFO, createIcon("info_obj.gif"));
+
+			rtext = (RText)app;
+			listener = new Listener();
+			AbstractMainView view = rtext.getMainView();
+			for (int i=0; i<view.getNumDocuments(); i++) {
+				addSupport(view.getRTextEditorPaneAt(i));
+			}
+			view.addPropertyChangeListener(listener);
+
+			// Custom FunctionCompletions can only be loaded from the plugin jar.
+			CompletionXMLParser.setDefaultCompletionClassLoader(
+												getClass().getClassLoader());
+
+			LangSupportPreferences prefs = loadPreferences();
+
+			addActionsToMenus();
+
+			// Install our custom source browser tree views for some languages.
+			System.setProperty(
+					SourceBrowserPlugin.CUSTOM_HANDLER_PREFIX + RSyntaxTextArea.SYNTAX_STYLE_JAVA,
+					"org.fife.rtext.plugins.langsupport.JavaSourceBrowserTreeConstructor");
+			System.setProperty(
+					SourceBrowserPlugin.CUSTOM_HANDLER_PREFIX + RSyntaxTextArea.SYNTAX_STYLE_JAVASCRIPT,
+					"org.fife.rtext.plugins.langsupport.JavaScriptSourceBrowserTreeConstructor");
+			System.setProperty(
+					SourceBrowserPlugin.CUSTOM_HANDLER_PREFIX + RSyntaxTextArea.SYNTAX_STYLE_XML,
+					"org.fife.rtext.plugins.langsupport.XmlSourceBrowserTreeConstructor");
+
+			// Language-specific tweaks
+			typeScriptSupport = new TypeScriptSupport();
+			typeScriptSupport.install(rtext, this, prefs);
+		} finally {
+			span.end();
 		}
-		view.addPropertyChangeListener(listener);
-
-		// Custom FunctionCompletions can only be loaded from the plugin jar.
-		CompletionXMLParser.setDefaultCompletionClassLoader(
-											getClass().getClassLoader());
-
-		LangSupportPreferences prefs = loadPreferences();
-
-		addActionsToMenus();
-
-		// Install our custom source browser tree views for some languages.
-		System.setProperty(
-				SourceBrowserPlugin.CUSTOM_HANDLER_PREFIX + RSyntaxTextArea.SYNTAX_STYLE_JAVA,
-				"org.fife.rtext.plugins.langsupport.JavaSourceBrowserTreeConstructor");
-		System.setProperty(
-				SourceBrowserPlugin.CUSTOM_HANDLER_PREFIX + RSyntaxTextArea.SYNTAX_STYLE_JAVASCRIPT,
-				"org.fife.rtext.plugins.langsupport.JavaScriptSourceBrowserTreeConstructor");
-		System.setProperty(
-				SourceBrowserPlugin.CUSTOM_HANDLER_PREFIX + RSyntaxTextArea.SYNTAX_STYLE_XML,
-				"org.fife.rtext.plugins.langsupport.XmlSourceBrowserTreeConstructor");
-
-		// Language-specific tweaks
-		typeScriptSupport = new TypeScriptSupport();
-		typeScriptSupport.install(rtext, this, prefs);
 
 	}
 
@@ -0,0 +1,149 @@
+/*
+ * 12/14/2015
+ *
+ * Copyright (C) 2015 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.langsupport.typescript;
+
+import java.io.File;
+import javax.swing.SwingUtilities;
+
+import org.fife.io.ProcessRunnerOutputListener;
+import org.fife.rtext.CancellationToken;
+import org.fife.rtext.ExternalProcess;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.TaskScheduler;
+import org.fife.rtext.plugins.langsupport.Plugin;
+
+
+/**
+ * A task that launches <code>tsc</code> and sends its output to the
+ * TypeScript warning/error docked window.  It runs on the
+ * {@link TaskScheduler}, one build at a time.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class BuildTask implements TaskScheduler.Task {
+
+	private final TypeScriptNoticeWindow window;
+	private final File tsConfig;
+
+	/**
+	 * The scheduler key of builds, so they don't run at the same time.
+	 */
+	private static final String TASK_KEY = "TypeScript.build";
+
+
+	private BuildTask(TypeScriptNoticeWindow window, File tsConfig) {
+		this.window = window;
+		this.tsConfig = tsConfig;
+	}
+
+
+	@Override
+	public void run(CancellationToken token) {
+
+		String[] cmd;
+		if (File.separatorChar=='/') {
+			cmd = new String[] { "/bin/sh", "-c", "tsc", };
+		}
+		else {
+			cmd = new String[] { "cmd.exe", "/c", "tsc", };
+		}
+		// tsc reports its errors on stdout
+		StringBuilder stdout = new StringBuilder();
+		ExternalProcess process = new ExternalProcess(cmd);
+		process.setDirectory(tsConfig.getParentFile());
+		process.setOutputListener(new ProcessRunnerOutputListener() {
+			@Override
+			public void outputWritten(Process p, String output, boolean isStdout) {
+				if (isStdout) {
+					stdout.append(output);
+				}
+			}
+			@Override
+			public void processCompleted(Process p, int rc, Throwable e) {
+			}
+		});
+		process.start();
+		try {
+			process.waitFor();
+		} catch (InterruptedException ie) {
+			process.kill();
+			Thread.currentThread().interrupt();
+			return;
+		}
+
+		// Notify the dockable window to parse tsc's output and display the
+		// returned warnings and errors
+		String output = stdout.toString();
+		SwingUtilities.invokeLater(() ->
+				window.parseErrors(tsConfig.getParentFile(), output));
+
+	}
+
+
+	/**
+	 * Returns the tsconfig file that's the nearest ancestor to the file
+	 * being edited in the active window.  This should be called on the
+	 * EDT.
+	 *
+	 * @param plugin The language support plugin.
+	 * @return The tsconfig file.
+	 * @throws IllegalArgumentException If there is no ancestor tsconfig file.
+	 */
+	private static File getTsConfig(Plugin plugin) {
+
+		RTextEditorPane textArea = plugin.getRText().getMainView().
+				getCurrentTextArea();
+		if (!textArea.isLocal()) {
+			throw new IllegalArgumentException("TypeScript.Error.NotLocalFile");
+		}
+
+		File dir = new File(textArea.getFileFullPath()).getParentFile();
+		File tsConfig = new File(dir, "tsconfig.json");
+		while (!tsConfig.isFile() && dir.getParentFile() != null) {
+			dir = dir.getParentFile();
+			tsConfig = new File(dir, "tsconfig.json");
+		}
+
+		if (!tsConfig.isFile()) {
+			String desc = plugin.getBundle().getString(
+					"TypeScript.Error.NoTsConfig");
+			throw new IllegalArgumentException(desc);
+		}
+
+		return tsConfig;
+
+	}
+
+
+	/**
+	 * Starts a build based off the <code>tsconfig</code> file closest to the
+	 * active editor's file.  This should be called on the EDT.
+	 *
+	 * @param plugin The language support plugin.
+	 * @param window The window to display the results in.
+	 */
+	static void start(Plugin plugin, TypeScriptNoticeWindow window) {
+
+		File tsConfig;
+		try {
+			tsConfig = getTsConfig(plugin);
+		} catch (IllegalArgumentException iae) {
+			plugin.getRText().displayException(iae);
+			return;
+		}
+
+		window.setTitleWhileBuilding(tsConfig);
+		TaskScheduler.get().submitCoalesced(TaskScheduler.Lane.INTERACTIVE,
+				TASK_KEY, new BuildTask(window, tsConfig));
+
+	}
+
+
+}
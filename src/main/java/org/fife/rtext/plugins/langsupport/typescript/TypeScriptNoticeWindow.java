@@ -81,8 +81,8 @@ class TypeScriptNoticeWindow extends AbstractParserNoticeWindow {
 
 
 	/**
-	 * Starts a thread to do the build based off the <code>tsconfig</code> file
-	 * closest to the active editor's file.
+	 * Starts a build based off the <code>tsconfig</code> file closest to the
+	 * active editor's file.
 	 */
 	public void doBuild() {
 
@@ -94,7 +94,7 @@ class TypeScriptNoticeWindow extends AbstractParserNoticeWindow {
 		this.focusInDockableWindowGroup();
 		getRText().getMainView().getCurrentTextArea().requestFocusInWindow();
 		model.update(null, null); // Clear prior results
-		new BuildThread(plugin, this).start();
+		BuildTask.start(plugin, this);
 
 	}
 
@@ -23,6 +23,7 @@ import javax.swing.JMenuItem;
 
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.StartupTracer;
 import org.fife.ui.app.AbstractPluggableGUIApplication;
 import org.fife.ui.app.AbstractPlugin;
 import org.fife.ui.app.MenuBar;
@@ -61,20 +62,25 @@ public class MacroPlugin extends AbstractPlugin
 	 */
 	public MacroPlugin(AbstractPluggableGUIApplication<?> app) {
 
-		MacroPrefs prefs = loadPrefs();
-
-		RText rtext = (RText)app;
-		this.app = rtext;
-		newMacroAction = new NewMacroAction(this, rtext, MSG);
-		newMacroAction.setAccelerator(prefs.newMacroAccelerator);
-		rtext.addAction(NEW_MACRO_ACTION, newMacroAction);
-
-		editMacrosAction = new EditMacrosAction(rtext, MSG);
-		editMacrosAction.setAccelerator(prefs.editMacrosAccelerator);
-		rtext.addAction(EDIT_MACROS_ACTION, editMacrosAction);
-
-		updateActionIcons(rtext.getIconGroup());
-		rtext.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, this);
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "<init>");
+		try {
+			MacroPrefs prefs = loadPrefs();
+
+			RText rtext = (RText)app;
+			this.app = rtext;
+			newMacroAction = new NewMacroAction(this, rtext, MSG);
+			newMacroAction.setAccelerator(prefs.newMacroAccelerator);
+			rtext.addAction(NEW_MACRO_ACTION, newMacroAction);
+
+			editMacrosAction = new EditMacrosAction(rtext, MSG);
+			editMacrosAction.setAccelerator(prefs.editMacrosAccelerator);
+			rtext.addAction(EDIT_MACROS_ACTION, editMacrosAction);
+
+			updateActionIcons(rtext.getIconGroup());
+			rtext.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, this);
+		} finally {
+			span.end();
+		}
 	}
 
 
@@ -176,22 +182,27 @@ public class MacroPlugin extends AbstractPlugin
 	@Override
 	public void install(AbstractPluggableGUIApplication<?> app) {
 
-		MacroManager.get().addPropertyChangeListener(
-				MacroManager.PROPERTY_MACROS, this);
-
-		// Add a new menu for selecting macros
-		RText rtext = (RText)app;
-		MenuBar mb = (org.fife.ui.app.MenuBar)rtext.getJMenuBar();
-		macrosMenu = new JMenu(getString("Plugin.Name"));
-		Action a = rtext.getAction(MacroPlugin.NEW_MACRO_ACTION);
-		macrosMenu.add(createMenuItem(a));
-		a = rtext.getAction(MacroPlugin.EDIT_MACROS_ACTION);
-		macrosMenu.add(createMenuItem(a));
-		macrosMenu.addSeparator();
-		mb.addExtraMenu(macrosMenu);
-		mb.revalidate();
-
-		loadMacros(); // Do after menu has been added
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "install");
+		try {
+			MacroManager.get().addPropertyChangeListener(
+					MacroManager.PROPERTY_MACROS, this);
+
+			// Add a new menu for selecting macros
+			RText rtext = (RText)app;
+			MenuBar mb = (org.fife.ui.app.MenuBar)rtext.getJMenuBar();
+			macrosMenu = new JMenu(getString("Plugin.Name"));
+			Action a = rtext.getAction(MacroPlugin.NEW_MACRO_ACTION);
+			macrosMenu.add(createMenuItem(a));
+			a = rtext.getAction(MacroPlugin.EDIT_MACROS_ACTION);
+			macrosMenu.add(createMenuItem(a));
+			macrosMenu.addSeparator();
+			mb.addExtraMenu(macrosMenu);
+			mb.revalidate();
+
+			loadMacros(); // Do after menu has been added
+		} finally {
+			span.end();
+		}
 
 	}
 
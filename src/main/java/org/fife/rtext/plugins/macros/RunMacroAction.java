@@ -24,7 +24,12 @@ import javax.script.ScriptEngineManager;
 import javax.swing.JOptionPane;
 import javax.swing.KeyStroke;
 
+import org.fife.rtext.BulkEdit;
+import org.fife.rtext.CacheManager;
+import org.fife.rtext.ManagedCache;
 import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.jfr.MacroEvent;
 import org.fife.ui.app.AppAction;
 
 
@@ -47,16 +52,13 @@ class RunMacroAction extends AppAction<RText> {
 	private final Macro macro;
 
 	/**
-	 * The script engine for JavaScript, shared across all instances of this
-	 * action.
+	 * The script engines, by name, shared across all instances of this
+	 * action.  They are only evicted when memory is low, and are recreated
+	 * when next needed.
 	 */
-	private static ScriptEngine jsEngine;
-
-	/**
-	 * The script engine for Groovy, shared across all instances of this
-	 * action.
-	 */
-	private static ScriptEngine groovyEngine;
+	private static final ManagedCache<String, ScriptEngine> ENGINES =
+			CacheManager.get().createCache("Macro Script Engines", 2,
+					(name, engine) -> 1);
 
 	private static final Pattern GROOVY_JAR_NAME_PATTERN =
 			Pattern.compile("^groovy-[\\d.]+\\.jar$");
@@ -125,12 +127,22 @@ class RunMacroAction extends AppAction<RText> {
 			return;
 		}
 
+		Throwable error = null;
+		MacroEvent event = new MacroEvent();
+		event.begin();
+		event.setMacro(macro.getName(), macro.getFile());
 		try {
 			try (BufferedReader r = new BufferedReader(new FileReader(file))) {
 				handleSubmit(file.getName(), r);
 			}
 		} catch (Throwable t/*IOException ioe*/) {
-			getApplication().displayException(t/*ioe*/);
+			error = t;
+			event.setFailed(t);
+		}
+		event.commit();
+
+		if (error!=null) {
+			getApplication().displayException(error);
 		}
 
 	}
@@ -172,12 +184,18 @@ class RunMacroAction extends AppAction<RText> {
 		Bindings bindings = engine.createBindings();
 		engine.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
 
-		// We always reset the value of "rtext" and "textArea", but
-		// all other variables they've modified are persistent.
+		// We always reset the value of "rtext", "textArea" and "bulkEdit",
+		// but all other variables they've modified are persistent.
+		RTextEditorPane textArea = app.getMainView().getCurrentTextArea();
 		bindings.put("rtext", app);
-		bindings.put("textArea", app.getMainView().getCurrentTextArea());
+		bindings.put("textArea", textArea);
 
-		engine.eval(r);
+		// Don't leave the text area stuck if the macro doesn't end its
+		// bulk edit
+		try (BulkEdit bulkEdit = new BulkEdit(textArea)) {
+			bindings.put("bulkEdit", bulkEdit);
+			engine.eval(r);
+		}
 
 	}
 
@@ -200,11 +218,7 @@ class RunMacroAction extends AppAction<RText> {
 			return null;
 		}
 
-		if (groovyEngine==null) {
-			groovyEngine = initScriptEngineImpl("Groovy");
-		}
-
-		return groovyEngine;
+		return ENGINES.computeIfAbsent("Groovy", this::initScriptEngineImpl);
 
 	}
 
@@ -215,10 +229,7 @@ class RunMacroAction extends AppAction<RText> {
 	 * @return The script engine, or <code>null</code> if it cannot be created.
 	 */
 	private ScriptEngine initJavaScriptEngine() {
-		if (jsEngine==null) {
-			jsEngine = initScriptEngineImpl("JavaScript");
-		}
-		return jsEngine;
+		return ENGINES.computeIfAbsent("JavaScript", this::initScriptEngineImpl);
 	}
 
 
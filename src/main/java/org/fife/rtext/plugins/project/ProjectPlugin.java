@@ -29,6 +29,7 @@ import javax.swing.tree.TreePath;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextMenuBar;
 import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.StartupTracer;
 import org.fife.rtext.plugins.project.model.Workspace;
 import org.fife.rtext.plugins.project.tree.AbstractWorkspaceTreeNode;
 import org.fife.rtext.plugins.project.tree.WorkspaceTree;
@@ -67,32 +68,37 @@ public class ProjectPlugin extends GUIPlugin {
 
 	public ProjectPlugin(AbstractPluggableGUIApplication<?> app) {
 
-		rtext = (RText)app; // Needed now in case of XML errors below.
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "<init>");
+		try {
+			rtext = (RText)app; // Needed now in case of XML errors below.
 
-		loadIcons();
-		ProjectPluginPrefs prefs = loadPrefs();
+			loadIcons();
+			ProjectPluginPrefs prefs = loadPrefs();
 
-		AppAction<RText> a = new ViewProjectsAction((RText)app, this);
-		a.setAccelerator(prefs.windowVisibilityAccelerator);
-		app.addAction(VIEW_CONSOLE_ACTION, a);
+			AppAction<RText> a = new ViewProjectsAction((RText)app, this);
+			a.setAccelerator(prefs.windowVisibilityAccelerator);
+			app.addAction(VIEW_CONSOLE_ACTION, a);
 
-		String workspaceOverride = System.getProperty(PROPERTY_INITIAL_WORKSPACE);
-		if (workspaceOverride!=null) {
-			File wsOverrideFile = new File(workspaceOverride);
-			if (wsOverrideFile.isFile()) {
-				prefs.openWorkspaceName = wsOverrideFile.getAbsolutePath();
+			String workspaceOverride = System.getProperty(PROPERTY_INITIAL_WORKSPACE);
+			if (workspaceOverride!=null) {
+				File wsOverrideFile = new File(workspaceOverride);
+				if (wsOverrideFile.isFile()) {
+					prefs.openWorkspaceName = wsOverrideFile.getAbsolutePath();
+				}
 			}
+			loadInitialWorkspace(prefs.openWorkspaceName);
+
+			// Window MUST always be created for preference saving on shutdown
+			ProjectWindow window = new ProjectWindow(rtext, this, prefs);
+			ComponentOrientation o = ComponentOrientation.
+					getOrientation(Locale.getDefault());
+			window.applyComponentOrientation(o);
+			putDockableWindow(DOCKABLE_WINDOW_PROJECTS, window);
+
+			getTree().setExpandsSelectedPaths(true);
+		} finally {
+			span.end();
 		}
-		loadInitialWorkspace(prefs.openWorkspaceName);
-
-		// Window MUST always be created for preference saving on shutdown
-		ProjectWindow window = new ProjectWindow(rtext, this, prefs);
-		ComponentOrientation o = ComponentOrientation.
-				getOrientation(Locale.getDefault());
-		window.applyComponentOrientation(o);
-		putDockableWindow(DOCKABLE_WINDOW_PROJECTS, window);
-
-		getTree().setExpandsSelectedPaths(true);
 
 	}
 
@@ -226,21 +232,26 @@ public class ProjectPlugin extends GUIPlugin {
 	@Override
 	public void install(AbstractPluggableGUIApplication<?> app) {
 
-		File workspaceDir = getWorkspacesDir();
-		if (!workspaceDir.isDirectory()) {
-			workspaceDir.mkdirs();
-		}
-
-		RTextMenuBar mb = (RTextMenuBar)app.getJMenuBar();
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "install");
+		try {
+			File workspaceDir = getWorkspacesDir();
+			if (!workspaceDir.isDirectory()) {
+				workspaceDir.mkdirs();
+			}
 
-		// Add an item to the "View" menu to toggle console visibility
-		final JMenu menu = mb.getMenuByName(RTextMenuBar.MENU_DOCKED_WINDOWS);
-		Action a = rtext.getAction(VIEW_CONSOLE_ACTION);
-		final JCheckBoxMenuItem item = new JCheckBoxMenuItem(a);
-		item.setToolTipText(null);
-		item.setSelected(isProjectWindowVisible());
-		item.applyComponentOrientation(app.getComponentOrientation());
-		menu.add(item);
+			RTextMenuBar mb = (RTextMenuBar)app.getJMenuBar();
+
+			// Add an item to the "View" menu to toggle console visibility
+			final JMenu menu = mb.getMenuByName(RTextMenuBar.MENU_DOCKED_WINDOWS);
+			Action a = rtext.getAction(VIEW_CONSOLE_ACTION);
+			final JCheckBoxMenuItem item = new JCheckBoxMenuItem(a);
+			item.setToolTipText(null);
+			item.setSelected(isProjectWindowVisible());
+			item.applyComponentOrientation(app.getComponentOrientation());
+			menu.add(item);
+		} finally {
+			span.end();
+		}
 
 	}
 
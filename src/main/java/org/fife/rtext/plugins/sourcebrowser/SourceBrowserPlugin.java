@@ -51,7 +51,7 @@ import org.fife.ui.rsyntaxtextarea.Token;
  * @version 1.2
  */
 public class SourceBrowserPlugin extends GUIPlugin
-				implements CurrentTextAreaListener, PropertyChangeListener {
+				implements DeferredCurrentTextAreaListener, PropertyChangeListener {
 
 	public static final String CTAGS_TYPE_EXUBERANT	= "Exuberant";
 	public static final String CTAGS_TYPE_STANDARD	= "Standard";
@@ -67,8 +67,9 @@ public class SourceBrowserPlugin extends GUIPlugin
 	private Icon darkThemeIcon;
 	private Icon lightThemeIcon;
 	private boolean useHTMLToolTips;
-	private final SourceBrowserThread sourceBrowserThread;
+	private TaskScheduler.ScheduledTask sourceBrowserTask;
 	private final SourceTreeNode workingRoot;
+	private final ManagedCache<RSyntaxTextArea, JTree> treeCache;
 	private JToolBar dockableWindowTB;
 
 	private String ctagsExecutableLocation;
@@ -90,7 +91,15 @@ public class SourceBrowserPlugin extends GUIPlugin
 
 	private static final String VIEW_SB_ACTION	= "ViewSourceBrowserAction";
 
-	private static final String CACHED_SOURCE_TREE = "sourceBrowser.fileSystemTree";
+	/**
+	 * The maximum number of text areas whose source trees are cached.
+	 */
+	private static final int MAX_CACHED_TREES = 16;
+
+	/**
+	 * The scheduler key of ctags runs, so only one runs at a time.
+	 */
+	private static final String TASK_KEY = "SourceBrowser.ctags";
 
 	private static final String RENDERER_WRAPPER_CLASS_NAME =
 		"org.fife.rtext.plugins.sourcebrowser.SubstanceTreeCellRendererWrapper";
@@ -103,28 +112,39 @@ public class SourceBrowserPlugin extends GUIPlugin
 	 */
 	public SourceBrowserPlugin(AbstractPluggableGUIApplication<?> app) {
 
-		this.owner = (RText)app;
-		this.owner.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, this);
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "<init>");
+		try {
+			this.owner = (RText)app;
+			this.owner.addPropertyChangeListener(RText.ICON_STYLE_PROPERTY, this);
+
+			loadIcons();
 
-		loadIcons();
+			msg = ResourceBundle.getBundle(BUNDLE_NAME);
+			this.name = msg.getString("Name");
 
-		msg = ResourceBundle.getBundle(BUNDLE_NAME);
-		this.name = msg.getString("Name");
+			SourceBrowserPrefs sbp = loadPrefs();
 
-		SourceBrowserPrefs sbp = loadPrefs();
+			viewAction = new ViewAction(owner, msg);
+			viewAction.setAccelerator(sbp.windowVisibilityAccelerator);
 
-		viewAction = new ViewAction(owner, msg);
-		viewAction.setAccelerator(sbp.windowVisibilityAccelerator);
+			// Set any preferences saved from the last time this plugin was used.
+			DockableWindow wind = createDockableWindow(sbp);
+			putDockableWindow(getPluginName(), wind);
+			setCTagsExecutableLocation(sbp.ctagsExecutable);
+			setCTagsType(sbp.ctagsType);
+			setUseHTMLToolTips(sbp.useHTMLToolTips);
 
-		// Set any preferences saved from the last time this plugin was used.
-		DockableWindow wind = createDockableWindow(sbp);
-		putDockableWindow(getPluginName(), wind);
-		setCTagsExecutableLocation(sbp.ctagsExecutable);
-		setCTagsType(sbp.ctagsType);
-		setUseHTMLToolTips(sbp.useHTMLToolTips);
+			workingRoot = new SourceTreeNode(msg.getString("Working"));
 
-		sourceBrowserThread = new SourceBrowserThread(this);
-		workingRoot = new SourceTreeNode(msg.getString("Working"));
+			// Trees may hold a parsed outline of their file, so only a few
+			// are kept around for when the user switches back to a file
+			treeCache = CacheManager.get().createCache("Source Browser Trees",
+					MAX_CACHED_TREES, (textArea, tree) -> 1);
+			treeCache.setEvictionListener((textArea, tree) ->
+					SwingUtilities.invokeLater(() -> sourceTreeEvicted(tree)));
+		} finally {
+			span.end();
+		}
 
 	}
 
@@ -223,23 +243,23 @@ public class SourceBrowserPlugin extends GUIPlugin
 		// If we should parse the file...
 		if (doChange) {
 
-			// Stop the thread if it's still parsing the previous
+			// Stop the task if it's still parsing the previous
 			// request for some reason. Note that it's okay to
-			// interrupt it even if it's already done (e.g. not running).
-			if (sourceBrowserThread!=null) {
-				sourceBrowserThread.interrupt();
+			// cancel it even if it's already done (e.g. not running).
+			if (sourceBrowserTask!=null) {
+				sourceBrowserTask.cancel(true);
+				sourceBrowserTask = null;
 			}
 
 			RTextEditorPane textArea = owner.getMainView().getCurrentTextArea();
 
-			JTree prevSourceTree = (JTree)textArea.
-				getClientProperty(CACHED_SOURCE_TREE);
+			JTree prevSourceTree = treeCache.get(textArea);
 			if (switchedToAnotherTextArea && prevSourceTree != null) {
 				sourceTree = prevSourceTree;
 				scrollPane.setViewportView(sourceTree);
 				return;
 			}
-			textArea.putClientProperty(CACHED_SOURCE_TREE, null);
+			treeCache.remove(textArea);
 
 			// If the user has registered a special handler for this particular
 			// language, use it instead.
@@ -260,7 +280,7 @@ public class SourceBrowserPlugin extends GUIPlugin
 						UIUtil.removeTabbedPaneFocusTraversalKeyBindings(sourceTree);
 						ensureSourceTreeSortedProperly();
 						scrollPane.setViewportView(sourceTree);
-						textArea.putClientProperty(CACHED_SOURCE_TREE, sourceTree);
+						treeCache.put(textArea, sourceTree);
 					} catch (RuntimeException re) { // FindBugs
 						throw re;
 					} catch (Exception ex) {
@@ -275,7 +295,7 @@ public class SourceBrowserPlugin extends GUIPlugin
 				wind.setPrimaryComponent(sourceTree);
 				UIUtil.removeTabbedPaneFocusTraversalKeyBindings(sourceTree);
 				scrollPane.setViewportView(sourceTree);
-				textArea.putClientProperty(CACHED_SOURCE_TREE, sourceTree);
+				treeCache.put(textArea, sourceTree);
 			}
 
 			// If we cannot find the ctags executable, quit now.
@@ -298,14 +318,13 @@ public class SourceBrowserPlugin extends GUIPlugin
 			}
 			((DefaultSourceTree)sourceTree).setRoot(workingRoot);
 
-			// Start a new process in a separate thread to parse the
-			// file.  When the thread completes it will automatically
+			// Start a new process in the background to parse the
+			// file.  When the task completes it will automatically
 			// update our source tree.
-			if (sourceBrowserThread!=null) {
-				sourceBrowserThread.reset();
-				sourceBrowserThread.start(10000, textArea, style, language,
-												(DefaultSourceTree)sourceTree);
-			}
+			sourceBrowserTask = TaskScheduler.get().submitCoalesced(
+					TaskScheduler.Lane.VISIBLE_DOCUMENT, TASK_KEY,
+					new SourceBrowserTask(this, 10000, textArea, style,
+							language, (DefaultSourceTree)sourceTree));
 
 		}
 
@@ -531,17 +550,22 @@ public class SourceBrowserPlugin extends GUIPlugin
 	@Override
 	public void install(AbstractPluggableGUIApplication<?> app) {
 
-		owner.getMainView().addCurrentTextAreaListener(this);
-		owner.getMainView().addPropertyChangeListener(AbstractMainView.TEXT_AREA_REMOVED_PROPERTY, this);
-
-		// Add a menu item to toggle the visibility of the dockable window
-		owner.addAction(VIEW_SB_ACTION, viewAction);
-		RTextMenuBar mb = (RTextMenuBar)owner.getJMenuBar();
-		final JCheckBoxMenuItem item = new JCheckBoxMenuItem(viewAction);
-		item.setSelected(getDockableWindow(getPluginName()).isActive());
-		item.applyComponentOrientation(app.getComponentOrientation());
-		JMenu viewMenu = mb.getMenuByName(RTextMenuBar.MENU_DOCKED_WINDOWS);
-		viewMenu.add(item);
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "install");
+		try {
+			owner.getMainView().addCurrentTextAreaListener(this);
+			owner.getMainView().addPropertyChangeListener(AbstractMainView.TEXT_AREA_REMOVED_PROPERTY, this);
+
+			// Add a menu item to toggle the visibility of the dockable window
+			owner.addAction(VIEW_SB_ACTION, viewAction);
+			RTextMenuBar mb = (RTextMenuBar)owner.getJMenuBar();
+			final JCheckBoxMenuItem item = new JCheckBoxMenuItem(viewAction);
+			item.setSelected(getDockableWindow(getPluginName()).isActive());
+			item.applyComponentOrientation(app.getComponentOrientation());
+			JMenu viewMenu = mb.getMenuByName(RTextMenuBar.MENU_DOCKED_WINDOWS);
+			viewMenu.add(item);
+		} finally {
+			span.end();
+		}
 
 	}
 
@@ -711,6 +735,19 @@ public class SourceBrowserPlugin extends GUIPlugin
 	}
 
 
+	/**
+	 * Called on the EDT when a source tree is evicted from the cache.
+	 * The tree is uninstalled unless it's being displayed.
+	 *
+	 * @param tree The evicted tree.
+	 */
+	private void sourceTreeEvicted(JTree tree) {
+		if (tree!=sourceTree && tree instanceof AbstractSourceTree) {
+			((AbstractSourceTree)tree).uninstall();
+		}
+	}
+
+
 	/**
 	 * Removes and uninstalls the cached source tree, if any.  This is called whenever
 	 * a text area is closed.
@@ -718,11 +755,10 @@ public class SourceBrowserPlugin extends GUIPlugin
 	 * @param textArea The text area that was closed.
 	 */
 	private void uninstallSourceTree(RSyntaxTextArea textArea) {
-		Object tree = textArea.getClientProperty(CACHED_SOURCE_TREE);
+		Object tree = treeCache.remove(textArea);
 		if (tree instanceof AbstractSourceTree) {
 			((AbstractSourceTree)tree).uninstall();
 		}
-		textArea.putClientProperty(CACHED_SOURCE_TREE, null);
 	}
 
 
@@ -1,8 +1,8 @@
 /*
  * 02/14/2006
  *
- * SourceBrowserThread.java - Runs the source browser executable in a separate
- * thread and constructs the source browser information after its run.
+ * SourceBrowserTask.java - Runs the source browser executable in the
+ * background and constructs the source browser information after its run.
  * Copyright (C) 2006 Robert Futrell
  * http://fifesoft.com/rtext
  * Licensed under a modified BSD license.
@@ -14,41 +14,45 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 import javax.swing.Icon;
+import javax.swing.SwingUtilities;
 
 import org.fife.ctags.TagEntry;
-import org.fife.io.ProcessRunner;
+import org.fife.io.ProcessRunnerOutputListener;
+import org.fife.rtext.CancellationToken;
+import org.fife.rtext.ExternalProcess;
 import org.fife.rtext.RTextEditorPane;
-import org.fife.ui.GUIWorkerThread;
+import org.fife.rtext.TaskScheduler;
+import org.fife.rtext.jfr.OutlineRefreshEvent;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
 
 /**
- * A thread that actually runs the ctags executable and organizes its output
- * into a data structure for the GUI to display.  All work is done in this
- * thread to keep the GUI from freezing.
+ * A task that actually runs the ctags executable and organizes its output
+ * into a data structure for the GUI to display.  It runs on the
+ * {@link TaskScheduler} to keep the GUI from freezing.  A new task is
+ * created for each file parsed.
  *
  * @author Robert Futrell
  * @version 1.0
  */
-class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements SyntaxConstants {
+class SourceBrowserTask implements TaskScheduler.Task, SyntaxConstants {
 
-	private Map<String, List<TagEntry>> map;
-	private SourceBrowserPlugin plugin;
-	private List<List<TagEntry>> arrayListBuffer;	// Cached array lists for performance.
+	private final Map<String, List<TagEntry>> map;
+	private final SourceBrowserPlugin plugin;
 
-	private int maxTime;	// Milliseconds to wait for ctags to return.
-	private RTextEditorPane textArea;
-	private String style;
-	private String language;
-	private DefaultSourceTree tree;
+	private final int maxTime;	// Milliseconds to wait for ctags to return.
+	private final String fileName;
+	private final String fileFullPath;
+	private final String style;
+	private final String language;
+	private final DefaultSourceTree tree;
 
-	private static final int MAX_NUM_HASH_MAPS = 12;	// Longest string length in tagTypesMap.
 	private static final Map<String, String> TAG_TYPES_MAP;
 
 	static {
@@ -90,21 +94,41 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 
 
 	/**
-	 * Constructor.
+	 * Constructor.  This should be called on the EDT.
 	 *
 	 * @param plugin The source browser plugin.
+	 * @param maxTime The maximum amount of time to wait for ctags before
+	 *        giving up.
+	 * @param textArea The text area containing the file we're parsing.
+	 * @param style The programming language to parse the file with.
+	 * @param language The programming language of the file to parse.
+	 * @param tree The tree to modify.
 	 */
-	SourceBrowserThread(SourceBrowserPlugin plugin) {
-
+	SourceBrowserTask(SourceBrowserPlugin plugin, int maxTime,
+			RTextEditorPane textArea, String style, String language,
+			DefaultSourceTree tree) {
 		this.plugin = plugin;
+		this.maxTime = maxTime;
+		fileName = textArea.getFileName();
+		fileFullPath = textArea.getFileFullPath();
+		this.style = style;
+		this.language = language;
+		this.tree = tree;
 		map = new HashMap<>();
+	}
 
-		// Create a cache of array lists to use for performance.
-		arrayListBuffer = new ArrayList<>(MAX_NUM_HASH_MAPS);
-		for (int i=0; i<MAX_NUM_HASH_MAPS; i++) {
-			arrayListBuffer.add(new ArrayList<>());
-		}
 
+	/**
+	 * Adds a tag to our maps, if it's a type supported for this language.
+	 *
+	 * @param line A line of ctags output.
+	 */
+	private void addTag(String line) {
+		TagEntry entry = new SourceBrowserPlugin.ExtendedTagEntry(line);
+		List<TagEntry> list = map.get(entry.kind);
+		if (list!=null) {	// A supported tag type for this language.
+			list.add(entry);
+		}
 	}
 
 
@@ -311,22 +335,53 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 
 
 	/**
-	 * Runs the ctags executable.
+	 * Runs the ctags executable, then updates the tree on the EDT.
 	 *
+	 * @param token Cancelled if the user switches to another file before
+	 *        ctags completes.
+	 */
+	@Override
+	public void run(CancellationToken token) {
+		OutlineRefreshEvent event = new OutlineRefreshEvent();
+		event.begin();
+		event.setDocument(fileFullPath, language);
+		try {
+			SourceTreeNode root = createTree(event);
+			if (root!=null) {
+				SwingUtilities.invokeLater(() -> {
+					if (!token.isCancelled()) {
+						tree.setRoot(root);
+					}
+				});
+			}
+		} finally {
+			if (event.shouldCommit()) {
+				int tags = 0;
+				for (List<TagEntry> list : map.values()) {
+					tags += list.size();
+				}
+				event.setTags(tags);
+				event.commit();
+			}
+		}
+	}
+
+
+	/**
+	 * Runs ctags and builds the tree of its tags.
+	 *
+	 * @param event Records the outcome.
 	 * @return A <code>TreeNode</code> object for the source browser tree.
 	 *         If something goes wrong, this value will be <code>null</code>.
 	 */
-	@Override
-	public SourceTreeNode construct() {
+	private SourceTreeNode createTree(OutlineRefreshEvent event) {
 
 		// Create data structures in which we can store the tags.
-		map.clear();
 		String knownTagTypes = TAG_TYPES_MAP.get(style);
 		int count = knownTagTypes.length();
 		for (int i=0; i<count; i++) {
-			arrayListBuffer.get(i).clear();
 			String tagType = knownTagTypes.substring(i,i+1);
-			map.put(tagType, arrayListBuffer.get(i));
+			map.put(tagType, new ArrayList<>());
 		}
 
 		// Create a command line to run ctags.
@@ -335,49 +390,50 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 		//System.out.println("DEBUG: Exuberant: " + exuberant);
 		String[] commandLine = createCommandLine(exuberant);
 
-		// Run the process and collect its output in a separate thread.
-		// If the thread does not complete in maxTime milliseconds, we'll
-		// assume the process is a runaway one and we'll kill it.
-		ProcessRunner runner = new ProcessRunner(commandLine);
-		Thread t = new Thread(runner);
-		t.start();
+		// Run the process.  If it does not complete in maxTime
+		// milliseconds, we assume it is a runaway one and it is killed.
+		// Exuberant ctags writes its tags to stdout, and they are added to
+		// our maps as they are read.
+		ExternalProcess process = new ExternalProcess(commandLine);
+		process.setTimeout(maxTime);
+		if (exuberant) {
+			process.setOutputListener(new TagCollector());
+		}
+		process.start();
 		try {
-			t.join(maxTime);
+			process.waitFor();
 		} catch (InterruptedException ie) {
 			// Most likely interrupted because we were parsing a very large
 			// file, above but the user clicked on a different tab before we
-			// completed.  Don't print a stack trace; just interrupt the
-			// thread doing the parsing (since we can't watch it anymore)
-			// and return.
-			t.interrupt();
+			// completed.  Don't print a stack trace; just kill the process
+			// (since we can't watch it anymore) and return.
+			process.kill();
+			event.setCancelled();
 			return null;
 		}
-		if (t.isAlive()) {
-			// If it's still alive, we assume it's a runaway process.
-			// This happens when the t.join(maxTime) above does not complete
-			// before maxTime is up.
-			t.interrupt();
+		Throwable error = process.getLastError();
+		if (error!=null) {
+			event.setFailed(error);
+		}
+		if (error instanceof TimeoutException) {
 			String s = plugin.getBundle().getString("Error.RunawayProcess");
 			return new SourceTreeNode(s);
 		}
-		else if (runner.getLastError()!=null) {
+		else if (error!=null) {
 			// If we got an error launching/running the process (such as
 			// "not a valid win32 process", etc.), say so.
 			String s = plugin.getBundle().getString("Error.RunningProcess");
 			return new SourceTreeNode(s);
 		}
 
-		// Add stuff from the process's stdout to our maps.
-		BufferedReader r;
-		if (exuberant) {
-			String stdout = runner.getStdout();
-			r = new BufferedReader(new StringReader(stdout));
-		}
-		else {
+		// Add stuff from the tags file to our maps.
+		if (!exuberant) {
+			BufferedReader r;
 			File file = new File("tags");
 			if (!file.isFile()) {
 				// TODO: Give better error message here - and localize me!
 				String s = "tags file not found!";
+				event.setFailed(s);
 				return new SourceTreeNode(s);
 			}
 			try {
@@ -386,27 +442,24 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 				// If we got an error launching/running the process (such as
 				// "not a valid win32 process", etc.), say so.
 				ioe.printStackTrace();
+				event.setFailed(ioe);
 				String s = plugin.getBundle().getString("Error.RunningProcess");
 				return new SourceTreeNode(s);
 			}
-		}
-		String line;
-		try {
-			while ((line=r.readLine()) != null) {
-				TagEntry entry = new SourceBrowserPlugin.ExtendedTagEntry(line);
-				List<TagEntry> list = map.get(entry.kind);
-				if (list!=null) {	// A supported tag type for this language.
-					list.add(entry);
+			String line;
+			try {
+				while ((line=r.readLine()) != null) {
+					addTag(line);
 				}
+				r.close();
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+				// Don't return null, just return what we got.
 			}
-			r.close();
-		} catch (IOException ioe) {
-			ioe.printStackTrace();
-			// Don't return null, just return what we got.
 		}
 
 		// Sets the tree stuff.
-		SourceTreeNode root = new SourceTreeNode(textArea.getFileName());
+		SourceTreeNode root = new SourceTreeNode(fileName);
 		root.setSortable(false);
 		addChildNodesForStyle(root, style);
 
@@ -423,7 +476,7 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 	 */
 	private String[] createCommandLine(boolean exuberant) {
 
-		String sourceFile = textArea.getFileFullPath();
+		String sourceFile = fileFullPath;
 		String[] commandLine;
 
 		if (exuberant) {
@@ -447,36 +500,37 @@ class SourceBrowserThread extends GUIWorkerThread<SourceTreeNode> implements Syn
 
 
 	/**
-	 * Called on the event dispatching thread (not on the worker thread)
-	 * after the <code>construct</code> method has returned.<p>
-	 *
-	 * This method should be overridden to do any work with the value
-	 * returned from <code>get</code> to prevent deadlock.
+	 * Adds tags written to stdout by Exuberant ctags as they are read.
 	 */
-	@Override
-	public void finished() {
-		tree.setRoot(get());
-	}
+	private class TagCollector implements ProcessRunnerOutputListener {
+
+		/**
+		 * The start of a line whose end hasn't been read yet.
+		 */
+		private final StringBuilder partialLine = new StringBuilder();
+
+		@Override
+		public void outputWritten(Process p, String output, boolean stdout) {
+			if (stdout) {
+				partialLine.append(output);
+				int start = 0;
+				int end;
+				while ((end=partialLine.indexOf("\n", start))>-1) {
+					addTag(partialLine.substring(start, end));
+					start = end + 1;
+				}
+				partialLine.delete(0, start);
+			}
+		}
 
+		@Override
+		public void processCompleted(Process p, int rc, Throwable e) {
+			if (partialLine.length()>0) {
+				addTag(partialLine.toString());
+				partialLine.setLength(0);
+			}
+		}
 
-	/**
-	 * Runs this thread with the specified parameters.
-	 *
-	 * @param maxTime The maximum amount of time to run this thread before
-	 *        giving up.
-	 * @param textArea The text area containing the file we're parsing.
-	 * @param style The programming language to parse the file with.
-	 * @param language The programming language of the file to parse.
-	 * @param tree The tree to modify.
-	 */
-	public void start(int maxTime, RTextEditorPane textArea, String style,
-					String language, DefaultSourceTree tree) {
-		this.maxTime = maxTime;
-		this.textArea = textArea;
-		this.style = style;
-		this.language = language;
-		this.tree = tree;
-		super.start();
 	}
 
 
@@ -0,0 +1,330 @@
+/*
+ * 10/19/2026
+ *
+ * TaskIdentifierMatcher.java - Finds all task identifiers in text in a
+ * single pass.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tasks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+
+/**
+ * Finds tasks in text.  All task identifiers are matched at once by an
+ * Aho-Corasick automaton, so the time taken depends only on the length of
+ * the text, not on how many identifiers there are.<p>
+ *
+ * Files on disk aren't tokenized, so unlike the parser used for open
+ * documents, this class can't tell whether an identifier is in a comment.
+ * To keep out identifiers used as ordinary words, they are matched
+ * case-sensitively and only as whole words.  A task is the text from its
+ * identifier to the end of the line, and only the first task on each line
+ * is found.<p>
+ *
+ * Instances of this class are immutable, and so thread-safe.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class TaskIdentifierMatcher {
+
+	private final String[] identifiers;
+
+	/**
+	 * The automaton's transitions, indexed by state and then by symbol.
+	 * Failure transitions are already followed, so every entry is valid.
+	 */
+	private final int[][] next;
+
+	/**
+	 * The longest identifier ending in each state, or <code>-1</code>.
+	 */
+	private final int[] output;
+
+	/**
+	 * The nearest state along each state's failure chain that has an
+	 * output, or <code>-1</code>.
+	 */
+	private final int[] outputLink;
+
+	/**
+	 * Maps ASCII characters to symbols.  Characters not in any identifier
+	 * map to <code>-1</code>.
+	 */
+	private final int[] asciiSymbols;
+	private final Map<Character, Integer> otherSymbols;
+
+	/**
+	 * The most characters of a task's text that are kept.
+	 */
+	static final int MAX_TEXT_LENGTH = 200;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param identifiers The task identifiers, separated by the
+	 *        '<code>|</code>' character, as in
+	 *        {@link TasksPlugin#getTaskIdentifiers()}.
+	 */
+	TaskIdentifierMatcher(String identifiers) {
+
+		Set<String> ids = new LinkedHashSet<>();
+		for (String id : identifiers.split("\\|")) {
+			if (!id.isEmpty()) {
+				ids.add(id);
+			}
+		}
+		this.identifiers = ids.toArray(new String[0]);
+
+		// Each distinct character in the identifiers is a symbol
+		asciiSymbols = new int[128];
+		Arrays.fill(asciiSymbols, -1);
+		otherSymbols = new HashMap<>();
+		int symbolCount = 0;
+		for (String id : this.identifiers) {
+			for (int i=0; i<id.length(); i++) {
+				char ch = id.charAt(i);
+				if (getSymbol(ch)==-1) {
+					if (ch<128) {
+						asciiSymbols[ch] = symbolCount++;
+					}
+					else {
+						otherSymbols.put(ch, symbolCount++);
+					}
+				}
+			}
+		}
+
+		// Build a trie of the identifiers
+		List<int[]> trie = new ArrayList<>();
+		List<Integer> outputs = new ArrayList<>();
+		trie.add(newState(symbolCount));
+		outputs.add(-1);
+		for (int i=0; i<this.identifiers.length; i++) {
+			String id = this.identifiers[i];
+			int state = 0;
+			for (int j=0; j<id.length(); j++) {
+				int symbol = getSymbol(id.charAt(j));
+				if (trie.get(state)[symbol]==-1) {
+					trie.get(state)[symbol] = trie.size();
+					trie.add(newState(symbolCount));
+					outputs.add(-1);
+				}
+				state = trie.get(state)[symbol];
+			}
+			outputs.set(state, i);
+		}
+
+		int stateCount = trie.size();
+		next = trie.toArray(new int[0][]);
+		output = new int[stateCount];
+		for (int i=0; i<stateCount; i++) {
+			output[i] = outputs.get(i);
+		}
+		outputLink = new int[stateCount];
+		int[] fail = new int[stateCount];
+
+		// Compute failure links breadth-first, folding them into the
+		// transitions as we go
+		Queue<Integer> queue = new ArrayDeque<>();
+		outputLink[0] = -1;
+		for (int symbol=0; symbol<symbolCount; symbol++) {
+			int child = next[0][symbol];
+			if (child==-1) {
+				next[0][symbol] = 0;
+			}
+			else {
+				outputLink[child] = -1;
+				queue.add(child);
+			}
+		}
+		while (!queue.isEmpty()) {
+			int state = queue.remove();
+			for (int symbol=0; symbol<symbolCount; symbol++) {
+				int child = next[state][symbol];
+				if (child==-1) {
+					next[state][symbol] = next[fail[state]][symbol];
+				}
+				else {
+					int f = next[fail[state]][symbol];
+					fail[child] = f;
+					outputLink[child] = output[f]!=-1 ? f : outputLink[f];
+					queue.add(child);
+				}
+			}
+		}
+
+	}
+
+
+	/**
+	 * Finds the tasks in text.
+	 *
+	 * @param text The text.
+	 * @return The tasks found, in the order they occur.
+	 */
+	List<Match> findTasks(CharSequence text) {
+
+		List<Match> tasks = new ArrayList<>();
+		if (identifiers.length==0) {
+			return tasks;
+		}
+
+		int length = text.length();
+		int line = 0;
+		int state = 0;
+
+		for (int i=0; i<length; i++) {
+
+			char ch = text.charAt(i);
+			if (ch=='\n') {
+				line++;
+				state = 0;
+				continue;
+			}
+			int symbol = getSymbol(ch);
+			state = symbol==-1 ? 0 : next[state][symbol];
+
+			// Check the longest identifier ending here first
+			int s = output[state]!=-1 ? state : outputLink[state];
+			while (s!=-1) {
+				int start = i + 1 - identifiers[output[s]].length();
+				if (isWordBoundary(text, start) && isWordBoundary(text, i + 1)) {
+					int end = i + 1;
+					while (end<length && text.charAt(end)!='\n') {
+						end++;
+					}
+					tasks.add(new Match(line, getTaskText(text, start, end)));
+					i = end - 1; // The newline is handled next time through
+					state = 0;
+					break;
+				}
+				s = outputLink[s];
+			}
+
+		}
+
+		return tasks;
+
+	}
+
+
+	/**
+	 * Returns the symbol for a character.
+	 *
+	 * @param ch The character.
+	 * @return The symbol, or <code>-1</code> if the character isn't in any
+	 *         identifier.
+	 */
+	private int getSymbol(char ch) {
+		if (ch<128) {
+			return asciiSymbols[ch];
+		}
+		Integer symbol = otherSymbols.get(ch);
+		return symbol==null ? -1 : symbol;
+	}
+
+
+	/**
+	 * Returns the text of a task, without any trailing comment delimiter.
+	 *
+	 * @param text The text being searched.
+	 * @param start The start of the task's identifier.
+	 * @param end The end of the task's line.
+	 * @return The task's text.
+	 */
+	private static String getTaskText(CharSequence text, int start, int end) {
+		String task = text.subSequence(start, Math.min(end, start + MAX_TEXT_LENGTH)).
+				toString().trim();
+		for (String delimiter : new String[] { "*/", "-->", "--%>" }) {
+			if (task.endsWith(delimiter)) {
+				task = task.substring(0, task.length() - delimiter.length()).trim();
+				break;
+			}
+		}
+		return task;
+	}
+
+
+	/**
+	 * Returns whether an offset is the start or end of a word.
+	 *
+	 * @param text The text.
+	 * @param offs The offset.
+	 * @return Whether the characters on either side of the offset can't
+	 *         both be part of the same word.
+	 */
+	private static boolean isWordBoundary(CharSequence text, int offs) {
+		if (offs==0 || offs==text.length()) {
+			return true;
+		}
+		return !isWordChar(text.charAt(offs - 1)) || !isWordChar(text.charAt(offs));
+	}
+
+
+	private static boolean isWordChar(char ch) {
+		return Character.isLetterOrDigit(ch) || ch=='_';
+	}
+
+
+	/**
+	 * Returns a new trie state with no transitions.
+	 *
+	 * @param symbolCount The number of symbols.
+	 * @return The state.
+	 */
+	private static int[] newState(int symbolCount) {
+		int[] state = new int[symbolCount];
+		Arrays.fill(state, -1);
+		return state;
+	}
+
+
+	/**
+	 * A task found in text.
+	 */
+	static final class Match {
+
+		private final int line;
+		private final String text;
+
+		Match(int line, String text) {
+			this.line = line;
+			this.text = text;
+		}
+
+		/**
+		 * Returns the line the task is on.
+		 *
+		 * @return The line, <code>0</code>-based.
+		 */
+		int getLine() {
+			return line;
+		}
+
+		/**
+		 * Returns the task's text.
+		 *
+		 * @return The text, starting with the task identifier.
+		 */
+		String getText() {
+			return text;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,288 @@
+/*
+ * 10/19/2026
+ *
+ * TaskIndex.java - The tasks found in files on disk.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tasks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * The tasks found in files on disk, saved between sessions.  Each file's
+ * entry records the file's size and modification time when it was
+ * scanned, so a file only needs to be scanned again once it changes.<p>
+ *
+ * An index is only valid for the task identifiers it was built with;
+ * {@link #load(File, String)} returns an empty index if they've changed
+ * since it was saved.<p>
+ *
+ * This class isn't thread-safe.  It's only used by the
+ * {@link WorkspaceTaskScanner}'s tasks, which run one at a time.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class TaskIndex {
+
+	private final File file;
+	private final String identifiers;
+	private final Map<String, Entry> entries;
+	private boolean modified;
+
+	/**
+	 * Identifies the index file format.
+	 */
+	private static final int MAGIC = 0x52544958; // "RTIX"
+
+	private static final int VERSION = 1;
+
+	/**
+	 * The fewest bytes an entry or a task takes up in the index file.
+	 * Counts read from the file are checked against this, so a corrupt
+	 * count can't cause a huge allocation.
+	 */
+	private static final int MIN_RECORD_SIZE = 6;
+
+
+	/**
+	 * Creates an empty index.
+	 *
+	 * @param file The file the index is saved in.
+	 * @param identifiers The task identifiers the index is built with.
+	 */
+	private TaskIndex(File file, String identifiers) {
+		this.file = file;
+		this.identifiers = identifiers;
+		entries = new HashMap<>();
+	}
+
+
+	/**
+	 * Returns the tasks in a file, if it hasn't changed since it was
+	 * scanned.
+	 *
+	 * @param path The file's full path.
+	 * @param size The file's size.
+	 * @param lastModified The file's modification time.
+	 * @return The tasks, or <code>null</code> if the file hasn't been
+	 *         scanned or has changed since.
+	 */
+	List<TaskIdentifierMatcher.Match> get(String path, long size, long lastModified) {
+		Entry entry = entries.get(path);
+		if (entry!=null && entry.size==size && entry.lastModified==lastModified) {
+			return entry.tasks;
+		}
+		return null;
+	}
+
+
+	/**
+	 * Returns the tasks in all indexed files.
+	 *
+	 * @return A map from each file containing tasks to its tasks.
+	 */
+	Map<String, List<TaskIdentifierMatcher.Match>> getAllTasks() {
+		Map<String, List<TaskIdentifierMatcher.Match>> tasks = new HashMap<>();
+		for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+			if (!entry.getValue().tasks.isEmpty()) {
+				tasks.put(entry.getKey(), entry.getValue().tasks);
+			}
+		}
+		return tasks;
+	}
+
+
+	/**
+	 * Returns the task identifiers this index was built with.
+	 *
+	 * @return The identifiers.
+	 */
+	String getIdentifiers() {
+		return identifiers;
+	}
+
+
+	/**
+	 * Returns the paths of all indexed files.
+	 *
+	 * @return The paths.  This is a copy, so the index may be modified while
+	 *         iterating over it.
+	 */
+	Set<String> getPaths() {
+		return new HashSet<>(entries.keySet());
+	}
+
+
+	/**
+	 * Loads an index.
+	 *
+	 * @param file The file the index is saved in.
+	 * @param identifiers The current task identifiers.
+	 * @return The index.  This is empty if the file doesn't exist, can't be
+	 *         read, or was built with different task identifiers.
+	 */
+	static TaskIndex load(File file, String identifiers) {
+
+		TaskIndex index = new TaskIndex(file, identifiers);
+		if (!file.isFile()) {
+			return index;
+		}
+
+		long maxCount = file.length() / MIN_RECORD_SIZE;
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt()!=MAGIC || in.readInt()!=VERSION ||
+					!identifiers.equals(in.readUTF())) {
+				index.modified = true; // Overwrite the stale index
+				return index;
+			}
+			int count = readCount(in, maxCount);
+			for (int i=0; i<count; i++) {
+				String path = in.readUTF();
+				long size = in.readLong();
+				long lastModified = in.readLong();
+				int taskCount = readCount(in, maxCount);
+				List<TaskIdentifierMatcher.Match> tasks = new ArrayList<>(taskCount);
+				for (int j=0; j<taskCount; j++) {
+					tasks.add(new TaskIdentifierMatcher.Match(in.readInt(), in.readUTF()));
+				}
+				index.entries.put(path, new Entry(size, lastModified, tasks));
+			}
+		} catch (IOException | RuntimeException e) {
+			// A corrupt index is simply rebuilt
+			index.entries.clear();
+			index.modified = true;
+		}
+
+		return index;
+
+	}
+
+
+	/**
+	 * Records the tasks in a file.
+	 *
+	 * @param path The file's full path.
+	 * @param size The file's size.
+	 * @param lastModified The file's modification time.
+	 * @param tasks The tasks in the file.
+	 */
+	void put(String path, long size, long lastModified,
+			List<TaskIdentifierMatcher.Match> tasks) {
+		entries.put(path, new Entry(size, lastModified,
+				tasks.isEmpty() ? Collections.emptyList() : tasks));
+		modified = true;
+	}
+
+
+	/**
+	 * Reads a count of entries or tasks from an index file.
+	 *
+	 * @param in The stream to read from.
+	 * @param max The largest count the file could contain.
+	 * @return The count.
+	 * @throws IOException If an IO error occurs, or the count is invalid.
+	 */
+	private static int readCount(DataInputStream in, long max) throws IOException {
+		int count = in.readInt();
+		if (count<0 || count>max) {
+			throw new IOException("Invalid count in task index: " + count);
+		}
+		return count;
+	}
+
+
+	/**
+	 * Removes a file from the index.
+	 *
+	 * @param path The file's full path.
+	 * @return Whether the file had any tasks.
+	 */
+	boolean remove(String path) {
+		Entry entry = entries.remove(path);
+		if (entry!=null) {
+			modified = true;
+			return !entry.tasks.isEmpty();
+		}
+		return false;
+	}
+
+
+	/**
+	 * Saves the index, if it has changed since it was loaded or last
+	 * saved.  The index is written to a temporary file first, so a crash
+	 * can't leave a partially written index behind.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 */
+	void save() throws IOException {
+
+		if (!modified) {
+			return;
+		}
+
+		File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(temp)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeUTF(identifiers);
+			out.writeInt(entries.size());
+			for (Map.Entry<String, Entry> e : entries.entrySet()) {
+				Entry entry = e.getValue();
+				out.writeUTF(e.getKey());
+				out.writeLong(entry.size);
+				out.writeLong(entry.lastModified);
+				out.writeInt(entry.tasks.size());
+				for (TaskIdentifierMatcher.Match task : entry.tasks) {
+					out.writeInt(task.getLine());
+					out.writeUTF(task.getText());
+				}
+			}
+		}
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		modified = false;
+
+	}
+
+
+	/**
+	 * A file's entry in the index.
+	 */
+	private static final class Entry {
+
+		private final long size;
+		private final long lastModified;
+		private final List<TaskIdentifierMatcher.Match> tasks;
+
+		Entry(long size, long lastModified, List<TaskIdentifierMatcher.Match> tasks) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.tasks = tasks;
+		}
+
+	}
+
+
+}
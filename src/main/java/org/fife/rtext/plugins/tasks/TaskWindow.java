@@ -13,13 +13,20 @@ package org.fife.rtext.plugins.tasks;
 import java.awt.BorderLayout;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.swing.JTable;
+import javax.swing.SwingUtilities;
 
 import org.fife.rtext.AbstractMainView;
 import org.fife.rtext.AbstractParserNoticeWindow;
+import org.fife.rtext.MemoryPressureMonitor;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.RTextUtilities;
 import org.fife.ui.RScrollPane;
 import org.fife.ui.UIUtil;
 import org.fife.ui.dockablewindows.DockableWindowScrollPane;
@@ -35,7 +42,12 @@ import org.fife.ui.rsyntaxtextarea.parser.TaskTagParser;
  * identifiers, such as "<code>FIXME</code>", "<code>TODO</code>" and
  * "<code>HACK</code>".<p>
  *
- * Parsing for tasks is only done if the tasks window is visible.
+ * Open documents are parsed for tasks as they're edited.  Files under the
+ * configured scan folders are searched for tasks by a
+ * {@link WorkspaceTaskScanner}, and are listed until they're opened.<p>
+ *
+ * Parsing for tasks is only done if the tasks window is visible, and is
+ * paused while memory is severely low.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -45,10 +57,19 @@ class TaskWindow extends AbstractParserNoticeWindow
 
 	private final TaskNoticeTableModel model;
 	private final TaskTagParser taskParser;
+	private final WorkspaceTaskScanner scanner;
+	private final Map<String, List<TaskIdentifierMatcher.Match>> workspaceTasks;
+	private List<File> scanFolders;
 	private boolean installed;
 
+	/**
+	 * The file the index of tasks in the scan folders is saved in.
+	 */
+	private static final String INDEX_FILE_NAME = "tasksIndex.bin";
+
 
-	TaskWindow(TasksPlugin plugin, RText rtext, String taskIdentifiers) {
+	TaskWindow(TasksPlugin plugin, RText rtext, String taskIdentifiers,
+			String scanFolders) {
 
 		super(rtext);
 		installed = false;
@@ -69,6 +90,12 @@ class TaskWindow extends AbstractParserNoticeWindow
 
 		taskParser = new TaskTagParser();
 		setTaskIdentifiers(taskIdentifiers);
+		scanner = new WorkspaceTaskScanner(this, new File(
+				RTextUtilities.getPreferencesDirectory(), INDEX_FILE_NAME));
+		workspaceTasks = new HashMap<>();
+		setScanFolders(scanFolders);
+		MemoryPressureMonitor.get().addLevelListener(this);
+		memoryPressureChanged();
 
 		applyComponentOrientation(rtext.getComponentOrientation());
 
@@ -88,6 +115,24 @@ class TaskWindow extends AbstractParserNoticeWindow
 	}
 
 
+	/**
+	 * Adds rows for the tasks in a file under the scan folders, unless the
+	 * file is open.  Open files are listed by the task parser instead.
+	 *
+	 * @param path The file's full path.
+	 */
+	private void addFileRows(String path) {
+		List<TaskIdentifierMatcher.Match> tasks = workspaceTasks.get(path);
+		if (tasks!=null && !isOpen(path)) {
+			for (TaskIdentifierMatcher.Match task : tasks) {
+				Object[] data = { getIcon(), path, task.getLine() + 1,
+						task.getText() };
+				model.addRow(data);
+			}
+		}
+	}
+
+
 	/**
 	 * Returns the identifiers scanned for to identify "tasks" (e.g.
 	 * "<code>TODO</code>", "<code>FIXME</code>", "<code>IDEA</code>", etc.).
@@ -122,11 +167,32 @@ class TaskWindow extends AbstractParserNoticeWindow
 				RTextEditorPane textArea = mainView.getRTextEditorPaneAt(i);
 				addTaskParser(textArea);
 			}
+			for (String path : workspaceTasks.keySet()) {
+				addFileRows(path);
+			}
 			installed = true;
+			startScanner();
 		}
 	}
 
 
+	/**
+	 * Returns whether a file is open in a text area.
+	 *
+	 * @param path The file's full path.
+	 * @return Whether the file is open.
+	 */
+	private boolean isOpen(String path) {
+		AbstractMainView mainView = getRText().getMainView();
+		for (int i=0; i<mainView.getNumDocuments(); i++) {
+			if (path.equals(mainView.getRTextEditorPaneAt(i).getFileFullPath())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
 	/**
 	 * Returns whether a parser is the task parser.
 	 *
@@ -138,6 +204,30 @@ class TaskWindow extends AbstractParserNoticeWindow
 	}
 
 
+	/**
+	 * Pauses task parsing and scanning while memory is severely low, and
+	 * resumes them afterward.  Tasks found before parsing was paused are
+	 * still listed.
+	 */
+	private void memoryPressureChanged() {
+		boolean paused = MemoryPressureMonitor.get().isAtLeast(
+				MemoryPressureMonitor.Level.SEVERE);
+		if (taskParser.isEnabled()==paused) {
+			taskParser.setEnabled(!paused);
+			if (paused) {
+				scanner.stop();
+			}
+			else if (installed) {
+				AbstractMainView mainView = getRText().getMainView();
+				for (int i=0; i<mainView.getNumDocuments(); i++) {
+					mainView.getRTextEditorPaneAt(i).forceReparsing(taskParser);
+				}
+				startScanner();
+			}
+		}
+	}
+
+
 	/**
 	 * Notified when a text area is parsed, or when a text area is added or
 	 * removed (so listeners can be added/removed as appropriate).
@@ -159,6 +249,8 @@ class TaskWindow extends AbstractParserNoticeWindow
 		if (AbstractMainView.TEXT_AREA_ADDED_PROPERTY.equals(prop)) {
 			RTextEditorPane textArea = (RTextEditorPane)e.getNewValue();
 			addTaskParser(textArea);
+			// The task parser lists the file's tasks from now on
+			model.removeFileRows(textArea.getFileFullPath());
 		}
 
 		else if (AbstractMainView.TEXT_AREA_REMOVED_PROPERTY.equals(prop)) {
@@ -166,6 +258,18 @@ class TaskWindow extends AbstractParserNoticeWindow
 			textArea.removeParser(taskParser);
 			textArea.removePropertyChangeListener(
 							RSyntaxTextArea.PARSER_NOTICES_PROPERTY, this);
+			// Wait until the text area's rows are removed
+			String path = textArea.getFileFullPath();
+			SwingUtilities.invokeLater(() -> {
+				if (installed) {
+					model.removeFileRows(path);
+					addFileRows(path);
+				}
+			});
+		}
+
+		else if (MemoryPressureMonitor.LEVEL_PROPERTY.equals(prop)) {
+			memoryPressureChanged();
 		}
 
 	}
@@ -204,6 +308,29 @@ class TaskWindow extends AbstractParserNoticeWindow
 	}
 
 
+	/**
+	 * Sets the folders whose files are searched for tasks.
+	 *
+	 * @param folders The folders, separated by the platform's path
+	 *        separator.  If this is empty, only open files are searched.
+	 */
+	void setScanFolders(String folders) {
+		List<File> folderList = new ArrayList<>();
+		for (String folder : folders.split(File.pathSeparator)) {
+			if (!folder.trim().isEmpty()) {
+				folderList.add(new File(folder.trim()));
+			}
+		}
+		if (!folderList.equals(scanFolders)) {
+			scanFolders = folderList;
+			if (folderList.isEmpty()) {
+				workspaceTasksChanged(new HashMap<>(), true);
+			}
+			startScanner();
+		}
+	}
+
+
 	/**
 	 * Sets the identifiers scanned for when locating tasks.
 	 *
@@ -218,12 +345,26 @@ class TaskWindow extends AbstractParserNoticeWindow
 		if (!identifiers.equals(getTaskIdentifiers())) {
 			identifiers = identifiers.replaceAll("\\?", "\\\\\\?");
 			taskParser.setTaskPattern(identifiers);
+			startScanner();
 			return true;
 		}
 		return false;
 	}
 
 
+	/**
+	 * Starts, or restarts, searching the scan folders for tasks, if the
+	 * window is active and memory isn't severely low.
+	 */
+	private void startScanner() {
+		// Called by the constructor before everything is initialized
+		if (scanner!=null && scanFolders!=null && installed &&
+				taskParser.isEnabled()) {
+			scanner.start(scanFolders, getTaskIdentifiers());
+		}
+	}
+
+
 	/**
 	 * @see #installParser()
 	 */
@@ -237,12 +378,46 @@ class TaskWindow extends AbstractParserNoticeWindow
 				RTextEditorPane textArea = mainView.getRTextEditorPaneAt(i);
 				removeTaskParser(textArea);
 			}
+			scanner.stop();
 			model.setRowCount(0);
 			installed = false;
 		}
 	}
 
 
+	/**
+	 * Called on the EDT when the tasks in files under the scan folders
+	 * change.
+	 *
+	 * @param tasks The tasks in each file that changed.  Files without any
+	 *        tasks map to an empty list.
+	 * @param replaceAll Whether <code>tasks</code> contains every file with
+	 *        tasks, rather than just the changed ones.
+	 */
+	void workspaceTasksChanged(Map<String, List<TaskIdentifierMatcher.Match>> tasks,
+			boolean replaceAll) {
+		if (replaceAll) {
+			model.removeAllFileRows();
+			workspaceTasks.clear();
+		}
+		for (Map.Entry<String, List<TaskIdentifierMatcher.Match>> entry : tasks.entrySet()) {
+			String path = entry.getKey();
+			if (!replaceAll) {
+				model.removeFileRows(path);
+			}
+			if (entry.getValue().isEmpty()) {
+				workspaceTasks.remove(path);
+			}
+			else {
+				workspaceTasks.put(path, entry.getValue());
+				if (installed) {
+					addFileRows(path);
+				}
+			}
+		}
+	}
+
+
 	private class TaskNoticeTableModel extends ParserNoticeTableModel {
 
 		TaskNoticeTableModel(String lastColHeader) {
@@ -18,6 +18,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
+import java.io.File;
 import java.util.ResourceBundle;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -46,6 +47,7 @@ import org.fife.ui.modifiabletable.AbstractRowHandler;
 import org.fife.ui.modifiabletable.ModifiableTable;
 import org.fife.ui.modifiabletable.ModifiableTableChangeEvent;
 import org.fife.ui.modifiabletable.ModifiableTableListener;
+import org.fife.ui.rtextfilechooser.RDirectoryChooser;
 
 
 /**
@@ -55,11 +57,13 @@ import org.fife.ui.modifiabletable.ModifiableTableListener;
  * @version 1.0
  */
 class TasksOptionPanel extends PluginOptionsDialogPanel<TasksPlugin>
-		implements ActionListener, ItemListener, ModifiableTableListener {
+		implements ActionListener, DocumentListener, ItemListener,
+		ModifiableTableListener {
 
 	private final TasksPlugin plugin;
 	private final JCheckBox visibleCB;
 	private final JComboBox<String> locationCombo;
+	private final JTextField scanFoldersField;
 	private final DefaultTableModel model;
 	private final ModifiableTable table;
 
@@ -112,7 +116,30 @@ class TasksOptionPanel extends PluginOptionsDialogPanel<TasksPlugin>
 		locationPanel.add(locationCombo);
 		locationPanel.add(Box.createHorizontalGlue());
 		addLeftAligned(topPanel, locationPanel);
-		add(topPanel, BorderLayout.NORTH);
+
+		// Folders whose files are searched for tasks, even when not open.
+		Box scanPanel = Box.createVerticalBox();
+		scanPanel.setBorder(new OptionPanelBorder(
+				plugin.getString("Options.WorkspaceScan")));
+		Box foldersPanel = createHorizontalBox();
+		scanFoldersField = new JTextField(30);
+		scanFoldersField.getDocument().addDocumentListener(this);
+		JLabel foldersLabel = new JLabel(plugin.getString("Options.ScanFolders"));
+		foldersLabel.setLabelFor(scanFoldersField);
+		JButton browseButton = new JButton(plugin.getString("Options.Browse"));
+		browseButton.setActionCommand("Browse");
+		browseButton.addActionListener(this);
+		foldersPanel.add(foldersLabel);
+		foldersPanel.add(Box.createHorizontalStrut(5));
+		foldersPanel.add(scanFoldersField);
+		foldersPanel.add(Box.createHorizontalStrut(5));
+		foldersPanel.add(browseButton);
+		addLeftAligned(scanPanel, foldersPanel);
+
+		Box northPanel = Box.createVerticalBox();
+		northPanel.add(topPanel);
+		northPanel.add(scanPanel);
+		add(northPanel, BorderLayout.NORTH);
 
 		JPanel contentPane = new JPanel(new BorderLayout());
 		contentPane.setBorder(new OptionPanelBorder(
@@ -158,16 +185,31 @@ class TasksOptionPanel extends PluginOptionsDialogPanel<TasksPlugin>
 			firePropertyChange(PROPERTY, null, null);
 		}
 
+		else if ("Browse".equals(command)) {
+			RDirectoryChooser chooser = new RDirectoryChooser(getOptionsDialog());
+			chooser.setVisible(true);
+			String chosenDir = chooser.getChosenDirectory();
+			if (chosenDir!=null && new File(chosenDir).isDirectory()) {
+				String folders = scanFoldersField.getText().trim();
+				if (!folders.isEmpty()) {
+					folders += File.pathSeparator;
+				}
+				scanFoldersField.setText(folders + chosenDir);
+			}
+		}
+
 		else if ("RestoreDefaults".equals(command)) {
 
 			String taskIds = plugin.getTaskIdentifiers();
 
 			if (!visibleCB.isSelected() ||
 					locationCombo.getSelectedIndex()!=2 ||
-					!taskIds.equals(TasksPrefs.DEFAULT_TASK_IDS)) {
+					!taskIds.equals(TasksPrefs.DEFAULT_TASK_IDS) ||
+					scanFoldersField.getDocument().getLength()>0) {
 				visibleCB.setSelected(true);
 				locationCombo.setSelectedIndex(2);
 				setDisplayedTaskIds(TasksPrefs.DEFAULT_TASK_IDS);
+				scanFoldersField.setText(null);
 				hasUnsavedChanges = true;
 				firePropertyChange(PROPERTY, null, null);
 			}
@@ -192,10 +234,16 @@ class TasksOptionPanel extends PluginOptionsDialogPanel<TasksPlugin>
 		}
 
 		plugin.setTaskIdentifiers(sb.toString());
+		plugin.setScanFolders(scanFoldersField.getText().trim());
 
 	}
 
 
+	@Override
+	public void changedUpdate(DocumentEvent e) {
+	}
+
+
 	@Override
 	protected OptionsPanelCheckResult ensureValidInputsImpl() {
 		return null;
@@ -224,6 +272,13 @@ class TasksOptionPanel extends PluginOptionsDialogPanel<TasksPlugin>
 	}
 
 
+	@Override
+	public void insertUpdate(DocumentEvent e) {
+		hasUnsavedChanges = true;
+		firePropertyChange(PROPERTY, null, null);
+	}
+
+
 	@Override
 	public void modifiableTableChanged(ModifiableTableChangeEvent e) {
 		hasUnsavedChanges = true;
@@ -231,6 +286,13 @@ class TasksOptionPanel extends PluginOptionsDialogPanel<TasksPlugin>
 	}
 
 
+	@Override
+	public void removeUpdate(DocumentEvent e) {
+		hasUnsavedChanges = true;
+		firePropertyChange(PROPERTY, null, null);
+	}
+
+
 	/**
 	 * Sets the displayed task identifiers.
 	 *
@@ -253,6 +315,7 @@ class TasksOptionPanel extends PluginOptionsDialogPanel<TasksPlugin>
 		visibleCB.setSelected(plugin.isTaskWindowVisible());
 		locationCombo.setSelectedIndex(plugin.getTaskWindowPosition());
 		setDisplayedTaskIds(plugin.getTaskIdentifiers());
+		scanFoldersField.setText(plugin.getScanFolders());
 	}
 
 
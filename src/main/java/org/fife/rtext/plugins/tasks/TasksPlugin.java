@@ -23,6 +23,7 @@ import org.fife.rtext.RText;
 import org.fife.rtext.RTextEditorPane;
 import org.fife.rtext.RTextMenuBar;
 import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.StartupTracer;
 import org.fife.ui.ImageTranscodingUtil;
 import org.fife.ui.app.AbstractPluggableGUIApplication;
 import org.fife.ui.app.GUIPlugin;
@@ -66,6 +67,12 @@ public class TasksPlugin extends GUIPlugin {
 	 */
 	private String taskIdentifiers;
 
+	/**
+	 * The folders whose files are searched for tasks, separated by the
+	 * platform's path separator.
+	 */
+	private String scanFolders;
+
 	private static final String MSG_BUNDLE = "org.fife.rtext.plugins.tasks.TasksPlugin";
 	private static final ResourceBundle MSG = ResourceBundle.getBundle(MSG_BUNDLE);
 
@@ -81,21 +88,27 @@ public class TasksPlugin extends GUIPlugin {
 	 */
 	public TasksPlugin(AbstractPluggableGUIApplication<?> app) {
 
-		RText rtext = (RText)app;
-		this.app = rtext;
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "<init>");
+		try {
+			RText rtext = (RText)app;
+			this.app = rtext;
 
-		TasksPrefs prefs = loadPrefs();
-		taskIdentifiers = prefs.taskIdentifiers;
-		windowPosition = prefs.windowPosition;
+			TasksPrefs prefs = loadPrefs();
+			taskIdentifiers = prefs.taskIdentifiers;
+			scanFolders = prefs.scanFolders;
+			windowPosition = prefs.windowPosition;
 
-		loadIcons();
+			loadIcons();
 
-		ViewTasksAction a = new ViewTasksAction(rtext, MSG, this);
-		a.setAccelerator(prefs.windowVisibilityAccelerator);
-		rtext.addAction(VIEW_TASKS_ACTION, a);
+			ViewTasksAction a = new ViewTasksAction(rtext, MSG, this);
+			a.setAccelerator(prefs.windowVisibilityAccelerator);
+			rtext.addAction(VIEW_TASKS_ACTION, a);
 
-		if (prefs.windowVisible) {
-			toggleTaskWindowVisible(); // Will create and add task window.
+			if (prefs.windowVisible) {
+				toggleTaskWindowVisible(); // Will create and add task window.
+			}
+		} finally {
+			span.end();
 		}
 
 	}
@@ -142,6 +155,17 @@ public class TasksPlugin extends GUIPlugin {
 	}
 
 
+	/**
+	 * Returns the folders whose files are searched for tasks.
+	 *
+	 * @return The folders, separated by the platform's path separator.
+	 * @see #setScanFolders(String)
+	 */
+	String getScanFolders() {
+		return scanFolders;
+	}
+
+
 	/**
 	 * Returns localized text.
 	 *
@@ -179,17 +203,22 @@ public class TasksPlugin extends GUIPlugin {
 	@Override
 	public void install(AbstractPluggableGUIApplication<?> app) {
 
-		RText rtext = (RText)app;
-
-		ViewTasksAction vta = (ViewTasksAction)rtext.getAction(VIEW_TASKS_ACTION);
-		final JCheckBoxMenuItem item = new JCheckBoxMenuItem(vta);
-		item.setToolTipText(null);
-		item.setSelected(isTaskWindowVisible());
-		item.applyComponentOrientation(app.getComponentOrientation());
-
-		MenuBar mb = (org.fife.ui.app.MenuBar)rtext.getJMenuBar();
-		final JMenu menu = mb.getMenuByName(RTextMenuBar.MENU_DOCKED_WINDOWS);
-		menu.add(item);
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "install");
+		try {
+			RText rtext = (RText)app;
+
+			ViewTasksAction vta = (ViewTasksAction)rtext.getAction(VIEW_TASKS_ACTION);
+			final JCheckBoxMenuItem item = new JCheckBoxMenuItem(vta);
+			item.setToolTipText(null);
+			item.setSelected(isTaskWindowVisible());
+			item.applyComponentOrientation(app.getComponentOrientation());
+
+			MenuBar mb = (org.fife.ui.app.MenuBar)rtext.getJMenuBar();
+			final JMenu menu = mb.getMenuByName(RTextMenuBar.MENU_DOCKED_WINDOWS);
+			menu.add(item);
+		} finally {
+			span.end();
+		}
 
 	}
 
@@ -263,6 +292,7 @@ public class TasksPlugin extends GUIPlugin {
 	public void savePreferences() {
 		TasksPrefs prefs = new TasksPrefs();
 		prefs.taskIdentifiers = taskIdentifiers;
+		prefs.scanFolders = scanFolders;
 		prefs.windowVisible = isTaskWindowVisible();
 		prefs.windowPosition = windowPosition;
 		ViewTasksAction vta = (ViewTasksAction)app.getAction(VIEW_TASKS_ACTION);
@@ -276,6 +306,21 @@ public class TasksPlugin extends GUIPlugin {
 	}
 
 
+	/**
+	 * Sets the folders whose files are searched for tasks.
+	 *
+	 * @param folders The folders, separated by the platform's path
+	 *        separator.  If this is empty, only open files are searched.
+	 * @see #getScanFolders()
+	 */
+	void setScanFolders(String folders) {
+		scanFolders = folders;
+		if (window!=null) {
+			window.setScanFolders(folders);
+		}
+	}
+
+
 	/**
 	 * Sets the task identifiers scanned for.
 	 *
@@ -334,7 +379,7 @@ public class TasksPlugin extends GUIPlugin {
 	 */
 	void toggleTaskWindowVisible() {
 		if (window==null) { // First time through
-			window = new TaskWindow(this, app, taskIdentifiers);
+			window = new TaskWindow(this, app, taskIdentifiers, scanFolders);
 			window.setPosition(windowPosition);
 			window.setActive(true);
 			app.addDockableWindow(window);
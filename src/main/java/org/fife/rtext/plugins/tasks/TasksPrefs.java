@@ -46,6 +46,12 @@ public class TasksPrefs extends Prefs {
 	 */
 	public String taskIdentifiers;
 
+	/**
+	 * The folders whose files are searched for tasks, separated by the
+	 * platform's path separator.
+	 */
+	public String scanFolders;
+
 	private static final Pattern TASK_IDENTIFIERS_PATTERN =
 		Pattern.compile("^$|^[\\p{Alpha}\\?]+(?:\\|[\\p{Alpha}\\?]+)*$");
 
@@ -80,6 +86,7 @@ public class TasksPrefs extends Prefs {
 		windowPosition = DockableWindow.BOTTOM;
 		windowVisibilityAccelerator = null;
 		taskIdentifiers = DEFAULT_TASK_IDS;
+		scanFolders = "";
 	}
 
 
@@ -0,0 +1,597 @@
+/*
+ * 10/19/2026
+ *
+ * WorkspaceTaskScanner.java - Finds tasks in all files under a set of
+ * folders.
+ * Copyright (C) 2026 Robert Futrell
+ * http://fifesoft.com/rtext
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import javax.swing.SwingUtilities;
+
+import org.fife.rtext.CancellationToken;
+import org.fife.rtext.TaskScheduler;
+
+
+/**
+ * Finds the tasks in every file under a set of folders, such as the roots
+ * of a project, and keeps the {@link TaskWindow} up to date as the files
+ * change.<p>
+ *
+ * All identifiers are found in a single pass over each file by a
+ * {@link TaskIdentifierMatcher}.  The results are kept in a
+ * {@link TaskIndex} saved between sessions, so after the first scan only
+ * files that have changed are read again.  Changes are noticed by watching
+ * the folders, and by a periodic rescan in case the platform can't watch
+ * all of them.  Only files that changed are sent to the task window, so
+ * its rows aren't rebuilt when nothing has.  Hidden folders (those whose
+ * names start with a period, such as <code>.git</code>) are skipped, as
+ * are binary files and files larger than {@link #MAX_FILE_SIZE}.<p>
+ *
+ * Scanning runs on the {@link TaskScheduler}'s indexing lane, so a long
+ * scan doesn't hold up other background work, and the watch service is
+ * polled on its background lane.  Methods in this class should be called
+ * on the EDT, and the task window is updated on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class WorkspaceTaskScanner {
+
+	private final TaskWindow window;
+	private final File indexFile;
+	private final Map<WatchKey, Path> watchKeys;
+	private final Set<Path> changedPaths;
+	private volatile Config current;
+	private WatchService watcher;
+	private TaskScheduler.ScheduledTask scan;
+	private TaskScheduler.ScheduledTask pendingUpdate;
+	private Future<?> rescanTimer;
+	private Future<?> watchTimer;
+
+	/**
+	 * Only used by scanning tasks, which run one at a time.
+	 */
+	private TaskIndex index;
+
+	/**
+	 * Files larger than this many bytes aren't scanned.
+	 */
+	static final long MAX_FILE_SIZE = 1024 * 1024;
+
+	/**
+	 * How many bytes at the start of a file are checked to see whether it's
+	 * binary.
+	 */
+	private static final int BINARY_CHECK_LENGTH = 8000;
+
+	/**
+	 * How long to wait after a file changes before scanning it again, in
+	 * milliseconds.  Changes made in the meantime are scanned together.
+	 */
+	private static final int UPDATE_DELAY = 500;
+
+	/**
+	 * How often all folders are rescanned, in milliseconds.
+	 */
+	private static final int RESCAN_INTERVAL = 5 * 60 * 1000;
+
+	/**
+	 * How often the watch service is checked for changes, in milliseconds.
+	 */
+	private static final int WATCH_INTERVAL = 1000;
+
+	/**
+	 * The key of all scanning tasks, so they run one at a time.
+	 */
+	private static final String TASK_KEY = "WorkspaceTaskScanner";
+
+	/**
+	 * The key of the task polling the watch service.
+	 */
+	private static final String WATCH_KEY = "WorkspaceTaskScanner.watch";
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param window The window to list tasks in.
+	 * @param indexFile The file the index of tasks is saved in.
+	 */
+	WorkspaceTaskScanner(TaskWindow window, File indexFile) {
+		this.window = window;
+		this.indexFile = indexFile;
+		watchKeys = new ConcurrentHashMap<>();
+		changedPaths = new LinkedHashSet<>();
+	}
+
+
+	/**
+	 * Returns whether a directory is hidden.
+	 *
+	 * @param dir The directory.
+	 * @return Whether the directory is hidden.
+	 */
+	private static boolean isHidden(Path dir) {
+		Path name = dir.getFileName();
+		return name!=null && name.toString().startsWith(".");
+	}
+
+
+	/**
+	 * Loads the index if it isn't loaded, or was built with different task
+	 * identifiers.
+	 *
+	 * @param config The scan's configuration.
+	 */
+	private void loadIndex(Config config) {
+		if (index==null || !index.getIdentifiers().equals(config.identifiers)) {
+			index = TaskIndex.load(indexFile, config.identifiers);
+			// Show what's already known while the folders are scanned
+			publish(config, index.getAllTasks(), true);
+		}
+	}
+
+
+	/**
+	 * Sends changed tasks to the task window.
+	 *
+	 * @param config The configuration of the scan that found the tasks.
+	 * @param tasks The tasks in each changed file.
+	 * @param replaceAll Whether these are the tasks in all files, rather
+	 *        than just the changed ones.
+	 */
+	private void publish(Config config,
+			Map<String, List<TaskIdentifierMatcher.Match>> tasks, boolean replaceAll) {
+		if (!tasks.isEmpty() || replaceAll) {
+			SwingUtilities.invokeLater(() -> {
+				if (config==current) {
+					window.workspaceTasksChanged(tasks, replaceAll);
+				}
+			});
+		}
+	}
+
+
+	/**
+	 * Returns the tasks in a file.
+	 *
+	 * @param config The scan's configuration.
+	 * @param file The file.
+	 * @return The tasks.  This is empty if the file is binary or can't be
+	 *         read.
+	 */
+	private static List<TaskIdentifierMatcher.Match> readTasks(Config config, Path file) {
+		byte[] bytes;
+		try {
+			bytes = Files.readAllBytes(file);
+		} catch (IOException ioe) {
+			return Collections.emptyList(); // Rescanned once it changes
+		}
+		int end = Math.min(bytes.length, BINARY_CHECK_LENGTH);
+		for (int i=0; i<end; i++) {
+			if (bytes[i]==0) {
+				return Collections.emptyList();
+			}
+		}
+		return config.matcher.findTasks(new String(bytes, StandardCharsets.UTF_8));
+	}
+
+
+	/**
+	 * Watches a directory for changes.  This is called on a worker thread.
+	 *
+	 * @param config The scan's configuration.
+	 * @param dir The directory.
+	 */
+	private void register(Config config, Path dir) {
+		WatchService ws = config.watcher;
+		if (ws!=null) {
+			try {
+				WatchKey key = dir.register(ws,
+						StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_DELETE,
+						StandardWatchEventKinds.ENTRY_MODIFY);
+				watchKeys.put(key, dir);
+			} catch (IOException | ClosedWatchServiceException e) {
+				// Too many directories, or we've been stopped; rescanning
+				// periodically picks up any changes
+			}
+		}
+	}
+
+
+	/**
+	 * Scans all folders.  This is called on a worker thread.
+	 *
+	 * @param config The scan's configuration.
+	 * @param token Cancelled if the scan is abandoned.
+	 */
+	private void scanAll(Config config, CancellationToken token) {
+
+		synchronized (this) {
+			// This scan picks up everything changed so far.  A queued update
+			// may also have been replaced by this scan, in which case it
+			// never runs, so allow another one to be scheduled.
+			changedPaths.clear();
+			if (pendingUpdate!=null && pendingUpdate.isDone()) {
+				pendingUpdate = null;
+			}
+		}
+
+		loadIndex(config);
+
+		Set<String> seen = new HashSet<>();
+		Map<String, List<TaskIdentifierMatcher.Match>> changed = new HashMap<>();
+		for (Path root : config.roots) {
+			if (Files.isDirectory(root)) {
+				walk(config, root, seen, changed, token);
+			}
+		}
+		if (token.isCancelled() || config!=current) {
+			saveIndex();
+			return;
+		}
+
+		// Forget files that have been deleted, or aren't in a folder anymore
+		for (String path : index.getPaths()) {
+			if (!seen.contains(path) && index.remove(path)) {
+				changed.put(path, Collections.emptyList());
+			}
+		}
+
+		// The window may not know about files that haven't changed yet
+		if (!config.published) {
+			config.published = true;
+			publish(config, index.getAllTasks(), true);
+		}
+		else {
+			publish(config, changed, false);
+		}
+		saveIndex();
+
+	}
+
+
+	/**
+	 * Scans files that have changed.  This is called on a worker thread.
+	 *
+	 * @param config The scan's configuration.
+	 * @param token Cancelled if the scan is abandoned.
+	 */
+	private void scanChanged(Config config, CancellationToken token) {
+
+		List<Path> paths;
+		synchronized (this) {
+			pendingUpdate = null;
+			paths = new ArrayList<>(changedPaths);
+			changedPaths.clear();
+		}
+
+		loadIndex(config);
+		Map<String, List<TaskIdentifierMatcher.Match>> changed = new HashMap<>();
+
+		for (Path path : paths) {
+			if (token.isCancelled() || config!=current) {
+				break;
+			}
+			if (Files.isDirectory(path)) {
+				if (!isHidden(path)) {
+					walk(config, path, null, changed, token);
+				}
+			}
+			else if (Files.isRegularFile(path)) {
+				try {
+					BasicFileAttributes attrs = Files.readAttributes(path,
+							BasicFileAttributes.class);
+					scanFile(config, path, attrs, changed);
+				} catch (IOException ioe) {
+					// Deleted again already; we'll be told
+				}
+			}
+			else { // Deleted; it may have been a directory
+				String deleted = path.toString();
+				String prefix = deleted + File.separator;
+				for (String indexed : index.getPaths()) {
+					if ((indexed.equals(deleted) || indexed.startsWith(prefix)) &&
+							index.remove(indexed)) {
+						changed.put(indexed, Collections.emptyList());
+					}
+				}
+			}
+		}
+
+		publish(config, changed, false);
+		saveIndex();
+
+	}
+
+
+	/**
+	 * Scans a file, unless it hasn't changed since it was last scanned.
+	 *
+	 * @param config The scan's configuration.
+	 * @param file The file.
+	 * @param attrs The file's attributes.
+	 * @param changed Receives the file's tasks if it was scanned.
+	 */
+	private void scanFile(Config config, Path file, BasicFileAttributes attrs,
+			Map<String, List<TaskIdentifierMatcher.Match>> changed) {
+
+		String path = file.toString();
+		long size = attrs.size();
+		long lastModified = attrs.lastModifiedTime().toMillis();
+		if (index.get(path, size, lastModified)!=null) {
+			return;
+		}
+
+		List<TaskIdentifierMatcher.Match> tasks = size>MAX_FILE_SIZE ?
+				Collections.emptyList() : readTasks(config, file);
+		index.put(path, size, lastModified, tasks);
+		changed.put(path, tasks);
+
+	}
+
+
+	/**
+	 * Records changes reported by the watch service, and schedules them to
+	 * be scanned.  This is called on the watching thread.
+	 *
+	 * @param config The scan's configuration.
+	 * @param key The key reporting the changes.
+	 */
+	private void handleWatchKey(Config config, WatchKey key) {
+
+		Path dir = watchKeys.get(key);
+		List<WatchEvent<?>> events = key.pollEvents();
+		if (!key.reset()) {
+			watchKeys.remove(key); // The directory was deleted
+		}
+		if (dir==null) {
+			return;
+		}
+
+		synchronized (this) {
+			for (WatchEvent<?> event : events) {
+				if (event.kind()==StandardWatchEventKinds.OVERFLOW) {
+					changedPaths.add(dir); // Rescan the whole directory
+				}
+				else {
+					changedPaths.add(dir.resolve((Path)event.context()));
+				}
+			}
+			if (config==current && (pendingUpdate==null || pendingUpdate.isDone())) {
+				pendingUpdate = TaskScheduler.get().schedule(
+						TaskScheduler.Lane.INDEXING, TASK_KEY, UPDATE_DELAY,
+						token -> scanChanged(config, token));
+			}
+		}
+
+	}
+
+
+	/**
+	 * Saves the index, if it has changed.
+	 */
+	private void saveIndex() {
+		try {
+			index.save();
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+	}
+
+
+	/**
+	 * Starts finding tasks in files under a set of folders.  Any scanning
+	 * already in progress is stopped first.
+	 *
+	 * @param folders The folders.  If this is empty, scanning is stopped.
+	 * @param identifiers The task identifiers, separated by the
+	 *        '<code>|</code>' character.
+	 * @see #stop()
+	 */
+	synchronized void start(List<File> folders, String identifiers) {
+
+		stop();
+		if (folders.isEmpty()) {
+			return;
+		}
+
+		List<Path> roots = new ArrayList<>();
+		for (File folder : folders) {
+			roots.add(folder.getAbsoluteFile().toPath().normalize());
+		}
+		try {
+			watcher = FileSystems.getDefault().newWatchService();
+		} catch (IOException ioe) {
+			watcher = null; // Changes are found by rescanning periodically
+		}
+		Config config = new Config(roots, identifiers, watcher);
+		current = config;
+
+		TaskScheduler scheduler = TaskScheduler.get();
+		if (watcher!=null) {
+			watchTimer = scheduler.scheduleRepeating(TaskScheduler.Lane.BACKGROUND,
+					WATCH_KEY, WATCH_INTERVAL, WATCH_INTERVAL,
+					token -> pollWatcher(config));
+		}
+		scan = scheduler.submitCoalesced(TaskScheduler.Lane.INDEXING, TASK_KEY,
+				token -> scanAll(config, token));
+		rescanTimer = scheduler.scheduleRepeating(TaskScheduler.Lane.INDEXING,
+				TASK_KEY, RESCAN_INTERVAL, RESCAN_INTERVAL,
+				token -> scanAll(config, token));
+
+	}
+
+
+	/**
+	 * Stops finding tasks.  Tasks already found are still listed in the
+	 * task window.
+	 *
+	 * @see #start(List, String)
+	 */
+	synchronized void stop() {
+
+		current = null;
+		if (scan!=null) {
+			scan.cancel(false);
+			scan = null;
+		}
+		if (pendingUpdate!=null) {
+			pendingUpdate.cancel(false);
+			pendingUpdate = null;
+		}
+		if (rescanTimer!=null) {
+			rescanTimer.cancel(false);
+			rescanTimer = null;
+		}
+		if (watchTimer!=null) {
+			watchTimer.cancel(false);
+			watchTimer = null;
+		}
+		if (watcher!=null) {
+			try {
+				watcher.close();
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+			watcher = null;
+		}
+		watchKeys.clear();
+		changedPaths.clear();
+
+	}
+
+
+	/**
+	 * Scans the files under a directory.  This is called on a worker
+	 * thread.
+	 *
+	 * @param config The scan's configuration.
+	 * @param dir The directory.
+	 * @param seen If not <code>null</code>, receives the path of every
+	 *        file found.
+	 * @param changed Receives the tasks in each file that was scanned.
+	 * @param token Cancelled if the scan is abandoned.
+	 */
+	private void walk(Config config, Path dir, Set<String> seen,
+			Map<String, List<TaskIdentifierMatcher.Match>> changed,
+			CancellationToken token) {
+
+		try {
+			Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+
+				@Override
+				public FileVisitResult preVisitDirectory(Path d, BasicFileAttributes attrs) {
+					if (token.isCancelled() || config!=current) {
+						return FileVisitResult.TERMINATE;
+					}
+					if (!d.equals(dir) && isHidden(d)) {
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+					register(config, d);
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					if (attrs.isRegularFile()) {
+						if (seen!=null) {
+							seen.add(file.toString());
+						}
+						scanFile(config, file, attrs, changed);
+					}
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException ioe) {
+					return FileVisitResult.CONTINUE; // e.g. no permission
+				}
+
+			});
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+
+	}
+
+
+	/**
+	 * Records changes to watched directories reported since the last time
+	 * this was called.  This is called on a worker thread.
+	 *
+	 * @param config The scan's configuration.
+	 */
+	private void pollWatcher(Config config) {
+		try {
+			while (config==current) {
+				WatchKey key = config.watcher.poll();
+				if (key==null) {
+					break;
+				}
+				handleWatchKey(config, key);
+			}
+		} catch (ClosedWatchServiceException cwse) {
+			// Stopped
+		}
+	}
+
+
+	/**
+	 * What a scan looks for, and where.  A new configuration is created
+	 * each time scanning is started, so work done for an old one can be
+	 * recognized and discarded.
+	 */
+	private static final class Config {
+
+		private final List<Path> roots;
+		private final String identifiers;
+		private final TaskIdentifierMatcher matcher;
+		private final WatchService watcher;
+
+		/**
+		 * Whether all tasks have been sent to the task window.  Only used
+		 * by scanning tasks, which run one at a time.
+		 */
+		private boolean published;
+
+		Config(List<Path> roots, String identifiers, WatchService watcher) {
+			this.roots = roots;
+			this.identifiers = identifiers;
+			matcher = new TaskIdentifierMatcher(identifiers);
+			this.watcher = watcher;
+		}
+
+	}
+
+
+}
@@ -26,11 +26,12 @@ import javax.swing.JMenu;
 import javax.swing.JMenuItem;
 
 import org.fife.rtext.CurrentTextAreaEvent;
-import org.fife.rtext.CurrentTextAreaListener;
+import org.fife.rtext.DeferredCurrentTextAreaListener;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextEditorPane;
 import org.fife.rtext.RTextMenuBar;
 import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.StartupTracer;
 import org.fife.ui.OS;
 import org.fife.ui.app.AbstractPluggableGUIApplication;
 import org.fife.ui.app.AbstractPlugin;
@@ -47,7 +48,7 @@ import org.fife.ui.rtextarea.RTextAreaOptionPanel;
  * @version 1.0
  */
 public class Plugin extends AbstractPlugin
-		implements CurrentTextAreaListener {
+		implements DeferredCurrentTextAreaListener {
 
 	private final RText rtext;
 	private TidyAction action;
@@ -75,7 +76,12 @@ public class Plugin extends AbstractPlugin
 	 * @param app The parent application.
 	 */
 	public Plugin(AbstractPluggableGUIApplication<?> app) {
-		this.rtext = (RText)app; // Needed in loadPreferences if error
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "<init>");
+		try {
+			this.rtext = (RText)app; // Needed in loadPreferences if error
+		} finally {
+			span.end();
+		}
 	}
 
 
@@ -225,32 +231,37 @@ public class Plugin extends AbstractPlugin
 	@Override
 	public void install(AbstractPluggableGUIApplication<?> app) {
 
-		PluginPrefs prefs = loadPreferences();
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "install");
+		try {
+			PluginPrefs prefs = loadPreferences();
 
-		RTextMenuBar mb = (RTextMenuBar)rtext.getJMenuBar();
-		JMenu menu = mb.getMenuByName(RTextMenuBar.MENU_EDIT);
+			RTextMenuBar mb = (RTextMenuBar)rtext.getJMenuBar();
+			JMenu menu = mb.getMenuByName(RTextMenuBar.MENU_EDIT);
 
-		action = new TidyAction((RText)app, this);
-		action.setAccelerator(prefs.tidyActionAccelerator);
-		rtext.addAction(TIDY_ACTION, action);
-		action.setEnabled(false); // Gets enabled for appropriate files below
-		possiblyEnableAction();
-		JMenuItem item = new JMenuItem(action);
-		item.setToolTipText(null);
+			action = new TidyAction((RText)app, this);
+			action.setAccelerator(prefs.tidyActionAccelerator);
+			rtext.addAction(TIDY_ACTION, action);
+			action.setEnabled(false); // Gets enabled for appropriate files below
+			possiblyEnableAction();
+			JMenuItem item = new JMenuItem(action);
+			item.setToolTipText(null);
+
+			// On OS X, the "Options" menu item is in the application menu, not
+			// in the Edit menu.
+			if (rtext.getOS()==OS.MAC_OS_X) {
+				menu.addSeparator();
+				menu.add(item);
+			}
+			else {
+				int index = menu.getMenuComponentCount() - 2;
+				menu.insert(item, index);
+				menu.insertSeparator(index);
+			}
 
-		// On OS X, the "Options" menu item is in the application menu, not
-		// in the Edit menu.
-		if (rtext.getOS()==OS.MAC_OS_X) {
-			menu.addSeparator();
-			menu.add(item);
+			rtext.getMainView().addCurrentTextAreaListener(this);
+		} finally {
+			span.end();
 		}
-		else {
-			int index = menu.getMenuComponentCount() - 2;
-			menu.insert(item, index);
-			menu.insertSeparator(index);
-		}
-
-		rtext.getMainView().addCurrentTextAreaListener(this);
 
 	}
 
@@ -13,8 +13,10 @@ import java.awt.event.ActionEvent;
 import javax.swing.JOptionPane;
 import javax.swing.UIManager;
 
+import org.fife.rtext.BulkEdit;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.TextDiff;
 import org.fife.ui.app.AppAction;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
@@ -124,12 +126,10 @@ class TidyAction extends AppAction<RText> {
 				icon = JOptionPane.WARNING_MESSAGE;
 				// Fall through
 			case PrettyPrinter.RESULT_OK:
-				textArea.beginAtomicEdit();
-				try {
-					textArea.setText(result.getText());
-				} finally { // Treat clear and set as 1 operation (!)
-					textArea.endAtomicEdit();
-				}
+				// Only touch changed lines, so undo doesn't keep a copy of
+				// the whole old buffer
+				new BulkEdit(textArea).run(() ->
+						TextDiff.replaceText(textArea, result.getText()));
 				break;
 			case PrettyPrinter.RESULT_ERRORS:
 				icon = JOptionPane.ERROR_MESSAGE;
@@ -18,15 +18,16 @@ import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.fife.io.ProcessRunner;
 import org.fife.io.ProcessRunnerOutputListener;
+import org.fife.rtext.ExternalProcess;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.jfr.ToolEvent;
 
 
 /**
  * An "external tool;" that is, an external process that can be
- * run from RText.  Tools are run in separate threads, and their
+ * run from RText.  Tools are run in the background, and their
  * output captured to be displayed in a docked window.
  *
  * @author Robert Futrell
@@ -43,12 +44,12 @@ public class Tool implements Comparable<Tool> {
 	private boolean appendEnv;
 	private String accelerator; // String to ease serialization
 	private transient RText rtext;
-	private Thread runThread;
+	private ExternalProcess process;
 
 	/**
-	 * Synchronizes access to {@link #runThread}.
+	 * Synchronizes access to {@link #process}.
 	 */
-	private static final Object RUN_THREAD_LOCK = new Object();
+	private static final Object PROCESS_LOCK = new Object();
 
 	private static final Pattern VAR_PATTERN =
 			Pattern.compile("\\$\\{file_(?:name|name_no_ext|dir|full_path)\\}");
@@ -183,7 +184,7 @@ public class Tool implements Comparable<Tool> {
 
 
 	/**
-	 * Runs this tool in a separate thread.
+	 * Runs this tool in the background.
 	 *
 	 * @param l Listens for events as this tool runs.  This may be
 	 *        <code>null</code>.
@@ -191,6 +192,10 @@ public class Tool implements Comparable<Tool> {
 	 */
 	public void execute(final ProcessRunnerOutputListener l) {
 
+		ToolEvent event = new ToolEvent();
+		event.begin();
+		event.setTool(name, program);
+
 		// Replace any ${file_XXX} "variables" in the command line.
 		final String[] cmd = new String[1 + args.size()];
 		cmd[0] = program;
@@ -210,19 +215,38 @@ public class Tool implements Comparable<Tool> {
 			}
 		}
 
-		// Run this tool in a separate thread.
-		synchronized (RUN_THREAD_LOCK) {
-			runThread = new Thread(() -> {
-				ProcessRunner pr = new ProcessRunner(cmd);
-				pr.setDirectory(new File(dir));
-				pr.setEnvironmentVars(env2, appendEnv);
-				pr.setOutputListener(l);
-				pr.run();
-				synchronized (RUN_THREAD_LOCK) {
-					runThread = null;
+		// Run this tool in the background.
+		synchronized (PROCESS_LOCK) {
+			ExternalProcess p = new ExternalProcess(cmd);
+			p.setDirectory(new File(dir));
+			p.setEnvironmentVars(env2, appendEnv);
+			p.setOutputListener(new ProcessRunnerOutputListener() {
+				@Override
+				public void outputWritten(Process proc, String output,
+						boolean stdout) {
+					if (l!=null) {
+						l.outputWritten(proc, output, stdout);
+					}
+				}
+				@Override
+				public void processCompleted(Process proc, int rc, Throwable e) {
+					event.setExitCode(rc);
+					if (e!=null) {
+						event.setFailed(e);
+					}
+					event.commit();
+					synchronized (PROCESS_LOCK) {
+						if (process==p) {
+							process = null;
+						}
+					}
+					if (l!=null) {
+						l.processCompleted(proc, rc, e);
+					}
 				}
 			});
-			runThread.start();
+			process = p;
+			p.start();
 		}
 
 	}
@@ -343,20 +367,16 @@ public class Tool implements Comparable<Tool> {
 
 
 	/**
-	 * Forcibly terminates this tool's external process, if it is running.
+	 * Forcibly terminates this tool's external process, and any processes
+	 * it started, if it is running.  This method does not block.
 	 *
 	 * @return If the process was running and killed.
 	 */
 	public boolean kill() {
-		synchronized (RUN_THREAD_LOCK) {
-			if (runThread!=null) {
-				runThread.interrupt();
-				try { // Be nice, just in case it's finishing up some work
-					runThread.join(1000);
-				} catch (InterruptedException ie) { // No biggie
-					ie.printStackTrace();
-				}
-				runThread = null;
+		synchronized (PROCESS_LOCK) {
+			if (process!=null) {
+				process.kill();
+				process = null;
 				return true;
 			}
 		}
@@ -564,7 +584,7 @@ public class Tool implements Comparable<Tool> {
 		tool.execute(new ProcessRunnerOutputListener() {
 			@Override
 			public void outputWritten(Process p, String output, boolean stdout){
-				System.out.println(output);
+				System.out.print(output);
 			}
 			@Override
 			public void processCompleted(Process p, int rc, Throwable e) {
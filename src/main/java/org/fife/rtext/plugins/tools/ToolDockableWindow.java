@@ -117,21 +117,7 @@ public class ToolDockableWindow extends DockableWindow
 	 * @param style The style to apply to the text.
 	 */
 	private void appendWithStyle(String text, Style style) {
-
-		// The user can move the caret and type (stdin) so always append
-		// to the end of the document.
-		final StyledDocument doc = (StyledDocument)textArea.getDocument();
-		int end = doc.getLength();
-		try {
-			// Thread safe since we're using an AbstractDocument
-			doc.insertString(end, text + "\n", style);
-			//doc.setLogicalStyle(doc.getLength()-1, style);
-		} catch (BadLocationException ble) {
-			ble.printStackTrace();
-		}
-
-		SwingUtilities.invokeLater(() -> textArea.setCaretPosition(doc.getLength()));
-
+		insertWithStyle(text + "\n", style);
 	}
 
 
@@ -165,6 +151,33 @@ public class ToolDockableWindow extends DockableWindow
 	}
 
 
+	/**
+	 * Inserts text at the end of the output text component with a given
+	 * style.  Unlike {@link #appendWithStyle(String, Style)}, no newline is
+	 * added.
+	 *
+	 * @param text The text to insert.
+	 * @param style The style to apply to the text.
+	 */
+	private void insertWithStyle(String text, Style style) {
+
+		// The user can move the caret and type (stdin) so always append
+		// to the end of the document.
+		final StyledDocument doc = (StyledDocument)textArea.getDocument();
+		int end = doc.getLength();
+		try {
+			// Thread safe since we're using an AbstractDocument
+			doc.insertString(end, text, style);
+			//doc.setLogicalStyle(doc.getLength()-1, style);
+		} catch (BadLocationException ble) {
+			ble.printStackTrace();
+		}
+
+		SwingUtilities.invokeLater(() -> textArea.setCaretPosition(doc.getLength()));
+
+	}
+
+
 	/**
 	 * Returns whether a special style is used for a given type of text in
 	 * the consoles.
@@ -197,7 +210,8 @@ public class ToolDockableWindow extends DockableWindow
 	public void outputWritten(Process p, String output, boolean stdout) {
 		Style style = textArea.getStyle(stdout ?
 				OutputTextPane.STYLE_STDOUT : OutputTextPane.STYLE_STDERR);
-		appendWithStyle(output, style); // thread safe Swing calls
+		// Output keeps its own line terminators
+		insertWithStyle(output, style); // thread safe Swing calls
 	}
 
 
@@ -27,6 +27,7 @@ import javax.swing.JMenuItem;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextMenuBar;
 import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.StartupTracer;
 import org.fife.ui.ImageTranscodingUtil;
 import org.fife.ui.app.AbstractPluggableGUIApplication;
 import org.fife.ui.app.GUIPlugin;
@@ -65,30 +66,35 @@ public class ToolPlugin extends GUIPlugin implements PropertyChangeListener {
 	 */
 	public ToolPlugin(AbstractPluggableGUIApplication<?> app) {
 
-		RText rtext = (RText)app;
-		this.app = rtext;
-		loadIcons();
-		ToolsPrefs prefs = loadPrefs();
-
-		AppAction<RText> a = new NewToolAction(rtext, MSG, null);
-		a.setIcon(getPluginIcon());
-		a.setAccelerator(prefs.newToolAccelerator);
-		rtext.addAction(NEW_TOOL_ACTION, a);
-
-		a = new EditToolsAction(rtext, MSG, null);
-		a.setAccelerator(prefs.editToolsAccelerator);
-		rtext.addAction(EDIT_TOOLS_ACTION, a);
-
-		a = new ViewToolOutputAction(rtext, MSG, this);
-		a.setAccelerator(prefs.windowVisibilityAccelerator);
-		rtext.addAction(VIEW_TOOL_OUTPUT_ACTION, a);
-
-		// Current design forces the dockable window to always be created,
-		// even if it isn't initially visible
-		ToolDockableWindow window = new ToolDockableWindow(this);
-		window.setPosition(prefs.windowPosition);
-		window.setActive(prefs.windowVisible);
-		putDockableWindow(DOCKABLE_WINDOW_TOOLS, window);
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "<init>");
+		try {
+			RText rtext = (RText)app;
+			this.app = rtext;
+			loadIcons();
+			ToolsPrefs prefs = loadPrefs();
+
+			AppAction<RText> a = new NewToolAction(rtext, MSG, null);
+			a.setIcon(getPluginIcon());
+			a.setAccelerator(prefs.newToolAccelerator);
+			rtext.addAction(NEW_TOOL_ACTION, a);
+
+			a = new EditToolsAction(rtext, MSG, null);
+			a.setAccelerator(prefs.editToolsAccelerator);
+			rtext.addAction(EDIT_TOOLS_ACTION, a);
+
+			a = new ViewToolOutputAction(rtext, MSG, this);
+			a.setAccelerator(prefs.windowVisibilityAccelerator);
+			rtext.addAction(VIEW_TOOL_OUTPUT_ACTION, a);
+
+			// Current design forces the dockable window to always be created,
+			// even if it isn't initially visible
+			ToolDockableWindow window = new ToolDockableWindow(this);
+			window.setPosition(prefs.windowPosition);
+			window.setActive(prefs.windowVisible);
+			putDockableWindow(DOCKABLE_WINDOW_TOOLS, window);
+		} finally {
+			span.end();
+		}
 
 	}
 
@@ -202,31 +208,36 @@ public class ToolPlugin extends GUIPlugin implements PropertyChangeListener {
 	@Override
 	public void install(AbstractPluggableGUIApplication<?> app) {
 
-		ToolManager.get().addPropertyChangeListener(ToolManager.PROPERTY_TOOLS,
-													this);
-
-		// Add a new menu for selecting tools
-		RText rtext = (RText)app;
-		MenuBar mb = (org.fife.ui.app.MenuBar)rtext.getJMenuBar();
-		toolsMenu = new JMenu(MSG.getString("Plugin.Name"));
-		Action a = rtext.getAction(ToolPlugin.NEW_TOOL_ACTION);
-		toolsMenu.add(createMenuItem(a));
-		a = rtext.getAction(ToolPlugin.EDIT_TOOLS_ACTION);
-		toolsMenu.add(createMenuItem(a));
-		toolsMenu.addSeparator();
-		mb.addExtraMenu(toolsMenu);
-		mb.revalidate();
-
-		// Add an item to the "View" menu to toggle tool output visibility
-		final JMenu menu = mb.getMenuByName(RTextMenuBar.MENU_DOCKED_WINDOWS);
-		a = rtext.getAction(VIEW_TOOL_OUTPUT_ACTION);
-		final JCheckBoxMenuItem item = new JCheckBoxMenuItem(a);
-		item.setToolTipText(null);
-		item.setSelected(isToolOutputWindowVisible());
-		item.applyComponentOrientation(app.getComponentOrientation());
-		menu.add(item);
-
-		loadTools(); // Do after menu has been added
+		StartupTracer.Span span = StartupTracer.get().beginPlugin(this, "install");
+		try {
+			ToolManager.get().addPropertyChangeListener(ToolManager.PROPERTY_TOOLS,
+														this);
+
+			// Add a new menu for selecting tools
+			RText rtext = (RText)app;
+			MenuBar mb = (org.fife.ui.app.MenuBar)rtext.getJMenuBar();
+			toolsMenu = new JMenu(MSG.getString("Plugin.Name"));
+			Action a = rtext.getAction(ToolPlugin.NEW_TOOL_ACTION);
+			toolsMenu.add(createMenuItem(a));
+			a = rtext.getAction(ToolPlugin.EDIT_TOOLS_ACTION);
+			toolsMenu.add(createMenuItem(a));
+			toolsMenu.addSeparator();
+			mb.addExtraMenu(toolsMenu);
+			mb.revalidate();
+
+			// Add an item to the "View" menu to toggle tool output visibility
+			final JMenu menu = mb.getMenuByName(RTextMenuBar.MENU_DOCKED_WINDOWS);
+			a = rtext.getAction(VIEW_TOOL_OUTPUT_ACTION);
+			final JCheckBoxMenuItem item = new JCheckBoxMenuItem(a);
+			item.setToolTipText(null);
+			item.setSelected(isToolOutputWindowVisible());
+			item.applyComponentOrientation(app.getComponentOrientation());
+			menu.add(item);
+
+			loadTools(); // Do after menu has been added
+		} finally {
+			span.end();
+		}
 
 	}
 
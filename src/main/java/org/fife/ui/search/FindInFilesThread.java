@@ -25,6 +25,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
+import javax.swing.text.BadLocationException;
 import javax.swing.text.Document;
 import javax.swing.text.Element;
 import javax.swing.text.Segment;
@@ -32,23 +33,30 @@ import javax.swing.text.Segment;
 import org.fife.io.UnicodeReader;
 import org.fife.rsta.ui.search.FindDialog;
 import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.CancellationToken;
 import org.fife.rtext.RText;
-import org.fife.ui.GUIWorkerThread;
+import org.fife.rtext.TaskScheduler;
+import org.fife.rtext.jfr.SearchFileEvent;
+import org.fife.rtext.jfr.SearchRunEvent;
 import org.fife.ui.OS;
 import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
 import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
 import org.fife.ui.rsyntaxtextarea.Token;
+import org.fife.ui.rsyntaxtextarea.TokenMaker;
+import org.fife.ui.rsyntaxtextarea.TokenMakerFactory;
 import org.fife.ui.rtextarea.RTextArea;
 
 
 /**
- * A thread created by a <code>FindInFilesDialog</code> to do the searching.
+ * A task created by a <code>FindInFilesDialog</code> to do the searching.
+ * It runs on the {@link TaskScheduler}'s interactive lane, since the user
+ * is waiting on its results.
  *
  * @author Robert Futrell
  * @version 1.0
  * @see FindInFilesDialog
  */
-class FindInFilesThread extends GUIWorkerThread<Object> {
+class FindInFilesThread implements TaskScheduler.Task {
 
 	protected static final String NO_LINE_NUMBER	= "--";
 
@@ -64,6 +72,30 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	protected String newFilesToExamineString;
 	protected String occurrencesString;
 
+	private TokenMaker windowTokenMaker;
+	private String windowTokenMakerStyle;
+
+	private TaskScheduler.ScheduledTask task;
+	private volatile CancellationToken cancelToken;
+
+	/**
+	 * The most characters of a line shown in the results.  HTML rendering
+	 * in Swing is very slow, and we've also seen OOME's from trying to
+	 * render lines that were too long in the Find in Files table.
+	 */
+	private static final int MAX_HTML_LENGTH = 1280;
+
+	/**
+	 * Lines longer than this have only a window around the match
+	 * tokenized, rather than the entire line.
+	 */
+	private static final int LONG_LINE_LENGTH = 4 * MAX_HTML_LENGTH;
+
+	/**
+	 * How much text before a match in a long line is shown.
+	 */
+	private static final int WINDOW_LEAD = 80;
+
 //	private static final Pattern TAB_PATTERN	= Pattern.compile("\\t");
 
 
@@ -114,11 +146,61 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	}
 
 
+	/**
+	 * Stops the search.  The search stops before the next file is
+	 * searched.
+	 *
+	 * @see #start()
+	 */
+	void interrupt() {
+		// If the search hasn't started, it never will, so end it here
+		if (task!=null && task.cancel(false) && cancelToken==null) {
+			dialog.searchCompleted(dialog.getString2("SearchTerminated"));
+		}
+	}
+
+
+	/**
+	 * Returns whether the user has canceled the search.  This is called on
+	 * the worker thread.
+	 *
+	 * @return Whether the search was canceled.
+	 */
+	protected boolean isCanceled() {
+		CancellationToken t = cancelToken;
+		return t!=null && t.isCancelled();
+	}
+
+
 	/**
 	 * Runs the search.
+	 *
+	 * @param token Cancelled if the user stops the search.
 	 */
 	@Override
-	public Object construct() {
+	public void run(CancellationToken token) {
+		cancelToken = token;
+		SearchRunEvent event = new SearchRunEvent();
+		event.begin();
+		event.setDirectory(directory.getAbsolutePath());
+		event.setRegex(dialog.getUseRegEx());
+		try {
+			search(event);
+		} catch (RuntimeException re) {
+			event.setFailed(re);
+			throw re;
+		} finally {
+			event.commit();
+		}
+	}
+
+
+	/**
+	 * Searches the files.  This is called on the worker thread.
+	 *
+	 * @param event Records the search, and each file's matches.
+	 */
+	protected void search(SearchRunEvent event) {
 
 		RText parent = (RText)dialog.getOwner();
 		AbstractMainView view = parent.getMainView();
@@ -128,7 +210,8 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 		Pattern[] filterStrings = getFilterStrings();
 		if (filterStrings==null) {
 			dialog.searchCompleted("");
-			return null;
+			event.setFailed("No file filters");
+			return;
 		}
 
 		// Then, do the search.
@@ -157,9 +240,10 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 		for (int i=0; i<numFiles; i++) {
 
 			// If the user canceled the search...
-			if (Thread.currentThread().isInterrupted()) {
+			if (isCanceled()) {
 				dialog.searchCompleted(dialog.getString2("SearchTerminated"));
-				return null;
+				event.setCancelled();
+				return;
 			}
 
 			File temp = fileList.get(i);
@@ -183,6 +267,9 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 				// Note that this method postpones the update to the EDT.
 				dialog.setStatusText(searchingFile + i + "/" + numFiles +
 								": " + fileFullPath);
+				SearchFileEvent fileEvent = new SearchFileEvent();
+				fileEvent.begin();
+				fileEvent.setFile(fileFullPath, temp.length());
 
 				try {
 					// Use a UnicodeReader to auto-detect whether this
@@ -205,6 +292,8 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 					MatchData data = createErrorMatchData(fileFullPath,
 								"IOException reading file: " + ioe);
 					dialog.addMatchData(data);
+					fileEvent.setFailed(ioe);
+					fileEvent.commit();
 					continue;
 				} catch (OutOfMemoryError oome) {
 					MatchData data = createErrorMatchData(fileFullPath,
@@ -213,30 +302,37 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 					// Bail out.
 					dialog.searchCompleted(
 							System.currentTimeMillis() - startMillis);
-					return null;
+					event.setFailed(oome);
+					return;
 				}
 
 				String buffer = textArea.getText();
 
 				// If we got some text out of the file...
 				if (buffer!=null) {
+					int matches;
 					try {
 						if (useRegex) {
-							doSearchRegex(buffer, searchString, textArea,
-								matchCase, wholeWord, matchingLines,
+							matches = doSearchRegex(buffer, searchString,
+								textArea, matchCase, wholeWord, matchingLines,
 								fileFullPath, seg);
 						}
 						else {
-							doSearchNoRegex(buffer, searchString, textArea,
-								matchCase, wholeWord, matchingLines,
+							matches = doSearchNoRegex(buffer, searchString,
+								textArea, matchCase, wholeWord, matchingLines,
 								fileFullPath, seg);
 						}
 					} catch (Exception e) {
 						// Shouldn't happen...
 						e.printStackTrace();
+						fileEvent.setFailed(e);
+						fileEvent.commit();
 						continue;
 					}
+					fileEvent.setMatches(matches);
+					event.addFile(matches);
 				}
+				fileEvent.commit();
 
 			} // End of if (temp.isFile()).
 
@@ -284,15 +380,16 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 		} // End of for (int i=0; i<numFiles; i++).
 
 		dialog.searchCompleted(System.currentTimeMillis() - startMillis);
-		return null;
 
 	}
 
 
 	/**
 	 * Performs a non-regex "Find in Files" operation on a single file.
+	 *
+	 * @return The number of matches.
 	 */
-	private void doSearchNoRegex(String buffer, String searchString,
+	private int doSearchNoRegex(String buffer, String searchString,
 							RSyntaxTextArea textArea,
 							boolean matchCase, boolean wholeWord,
 							boolean matchingLines, String fileFullPath,
@@ -327,8 +424,7 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 					elem = map.getElement(line);
 					lineEnd = line==lineCount-1 ? elem.getEndOffset()-1 :
 											elem.getEndOffset();
-					Token t = textArea.getTokenListForLine(line);
-					lineText = getHtml(t, textArea);
+					lineText = getHtml(textArea, line, i);
 					dialog.addMatchData(new MatchData(fileFullPath,
 									Integer.toString(line+1), lineText));
 					// Since a single line may have more than one match,
@@ -361,13 +457,17 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 			dialog.addMatchData(data);
 		}
 
+		return numMatches;
+
 	}
 
 
 	/**
 	 * Performs a regex "Find in Files" operation on a single file.
+	 *
+	 * @return The number of matches.
 	 */
-	private void doSearchRegex(String buffer, String searchString,
+	private int doSearchRegex(String buffer, String searchString,
 							RSyntaxTextArea textArea, boolean matchCase,
 							boolean wholeWord, boolean matchingLines,
 							String fileFullPath, Segment seg) {
@@ -405,8 +505,7 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 					}
 					lastStartLine = startLine;
 					int endLine = map.getElementIndex(end);
-					Token t = textArea.getTokenListForLine(startLine);
-					String text = getHtml(t, textArea);
+					String text = getHtml(textArea, startLine, start);
 
 					// Add an item to our results.
 					boolean oneLine = startLine==endLine;
@@ -436,6 +535,8 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 			dialog.addMatchData(data);
 		}
 
+		return numMatches;
+
 	}
 
 
@@ -486,23 +587,53 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	}
 
 
+	/**
+	 * Gets an HTML string for the line containing a match.  Long lines
+	 * (such as those in minified files) only have a window of text around
+	 * the match tokenized, so that results are fast to compute.
+	 *
+	 * @param textArea The text area containing the file searched.
+	 * @param line The line containing the match.
+	 * @param offs The offset of the match.
+	 * @return The HTML.
+	 */
+	private String getHtml(RSyntaxTextArea textArea, int line, int offs) {
+
+		Element elem = textArea.getDocument().getDefaultRootElement().
+				getElement(line);
+		int lineStart = elem.getStartOffset();
+		int lineEnd = elem.getEndOffset() - 1;
+		if (lineEnd-lineStart<=LONG_LINE_LENGTH) {
+			return getHtml(textArea.getTokenListForLine(line), textArea, false);
+		}
+
+		int start = Math.max(lineStart, offs - WINDOW_LEAD);
+		int end = Math.min(lineEnd, start + MAX_HTML_LENGTH);
+		Token t = getTokenListForWindow(textArea, start, end);
+		return getHtml(t, textArea, start>lineStart);
+
+	}
+
+
 	/**
 	 * Gets an HTML string for a token list, stripping off leading whitespace.
 	 *
 	 * @param t The beginning of the token list.
 	 * @param textArea The text area to get the highlighting information from.
+	 * @param truncated Whether the token list starts partway into its line.
 	 * @return The HTML.
 	 */
-	private static String getHtml(Token t, RSyntaxTextArea textArea) {
+	private static String getHtml(Token t, RSyntaxTextArea textArea,
+								boolean truncated) {
 
-		// HTML rendering in Swing is very slow, and we've also seen OOME's
-		// from trying render lines that were too long in the Find in Files
-		// table, so we'll limit how much we display.
-		final int maxLen = 1280;
+		final int maxLen = MAX_HTML_LENGTH;
 
 		Font font = RTextArea.getDefaultFont();
 		String fontFamily = font.getFamily();
 		StringBuilder sb = new StringBuilder("<html><nobr><font face=\"" + fontFamily + "\">");
+		if (truncated) {
+			sb.append("...");
+		}
 		boolean firstNonWhitespace = false; // Skip leading whitespace
 
 		while (t!=null && t.isPaintable() && sb.length()<maxLen) {
@@ -521,6 +652,39 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	}
 
 
+	/**
+	 * Tokenizes part of a line.  Since tokenizing starts partway through the
+	 * line, the highlighting may not match the editor's (for example, if
+	 * the window starts inside a string literal), but that's fine for a
+	 * preview.
+	 *
+	 * @param textArea The text area containing the file searched.
+	 * @param start The start offset of the text to tokenize.
+	 * @param end The end offset of the text to tokenize.
+	 * @return The tokens.
+	 */
+	private Token getTokenListForWindow(RSyntaxTextArea textArea, int start,
+										int end) {
+
+		String style = textArea.getSyntaxEditingStyle();
+		if (!style.equals(windowTokenMakerStyle)) {
+			windowTokenMaker = TokenMakerFactory.getDefaultInstance().
+					getTokenMaker(style);
+			windowTokenMakerStyle = style;
+		}
+
+		Segment seg = new Segment();
+		try {
+			textArea.getDocument().getText(start, end-start, seg);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			return null;
+		}
+		return windowTokenMaker.getTokenList(seg, Token.NULL, start);
+
+	}
+
+
 	/**
 	 * Converts a <code>String</code> representing a wildcard file filter into
 	 * another <code>String</code> containing a regular expression good for
@@ -580,4 +744,15 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	}
 
 
+	/**
+	 * Starts the search.
+	 *
+	 * @see #interrupt()
+	 */
+	void start() {
+		task = TaskScheduler.get().submit(TaskScheduler.Lane.INTERACTIVE,
+				null, this);
+	}
+
+
 }
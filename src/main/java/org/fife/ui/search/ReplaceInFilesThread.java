@@ -16,6 +16,8 @@ import java.util.regex.*;
 
 import org.fife.io.*;
 import org.fife.rsta.ui.search.FindDialog;
+import org.fife.rtext.jfr.SearchFileEvent;
+import org.fife.rtext.jfr.SearchRunEvent;
 import org.fife.ui.rtextarea.SearchEngine;
 
 
@@ -41,17 +43,22 @@ class ReplaceInFilesThread extends FindInFilesThread {
 
 
 	/**
-	 * Runs the search.
+	 * Replaces in the files.  This is called on the worker thread.
+	 *
+	 * @param event Records the search, and each file's replacements.
 	 */
 	@Override
-	public Object construct() {
+	protected void search(SearchRunEvent event) {
+
+		event.setReplace(true);
 
 		// Get the string to search for and filters for the files to search.
 		String searchString = dialog.getSearchString();
 		Pattern[] filterStrings = getFilterStrings();
 		if (filterStrings==null) {
 			dialog.searchCompleted("");
-			return null;
+			event.setFailed("No file filters");
+			return;
 		}
 
 		// Then, do the search.
@@ -80,9 +87,10 @@ class ReplaceInFilesThread extends FindInFilesThread {
 		for (int i=0; i<numFiles; i++) {
 
 			// If the user canceled the search...
-			if (Thread.currentThread().isInterrupted()) {
+			if (isCanceled()) {
 				dialog.searchCompleted(dialog.getString2("SearchTerminated"));
-				return null;
+				event.setCancelled();
+				return;
 			}
 
 			File temp = fileList.get(i);
@@ -106,6 +114,10 @@ class ReplaceInFilesThread extends FindInFilesThread {
 				// Note that this method postpones the update to the EDT.
 				dialog.setStatusText(searchingFile + i + "/" + numFiles +
 								": " + fileFullPath);
+				SearchFileEvent fileEvent = new SearchFileEvent();
+				fileEvent.begin();
+				fileEvent.setFile(fileFullPath, temp.length());
+				fileEvent.setReplace(true);
 				String encoding;
 
 				try {
@@ -127,6 +139,8 @@ class ReplaceInFilesThread extends FindInFilesThread {
 					MatchData data = createErrorMatchData(fileFullPath,
 								"IOException reading file: " + ioe);
 					dialog.addMatchData(data);
+					fileEvent.setFailed(ioe);
+					fileEvent.commit();
 					continue;
 				} catch (OutOfMemoryError oome) {
 					MatchData data = createErrorMatchData(fileFullPath,
@@ -135,7 +149,8 @@ class ReplaceInFilesThread extends FindInFilesThread {
 					// Bail out.
 					dialog.searchCompleted(
 							System.currentTimeMillis() - startMillis);
-					return null;
+					event.setFailed(oome);
+					return;
 				}
 
 				// If we got some text out of the file...
@@ -179,15 +194,20 @@ class ReplaceInFilesThread extends FindInFilesThread {
 							dialog.addMatchData(data);
 						}
 
+						fileEvent.setMatches(repCount);
+						event.addFile(repCount);
+
 					} catch (/*IO*/Exception ioe) {
 						ioe.printStackTrace();
 						String desc = ioe.getMessage();
 						MatchData data = createErrorMatchData(
 										fileFullPath, desc);
 						dialog.addMatchData(data);
+						fileEvent.setFailed(ioe);
 					}
 
 				}
+				fileEvent.commit();
 
 			} // End of if (temp.isFile()).
 
@@ -235,7 +255,6 @@ class ReplaceInFilesThread extends FindInFilesThread {
 		} // End of for (int i=0; i<numFiles; i++).
 
 		dialog.searchCompleted(System.currentTimeMillis() - startMillis);
-		return null;
 
 	}
 